@@ -0,0 +1,91 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.AvlTree;
+import com.oop.visualgo.model.AvlTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Same workloads and parameters as RedBlackTreeBenchmark, so the two balanced engines compare directly
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class AvlTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private AvlTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        tree = build();
+    }
+
+    private AvlTree<Integer> build() {
+        AvlTree<Integer> avl = new AvlTree<>();
+        for (int key : keys) {
+            avl.insert(key);
+        }
+        return avl;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AvlTree<Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    public AvlTreeNode<Integer> search() {
+        return tree.search(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<AvlTreeNode<Integer>> traverseInOrder() {
+        return tree.traverseInOrder();
+    }
+
+    // AvlTree has no traverseDFS(); pre-order is the equivalent depth-first walk
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<AvlTreeNode<Integer>> traverseDFS() {
+        return tree.traversePreOrder();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<AvlTreeNode<Integer>> traverseBFS() {
+        return tree.traverseBFS();
+    }
+}
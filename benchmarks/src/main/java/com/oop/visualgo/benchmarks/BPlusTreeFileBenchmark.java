@@ -0,0 +1,90 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.BPlusTreeFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Same workloads as BTreeBenchmark, with the pages in a memory-mapped temp file instead of on the heap
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BPlusTreeFileBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    @Param({"4096"})
+    public int pageSize;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private Path file;
+    private BPlusTreeFile tree;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        file = Files.createTempFile("visualgo-bench", ".db");
+        tree = BPlusTreeFile.create(file, pageSize);
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        tree.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tree.close();
+        Files.deleteIfExists(file);
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    public boolean search() {
+        return tree.contains(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    // Scan of 100 consecutive keys starting at a random probe, following the leaf chain
+    @Benchmark
+    public int[] range() {
+        int lo = nextProbe();
+        return tree.range(lo, lo + 99);
+    }
+
+    // Reopening reads only the header page, whatever the tree size
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long reopen() throws IOException {
+        tree.close();
+        tree = BPlusTreeFile.open(file);
+        return tree.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.BTree;
+import com.oop.visualgo.model.BTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Same workloads as IntRedBlackTreeBenchmark; order trades node width (binary search in one int[]) against height
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    @Param({"16", "64", "256"})
+    public int treeOrder;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private BTree tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        tree = build();
+    }
+
+    private BTree build() {
+        BTree bTree = new BTree(treeOrder);
+        for (int key : keys) {
+            bTree.insert(key);
+        }
+        return bTree;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BTree insert() {
+        return build();
+    }
+
+    @Benchmark
+    public BTreeNode search() {
+        return tree.search(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    // Scan of 100 consecutive keys starting at a random probe
+    @Benchmark
+    public int[] range() {
+        int lo = nextProbe();
+        return tree.range(lo, lo + 99);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] traverseInOrder() {
+        return tree.traverseInOrder();
+    }
+}
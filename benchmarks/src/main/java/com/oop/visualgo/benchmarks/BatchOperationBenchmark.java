@@ -0,0 +1,105 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.BinarySearchTree;
+import com.oop.visualgo.model.RedBlackTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * insertAll/deleteAll against one insert/delete per key, for clustered batches: each batch is a run of
+ * consecutive odd keys in a tree holding the even keys, shuffled the way an ingestion batch arrives.
+ * Every invocation inserts the batch and removes it again, so the tree keeps its size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BatchOperationBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"100", "1000", "10000"})
+    public int batchSize;
+
+    private List<List<Integer>> batches;
+    private int cursor;
+    private BinarySearchTree<Integer> bst;
+    private RedBlackTree<Integer> rbTree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Integer> evens = new ArrayList<>(size);
+        for (int key : Workloads.keys(KeyOrder.RANDOM, size)) {
+            evens.add(2 * key);
+        }
+        bst = BinarySearchTree.bulkLoad(evens);
+        rbTree = RedBlackTree.bulkLoad(evens);
+
+        SplittableRandom random = new SplittableRandom(Workloads.SEED);
+        batches = new ArrayList<>();
+        for (int b = 0; b < 64; b++) {
+            int start = random.nextInt(Math.max(1, size - batchSize));
+            int[] run = new int[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                run[i] = 2 * (start + i) + 1;
+            }
+            batches.add(Arrays.stream(Workloads.probes(run)).boxed().toList());
+        }
+    }
+
+    private List<Integer> nextBatch() {
+        List<Integer> batch = batches.get(cursor);
+        if (++cursor == batches.size()) {
+            cursor = 0;
+        }
+        return batch;
+    }
+
+    @Benchmark
+    public int bstInsertEach() {
+        List<Integer> batch = nextBatch();
+        for (int key : batch) {
+            bst.insert(key);
+        }
+        int removed = 0;
+        for (int key : batch) {
+            if (bst.delete(key)) removed++;
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public int bstInsertAll() {
+        List<Integer> batch = nextBatch();
+        bst.insertAll(batch);
+        return bst.deleteAll(batch);
+    }
+
+    @Benchmark
+    public int redBlackInsertEach() {
+        List<Integer> batch = nextBatch();
+        for (int key : batch) {
+            rbTree.insert(key);
+        }
+        int removed = 0;
+        for (int key : batch) {
+            if (rbTree.delete(key)) removed++;
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public int redBlackInsertAll() {
+        List<Integer> batch = nextBatch();
+        rbTree.insertAll(batch);
+        return rbTree.deleteAll(batch);
+    }
+}
@@ -0,0 +1,91 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.BinarySearchTree;
+import com.oop.visualgo.model.BinaryTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BinarySearchTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private BinarySearchTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without rebalancing, sorted input turns the tree into a linked list
+        Workloads.requireTractable(order != KeyOrder.RANDOM, size, "BinarySearchTree with " + order + " keys");
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        tree = build();
+    }
+
+    private BinarySearchTree<Integer> build() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        for (int key : keys) {
+            bst.insert(key);
+        }
+        return bst;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BinarySearchTree<Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    public BinaryTreeNode<Integer> search() {
+        return tree.search(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<BinaryTreeNode<Integer>> traverseInOrder() {
+        return tree.traverseInOrder();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<BinaryTreeNode<Integer>> traverseDFS() {
+        return tree.traverseDFS();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<BinaryTreeNode<Integer>> traverseBFS() {
+        return tree.traverseBFS();
+    }
+}
@@ -0,0 +1,96 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.BinaryTree;
+import com.oop.visualgo.model.BinaryTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BinaryTree fills levels left to right, so key order only changes which values sit where;
+ * the shape is always a complete tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BinaryTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    // With the value index, delete finds a unique key in O(1) instead of scanning the level-order array
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private BinaryTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        tree = build();
+    }
+
+    private BinaryTree<Integer> build() {
+        BinaryTree<Integer> binaryTree = new BinaryTree<>();
+        // Without the level-order index every insert(T) walks the tree and the build is quadratic
+        binaryTree.enableLevelOrderIndex();
+        if (indexed) {
+            binaryTree.enableIndex();
+        }
+        for (int key : keys) {
+            binaryTree.insert(key);
+        }
+        return binaryTree;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BinaryTree<Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    public BinaryTreeNode<Integer> search() {
+        return tree.search(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<BinaryTreeNode<Integer>> traverseDFS() {
+        return tree.traverseDFS();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<BinaryTreeNode<Integer>> traverseBFS() {
+        return tree.traverseBFS();
+    }
+}
@@ -0,0 +1,71 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.ConcurrentRedBlackTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared-tree throughput under a mixed read/write load. Set the thread count with -t, e.g.
+ * {@code for t in 1 2 4 8 16 32 64; do java -jar target/benchmarks.jar ConcurrentRedBlackTree -t $t; done}.
+ * Keys are drawn from [0, 2 * size) and the tree starts with every even key, so with inserts and
+ * deletes in equal proportion it stays at about size entries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ConcurrentRedBlackTreeBenchmark {
+
+    public enum Engine {
+        STAMPED_RED_BLACK_TREE,
+        CONCURRENT_SKIP_LIST // java.util.concurrent baseline
+    }
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"0", "10", "50"})
+    public int writePercent;
+
+    @Param({"STAMPED_RED_BLACK_TREE", "CONCURRENT_SKIP_LIST"})
+    public Engine engine;
+
+    private ConcurrentRedBlackTree<Integer> tree;
+    private ConcurrentSkipListSet<Integer> skipList;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new ConcurrentRedBlackTree<>();
+        skipList = new ConcurrentSkipListSet<>();
+        for (int key : Workloads.keys(KeyOrder.RANDOM, size)) {
+            if (engine == Engine.STAMPED_RED_BLACK_TREE) {
+                tree.insert(2 * key);
+            } else {
+                skipList.add(2 * key);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean mixed(ThreadState state) {
+        int key = state.random.nextInt(2 * size);
+        int dice = state.random.nextInt(200);
+        if (dice < writePercent) {
+            return (engine == Engine.STAMPED_RED_BLACK_TREE) ? tree.insertIfAbsent(key) : skipList.add(key);
+        }
+        if (dice < 2 * writePercent) {
+            return (engine == Engine.STAMPED_RED_BLACK_TREE) ? tree.delete(key) : skipList.remove(key);
+        }
+        return (engine == Engine.STAMPED_RED_BLACK_TREE) ? tree.contains(key) : skipList.contains(key);
+    }
+}
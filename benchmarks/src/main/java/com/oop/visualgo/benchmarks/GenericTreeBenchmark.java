@@ -0,0 +1,107 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.GenericTree;
+import com.oop.visualgo.model.GenericTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every key is attached under a random earlier key, the same way the visualizer grows a generic tree.
+ * The parent choices are seeded, so each build produces the same shape.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class GenericTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    // With the value index, parent lookups are O(1) and the build is linear
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private int[] keys;
+    private int[] parents;
+    private int[] probes;
+    private int cursor;
+    private GenericTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without the index, insert(value, parentValue) looks the parent up with a full DFS
+        Workloads.requireTractable(!indexed, size, "GenericTree insert by parent value");
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        parents = new int[size];
+        SplittableRandom random = new SplittableRandom(Workloads.SEED);
+        for (int i = 1; i < size; i++) {
+            parents[i] = keys[random.nextInt(i)];
+        }
+        tree = build();
+    }
+
+    private GenericTree<Integer> build() {
+        GenericTree<Integer> genericTree = new GenericTree<>();
+        if (indexed) {
+            genericTree.enableIndex();
+        }
+        genericTree.insert(keys[0], null);
+        for (int i = 1; i < keys.length; i++) {
+            genericTree.insert(keys[i], parents[i]);
+        }
+        return genericTree;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GenericTree<Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    public GenericTreeNode<Integer> search() {
+        return tree.search(nextProbe());
+    }
+
+    /**
+     * Deleting a node hands its children to its parent; the key is re-inserted under the root
+     * so the node count stays constant. The shape flattens over time, which is noted in the results.
+     */
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key, tree.getRoot().getValue());
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<GenericTreeNode<Integer>> traverseDFS() {
+        return tree.traverseDFS();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<GenericTreeNode<Integer>> traverseBFS() {
+        return tree.traverseBFS();
+    }
+}
@@ -0,0 +1,96 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.IntRedBlackTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same workloads as {@link RedBlackTreeBenchmark}, on the array-backed primitive engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class IntRedBlackTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private IntRedBlackTree tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        tree = build();
+    }
+
+    private IntRedBlackTree build() {
+        IntRedBlackTree rb = new IntRedBlackTree();
+        for (int key : keys) {
+            rb.insert(key);
+        }
+        return rb;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public IntRedBlackTree insert() {
+        return build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public IntRedBlackTree bulkLoad() {
+        return IntRedBlackTree.bulkLoad(keys);
+    }
+
+    @Benchmark
+    public int search() {
+        return tree.search(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] traverseInOrder() {
+        return tree.traverseInOrder();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] traverseDFS() {
+        return tree.traversePreOrder();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] traverseBFS() {
+        return tree.traverseBFS();
+    }
+}
@@ -0,0 +1,11 @@
+package com.oop.visualgo.benchmarks;
+
+/**
+ * Order in which keys are fed to a tree while it is being built.
+ * SORTED and REVERSE_SORTED are the worst case for the unbalanced {@code BinarySearchTree}.
+ */
+public enum KeyOrder {
+    RANDOM,
+    SORTED,
+    REVERSE_SORTED
+}
@@ -0,0 +1,112 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.ConcurrentRedBlackTree;
+import com.oop.visualgo.model.LockFreeBinarySearchTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-heavy scaling of the lock-free BST against the StampedLock red-black tree and ConcurrentSkipListSet.
+ * Same key scheme as ConcurrentRedBlackTreeBenchmark (set the thread count with -t, 1 to 64).
+ * Keys are random, so the unbalanced BST stays about 1.39 log2(n) deep on average.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class LockFreeBinarySearchTreeBenchmark {
+
+    public enum Engine {
+        LOCK_FREE_BST,
+        STAMPED_RED_BLACK_TREE,
+        CONCURRENT_SKIP_LIST
+    }
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"10", "50", "100"})
+    public int writePercent;
+
+    @Param({"LOCK_FREE_BST", "STAMPED_RED_BLACK_TREE", "CONCURRENT_SKIP_LIST"})
+    public Engine engine;
+
+    private LockFreeBinarySearchTree<Integer> lockFree;
+    private ConcurrentRedBlackTree<Integer> stamped;
+    private ConcurrentSkipListSet<Integer> skipList;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockFree = new LockFreeBinarySearchTree<>();
+        stamped = new ConcurrentRedBlackTree<>();
+        skipList = new ConcurrentSkipListSet<>();
+        for (int key : Workloads.keys(KeyOrder.RANDOM, size)) {
+            switch (engine) {
+                case LOCK_FREE_BST:
+                    lockFree.insert(2 * key);
+                    break;
+                case STAMPED_RED_BLACK_TREE:
+                    stamped.insert(2 * key);
+                    break;
+                default:
+                    skipList.add(2 * key);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean mixed(ThreadState state) {
+        int key = state.random.nextInt(2 * size);
+        int dice = state.random.nextInt(200);
+        if (dice < writePercent) {
+            return insert(key);
+        }
+        if (dice < 2 * writePercent) {
+            return delete(key);
+        }
+        return contains(key);
+    }
+
+    private boolean insert(int key) {
+        switch (engine) {
+            case LOCK_FREE_BST:
+                return lockFree.insertIfAbsent(key);
+            case STAMPED_RED_BLACK_TREE:
+                return stamped.insertIfAbsent(key);
+            default:
+                return skipList.add(key);
+        }
+    }
+
+    private boolean delete(int key) {
+        switch (engine) {
+            case LOCK_FREE_BST:
+                return lockFree.delete(key);
+            case STAMPED_RED_BLACK_TREE:
+                return stamped.delete(key);
+            default:
+                return skipList.remove(key);
+        }
+    }
+
+    private boolean contains(int key) {
+        switch (engine) {
+            case LOCK_FREE_BST:
+                return lockFree.contains(key);
+            case STAMPED_RED_BLACK_TREE:
+                return stamped.contains(key);
+            default:
+                return skipList.contains(key);
+        }
+    }
+}
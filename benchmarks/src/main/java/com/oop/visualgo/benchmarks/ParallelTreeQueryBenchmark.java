@@ -0,0 +1,70 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.ParallelTreeQuery;
+import com.oop.visualgo.model.RedBlackTree;
+import com.oop.visualgo.model.RedBlackTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Scaling of the fork/join aggregates with worker count; parallelism = 1 is the sequential baseline
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelTreeQueryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private ParallelTreeQuery<Integer, RedBlackTreeNode<Integer>> query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int key : Workloads.keys(KeyOrder.RANDOM, size)) {
+            tree.insert(key);
+        }
+        pool = new ForkJoinPool(parallelism);
+        query = ParallelTreeQuery.of(tree).withPool(pool).withSizeHint(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long count() {
+        return query.count();
+    }
+
+    @Benchmark
+    public long sum() {
+        return query.sum(Integer::longValue);
+    }
+
+    @Benchmark
+    public Optional<Integer> max() {
+        return query.max(Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public int height() {
+        return query.height();
+    }
+
+    @Benchmark
+    public long countMatching() {
+        return query.countMatching(key -> (key & 7) == 0);
+    }
+}
@@ -0,0 +1,69 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.PersistentRedBlackTree;
+import com.oop.visualgo.model.PersistentRedBlackTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Same workloads as RedBlackTreeBenchmark; every update allocates a new O(log n) path instead of mutating
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class PersistentRedBlackTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private PersistentRedBlackTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        tree = build();
+    }
+
+    private PersistentRedBlackTree<Integer> build() {
+        PersistentRedBlackTree<Integer> result = new PersistentRedBlackTree<>();
+        for (int key : keys) {
+            result = result.insert(key);
+        }
+        return result;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PersistentRedBlackTree<Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    public PersistentRedBlackTreeNode<Integer> search() {
+        return tree.search(nextProbe());
+    }
+
+    // Two new versions per invocation; the benchmark's own version never changes, so the size stays constant
+    @Benchmark
+    public PersistentRedBlackTree<Integer> delete() {
+        int key = nextProbe();
+        return tree.delete(key).insert(key);
+    }
+}
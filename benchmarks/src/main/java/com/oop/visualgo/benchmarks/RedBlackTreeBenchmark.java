@@ -0,0 +1,99 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.RedBlackTree;
+import com.oop.visualgo.model.RedBlackTreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class RedBlackTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    private int[] keys;
+    private List<Integer> boxedKeys; // boxed once so bulkLoad() measures only sorting and building
+    private int[] probes;
+    private int cursor;
+    private RedBlackTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        boxedKeys = Arrays.stream(keys).boxed().toList();
+        tree = build();
+    }
+
+    private RedBlackTree<Integer> build() {
+        RedBlackTree<Integer> rb = new RedBlackTree<>();
+        for (int key : keys) {
+            rb.insert(key);
+        }
+        return rb;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RedBlackTree<Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RedBlackTree<Integer> bulkLoad() {
+        return RedBlackTree.bulkLoad(boxedKeys);
+    }
+
+    @Benchmark
+    public RedBlackTreeNode<Integer> search() {
+        return tree.search(nextProbe());
+    }
+
+    // Delete followed by re-insert of the same key keeps the tree size constant across invocations
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = tree.delete(key);
+        tree.insert(key);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RedBlackTreeNode<Integer>> traverseInOrder() {
+        return tree.traverseInOrder();
+    }
+
+    // RedBlackTree has no traverseDFS(); pre-order is the equivalent depth-first walk
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RedBlackTreeNode<Integer>> traverseDFS() {
+        return tree.traversePreOrder();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RedBlackTreeNode<Integer>> traverseBFS() {
+        return tree.traverseBFS();
+    }
+}
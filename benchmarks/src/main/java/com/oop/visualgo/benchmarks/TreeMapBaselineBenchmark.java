@@ -0,0 +1,83 @@
+package com.oop.visualgo.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * java.util.TreeMap (a red-black tree) on the same workloads, as the baseline for the model engines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class TreeMapBaselineBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED"})
+    public KeyOrder order;
+
+    private int[] keys;
+    private int[] probes;
+    private int cursor;
+    private TreeMap<Integer, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = Workloads.keys(order, size);
+        probes = Workloads.probes(keys);
+        map = build();
+    }
+
+    private TreeMap<Integer, Integer> build() {
+        TreeMap<Integer, Integer> treeMap = new TreeMap<>();
+        for (int key : keys) {
+            treeMap.put(key, key);
+        }
+        return treeMap;
+    }
+
+    private int nextProbe() {
+        int key = probes[cursor];
+        if (++cursor == probes.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TreeMap<Integer, Integer> insert() {
+        return build();
+    }
+
+    @Benchmark
+    public Integer search() {
+        return map.get(nextProbe());
+    }
+
+    @Benchmark
+    public boolean delete() {
+        int key = nextProbe();
+        boolean removed = map.remove(key) != null;
+        map.put(key, key);
+        return removed;
+    }
+
+    // In-order iteration, the TreeMap counterpart of traverseInOrder()
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long traverseInOrder() {
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            sum += entry.getKey();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,50 @@
+package com.oop.visualgo.benchmarks;
+
+import com.oop.visualgo.model.RedBlackTree;
+import com.oop.visualgo.model.TreeSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Save and load of a bulk-loaded RedBlackTree through a temp file (includes OS page cache effects)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Thread)
+public class TreeSnapshotBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    private RedBlackTree<Integer> tree;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tree = RedBlackTree.bulkLoad(IntStream.range(0, size).boxed().toList());
+        file = Files.createTempFile("visualgo-bench", ".vgt");
+        TreeSnapshot.save(tree, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        TreeSnapshot.save(tree, file);
+        return Files.size(file);
+    }
+
+    @Benchmark
+    public RedBlackTree<Integer> load() throws IOException {
+        return TreeSnapshot.loadRedBlackTree(file);
+    }
+}
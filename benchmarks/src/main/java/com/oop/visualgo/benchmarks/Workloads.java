@@ -0,0 +1,61 @@
+package com.oop.visualgo.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Key streams shared by all benchmarks.
+ * Keys are always a permutation of 0..size-1, so every probe hits exactly one node
+ * and the engines are compared on identical input.
+ */
+final class Workloads {
+    static final long SEED = 0x5EEDL;
+
+    /**
+     * Largest size used for workloads whose build is O(n^2) (unindexed GenericTree parent lookup,
+     * sorted input into BinarySearchTree).
+     * Override with -Dvisualgo.bench.quadraticLimit=N (pass it through JMH with -jvmArgsAppend).
+     */
+    static final int QUADRATIC_LIMIT = Integer.getInteger("visualgo.bench.quadraticLimit", 10_000);
+
+    private Workloads() {
+    }
+
+    static int[] keys(KeyOrder order, int size) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (order == KeyOrder.REVERSE_SORTED) ? size - 1 - i : i;
+        }
+        if (order == KeyOrder.RANDOM) {
+            shuffle(keys, SEED);
+        }
+        return keys;
+    }
+
+    // Shuffled copy of the keys, used as the lookup sequence for search/delete benchmarks
+    static int[] probes(int[] keys) {
+        int[] probes = keys.clone();
+        shuffle(probes, SEED + 1);
+        return probes;
+    }
+
+    /**
+     * Fails the trial up front instead of letting JMH spend hours on a quadratic build.
+     * JMH reports the exception for this parameter combination and moves on to the next one.
+     */
+    static void requireTractable(boolean quadratic, int size, String workload) {
+        if (quadratic && size > QUADRATIC_LIMIT) {
+            throw new IllegalStateException(workload + " is O(n^2) to build; skipping size " + size
+                    + " (limit " + QUADRATIC_LIMIT + ", raise with -Dvisualgo.bench.quadraticLimit)");
+        }
+    }
+
+    private static void shuffle(int[] values, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
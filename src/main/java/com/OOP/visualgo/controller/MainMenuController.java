@@ -108,7 +108,9 @@ public class MainMenuController {
             "• Generic Tree\n" +
             "• Binary Tree\n" +
             "• Binary Search Tree (BST)\n" +
-            "• Red-Black Tree\n\n" +
+            "• Red-Black Tree\n" +
+            "• AVL Tree\n" +
+            "• B-Tree\n\n" +
             "Select a tree type to start visualizing operations like insert, delete, search, and traversal."
         );
         alert.showAndWait();
@@ -0,0 +1,70 @@
+package com.oop.visualgo.controller;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Background thread that owns the trees and their layouts for {@link VisualizationViewController}.
+ * <p>
+ * Every model mutation, search, traversal and layout runs here, one task at a time in submission order,
+ * so the trees never see two threads at once and need no locks. The FX thread only gets the results,
+ * immutable layout snapshots and value lists, through {@link Platform#runLater}, and stays responsive
+ * however large the tree is. A single thread rather than a thread per task keeps operations in the
+ * order the user issued them.
+ * <p>
+ * Long tasks report progress with {@link #setProgress} and stop at their next
+ * {@link #checkCancelled} after {@link Future#cancel} with interruption.
+ */
+final class TreeWorker {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "tree-worker");
+        thread.setDaemon(true); // never keeps the application alive
+        return thread;
+    });
+    private volatile double progress = -1;
+
+    /**
+     * Runs task on the worker and hands its result to onSuccess on the FX thread. Exceptions, including
+     * a {@link CancellationException} from a cancelled task, go to onFailure on the FX thread instead.
+     */
+    <T> Future<?> submit(Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        return executor.submit(() -> {
+            progress = -1;
+            try {
+                T result = task.call();
+                Platform.runLater(() -> onSuccess.accept(result));
+            } catch (InterruptedException e) {
+                Platform.runLater(() -> onFailure.accept(new CancellationException("cancelled")));
+            } catch (Exception e) {
+                Platform.runLater(() -> onFailure.accept(e));
+            }
+        });
+    }
+
+    // Interrupts the running task and drops the queued ones, e.g. when the view is left
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Progress of the running task from 0 to 1, or -1 if unknown
+    double getProgress() {
+        return progress;
+    }
+
+    void setProgress(double progress) {
+        this.progress = progress;
+    }
+
+    // Called by long tasks between steps; throws once the task has been cancelled
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("cancelled");
+        }
+    }
+}
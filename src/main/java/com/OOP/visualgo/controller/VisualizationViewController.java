@@ -1,6 +1,11 @@
 package com.oop.visualgo.controller;
 
 import com.oop.visualgo.model.*;
+import com.oop.visualgo.view.LayoutSnapshot;
+import com.oop.visualgo.view.TreeLayout;
+import com.oop.visualgo.view.TreeRenderer;
+import com.oop.visualgo.view.TreeShapes;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
@@ -9,19 +14,23 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 public class VisualizationViewController {
 
@@ -43,41 +52,104 @@ public class VisualizationViewController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private ProgressBar buildProgress;
+
+    @FXML
+    private Button cancelBuildBtn;
+
     private boolean traverseExpanded = false;
+    // FX thread only; a worker task gets the type captured when it was submitted
     private String currentTreeType = "BST";
 
-    // Tree data structures
+    // Runs every tree operation and layout off the FX thread
+    private final TreeWorker worker = new TreeWorker();
+    private Future<?> runningBuild;
+    private int buildId;
+    private AnimationTimer progressTimer;
+
+    // Tree data structures, only touched by worker tasks
     private BinarySearchTree<Integer> bst;
     private BinaryTree<Integer> binaryTree;
     private GenericTree<Integer> genericTree;
     private RedBlackTree<Integer> rbTree;
+    private AvlTree<Integer> avlTree;
+    private BTree bTree;
+    // Steps of the last Red-Black insert or delete, for playback
+    private OperationTrace rbTrace;
 
-    // For highlighting nodes during operations
-    private Set<Integer> highlightedNodes = new HashSet<>();
-    private Integer searchHighlight = null;
+    // Draws the cached layout and repaints only the nodes a highlight change touches
+    private TreeRenderer renderer;
+    private double dragX;
+    private double dragY;
 
     // For traverse animation
-    private Integer currentTraverseHighlight = null;
     private Timeline traverseTimeline;
     private List<Integer> traverseSequence = new ArrayList<>();
+    private long[] traverseTargets = new long[0]; // the node each value of traverseSequence came from
     private int traverseIndex = 0;
     private boolean isTraversePaused = false;
 
+    // For operation playback
+    private Timeline traceTimeline;
+    private boolean traceStepPending;
+    private static final int TRACE_START = 0;
+    private static final int TRACE_BACK = 1;
+    private static final int TRACE_FORWARD = 2;
+    private static final int TRACE_END = 3;
+    private static final int TRACE_RESTART = 4; // back to the start only if playback already reached the end
+
     // Tree drawing constants
-    private static final double NODE_RADIUS = 25;
+    private static final double NODE_RADIUS = TreeRenderer.NODE_RADIUS;
     private static final double VERTICAL_GAP = 80;
-    private static final double MIN_HORIZONTAL_GAP = 60;
+    private static final double SIBLING_GAP = 20;
+    private static final int BTREE_DISPLAY_ORDER = 4; // up to 3 keys per node keeps splits and merges visible
+    private static final double BTREE_KEY_WIDTH = TreeRenderer.BTREE_KEY_WIDTH;
+    private static final double BTREE_NODE_GAP = 16;
+    private static final int MAX_RANDOM_NODES = 1_000_000;
+
+    // Cached layouts, recomputed only for the subtrees a structural change touched; worker tasks only.
+    // One per tree: a layout clears the modified flags it reads
+    private final TreeLayout<BinaryTreeNode<Integer>> binaryLayout =
+            new TreeLayout<>(TreeShapes.binary(2 * NODE_RADIUS), SIBLING_GAP, VERTICAL_GAP);
+    private final TreeLayout<BinaryTreeNode<Integer>> bstLayout =
+            new TreeLayout<>(TreeShapes.binary(2 * NODE_RADIUS), SIBLING_GAP, VERTICAL_GAP);
+    private final TreeLayout<RedBlackTreeNode<Integer>> redBlackLayout =
+            new TreeLayout<>(TreeShapes.redBlack(2 * NODE_RADIUS), SIBLING_GAP, VERTICAL_GAP);
+    private final TreeLayout<AvlTreeNode<Integer>> avlLayout =
+            new TreeLayout<>(TreeShapes.avl(2 * NODE_RADIUS), SIBLING_GAP, VERTICAL_GAP);
+    private final TreeLayout<GenericTreeNode<Integer>> genericLayout =
+            new TreeLayout<>(TreeShapes.generic(2 * NODE_RADIUS), SIBLING_GAP, VERTICAL_GAP);
+    private final TreeLayout<BTreeNode> bTreeLayout =
+            new TreeLayout<>(TreeShapes.bTree(BTREE_KEY_WIDTH), BTREE_NODE_GAP, VERTICAL_GAP);
 
     @FXML
     public void initialize() {
         System.out.println("VisualizationView initialized");
+        renderer = new TreeRenderer(treeCanvas);
+        worker.submit(() -> {
+            resetTrees();
+            return null;
+        }, ignored -> { }, this::operationFailed);
+
+        // Setup canvas to resize with pane
+        setupCanvasResizing();
+        setupViewportControls();
+    }
+
+    private void resetTrees() {
         bst = new BinarySearchTree<>();
         binaryTree = new BinaryTree<>();
         genericTree = new GenericTree<>();
         rbTree = new RedBlackTree<>();
-
-        // Setup canvas to resize with pane
-        setupCanvasResizing();
+        avlTree = new AvlTree<>();
+        bTree = new BTree(BTREE_DISPLAY_ORDER);
+        rbTrace = null;
+        // Chèn theo giá trị cha và tìm kiếm trên Binary/Generic Tree tra chỉ mục thay vì duyệt cả cây;
+        // chèn theo thứ tự BFS vào Binary Tree dùng danh sách BFS giữ sẵn
+        binaryTree.enableIndex();
+        binaryTree.enableLevelOrderIndex();
+        genericTree.enableIndex();
     }
 
     private void setupCanvasResizing() {
@@ -92,17 +164,47 @@ public class VisualizationViewController {
         });
     }
 
+    // Wheel zooms at the cursor, dragging pans, a double click fits the whole tree or goes back to the default view
+    private void setupViewportControls() {
+        treeCanvas.setOnScroll(event -> {
+            if (event.getDeltaY() == 0) return;
+            double factor = event.getDeltaY() > 0 ? 1.15 : 1 / 1.15;
+            renderer.getViewport().zoomAt(factor, event.getX(), event.getY());
+            drawTree();
+        });
+        treeCanvas.setOnMousePressed(event -> {
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        treeCanvas.setOnMouseDragged(event -> {
+            renderer.getViewport().panBy(event.getX() - dragX, event.getY() - dragY);
+            dragX = event.getX();
+            dragY = event.getY();
+            drawTree();
+        });
+        treeCanvas.setOnMouseClicked(event -> {
+            if (event.getClickCount() != 2) return;
+            if (renderer.getViewport().isUserPositioned()) {
+                renderer.getViewport().reset();
+                drawTree();
+            } else {
+                renderer.fitView();
+            }
+        });
+    }
+
     public void setTreeType(String treeType) {
+        cancelBuild();
         this.currentTreeType = treeType;
         System.out.println("Tree type set to: " + treeType);
-        // Clear and initialize appropriate tree
-        bst = new BinarySearchTree<>();
-        binaryTree = new BinaryTree<>();
-        genericTree = new GenericTree<>();
-        rbTree = new RedBlackTree<>();
+        renderer.getViewport().reset();
+        applyTreeColors();
 
-        // Delay drawing to allow canvas to get proper size
-        javafx.application.Platform.runLater(this::drawTree);
+        // Clear and initialize appropriate tree; the layout arrives once the canvas has its proper size
+        changeTree(treeType, () -> {
+            resetTrees();
+            return null;
+        });
     }
 
     // ==================== Left Menu Actions ====================
@@ -122,26 +224,23 @@ public class VisualizationViewController {
                     TextInputDialog dialog = new TextInputDialog("7");
                     dialog.setTitle("Create Random Tree");
                     dialog.setHeaderText("Create Random " + currentTreeType);
-                    dialog.setContentText("Enter number of nodes (1-15):");
+                    dialog.setContentText("Enter number of nodes (1-" + MAX_RANDOM_NODES + "):");
 
                     Optional<String> result = dialog.showAndWait();
                     result.ifPresent(countStr -> {
                         try {
-                            int count = Math.min(15, Math.max(1, Integer.parseInt(countStr)));
+                            int count = Math.min(MAX_RANDOM_NODES, Math.max(1, Integer.parseInt(countStr)));
                             createRandomTree(count);
-                            updateStatus("Created " + currentTreeType + " with " + count + " nodes");
                         } catch (NumberFormatException e) {
                             showError("Invalid Input", "Please enter a valid number.");
                         }
                     });
                     break;
                 case "Empty":
-                    clearTree();
-                    updateStatus("Created empty " + currentTreeType);
+                    clearTree("Created empty " + currentTreeType);
                     break;
                 case "Sample":
                     createSampleTree();
-                    updateStatus("Created sample " + currentTreeType);
                     break;
             }
         });
@@ -158,28 +257,30 @@ public class VisualizationViewController {
         result.ifPresent(valueStr -> {
             try {
                 int value = Integer.parseInt(valueStr);
-                searchHighlight = null; // Reset highlight
-                boolean found = searchValue(value);
-                if (found) {
-                    searchHighlight = value; // Highlight found node
-                    updateStatus("Found: " + value);
-                    showInfo("Search Result", "Value " + value + " found in the tree!");
-                } else {
-                    updateStatus("Not found: " + value);
-                    showInfo("Search Result", "Value " + value + " not found in the tree.");
-                }
-                drawTree();
-
-                // Clear highlight after 3 seconds
-                new java.util.Timer().schedule(new java.util.TimerTask() {
-                    @Override
-                    public void run() {
-                        javafx.application.Platform.runLater(() -> {
-                            searchHighlight = null;
-                            drawTree();
-                        });
+                renderer.setSearchHighlight(TreeRenderer.NO_TARGET); // Reset highlight
+                // The search runs on the worker; null means not found
+                String treeType = currentTreeType;
+                worker.submit(() -> {
+                    long found = searchTarget(value, treeType);
+                    return (found == TreeRenderer.NO_TARGET) ? null : new SearchHit(found, operationStats(treeType));
+                }, hit -> {
+                    if (hit != null) {
+                        renderer.setSearchHighlight(hit.target()); // Highlight the node it was found in
+                        updateStatus("Found: " + value + hit.stats());
+                        showInfo("Search Result", "Value " + value + " found in the tree!");
+                    } else {
+                        updateStatus("Not found: " + value);
+                        showInfo("Search Result", "Value " + value + " not found in the tree.");
                     }
-                }, 3000);
+
+                    // Clear highlight after 3 seconds
+                    new java.util.Timer().schedule(new java.util.TimerTask() {
+                        @Override
+                        public void run() {
+                            javafx.application.Platform.runLater(() -> renderer.setSearchHighlight(TreeRenderer.NO_TARGET));
+                        }
+                    }, 3000);
+                }, this::operationFailed);
             } catch (NumberFormatException e) {
                 showError("Invalid Input", "Please enter a valid number.");
             }
@@ -197,9 +298,11 @@ public class VisualizationViewController {
         result.ifPresent(valueStr -> {
             try {
                 int value = Integer.parseInt(valueStr);
-                insertValue(value);
-                updateStatus("Inserted: " + value);
-                drawTree();
+                String treeType = currentTreeType;
+                changeTree(treeType, () -> {
+                    insertValue(value, treeType);
+                    return "Inserted: " + value + operationStats(treeType);
+                });
             } catch (NumberFormatException e) {
                 showError("Invalid Input", "Please enter a valid number.");
             }
@@ -217,41 +320,131 @@ public class VisualizationViewController {
         result.ifPresent(valueStr -> {
             try {
                 int value = Integer.parseInt(valueStr);
-                boolean removed = removeValue(value);
-                if (removed) {
-                    updateStatus("Removed: " + value);
-                } else {
-                    updateStatus("Value not found: " + value);
-                    showInfo("Remove Result", "Value " + value + " not found in the tree.");
-                }
-                drawTree();
+                // Nothing to lay out again if the value was not there
+                pauseTracePlayback();
+                String treeType = currentTreeType;
+                worker.submit(() -> removeValue(value, treeType)
+                                ? new Change("Removed: " + value + operationStats(treeType), relayout(treeType)) : null,
+                        change -> {
+                            if (change != null) {
+                                show(change);
+                            } else {
+                                updateStatus("Value not found: " + value);
+                                showInfo("Remove Result", "Value " + value + " not found in the tree.");
+                            }
+                        }, this::operationFailed);
             } catch (NumberFormatException e) {
                 showError("Invalid Input", "Please enter a valid number.");
             }
         });
     }
 
+    @FXML
+    private void onSave() {
+        if (!supportsSnapshots()) return;
+        FileChooser chooser = snapshotChooser("Save " + currentTreeType);
+        chooser.setInitialFileName(currentTreeType.replace(' ', '-').toLowerCase() + ".vgt");
+        File file = chooser.showSaveDialog(treeCanvas.getScene().getWindow());
+        if (file == null) return;
+        String treeType = currentTreeType;
+        worker.submit(() -> {
+            settleTrace();
+            switch (treeType) {
+                case "Binary Tree":
+                    TreeSnapshot.save(binaryTree, file.toPath());
+                    break;
+                case "Generic Tree":
+                    TreeSnapshot.save(genericTree, file.toPath());
+                    break;
+                case "Red-Black Tree":
+                    TreeSnapshot.save(rbTree, file.toPath());
+                    break;
+                default:
+                    TreeSnapshot.save(bst, file.toPath());
+            }
+            return "Saved " + treeType + " to " + file.getName();
+        }, this::updateStatus, e -> showError("Save Failed", "Could not save the tree.\nReason: " + e.getMessage()));
+    }
+
+    @FXML
+    private void onLoad() {
+        if (!supportsSnapshots()) return;
+        File file = snapshotChooser("Load " + currentTreeType).showOpenDialog(treeCanvas.getScene().getWindow());
+        if (file == null) return;
+        String treeType = currentTreeType;
+        worker.submit(() -> {
+            switch (treeType) {
+                case "Binary Tree":
+                    BinaryTree<Integer> loadedBinary = TreeSnapshot.loadBinaryTree(file.toPath());
+                    loadedBinary.enableIndex();
+                    loadedBinary.enableLevelOrderIndex();
+                    binaryTree = loadedBinary;
+                    break;
+                case "Generic Tree":
+                    GenericTree<Integer> loadedGeneric = TreeSnapshot.loadGenericTree(file.toPath());
+                    loadedGeneric.enableIndex();
+                    genericTree = loadedGeneric;
+                    break;
+                case "Red-Black Tree":
+                    rbTree = TreeSnapshot.loadRedBlackTree(file.toPath());
+                    rbTrace = null;
+                    break;
+                default:
+                    bst = TreeSnapshot.loadBinarySearchTree(file.toPath());
+            }
+            return new Change("Loaded " + treeType + " from " + file.getName(), relayout(treeType));
+        }, change -> {
+            renderer.clearHighlights();
+            renderer.getViewport().reset();
+            show(change);
+        }, e -> showError("Load Failed", "Could not load the tree.\nReason: " + e.getMessage()));
+    }
+
+    // Snapshots cover the BST, Binary, Generic and Red-Black trees
+    private boolean supportsSnapshots() {
+        if (currentTreeType.equals("AVL Tree") || currentTreeType.equals("B-Tree")) {
+            showInfo("Not Supported", currentTreeType + " cannot be saved or loaded yet.");
+            return false;
+        }
+        return true;
+    }
+
+    private FileChooser snapshotChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("VisualGo tree snapshot", "*.vgt"));
+        return chooser;
+    }
+
     // ==================== Tree Operations ====================
 
-    private void clearTree() {
-        bst = new BinarySearchTree<>();
-        binaryTree = new BinaryTree<>();
-        genericTree = new GenericTree<>();
-        rbTree = new RedBlackTree<>();
-        highlightedNodes.clear();
-        searchHighlight = null;
-        drawTree();
+    private void clearTree(String status) {
+        cancelBuild();
+        renderer.clearHighlights();
+        renderer.getViewport().reset();
+        changeTree(currentTreeType, () -> {
+            resetTrees();
+            return status;
+        });
     }
 
     private void createSampleTree() {
-        clearTree();
-        switch (currentTreeType) {
+        cancelBuild();
+        renderer.clearHighlights();
+        renderer.getViewport().reset();
+        String treeType = currentTreeType;
+        changeTree(treeType, () -> {
+            resetTrees();
+            fillSampleTree(treeType);
+            return "Created sample " + treeType;
+        });
+    }
+
+    private void fillSampleTree(String treeType) {
+        switch (treeType) {
             case "BST":
                 // Create a balanced BST sample
-                int[] bstValues = {50, 30, 70, 20, 40, 60, 80};
-                for (int val : bstValues) {
-                    bst.insert(val);
-                }
+                bst.insertAll(List.of(50, 30, 70, 20, 40, 60, 80));
                 break;
             case "Binary Tree":
                 // Create a complete binary tree sample
@@ -272,40 +465,115 @@ public class VisualizationViewController {
                 break;
             case "Red-Black Tree":
                 // Create a Red-Black tree sample
-                int[] rbValues = {50, 30, 70, 20, 40, 60, 80};
-                for (int val : rbValues) {
-                    rbTree.insert(val);
+                rbTree.insertAll(List.of(50, 30, 70, 20, 40, 60, 80));
+                break;
+            case "AVL Tree":
+                // Sorted input shows the rotations that keep an AVL tree balanced
+                for (int val = 10; val <= 70; val += 10) {
+                    avlTree.insert(val);
                 }
                 break;
-            default:
-                int[] defaultValues = {50, 30, 70, 20, 40, 60, 80};
-                for (int val : defaultValues) {
-                    bst.insert(val);
+            case "B-Tree":
+                // Ten sorted keys are enough to split the root twice
+                for (int val = 10; val <= 100; val += 10) {
+                    bTree.insert(val);
                 }
+                break;
+            default:
+                bst.insertAll(List.of(50, 30, 70, 20, 40, 60, 80));
         }
-        drawTree();
     }
 
+    /**
+     * Builds a random tree on the worker while the FX thread shows its progress. Cancelling it stops the
+     * build at its next check and leaves an empty tree.
+     */
     private void createRandomTree(int count) {
+        cancelBuild();
+        pauseTracePlayback();
+        renderer.clearHighlights();
+        renderer.getViewport().reset();
+        int build = ++buildId;
+        String treeType = currentTreeType;
+        runningBuild = worker.submit(() -> {
+            try {
+                fillRandomTree(count, treeType);
+                return new Change("Created " + treeType + " with " + count + " nodes", relayout(treeType));
+            } catch (CancellationException e) {
+                Thread.interrupted(); // so the layout of the empty tree is not cancelled too
+                resetTrees();
+                return new Change("Creation cancelled, tree cleared", relayout(treeType));
+            }
+        }, change -> {
+            if (build == buildId) buildFinished();
+            show(change);
+        }, e -> {
+            if (build == buildId) buildFinished();
+            operationFailed(e);
+        });
+        startProgress();
+    }
+
+    private void fillRandomTree(int count, String treeType) {
+        resetTrees();
         Random random = new Random();
         Set<Integer> usedValues = new HashSet<>();
+        List<Integer> values = new ArrayList<>(count); // giữ thứ tự sinh cho các cây chèn từng giá trị
+        int bound = Math.max(99, count * 10); // 1-99 cho cây nhỏ như trước
 
-        // Clear existing trees
-        clearTree();
-
+        // Values take the first 20% of the progress bar, inserts the rest; the layout has no steps to report
         for (int i = 0; i < count; i++) {
+            if (i % 4096 == 0) {
+                TreeWorker.checkCancelled();
+                worker.setProgress(0.2 * i / count);
+            }
             int value;
             do {
-                value = random.nextInt(99) + 1; // 1-99
-            } while (usedValues.contains(value));
-            usedValues.add(value);
-            insertValue(value);
+                value = random.nextInt(bound) + 1;
+            } while (!usedValues.add(value));
+            values.add(value);
         }
-        drawTree();
+
+        // BST và Red-Black Tree nhận cả lô một lần thay vì chèn từng giá trị từ gốc
+        switch (treeType) {
+            case "Red-Black Tree":
+                worker.setProgress(-1);
+                rbTree.insertAll(values);
+                break;
+            case "Generic Tree":
+                // Each value hangs under a random earlier one; the parent index avoids a BFS per insert
+                genericTree.insert(values.get(0), null);
+                for (int i = 1; i < count; i++) {
+                    insertStep(i, count);
+                    genericTree.insert(values.get(i), values.get(random.nextInt(i)));
+                }
+                break;
+            case "Binary Tree":
+            case "AVL Tree":
+            case "B-Tree":
+                for (int i = 0; i < count; i++) {
+                    insertStep(i, count);
+                    insertValue(values.get(i), treeType);
+                }
+                break;
+            default:
+                worker.setProgress(-1);
+                bst.insertAll(values);
+        }
+        TreeWorker.checkCancelled();
+        worker.setProgress(-1);
     }
 
-    private void insertValue(int value) {
-        switch (currentTreeType) {
+    private void insertStep(int i, int count) {
+        if (i % 4096 == 0) {
+            TreeWorker.checkCancelled();
+            worker.setProgress(0.2 + 0.8 * i / count);
+        }
+    }
+
+    private void insertValue(int value, String treeType) {
+        settleTrace();
+        switch (treeType) {
             case "BST":
                 bst.insert(value);
                 break;
@@ -326,30 +594,54 @@ public class VisualizationViewController {
                 }
                 break;
             case "Red-Black Tree":
+                // Recorded so the rebalancing can be stepped through afterwards
+                rbTrace = new OperationTrace();
+                rbTree.setTrace(rbTrace);
                 rbTree.insert(value);
+                rbTree.setTrace(null);
+                break;
+            case "AVL Tree":
+                avlTree.insert(value);
+                break;
+            case "B-Tree":
+                bTree.insert(value);
                 break;
             default:
                 bst.insert(value);
         }
     }
 
-    private boolean searchValue(int value) {
-        switch (currentTreeType) {
-            case "BST":
-                return bst.search(value) != null;
+    // Found node and the stats line of a successful search
+    private record SearchHit(long target, String stats) {
+    }
+
+    // Highlight target of the node value is found in, NO_TARGET if it is not in the tree
+    private long searchTarget(int value, String treeType) {
+        settleTrace();
+        switch (treeType) {
             case "Binary Tree":
-                return binaryTree.search(value) != null;
+                return targetOf(binaryTree.search(value));
             case "Generic Tree":
-                return genericTree.search(value) != null;
+                return targetOf(genericTree.search(value));
             case "Red-Black Tree":
-                return rbTree.search(value) != null;
+                return targetOf(rbTree.search(value));
+            case "AVL Tree":
+                return targetOf(avlTree.search(value));
+            case "B-Tree":
+                BTreeNode node = bTree.search(value);
+                return (node == null) ? TreeRenderer.NO_TARGET : TreeRenderer.target(node.getId(), node.indexOf(value));
             default:
-                return bst.search(value) != null;
+                return targetOf(bst.search(value));
         }
     }
 
-    private boolean removeValue(int value) {
-        switch (currentTreeType) {
+    private static long targetOf(TreeNode<?> node) {
+        return (node == null) ? TreeRenderer.NO_TARGET : TreeRenderer.target(node.getId(), 0);
+    }
+
+    private boolean removeValue(int value, String treeType) {
+        settleTrace();
+        switch (treeType) {
             case "BST":
                 return bst.delete(value);
             case "Binary Tree":
@@ -357,12 +649,29 @@ public class VisualizationViewController {
             case "Generic Tree":
                 return genericTree.delete(value);
             case "Red-Black Tree":
-                return rbTree.delete(value);
+                rbTrace = new OperationTrace();
+                rbTree.setTrace(rbTrace);
+                boolean removed = rbTree.delete(value);
+                rbTree.setTrace(null);
+                return removed;
+            case "AVL Tree":
+                return avlTree.delete(value);
+            case "B-Tree":
+                return bTree.delete(value);
             default:
                 return bst.delete(value);
         }
     }
 
+    // Rotation/comparison counters of the AVL engine since the tree was created
+    private String operationStats(String treeType) {
+        if (treeType.equals("Red-Black Tree") && rbTrace != null) {
+            return " (" + rbTrace.size() + " steps recorded, step back with ◀)";
+        }
+        if (!treeType.equals("AVL Tree")) return "";
+        return " (rotations: " + avlTree.getRotationCount() + ", comparisons: " + avlTree.getComparisonCount() + ")";
+    }
+
     // ==================== Traverse Toggle ====================
 
     @FXML
@@ -376,153 +685,99 @@ public class VisualizationViewController {
     @FXML
     private void onInorder() {
         updateStatus("Inorder traversal");
-        List<Integer> result = new ArrayList<>();
-
-        switch (currentTreeType) {
-            case "BST":
-                if (bst.getRoot() != null) {
-                    inorderTraversal(bst.getRoot(), result);
-                }
-                break;
-            case "Binary Tree":
-                if (binaryTree.getRoot() != null) {
-                    inorderTraversal(binaryTree.getRoot(), result);
-                }
-                break;
-            case "Generic Tree":
-                if (genericTree.getRoot() != null) {
-                    // For generic tree, use DFS (similar to preorder)
-                    List<GenericTreeNode<Integer>> nodes = genericTree.traverseDFS();
-                    for (GenericTreeNode<Integer> node : nodes) {
-                        result.add(node.getValue());
-                    }
-                }
-                break;
-            case "Red-Black Tree":
-                if (rbTree.getRoot() != null) {
-                    List<RedBlackTreeNode<Integer>> nodes = rbTree.traverseInOrder();
-                    for (RedBlackTreeNode<Integer> node : nodes) {
-                        result.add(node.getValue());
-                    }
-                }
-                break;
-        }
-
-        // Start animation
-        animateTraversal(result, "Inorder Traversal");
+        // For generic tree, use DFS (similar to preorder)
+        // Start animation once the worker has the sequence
+        String treeType = currentTreeType;
+        worker.submit(() -> traversal(treeType, TraversalOrder.IN_ORDER, TraversalOrder.PRE_ORDER),
+                result -> animateTraversal(result, "Inorder Traversal"), this::operationFailed);
     }
 
     @FXML
     private void onPreorder() {
         updateStatus("Preorder traversal");
-        List<Integer> result = new ArrayList<>();
-
-        switch (currentTreeType) {
-            case "BST":
-                if (bst.getRoot() != null) {
-                    preorderTraversal(bst.getRoot(), result);
-                }
-                break;
-            case "Binary Tree":
-                if (binaryTree.getRoot() != null) {
-                    preorderTraversal(binaryTree.getRoot(), result);
-                }
-                break;
-            case "Generic Tree":
-                if (genericTree.getRoot() != null) {
-                    List<GenericTreeNode<Integer>> nodes = genericTree.traverseDFS();
-                    for (GenericTreeNode<Integer> node : nodes) {
-                        result.add(node.getValue());
-                    }
-                }
-                break;
-            case "Red-Black Tree":
-                if (rbTree.getRoot() != null) {
-                    List<RedBlackTreeNode<Integer>> nodes = rbTree.traversePreOrder();
-                    for (RedBlackTreeNode<Integer> node : nodes) {
-                        result.add(node.getValue());
-                    }
-                }
-                break;
-        }
-
-        // Start animation
-        animateTraversal(result, "Preorder Traversal");
+        String treeType = currentTreeType;
+        worker.submit(() -> traversal(treeType, TraversalOrder.PRE_ORDER, TraversalOrder.PRE_ORDER),
+                result -> animateTraversal(result, "Preorder Traversal"), this::operationFailed);
     }
 
     @FXML
     private void onPostorder() {
         updateStatus("Postorder traversal");
-        List<Integer> result = new ArrayList<>();
+        // For generic tree, use BFS (level order)
+        String treeType = currentTreeType;
+        String title = treeType.equals("Generic Tree") ? "BFS Traversal" : "Postorder Traversal";
+        worker.submit(() -> traversal(treeType, TraversalOrder.POST_ORDER, TraversalOrder.LEVEL_ORDER),
+                result -> animateTraversal(result, title), this::operationFailed);
+    }
 
-        switch (currentTreeType) {
+    // Values in visiting order for the status line, and the node each came from for the highlight
+    private record Traversal(List<Integer> values, long[] targets) {
+    }
+
+    // Streams the nodes straight into the animation sequence, without an intermediate node list
+    private Traversal traversal(String treeType, TraversalOrder binaryOrder, TraversalOrder genericOrder) {
+        settleTrace();
+        switch (treeType) {
             case "BST":
-                if (bst.getRoot() != null) {
-                    postorderTraversal(bst.getRoot(), result);
-                }
-                break;
+                return collectTraversal(bst.stream(binaryOrder));
             case "Binary Tree":
-                if (binaryTree.getRoot() != null) {
-                    postorderTraversal(binaryTree.getRoot(), result);
-                }
-                break;
+                return collectTraversal(binaryTree.stream(binaryOrder));
             case "Generic Tree":
-                if (genericTree.getRoot() != null) {
-                    // For generic tree, use BFS (level order)
-                    List<GenericTreeNode<Integer>> nodes = genericTree.traverseBFS();
-                    for (GenericTreeNode<Integer> node : nodes) {
-                        result.add(node.getValue());
-                    }
-                }
-                break;
+                return collectTraversal(genericTree.stream(genericOrder));
             case "Red-Black Tree":
-                if (rbTree.getRoot() != null) {
-                    List<RedBlackTreeNode<Integer>> nodes = rbTree.traversePostOrder();
-                    for (RedBlackTreeNode<Integer> node : nodes) {
-                        result.add(node.getValue());
-                    }
-                }
-                break;
+                return collectTraversal(rbTree.stream(binaryOrder));
+            case "AVL Tree":
+                return collectTraversal(avlTree.stream(binaryOrder));
+            case "B-Tree":
+                return bTreeTraversal(binaryOrder);
+            default:
+                return new Traversal(new ArrayList<>(), new long[0]);
         }
-
-        String title = currentTreeType.equals("Generic Tree") ? "BFS Traversal" : "Postorder Traversal";
-        // Start animation
-        animateTraversal(result, title);
     }
 
-    private void inorderTraversal(BinaryTreeNode<Integer> node, List<Integer> result) {
-        if (node == null) return;
-        inorderTraversal(node.getLeft(), result);
-        result.add(node.getValue());
-        inorderTraversal(node.getRight(), result);
-    }
-
-    private void preorderTraversal(BinaryTreeNode<Integer> node, List<Integer> result) {
-        if (node == null) return;
-        result.add(node.getValue());
-        preorderTraversal(node.getLeft(), result);
-        preorderTraversal(node.getRight(), result);
+    // In-order visits the keys in sorted order; the other orders visit nodes and list each node's keys left to right
+    private Traversal bTreeTraversal(TraversalOrder order) {
+        List<Integer> values = new ArrayList<>();
+        LongStream.Builder targets = LongStream.builder();
+        if (order == TraversalOrder.IN_ORDER) {
+            bTree.forEachEntryInOrder((node, i) -> {
+                values.add(node.getKey(i));
+                targets.add(TreeRenderer.target(node.getId(), i));
+            });
+        } else {
+            bTree.iterator(order).forEachRemaining(node -> {
+                for (int i = 0; i < node.getKeyCount(); i++) {
+                    values.add(node.getKey(i));
+                    targets.add(TreeRenderer.target(node.getId(), i));
+                }
+            });
+        }
+        return new Traversal(values, targets.build().toArray());
     }
 
-    private void postorderTraversal(BinaryTreeNode<Integer> node, List<Integer> result) {
-        if (node == null) return;
-        postorderTraversal(node.getLeft(), result);
-        postorderTraversal(node.getRight(), result);
-        result.add(node.getValue());
+    private Traversal collectTraversal(Stream<? extends TreeNode<Integer>> nodes) {
+        List<Integer> values = new ArrayList<>();
+        LongStream.Builder targets = LongStream.builder();
+        nodes.forEach(node -> {
+            values.add(node.getValue());
+            targets.add(TreeRenderer.target(node.getId(), 0));
+        });
+        return new Traversal(values, targets.build().toArray());
     }
 
     // ==================== Traverse Animation ====================
 
-    private void animateTraversal(List<Integer> sequence, String traversalName) {
+    private void animateTraversal(Traversal traversal, String traversalName) {
         // Stop any existing animation
         stopTraverseAnimation();
 
-        if (sequence.isEmpty()) {
+        if (traversal.values().isEmpty()) {
             showInfo(traversalName, "Tree is empty!");
             return;
         }
 
-        traverseSequence = new ArrayList<>(sequence);
+        traverseSequence = traversal.values();
+        traverseTargets = traversal.targets();
         traverseIndex = 0;
         isTraversePaused = false;
 
@@ -530,9 +785,9 @@ public class VisualizationViewController {
 
         traverseTimeline = new Timeline(new KeyFrame(Duration.millis(800), e -> {
             if (traverseIndex < traverseSequence.size()) {
-                currentTraverseHighlight = traverseSequence.get(traverseIndex);
-                updateStatus(traversalName + " - Visiting: " + currentTraverseHighlight + " (" + (traverseIndex + 1) + "/" + traverseSequence.size() + ")");
-                drawTree();
+                Integer visiting = traverseSequence.get(traverseIndex);
+                renderer.setTraverseHighlight(traverseTargets[traverseIndex]);
+                updateStatus(traversalName + " - Visiting: " + visiting + " (" + (traverseIndex + 1) + "/" + traverseSequence.size() + ")");
                 traverseIndex++;
             } else {
                 // Animation finished
@@ -550,11 +805,11 @@ public class VisualizationViewController {
             traverseTimeline.stop();
             traverseTimeline = null;
         }
-        currentTraverseHighlight = null;
         traverseSequence.clear();
+        traverseTargets = new long[0];
         traverseIndex = 0;
         isTraversePaused = false;
-        drawTree();
+        renderer.setTraverseHighlight(TreeRenderer.NO_TARGET);
     }
 
     // ==================== Playback Controls ====================
@@ -563,11 +818,12 @@ public class VisualizationViewController {
     private void onRewind() {
         if (traverseTimeline != null && !traverseSequence.isEmpty()) {
             traverseIndex = 0;
-            currentTraverseHighlight = null;
+            renderer.setTraverseHighlight(TreeRenderer.NO_TARGET);
             updateStatus("Rewind - Back to start");
-            drawTree();
         } else {
-            updateStatus("No animation running");
+            // Without a traversal the controls play back the last recorded operation
+            pauseTracePlayback();
+            moveTrace(TRACE_START);
         }
     }
 
@@ -580,13 +836,11 @@ public class VisualizationViewController {
                 isTraversePaused = true;
             }
             traverseIndex--;
-            if (traverseIndex > 0) {
-                currentTraverseHighlight = traverseSequence.get(traverseIndex - 1);
-            } else {
-                currentTraverseHighlight = null;
-            }
+            renderer.setTraverseHighlight(traverseIndex > 0 ? traverseTargets[traverseIndex - 1] : TreeRenderer.NO_TARGET);
             updateStatus("Step backward - Node " + traverseIndex + "/" + traverseSequence.size());
-            drawTree();
+        } else if (traverseSequence.isEmpty()) {
+            pauseTracePlayback();
+            moveTrace(TRACE_BACK);
         } else {
             updateStatus("Cannot step backward");
         }
@@ -598,6 +852,9 @@ public class VisualizationViewController {
             traverseTimeline.pause();
             isTraversePaused = true;
             updateStatus("Paused at node " + traverseIndex + "/" + traverseSequence.size());
+        } else if (traceTimeline != null) {
+            pauseTracePlayback();
+            updateStatus("Playback paused");
         } else {
             updateStatus("No animation to pause");
         }
@@ -612,7 +869,7 @@ public class VisualizationViewController {
                 updateStatus("Resumed animation");
             }
         } else {
-            updateStatus("No animation - Select a traversal first");
+            playTrace();
         }
     }
 
@@ -624,352 +881,264 @@ public class VisualizationViewController {
                 traverseTimeline.stop();
             }
             traverseIndex = traverseSequence.size();
-            currentTraverseHighlight = null;
+            renderer.setTraverseHighlight(TreeRenderer.NO_TARGET);
             updateStatus("Fast forward - Complete!");
-            drawTree();
             showInfo("Traversal Complete", "Result: " + traverseSequence);
             traverseTimeline = null;
         } else {
-            updateStatus("No animation running");
+            pauseTracePlayback();
+            moveTrace(TRACE_END);
         }
     }
 
-    // ==================== Drawing ====================
-
-    private void drawTree() {
-        if (treeCanvas.getWidth() <= 0 || treeCanvas.getHeight() <= 0) {
-            return; // Canvas not ready yet
-        }
-
-        GraphicsContext gc = treeCanvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, treeCanvas.getWidth(), treeCanvas.getHeight());
-
-        // Set font for node values
-        gc.setFont(Font.font("Arial Bold", 14));
-        gc.setTextAlign(TextAlignment.CENTER);
+    // ==================== Layout ====================
 
-        double startY = 60; // Top padding
-        double centerX = treeCanvas.getWidth() / 2;
-
-        switch (currentTreeType) {
-            case "BST":
-                if (bst.getRoot() != null) {
-                    int treeHeight = getTreeHeight(bst.getRoot());
-                    double horizontalGap = calculateHorizontalGap(treeHeight);
-                    drawBinaryNode(gc, bst.getRoot(), centerX, startY, horizontalGap);
-                }
-                break;
+    // Lays the tree of the given type out again; only structural changes need this, highlights and resizes just redraw
+    private LayoutSnapshot relayout(String treeType) {
+        switch (treeType) {
             case "Binary Tree":
-                if (binaryTree.getRoot() != null) {
-                    int treeHeight = getTreeHeight(binaryTree.getRoot());
-                    double horizontalGap = calculateHorizontalGap(treeHeight);
-                    drawBinaryNode(gc, binaryTree.getRoot(), centerX, startY, horizontalGap);
-                }
-                break;
+                return binaryLayout.update(binaryTree.getRoot());
             case "Generic Tree":
-                if (genericTree.getRoot() != null) {
-                    drawGenericTree(gc);
-                }
-                break;
+                return genericLayout.update(genericTree.getRoot());
             case "Red-Black Tree":
-                if (rbTree.getRoot() != null) {
-                    int treeHeight = getRBTreeHeight(rbTree.getRoot());
-                    double horizontalGap = calculateHorizontalGap(treeHeight);
-                    drawRBNode(gc, rbTree.getRoot(), centerX, startY, horizontalGap);
-                }
-                break;
+                return redBlackLayout.update(rbTree.getRoot());
+            case "AVL Tree":
+                return avlLayout.update(avlTree.getRoot());
+            case "B-Tree":
+                return bTreeLayout.update(bTree.getRoot());
+            default:
+                return bstLayout.update(bst.getRoot());
         }
     }
 
-    private int getTreeHeight(BinaryTreeNode<Integer> node) {
-        if (node == null) return 0;
-        return 1 + Math.max(getTreeHeight(node.getLeft()), getTreeHeight(node.getRight()));
-    }
+    // ==================== Worker ====================
 
-    private int getRBTreeHeight(RedBlackTreeNode<Integer> node) {
-        if (node == null) return 0;
-        return 1 + Math.max(getRBTreeHeight(node.getLeft()), getRBTreeHeight(node.getRight()));
+    // What a worker task hands back after a structural change: a status line and the new layout
+    private record Change(String status, LayoutSnapshot layout) {
     }
 
-    private double calculateHorizontalGap(int treeHeight) {
-        // Calculate gap based on canvas width and tree height
-        double canvasWidth = treeCanvas.getWidth();
-        // For each level, we need 2^level nodes to fit
-        // Gap at level 0 should be canvasWidth/4 to center tree
-        double baseGap = canvasWidth / 4;
-        
-        // Adjust based on tree height to prevent overlap
-        if (treeHeight <= 3) {
-            return baseGap;
-        } else if (treeHeight <= 5) {
-            return baseGap * 0.9;
-        } else {
-            return Math.max(MIN_HORIZONTAL_GAP, baseGap * 0.8);
-        }
+    // Runs a structural change to the tree of the given type on the worker, then draws the new layout on the FX thread
+    private void changeTree(String treeType, Callable<String> change) {
+        pauseTracePlayback();
+        worker.submit(() -> {
+            String status = change.call();
+            return new Change(status, relayout(treeType));
+        }, this::show, this::operationFailed);
     }
 
-    // Draw Red-Black Tree node
-    private void drawRBNode(GraphicsContext gc, RedBlackTreeNode<Integer> node, double x, double y, double hGap) {
-        if (node == null) return;
-
-        // Ensure node stays within canvas bounds
-        x = Math.max(NODE_RADIUS + 10, Math.min(treeCanvas.getWidth() - NODE_RADIUS - 10, x));
-
-        // Draw edges first (behind nodes)
-        gc.setStroke(Color.web("#888888"));
-        gc.setLineWidth(2.5);
-
-        double nextHGap = Math.max(MIN_HORIZONTAL_GAP / 2, hGap / 2);
-
-        if (node.getLeft() != null) {
-            double childX = x - hGap;
-            double childY = y + VERTICAL_GAP;
-            gc.strokeLine(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
-        }
-        if (node.getRight() != null) {
-            double childX = x + hGap;
-            double childY = y + VERTICAL_GAP;
-            gc.strokeLine(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
+    private void show(Change change) {
+        renderer.setLayout(change.layout());
+        if (change.status() != null) {
+            updateStatus(change.status());
         }
+    }
 
-        // Determine node color based on Red-Black tree color
-        Color fillColor;
-        Color strokeColor;
-
-        // Highlight current traverse node (highest priority - bright yellow/orange)
-        if (currentTraverseHighlight != null && node.getValue().equals(currentTraverseHighlight)) {
-            fillColor = Color.web("#ffeb3b"); // Bright yellow for current traverse
-            strokeColor = Color.web("#f57f17");
-        }
-        // Highlight search result
-        else if (searchHighlight != null && node.getValue().equals(searchHighlight)) {
-            fillColor = Color.web("#ff9800"); // Orange for found
-            strokeColor = Color.web("#e65100");
-        }
-        else if (node.isRed()) {
-            fillColor = Color.web("#e53935"); // Red
-            strokeColor = Color.web("#b71c1c");
+    private void operationFailed(Exception e) {
+        if (e instanceof CancellationException) {
+            updateStatus("Cancelled");
         } else {
-            fillColor = Color.web("#424242"); // Dark gray (easier to see than pure black)
-            strokeColor = Color.web("#212121");
+            showError("Operation Failed", String.valueOf(e.getMessage()));
         }
-
-        // Draw node circle with shadow effect
-        gc.setFill(Color.rgb(0, 0, 0, 0.2));
-        gc.fillOval(x - NODE_RADIUS + 3, y - NODE_RADIUS + 3, NODE_RADIUS * 2, NODE_RADIUS * 2);
-        
-        gc.setFill(fillColor);
-        gc.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-        gc.setStroke(strokeColor);
-        gc.setLineWidth(3);
-        gc.strokeOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-
-        // Draw value
-        gc.setFill(Color.WHITE);
-        gc.setFont(Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 14));
-        gc.fillText(String.valueOf(node.getValue()), x, y + 5);
-
-        // Draw children with reduced horizontal gap
-        drawRBNode(gc, node.getLeft(), x - hGap, y + VERTICAL_GAP, nextHGap);
-        drawRBNode(gc, node.getRight(), x + hGap, y + VERTICAL_GAP, nextHGap);
     }
 
-    private void drawBinaryNode(GraphicsContext gc, BinaryTreeNode<Integer> node, double x, double y, double hGap) {
-        if (node == null) return;
-
-        double nextHGap = Math.max(MIN_HORIZONTAL_GAP / 2, hGap / 2);
-
-        // Draw edges first (behind nodes)
-        gc.setStroke(Color.web("#888888"));
-        gc.setLineWidth(2.5);
-
-        if (node.getLeft() != null) {
-            double childX = x - hGap;
-            double childY = y + VERTICAL_GAP;
-            gc.strokeLine(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
-        }
-        if (node.getRight() != null) {
-            double childX = x + hGap;
-            double childY = y + VERTICAL_GAP;
-            gc.strokeLine(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
-        }
-
-        // Determine node color
-        Color fillColor = Color.web("#4caf50"); // Default green
-        Color strokeColor = Color.web("#2e7d32");
-
-        // Highlight current traverse node (highest priority - bright yellow/orange)
-        if (currentTraverseHighlight != null && node.getValue().equals(currentTraverseHighlight)) {
-            fillColor = Color.web("#ffeb3b"); // Bright yellow for current traverse
-            strokeColor = Color.web("#f57f17");
-        }
-        // Highlight search result
-        else if (searchHighlight != null && node.getValue().equals(searchHighlight)) {
-            fillColor = Color.web("#ff9800"); // Orange for found
-            strokeColor = Color.web("#e65100");
-        }
-        // Check if node is in highlighted set
-        else if (highlightedNodes.contains(node.getValue())) {
-            fillColor = Color.web("#2196f3"); // Blue for highlighted path
-            strokeColor = Color.web("#1565c0");
+    private void startProgress() {
+        if (progressTimer == null) {
+            progressTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    buildProgress.setProgress(worker.getProgress());
+                }
+            };
         }
-
-        // Draw node circle with shadow effect
-        gc.setFill(Color.rgb(0, 0, 0, 0.2));
-        gc.fillOval(x - NODE_RADIUS + 3, y - NODE_RADIUS + 3, NODE_RADIUS * 2, NODE_RADIUS * 2);
-
-        gc.setFill(fillColor);
-        gc.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-        gc.setStroke(strokeColor);
-        gc.setLineWidth(3);
-        gc.strokeOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-
-        // Draw value
-        gc.setFill(Color.WHITE);
-        gc.setFont(Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 14));
-        gc.fillText(String.valueOf(node.getValue()), x, y + 5);
-
-        // Draw children with reduced horizontal gap
-        drawBinaryNode(gc, node.getLeft(), x - hGap, y + VERTICAL_GAP, nextHGap);
-        drawBinaryNode(gc, node.getRight(), x + hGap, y + VERTICAL_GAP, nextHGap);
+        buildProgress.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        setProgressVisible(true);
+        progressTimer.start();
     }
 
-    private void drawGenericTree(GraphicsContext gc) {
-        if (genericTree.getRoot() == null) return;
-
-        // Calculate positions for generic tree using BFS
-        Map<GenericTreeNode<Integer>, double[]> positions = new HashMap<>();
-        calculateGenericTreePositions(genericTree.getRoot(), positions);
-
-        // Draw edges first
-        gc.setStroke(Color.web("#888888"));
-        gc.setLineWidth(2.5);
-        drawGenericTreeEdges(gc, genericTree.getRoot(), positions);
-
-        // Draw nodes
-        for (Map.Entry<GenericTreeNode<Integer>, double[]> entry : positions.entrySet()) {
-            GenericTreeNode<Integer> node = entry.getKey();
-            double[] pos = entry.getValue();
-            drawGenericNode(gc, node, pos[0], pos[1]);
+    private void buildFinished() {
+        runningBuild = null;
+        if (progressTimer != null) {
+            progressTimer.stop();
         }
+        setProgressVisible(false);
     }
 
-    private void calculateGenericTreePositions(GenericTreeNode<Integer> root, Map<GenericTreeNode<Integer>, double[]> positions) {
-        if (root == null) return;
-
-        // Use level-order traversal to assign positions
-        Queue<GenericTreeNode<Integer>> queue = new LinkedList<>();
-        Queue<Integer> levels = new LinkedList<>();
-        Map<Integer, List<GenericTreeNode<Integer>>> levelNodes = new HashMap<>();
-
-        queue.offer(root);
-        levels.offer(0);
-
-        while (!queue.isEmpty()) {
-            GenericTreeNode<Integer> node = queue.poll();
-            int level = levels.poll();
-
-            levelNodes.computeIfAbsent(level, k -> new ArrayList<>()).add(node);
-
-            for (GenericTreeNode<Integer> child : node.getChildren()) {
-                queue.offer(child);
-                levels.offer(level + 1);
-            }
-        }
-
-        // Assign x positions based on level and order
-        double startY = 60;
-        for (Map.Entry<Integer, List<GenericTreeNode<Integer>>> entry : levelNodes.entrySet()) {
-            int level = entry.getKey();
-            List<GenericTreeNode<Integer>> nodes = entry.getValue();
-            double y = startY + level * VERTICAL_GAP;
-            double totalWidth = treeCanvas.getWidth() - 100;
-            double spacing = totalWidth / (nodes.size() + 1);
-
-            for (int i = 0; i < nodes.size(); i++) {
-                double x = 50 + spacing * (i + 1);
-                positions.put(nodes.get(i), new double[]{x, y});
-            }
-        }
+    private void setProgressVisible(boolean visible) {
+        buildProgress.setVisible(visible);
+        buildProgress.setManaged(visible);
+        cancelBuildBtn.setVisible(visible);
+        cancelBuildBtn.setManaged(visible);
     }
 
-    private void drawGenericTreeEdges(GraphicsContext gc, GenericTreeNode<Integer> node, Map<GenericTreeNode<Integer>, double[]> positions) {
-        if (node == null) return;
-
-        double[] parentPos = positions.get(node);
-        if (parentPos == null) return;
+    // A build that already started reports back with an empty tree; one still queued never runs
+    private void cancelBuild() {
+        if (runningBuild == null) return;
+        runningBuild.cancel(true);
+        buildFinished();
+        updateStatus("Creation cancelled");
+    }
 
-        for (GenericTreeNode<Integer> child : node.getChildren()) {
-            double[] childPos = positions.get(child);
-            if (childPos != null) {
-                gc.strokeLine(parentPos[0], parentPos[1] + NODE_RADIUS, childPos[0], childPos[1] - NODE_RADIUS);
-            }
-            drawGenericTreeEdges(gc, child, positions);
-        }
+    @FXML
+    private void onCancelBuild() {
+        cancelBuild();
     }
 
-    private void drawGenericNode(GraphicsContext gc, GenericTreeNode<Integer> node, double x, double y) {
-        // Determine node color
-        Color fillColor = Color.web("#9c27b0"); // Purple for generic tree
-        Color strokeColor = Color.web("#6a1b9a");
+    // ==================== Drawing ====================
 
-        // Highlight current traverse node (highest priority - bright yellow/orange)
-        if (currentTraverseHighlight != null && node.getValue().equals(currentTraverseHighlight)) {
-            fillColor = Color.web("#ffeb3b"); // Bright yellow for current traverse
-            strokeColor = Color.web("#f57f17");
-        }
-        // Highlight search result
-        else if (searchHighlight != null && node.getValue().equals(searchHighlight)) {
-            fillColor = Color.web("#ff9800"); // Orange for found
-            strokeColor = Color.web("#e65100");
+    private void applyTreeColors() {
+        renderer.setBoxNodes(currentTreeType.equals("B-Tree"));
+        switch (currentTreeType) {
+            case "Generic Tree":
+                renderer.setNodeColors(Color.web("#9c27b0"), Color.web("#6a1b9a")); // Purple for generic tree
+                break;
+            case "AVL Tree":
+                renderer.setNodeColors(Color.web("#009688"), Color.web("#00695c")); // Teal
+                break;
+            case "B-Tree":
+                renderer.setNodeColors(Color.web("#3f51b5"), Color.web("#283593")); // Indigo for B-Tree
+                break;
+            default:
+                renderer.setNodeColors(Color.web("#4caf50"), Color.web("#2e7d32")); // Default green
         }
+    }
 
-        // Draw node circle with shadow effect
-        gc.setFill(Color.rgb(0, 0, 0, 0.2));
-        gc.fillOval(x - NODE_RADIUS + 3, y - NODE_RADIUS + 3, NODE_RADIUS * 2, NODE_RADIUS * 2);
-
-        gc.setFill(fillColor);
-        gc.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-        gc.setStroke(strokeColor);
-        gc.setLineWidth(3);
-        gc.strokeOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-
-        // Draw value
-        gc.setFill(Color.WHITE);
-        gc.fillText(String.valueOf(node.getValue()), x, y + 5);
+    // Full redraw of the cached layout, e.g. after a resize; no node positions are computed here
+    private void drawTree() {
+        renderer.redraw();
     }
 
     // ==================== Playback Controls ====================
 
     @FXML
     private void onStepBackward() {
-        updateStatus("Step backward");
+        onStepBack();
     }
 
     @FXML
     private void onPrevious() {
-        updateStatus("Previous step");
+        onStepBack();
     }
 
     @FXML
     private void onPlayPause() {
-        updateStatus("Play/Pause");
+        if (traverseTimeline != null) {
+            if (isTraversePaused) onPlay();
+            else onPause();
+        } else if (traceTimeline != null) {
+            onPause();
+        } else {
+            playTrace();
+        }
     }
 
     @FXML
     private void onNext() {
-        updateStatus("Next step");
+        onStepForward();
     }
 
     @FXML
     private void onStepForward() {
-        updateStatus("Step forward");
+        if (traverseTimeline != null) {
+            updateStatus("Step forward works on recorded operations, not traversals");
+            return;
+        }
+        pauseTracePlayback();
+        moveTrace(TRACE_FORWARD);
+    }
+
+    // ==================== Operation Playback ====================
+
+    // One playback step: the layout after it, what it did, the node to highlight, and whether it was the last
+    private record TraceStep(LayoutSnapshot layout, String description, long focus, boolean atEnd) {
+    }
+
+    /**
+     * Moves the recorded operation one step, or to its start or end, on the worker. Each step applies or
+     * reverts one change on the live tree, so the layout only redoes the subtrees it touched.
+     */
+    private void moveTrace(int move) {
+        traceStepPending = true;
+        boolean redBlack = currentTreeType.equals("Red-Black Tree");
+        worker.submit(() -> {
+            OperationTrace trace = rbTrace;
+            if (trace == null || !redBlack) return null;
+            switch (move) {
+                case TRACE_START:
+                    trace.seek(rbTree, 0);
+                    break;
+                case TRACE_BACK:
+                    trace.stepBackward(rbTree);
+                    break;
+                case TRACE_FORWARD:
+                    trace.stepForward(rbTree);
+                    break;
+                case TRACE_RESTART:
+                    if (trace.position() == trace.size()) trace.seek(rbTree, 0);
+                    break;
+                default:
+                    trace.seek(rbTree, trace.size());
+            }
+            int position = trace.position();
+            boolean atEnd = position == trace.size();
+            String description;
+            long focus = TreeRenderer.NO_TARGET;
+            if (position == 0) {
+                description = "Step 0/" + trace.size() + ": before the operation";
+            } else {
+                description = "Step " + position + "/" + trace.size() + ": " + trace.describe(position - 1);
+                RedBlackTreeNode<?> node = trace.focus(position - 1);
+                if (!atEnd) focus = targetOf(node);
+            }
+            return new TraceStep(relayout("Red-Black Tree"), description, focus, atEnd);
+        }, step -> {
+            traceStepPending = false;
+            if (step == null) {
+                pauseTracePlayback();
+                updateStatus("No operation recorded - insert or remove in a Red-Black Tree first");
+                return;
+            }
+            renderer.setLayout(step.layout());
+            renderer.setTraverseHighlight(step.focus());
+            updateStatus(step.description());
+            if (step.atEnd()) pauseTracePlayback();
+        }, e -> {
+            traceStepPending = false;
+            operationFailed(e);
+        });
+    }
+
+    private void playTrace() {
+        pauseTracePlayback();
+        moveTrace(TRACE_RESTART);
+        traceTimeline = new Timeline(new KeyFrame(Duration.millis(700), e -> {
+            // A step still being laid out is not queued behind another one
+            if (!traceStepPending) moveTrace(TRACE_FORWARD);
+        }));
+        traceTimeline.setCycleCount(Timeline.INDEFINITE);
+        traceTimeline.play();
+    }
+
+    private void pauseTracePlayback() {
+        if (traceTimeline != null) {
+            traceTimeline.stop();
+            traceTimeline = null;
+        }
+    }
+
+    // Brings the tree to the end of the recorded operation before anything else reads or changes it
+    private void settleTrace() {
+        if (rbTrace != null && rbTrace.position() != rbTrace.size()) {
+            rbTrace.seek(rbTree, rbTrace.size());
+        }
     }
 
     // ==================== Navigation ====================
 
     @FXML
     private void onBackToMenu() {
+        stopTraverseAnimation();
+        pauseTracePlayback();
+        worker.shutdown();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/oop/visualgo/main-menu.fxml"));
             Parent root = loader.load();
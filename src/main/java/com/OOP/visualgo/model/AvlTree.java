@@ -0,0 +1,249 @@
+package com.oop.visualgo.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Height-balanced BST. Every node caches its subtree height; after an insert or delete the path
+ * back to the root is retraced and rebalanced with single or double rotations, stopping as soon as
+ * a subtree height is unchanged.
+ * <p>
+ * Semantics follow {@link RedBlackTree}: duplicates go to the right and deleting a node with two
+ * children copies its successor's value into it. Rotation and key-comparison counters make
+ * workloads comparable across the balanced engines.
+ */
+public class AvlTree<T extends Comparable<T>> {
+    private AvlTreeNode<T> root;
+    private int size;
+    private long rotations;
+    private long comparisons;
+
+    public AvlTreeNode<T> getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // Number of levels, 0 for an empty tree
+    public int height() {
+        return AvlTreeNode.heightOf(root);
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    // ==================== Counters ====================
+    public long getRotationCount() {
+        return rotations;
+    }
+
+    public long getComparisonCount() {
+        return comparisons;
+    }
+
+    public void resetCounters() {
+        rotations = 0;
+        comparisons = 0;
+    }
+
+    private int compare(T a, T b) {
+        comparisons++;
+        return a.compareTo(b);
+    }
+
+    // ==================== Insert ====================
+    public void insert(T value) {
+        AvlTreeNode<T> newNode = new AvlTreeNode<>(value);
+        size++;
+        if (root == null) {
+            root = newNode;
+            return;
+        }
+
+        AvlTreeNode<T> current = root;
+        AvlTreeNode<T> parent = null;
+        boolean goLeft = false;
+        while (current != null) {
+            parent = current;
+            goLeft = compare(value, current.getValue()) < 0;
+            current = goLeft ? current.getLeft() : current.getRight();
+        }
+
+        newNode.setParent(parent);
+        if (goLeft) {
+            parent.setLeft(newNode);
+        } else {
+            parent.setRight(newNode);
+        }
+        retrace(parent);
+    }
+
+    // ==================== Rebalancing ====================
+    // Walks from node to the root, refreshing heights and rotating where a balance factor reaches +-2
+    private void retrace(AvlTreeNode<T> node) {
+        while (node != null) {
+            int oldHeight = node.getHeight();
+            node = rebalance(node);
+            if (node.getHeight() == oldHeight) {
+                return; // Ancestors see the same subtree height
+            }
+            node = node.getParent();
+        }
+    }
+
+    // Returns the root of the subtree after any rotation
+    private AvlTreeNode<T> rebalance(AvlTreeNode<T> node) {
+        updateHeight(node);
+        int balance = node.getBalanceFactor();
+        if (balance > 1) {
+            // Left-right case: rotate the left child first
+            if (node.getLeft().getBalanceFactor() < 0) {
+                rotateLeft(node.getLeft());
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            // Right-left case: rotate the right child first
+            if (node.getRight().getBalanceFactor() > 0) {
+                rotateRight(node.getRight());
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private void updateHeight(AvlTreeNode<T> node) {
+        node.setHeight(1 + Math.max(AvlTreeNode.heightOf(node.getLeft()), AvlTreeNode.heightOf(node.getRight())));
+    }
+
+    // ==================== Rotations ====================
+    private AvlTreeNode<T> rotateLeft(AvlTreeNode<T> node) {
+        rotations++;
+        AvlTreeNode<T> rightChild = node.getRight();
+        node.setRight(rightChild.getLeft());
+
+        if (rightChild.getLeft() != null) {
+            rightChild.getLeft().setParent(node);
+        }
+
+        replaceChild(node, rightChild);
+        rightChild.setLeft(node);
+        node.setParent(rightChild);
+
+        updateHeight(node);
+        updateHeight(rightChild);
+        return rightChild;
+    }
+
+    private AvlTreeNode<T> rotateRight(AvlTreeNode<T> node) {
+        rotations++;
+        AvlTreeNode<T> leftChild = node.getLeft();
+        node.setLeft(leftChild.getRight());
+
+        if (leftChild.getRight() != null) {
+            leftChild.getRight().setParent(node);
+        }
+
+        replaceChild(node, leftChild);
+        leftChild.setRight(node);
+        node.setParent(leftChild);
+
+        updateHeight(node);
+        updateHeight(leftChild);
+        return leftChild;
+    }
+
+    // Puts replacement where node hangs from its parent (or at the root)
+    private void replaceChild(AvlTreeNode<T> node, AvlTreeNode<T> replacement) {
+        AvlTreeNode<T> parent = node.getParent();
+        if (replacement != null) {
+            replacement.setParent(parent);
+        }
+        if (parent == null) {
+            root = replacement;
+        } else if (node == parent.getLeft()) {
+            parent.setLeft(replacement);
+        } else {
+            parent.setRight(replacement);
+        }
+    }
+
+    // ==================== Search ====================
+    public AvlTreeNode<T> search(T value) {
+        AvlTreeNode<T> node = root;
+        while (node != null) {
+            int cmp = compare(value, node.getValue());
+            if (cmp == 0) {
+                return node;
+            }
+            node = (cmp < 0) ? node.getLeft() : node.getRight();
+        }
+        return null;
+    }
+
+    public boolean contains(T value) {
+        return search(value) != null;
+    }
+
+    // ==================== Delete ====================
+    public boolean delete(T value) {
+        AvlTreeNode<T> node = search(value);
+        if (node == null) return false;
+
+        // Two children: take over the successor's value and unlink the successor instead
+        if (node.getLeft() != null && node.getRight() != null) {
+            AvlTreeNode<T> successor = findMin(node.getRight());
+            node.setValue(successor.getValue());
+            node = successor;
+        }
+
+        AvlTreeNode<T> child = (node.getLeft() != null) ? node.getLeft() : node.getRight();
+        AvlTreeNode<T> parent = node.getParent();
+        replaceChild(node, child);
+        node.setParent(null);
+        size--;
+        retrace(parent);
+        return true;
+    }
+
+    private AvlTreeNode<T> findMin(AvlTreeNode<T> node) {
+        while (node.getLeft() != null) {
+            node = node.getLeft();
+        }
+        return node;
+    }
+
+    // ==================== Traversals ====================
+    public Iterator<AvlTreeNode<T>> iterator(TraversalOrder order) {
+        return TreeIterators.binary(root, AvlTreeNode::getLeft, AvlTreeNode::getRight, order);
+    }
+
+    public Stream<AvlTreeNode<T>> stream(TraversalOrder order) {
+        return TreeIterators.stream(iterator(order));
+    }
+
+    public List<AvlTreeNode<T>> traverseInOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.IN_ORDER));
+    }
+
+    public List<AvlTreeNode<T>> traversePreOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.PRE_ORDER));
+    }
+
+    public List<AvlTreeNode<T>> traversePostOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.POST_ORDER));
+    }
+
+    public List<AvlTreeNode<T>> traverseBFS() {
+        return TreeIterators.toList(iterator(TraversalOrder.LEVEL_ORDER));
+    }
+}
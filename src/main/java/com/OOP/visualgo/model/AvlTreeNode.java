@@ -0,0 +1,104 @@
+package com.oop.visualgo.model;
+
+public class AvlTreeNode<T extends Comparable<T>> implements TreeNode<T> {
+    private int id; // 0 until getId() hands one out
+    private T value;
+    private AvlTreeNode<T> parent;
+    private AvlTreeNode<T> left;
+    private AvlTreeNode<T> right;
+    private int height = 1; // levels in this subtree, a leaf is 1
+    private boolean modified = true; // see isModified()
+
+    public AvlTreeNode(T value) {
+        this.value = value;
+    }
+
+    @Override
+    public int getId() {
+        if (id == 0) id = NodeIds.next();
+        return id;
+    }
+
+    @Override
+    public T getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(T value) {
+        this.value = value;
+        markModified();
+    }
+
+    @Override
+    public AvlTreeNode<T> getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TreeNode<T> parent) {
+        this.parent = (AvlTreeNode<T>) parent;
+        if (parent != null) this.parent.markModified();
+    }
+
+    public AvlTreeNode<T> getLeft() {
+        return left;
+    }
+
+    public void setLeft(AvlTreeNode<T> left) {
+        this.left = left;
+        markModified();
+    }
+
+    public AvlTreeNode<T> getRight() {
+        return right;
+    }
+
+    public void setRight(AvlTreeNode<T> right) {
+        this.right = right;
+        markModified();
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // A new height changes the balance factor of the parent, which markModified() flags as well
+    public void setHeight(int height) {
+        if (this.height == height) return;
+        this.height = height;
+        markModified();
+    }
+
+    // Height of the left subtree minus height of the right subtree, always in [-1, 1] for a balanced node
+    public int getBalanceFactor() {
+        return heightOf(left) - heightOf(right);
+    }
+
+    /**
+     * Whether this node or a node below it has changed (children, value or height) since the last
+     * {@link #clearModified}. New nodes start out modified, and a change flags the node and every
+     * ancestor up to the first one already flagged; see {@link RedBlackTreeNode#isModified}.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void clearModified() {
+        modified = false;
+    }
+
+    private void markModified() {
+        for (AvlTreeNode<T> node = this; node != null && !node.modified; node = node.parent) {
+            node.modified = true;
+        }
+    }
+
+    public boolean isLeaf() {
+        return left == null && right == null;
+    }
+
+    static int heightOf(AvlTreeNode<?> node) {
+        return (node == null) ? 0 : node.height;
+    }
+}
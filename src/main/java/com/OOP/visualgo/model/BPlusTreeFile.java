@@ -0,0 +1,593 @@
+package com.oop.visualgo.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * B+Tree of distinct int keys stored in fixed-size pages of a memory-mapped file.
+ * <p>
+ * Internal pages hold only separators and child page numbers; every key lives in a leaf and leaves are
+ * chained left to right, so range scans walk the chain instead of the tree. Pages are accessed in place
+ * through {@link MappedByteBuffer}s, which makes {@link #open(Path)} independent of the tree size: it reads
+ * the header page and maps the rest lazily. Keys therefore never live on the heap as node objects.
+ * <p>
+ * The API mirrors {@link BTree} (insert/contains/delete/range/traverseInOrder). Changes reach the file through
+ * the OS page cache; {@link #flush()} and {@link #close()} force them to disk. There is no write-ahead log,
+ * so a crash between two forces can leave the file inconsistent.
+ * <p>
+ * File layout (little-endian ints): page 0 is the header, every other page is a leaf, an internal node or a
+ * free page. A page starts with {@code type, keyCount, next, reserved}; leaves store keys after that,
+ * internal nodes store {@code internalMax + 1} key slots followed by {@code internalMax + 2} child slots.
+ * Each node has one spare key slot so it can overflow by one key before it is split.
+ */
+public class BPlusTreeFile implements Closeable {
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    public static final int MIN_PAGE_SIZE = 64;
+    public static final int MAX_PAGE_SIZE = 65536;
+    public static final int DEFAULT_CACHE_PAGES = 256;
+
+    private static final int MAGIC = 0x56425054; // "VBPT"
+    private static final int VERSION = 1;
+    private static final int PAGES_PER_SEGMENT = 1024;
+    private static final int MAX_HEIGHT = 32;
+
+    // Header page slots
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 1;
+    private static final int H_PAGE_SIZE = 2;
+    private static final int H_ROOT = 3;
+    private static final int H_HEIGHT = 4;
+    private static final int H_SIZE_LOW = 5;
+    private static final int H_SIZE_HIGH = 6;
+    private static final int H_PAGE_COUNT = 7;
+    private static final int H_FREE_HEAD = 8;
+
+    // Node page slots
+    private static final int TYPE = 0;
+    private static final int COUNT = 1;
+    private static final int NEXT = 2; // right sibling of a leaf, next free page of a free page
+    private static final int KEYS = 4;
+
+    private static final int LEAF = 1;
+    private static final int INTERNAL = 2;
+    private static final int FREE = 3;
+
+    private static final int NONE = 0; // page 0 is the header, so it never names a node
+
+    private final FileChannel channel;
+    private final int pageSize;
+    private final int leafMax;
+    private final int leafMin;
+    private final int internalMax;
+    private final int internalMin;
+    private final int childBase;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<Integer, IntBuffer> cache;
+    private final IntBuffer header;
+
+    private int root;
+    private int height;
+    private long size;
+    private int pageCount;
+    private int freeHead;
+    private boolean closed;
+
+    // Root-to-leaf path of the current insert/delete: the page and the child index taken from it
+    private final int[] pathPages = new int[MAX_HEIGHT];
+    private final int[] pathIndexes = new int[MAX_HEIGHT];
+
+    private BPlusTreeFile(FileChannel channel, int pageSize, int cachePages) {
+        this.channel = channel;
+        this.pageSize = pageSize;
+        int ints = pageSize / Integer.BYTES;
+        this.leafMax = ints - KEYS - 1;
+        this.leafMin = leafMax / 2;
+        this.internalMax = (ints - KEYS - 3) / 2;
+        this.internalMin = internalMax / 2;
+        this.childBase = KEYS + internalMax + 1;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, IntBuffer> eldest) {
+                return size() > cachePages;
+            }
+        };
+        this.header = map(0);
+    }
+
+    // ==================== Open / create / close ====================
+    /**
+     * Creates a new empty tree at path, replacing any existing file.
+     * pageSize must be a power of two between {@link #MIN_PAGE_SIZE} and {@link #MAX_PAGE_SIZE}.
+     */
+    public static BPlusTreeFile create(Path path, int pageSize) throws IOException {
+        return create(path, pageSize, DEFAULT_CACHE_PAGES);
+    }
+
+    public static BPlusTreeFile create(Path path, int pageSize, int cachePages) throws IOException {
+        if (!isValidPageSize(pageSize)) {
+            throw new IllegalArgumentException("page size must be a power of two in [" + MIN_PAGE_SIZE + ", "
+                    + MAX_PAGE_SIZE + "]: " + pageSize);
+        }
+        requirePositive(cachePages);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        BPlusTreeFile tree = new BPlusTreeFile(channel, pageSize, cachePages);
+        tree.pageCount = 1;
+        tree.header.put(H_MAGIC, MAGIC);
+        tree.header.put(H_VERSION, VERSION);
+        tree.header.put(H_PAGE_SIZE, pageSize);
+        tree.writeHeader();
+        return tree;
+    }
+
+    // Opens the tree stored at path, or creates an empty one with the default page size if there is no file
+    public static BPlusTreeFile open(Path path) throws IOException {
+        return open(path, DEFAULT_CACHE_PAGES);
+    }
+
+    public static BPlusTreeFile open(Path path, int cachePages) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return create(path, DEFAULT_PAGE_SIZE, cachePages);
+        }
+        requirePositive(cachePages);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer prefix = ByteBuffer.allocate(3 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(prefix, 0) < prefix.capacity()
+                    || prefix.getInt(0) != MAGIC || prefix.getInt(4) != VERSION) {
+                throw new IOException(path + " is not a B+Tree file");
+            }
+            // A corrupt page size would give negative slot counts and misplaced pages
+            int pageSize = prefix.getInt(8);
+            if (!isValidPageSize(pageSize) || channel.size() < pageSize) {
+                throw new IOException(path + " has a corrupt header: page size " + pageSize);
+            }
+            BPlusTreeFile tree = new BPlusTreeFile(channel, pageSize, cachePages);
+            IntBuffer h = tree.header;
+            tree.root = h.get(H_ROOT);
+            tree.height = h.get(H_HEIGHT);
+            tree.size = (h.get(H_SIZE_LOW) & 0xFFFFFFFFL) | ((long) h.get(H_SIZE_HIGH) << 32);
+            tree.pageCount = h.get(H_PAGE_COUNT);
+            tree.freeHead = h.get(H_FREE_HEAD);
+            return tree;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isValidPageSize(int pageSize) {
+        return Integer.bitCount(pageSize) == 1 && pageSize >= MIN_PAGE_SIZE && pageSize <= MAX_PAGE_SIZE;
+    }
+
+    private static void requirePositive(int cachePages) {
+        if (cachePages <= 0) {
+            throw new IllegalArgumentException("cache must hold at least one page: " + cachePages);
+        }
+    }
+
+    // Forces the header and every mapped page to disk
+    public void flush() {
+        ensureOpen();
+        writeHeader();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        flush();
+        closed = true;
+        cache.clear();
+        segments.clear();
+        channel.close();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("tree file is closed");
+        }
+    }
+
+    private void writeHeader() {
+        header.put(H_ROOT, root);
+        header.put(H_HEIGHT, height);
+        header.put(H_SIZE_LOW, (int) size);
+        header.put(H_SIZE_HIGH, (int) (size >>> 32));
+        header.put(H_PAGE_COUNT, pageCount);
+        header.put(H_FREE_HEAD, freeHead);
+    }
+
+    // ==================== Pages ====================
+    // View of a page, served from the LRU cache so hot pages (root, upper levels) are not re-sliced
+    private IntBuffer page(int id) {
+        IntBuffer page = cache.get(id);
+        if (page == null) {
+            page = map(id);
+            cache.put(id, page);
+        }
+        return page;
+    }
+
+    private IntBuffer map(int id) {
+        int segment = id / PAGES_PER_SEGMENT;
+        try {
+            // Mapping past the end of the file grows it, so new segments need no separate resize
+            while (segments.size() <= segment) {
+                long position = (long) segments.size() * PAGES_PER_SEGMENT * pageSize;
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, (long) PAGES_PER_SEGMENT * pageSize));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int offset = (id % PAGES_PER_SEGMENT) * pageSize;
+        return segments.get(segment).slice(offset, pageSize).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private int allocate(int type) {
+        int id;
+        if (freeHead != NONE) {
+            id = freeHead;
+            freeHead = page(id).get(NEXT);
+        } else {
+            id = pageCount++;
+        }
+        IntBuffer page = page(id);
+        page.put(TYPE, type);
+        page.put(COUNT, 0);
+        page.put(NEXT, NONE);
+        return id;
+    }
+
+    private void free(int id) {
+        IntBuffer page = page(id);
+        page.put(TYPE, FREE);
+        page.put(COUNT, 0);
+        page.put(NEXT, freeHead);
+        freeHead = id;
+    }
+
+    // ==================== Accessors ====================
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Number of page levels, 0 for an empty tree
+    public int height() {
+        return height;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    // Pages in the file including the header and free pages
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    // ==================== Search ====================
+    public boolean contains(int key) {
+        ensureOpen();
+        if (root == NONE) return false;
+        IntBuffer leaf = page(findLeaf(key));
+        return find(leaf, KEYS, leaf.get(COUNT), key) >= 0;
+    }
+
+    private int findLeaf(int key) {
+        int id = root;
+        for (int level = 1; level < height; level++) {
+            IntBuffer page = page(id);
+            id = page.get(childBase + childIndex(page, key));
+        }
+        return id;
+    }
+
+    // Child i of an internal page holds the keys k with keys[i - 1] <= k < keys[i]
+    private int childIndex(IntBuffer page, int key) {
+        int index = find(page, KEYS, page.get(COUNT), key);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    // Binary search of key in page[from, from + count): its offset, or -(insertion offset) - 1
+    private static int find(IntBuffer page, int from, int count, int key) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midKey = page.get(from + mid);
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    // ==================== Insert ====================
+    public boolean insert(int key) {
+        ensureOpen();
+        if (root == NONE) {
+            root = allocate(LEAF);
+            height = 1;
+        }
+
+        int depth = descend(key);
+        int leafId = (depth == 0) ? root : page(pathPages[depth - 1]).get(childBase + pathIndexes[depth - 1]);
+        IntBuffer leaf = page(leafId);
+        int count = leaf.get(COUNT);
+        int index = find(leaf, KEYS, count, key);
+        if (index >= 0) return false;
+        insertSlot(leaf, KEYS, count, -index - 1, key);
+        leaf.put(COUNT, ++count);
+        size++;
+
+        if (count > leafMax) {
+            // Copy the first key of the new right leaf up as the separator
+            int rightId = allocate(LEAF);
+            IntBuffer right = page(rightId);
+            int mid = count / 2;
+            copy(leaf, KEYS + mid, right, KEYS, count - mid);
+            right.put(COUNT, count - mid);
+            leaf.put(COUNT, mid);
+            right.put(NEXT, leaf.get(NEXT));
+            leaf.put(NEXT, rightId);
+            insertIntoParent(depth, leafId, right.get(KEYS), rightId);
+        }
+        writeHeader();
+        return true;
+    }
+
+    // Records the internal pages above the leaf for key in pathPages/pathIndexes, returns their number
+    private int descend(int key) {
+        int depth = 0;
+        int id = root;
+        for (int level = 1; level < height; level++) {
+            IntBuffer page = page(id);
+            int index = childIndex(page, key);
+            pathPages[depth] = id;
+            pathIndexes[depth++] = index;
+            id = page.get(childBase + index);
+        }
+        return depth;
+    }
+
+    // Inserts separator/rightId next to leftId in its parent, splitting internal pages bottom-up
+    private void insertIntoParent(int depth, int leftId, int separator, int rightId) {
+        while (true) {
+            if (depth == 0) {
+                int newRoot = allocate(INTERNAL);
+                IntBuffer page = page(newRoot);
+                page.put(KEYS, separator);
+                page.put(childBase, leftId);
+                page.put(childBase + 1, rightId);
+                page.put(COUNT, 1);
+                root = newRoot;
+                height++;
+                return;
+            }
+            int parentId = pathPages[--depth];
+            int index = pathIndexes[depth];
+            IntBuffer parent = page(parentId);
+            int count = parent.get(COUNT);
+            insertSlot(parent, KEYS, count, index, separator);
+            insertSlot(parent, childBase, count + 1, index + 1, rightId);
+            parent.put(COUNT, ++count);
+            if (count <= internalMax) return;
+
+            // Unlike a leaf split, the median moves up and is not kept in either half
+            int mid = count / 2;
+            int newId = allocate(INTERNAL);
+            IntBuffer right = page(newId);
+            separator = parent.get(KEYS + mid);
+            copy(parent, KEYS + mid + 1, right, KEYS, count - mid - 1);
+            copy(parent, childBase + mid + 1, right, childBase, count - mid);
+            right.put(COUNT, count - mid - 1);
+            parent.put(COUNT, mid);
+            leftId = parentId;
+            rightId = newId;
+        }
+    }
+
+    // ==================== Delete ====================
+    public boolean delete(int key) {
+        ensureOpen();
+        if (root == NONE) return false;
+
+        int depth = descend(key);
+        int nodeId = (depth == 0) ? root : page(pathPages[depth - 1]).get(childBase + pathIndexes[depth - 1]);
+        IntBuffer leaf = page(nodeId);
+        int count = leaf.get(COUNT);
+        int index = find(leaf, KEYS, count, key);
+        if (index < 0) return false;
+        removeSlot(leaf, KEYS, count, index);
+        leaf.put(COUNT, count - 1);
+        size--;
+
+        // Separators equal to the deleted key stay valid for routing, so only underflow needs repair
+        boolean isLeaf = true;
+        while (depth > 0 && page(nodeId).get(COUNT) < (isLeaf ? leafMin : internalMin)) {
+            int parentId = pathPages[--depth];
+            int childIndex = pathIndexes[depth];
+            IntBuffer parent = page(parentId);
+            int leftId = (childIndex > 0) ? parent.get(childBase + childIndex - 1) : NONE;
+            int rightId = (childIndex < parent.get(COUNT)) ? parent.get(childBase + childIndex + 1) : NONE;
+            int min = isLeaf ? leafMin : internalMin;
+            if (leftId != NONE && page(leftId).get(COUNT) > min) {
+                borrowFromLeft(parent, childIndex, page(leftId), page(nodeId), isLeaf);
+                break;
+            }
+            if (rightId != NONE && page(rightId).get(COUNT) > min) {
+                borrowFromRight(parent, childIndex, page(nodeId), page(rightId), isLeaf);
+                break;
+            }
+            if (leftId != NONE) {
+                merge(parent, childIndex - 1, leftId, nodeId, isLeaf);
+            } else {
+                merge(parent, childIndex, nodeId, rightId, isLeaf);
+            }
+            nodeId = parentId;
+            isLeaf = false;
+        }
+
+        IntBuffer rootPage = page(root);
+        if (rootPage.get(COUNT) == 0) {
+            int oldRoot = root;
+            root = (height == 1) ? NONE : rootPage.get(childBase);
+            height--;
+            free(oldRoot);
+        }
+        writeHeader();
+        return true;
+    }
+
+    private void borrowFromLeft(IntBuffer parent, int childIndex, IntBuffer left, IntBuffer node, boolean isLeaf) {
+        int leftCount = left.get(COUNT);
+        int count = node.get(COUNT);
+        if (isLeaf) {
+            // The left sibling's last key moves over and becomes the new separator
+            insertSlot(node, KEYS, count, 0, left.get(KEYS + leftCount - 1));
+            parent.put(KEYS + childIndex - 1, node.get(KEYS));
+        } else {
+            // Rotate through the parent: separator down, left sibling's last key up, its last child across
+            insertSlot(node, KEYS, count, 0, parent.get(KEYS + childIndex - 1));
+            insertSlot(node, childBase, count + 1, 0, left.get(childBase + leftCount));
+            parent.put(KEYS + childIndex - 1, left.get(KEYS + leftCount - 1));
+        }
+        node.put(COUNT, count + 1);
+        left.put(COUNT, leftCount - 1);
+    }
+
+    private void borrowFromRight(IntBuffer parent, int childIndex, IntBuffer node, IntBuffer right, boolean isLeaf) {
+        int rightCount = right.get(COUNT);
+        int count = node.get(COUNT);
+        if (isLeaf) {
+            node.put(KEYS + count, right.get(KEYS));
+            removeSlot(right, KEYS, rightCount, 0);
+            parent.put(KEYS + childIndex, right.get(KEYS));
+        } else {
+            node.put(KEYS + count, parent.get(KEYS + childIndex));
+            node.put(childBase + count + 1, right.get(childBase));
+            parent.put(KEYS + childIndex, right.get(KEYS));
+            removeSlot(right, KEYS, rightCount, 0);
+            removeSlot(right, childBase, rightCount + 1, 0);
+        }
+        node.put(COUNT, count + 1);
+        right.put(COUNT, rightCount - 1);
+    }
+
+    // Appends page rightId (and, for internal pages, the separator keys[index]) to leftId and frees rightId
+    private void merge(IntBuffer parent, int index, int leftId, int rightId, boolean isLeaf) {
+        IntBuffer left = page(leftId);
+        IntBuffer right = page(rightId);
+        int leftCount = left.get(COUNT);
+        int rightCount = right.get(COUNT);
+        if (isLeaf) {
+            copy(right, KEYS, left, KEYS + leftCount, rightCount);
+            left.put(NEXT, right.get(NEXT));
+            left.put(COUNT, leftCount + rightCount);
+        } else {
+            left.put(KEYS + leftCount, parent.get(KEYS + index));
+            copy(right, KEYS, left, KEYS + leftCount + 1, rightCount);
+            copy(right, childBase, left, childBase + leftCount + 1, rightCount + 1);
+            left.put(COUNT, leftCount + rightCount + 1);
+        }
+        int parentCount = parent.get(COUNT);
+        removeSlot(parent, KEYS, parentCount, index);
+        removeSlot(parent, childBase, parentCount + 1, index + 1);
+        parent.put(COUNT, parentCount - 1);
+        free(rightId);
+    }
+
+    // ==================== Slot helpers ====================
+    // Inserts value at page[from + index], shifting the count - index slots after it one to the right
+    private static void insertSlot(IntBuffer page, int from, int count, int index, int value) {
+        for (int i = from + count; i > from + index; i--) {
+            page.put(i, page.get(i - 1));
+        }
+        page.put(from + index, value);
+    }
+
+    private static void removeSlot(IntBuffer page, int from, int count, int index) {
+        for (int i = from + index; i < from + count - 1; i++) {
+            page.put(i, page.get(i + 1));
+        }
+    }
+
+    // Source and target are always different pages, so no overlap handling is needed
+    private static void copy(IntBuffer source, int sourceIndex, IntBuffer target, int targetIndex, int length) {
+        for (int i = 0; i < length; i++) {
+            target.put(targetIndex + i, source.get(sourceIndex + i));
+        }
+    }
+
+    // ==================== Range scan & traversal ====================
+    /**
+     * Calls action for every key in [lo, hi] in ascending order: one descent to the leaf of lo,
+     * then along the leaf chain. O(log n + k) page reads for k matching keys.
+     */
+    public void forEachInRange(int lo, int hi, IntConsumer action) {
+        ensureOpen();
+        if (root == NONE || lo > hi) return;
+        int id = findLeaf(lo);
+        IntBuffer leaf = page(id);
+        int index = find(leaf, KEYS, leaf.get(COUNT), lo);
+        index = (index >= 0) ? index : -index - 1;
+        while (true) {
+            int count = leaf.get(COUNT);
+            for (; index < count; index++) {
+                int key = leaf.get(KEYS + index);
+                if (key > hi) return;
+                action.accept(key);
+            }
+            id = leaf.get(NEXT);
+            if (id == NONE) return;
+            leaf = page(id);
+            index = 0;
+        }
+    }
+
+    public int[] range(int lo, int hi) {
+        IntStream.Builder keys = IntStream.builder();
+        forEachInRange(lo, hi, keys);
+        return keys.build().toArray();
+    }
+
+    public void forEachInOrder(IntConsumer action) {
+        forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, action);
+    }
+
+    public int[] traverseInOrder() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("too many keys for an array: " + size);
+        }
+        int[] result = new int[(int) size];
+        int[] count = new int[1];
+        forEachInOrder(key -> result[count[0]++] = key);
+        return result;
+    }
+}
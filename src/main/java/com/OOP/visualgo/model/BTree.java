@@ -0,0 +1,339 @@
+package com.oop.visualgo.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory B-Tree of distinct primitive int keys.
+ * <p>
+ * A tree of order {@code m} holds at most {@code m - 1} sorted keys per node in an {@code int[]} and
+ * searches inside a node with binary search, so a lookup touches only log_m(n) nodes instead of the
+ * ~log2(n) scattered nodes of the binary engines. Inserts split overflowing nodes bottom-up; deletes
+ * borrow from a sibling or merge with one. Every node except the root keeps at least
+ * {@code ceil(m / 2) - 1} keys and all leaves are at the same depth.
+ * <p>
+ * Unlike the binary engines, keys are a set: inserting a key that is already present does nothing.
+ */
+public class BTree {
+    public static final int DEFAULT_ORDER = 64;
+    // Every internal node except the root has at least two children, so 2^(height - 1) <= size < 2^31
+    private static final int MAX_HEIGHT = 33;
+
+    private final int order;
+    private final int minKeys;
+    private BTreeNode root;
+    private int size;
+    private int height;
+
+    // Root-to-node path of the current insert/delete: the node and the child index taken from it
+    private final BTreeNode[] pathNodes = new BTreeNode[MAX_HEIGHT];
+    private final int[] pathIndexes = new int[MAX_HEIGHT];
+
+    public BTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    public BTree(int order) {
+        if (order < 3) {
+            throw new IllegalArgumentException("order must be at least 3: " + order);
+        }
+        this.order = order;
+        this.minKeys = (order + 1) / 2 - 1;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public BTreeNode getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Number of node levels, 0 for an empty tree
+    public int height() {
+        return height;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+        height = 0;
+        Arrays.fill(pathNodes, null);
+    }
+
+    // ==================== Search ====================
+    // Node holding key, or null
+    public BTreeNode search(int key) {
+        BTreeNode node = root;
+        while (node != null) {
+            int index = node.find(key);
+            if (index >= 0) {
+                return node;
+            }
+            node = node.isLeaf() ? null : node.children[-index - 1];
+        }
+        return null;
+    }
+
+    public boolean contains(int key) {
+        return search(key) != null;
+    }
+
+    // ==================== Insert ====================
+    public boolean insert(int key) {
+        if (root == null) {
+            root = new BTreeNode(order, true);
+            root.insertKey(0, key);
+            size = 1;
+            height = 1;
+            return true;
+        }
+
+        int depth = 0;
+        BTreeNode node = root;
+        while (true) {
+            int index = node.find(key);
+            if (index >= 0) return false;
+            index = -index - 1;
+            if (node.isLeaf()) {
+                node.insertKey(index, key);
+                break;
+            }
+            pathNodes[depth] = node;
+            pathIndexes[depth++] = index;
+            node = node.children[index];
+        }
+        size++;
+        markPath(depth, node);
+
+        // Split overflowing nodes bottom-up, pushing each median into the parent
+        while (node.keyCount == order) {
+            int mid = node.keyCount / 2;
+            int median = node.keys[mid];
+            BTreeNode right = split(node, mid);
+            if (depth == 0) {
+                BTreeNode newRoot = new BTreeNode(order, false);
+                newRoot.insertKey(0, median);
+                newRoot.children[0] = node;
+                newRoot.children[1] = right;
+                root = newRoot;
+                height++;
+                break;
+            }
+            BTreeNode parent = pathNodes[--depth];
+            int index = pathIndexes[depth];
+            parent.insertKey(index, median);
+            parent.insertChild(index + 1, right);
+            node = parent;
+        }
+        return true;
+    }
+
+    // Moves the keys (and children) after mid into a new right sibling; keys[mid] is pushed up by the caller
+    private BTreeNode split(BTreeNode node, int mid) {
+        BTreeNode right = new BTreeNode(order, node.isLeaf());
+        int rightCount = node.keyCount - mid - 1;
+        System.arraycopy(node.keys, mid + 1, right.keys, 0, rightCount);
+        right.keyCount = rightCount;
+        if (!node.isLeaf()) {
+            System.arraycopy(node.children, mid + 1, right.children, 0, rightCount + 1);
+            Arrays.fill(node.children, mid + 1, node.keyCount + 1, null);
+        }
+        node.keyCount = mid;
+        return right;
+    }
+
+    // ==================== Delete ====================
+    public boolean delete(int key) {
+        int depth = 0;
+        BTreeNode node = root;
+        int index;
+        while (true) {
+            if (node == null) return false;
+            index = node.find(key);
+            if (index >= 0) break;
+            if (node.isLeaf()) return false;
+            index = -index - 1;
+            pathNodes[depth] = node;
+            pathIndexes[depth++] = index;
+            node = node.children[index];
+        }
+
+        if (!node.isLeaf()) {
+            // Replace the key with its predecessor (largest key of the left subtree), then delete that from its leaf
+            BTreeNode internal = node;
+            int keyIndex = index;
+            pathNodes[depth] = node;
+            pathIndexes[depth++] = index;
+            node = node.children[index];
+            while (!node.isLeaf()) {
+                pathNodes[depth] = node;
+                pathIndexes[depth++] = node.keyCount;
+                node = node.children[node.keyCount];
+            }
+            index = node.keyCount - 1;
+            internal.keys[keyIndex] = node.keys[index];
+        }
+        node.removeKey(index);
+        size--;
+        markPath(depth, node);
+
+        // Refill underflowing nodes bottom-up: borrow through the parent if a sibling can spare a key, else merge
+        while (depth > 0 && node.keyCount < minKeys) {
+            BTreeNode parent = pathNodes[--depth];
+            int childIndex = pathIndexes[depth];
+            BTreeNode left = (childIndex > 0) ? parent.children[childIndex - 1] : null;
+            BTreeNode right = (childIndex < parent.keyCount) ? parent.children[childIndex + 1] : null;
+            if (left != null && left.keyCount > minKeys) {
+                borrowFromLeft(parent, childIndex);
+                break;
+            }
+            if (right != null && right.keyCount > minKeys) {
+                borrowFromRight(parent, childIndex);
+                break;
+            }
+            merge(parent, (left != null) ? childIndex - 1 : childIndex);
+            node = parent;
+        }
+
+        if (root.keyCount == 0) {
+            root = root.isLeaf() ? null : root.children[0];
+            height--;
+        }
+        return true;
+    }
+
+    // The parent's separator moves down into the child, the left sibling's last key moves up
+    private void borrowFromLeft(BTreeNode parent, int childIndex) {
+        BTreeNode node = parent.children[childIndex];
+        BTreeNode left = parent.children[childIndex - 1];
+        node.insertKey(0, parent.keys[childIndex - 1]);
+        if (!node.isLeaf()) {
+            node.insertChild(0, left.children[left.keyCount]);
+            left.children[left.keyCount] = null;
+        }
+        parent.keys[childIndex - 1] = left.keys[left.keyCount - 1];
+        left.keyCount--;
+        left.modified = true;
+    }
+
+    // The parent's separator moves down into the child, the right sibling's first key moves up
+    private void borrowFromRight(BTreeNode parent, int childIndex) {
+        BTreeNode node = parent.children[childIndex];
+        BTreeNode right = parent.children[childIndex + 1];
+        node.keys[node.keyCount++] = parent.keys[childIndex];
+        if (!node.isLeaf()) {
+            node.children[node.keyCount] = right.children[0];
+            right.removeChild(0);
+        }
+        parent.keys[childIndex] = right.keys[0];
+        right.removeKey(0);
+        right.modified = true;
+    }
+
+    // Joins children[index], the separator keys[index] and children[index + 1] into one node
+    private void merge(BTreeNode parent, int index) {
+        BTreeNode left = parent.children[index];
+        BTreeNode right = parent.children[index + 1];
+        left.keys[left.keyCount] = parent.keys[index];
+        System.arraycopy(right.keys, 0, left.keys, left.keyCount + 1, right.keyCount);
+        if (!left.isLeaf()) {
+            System.arraycopy(right.children, 0, left.children, left.keyCount + 1, right.keyCount + 1);
+        }
+        left.keyCount += right.keyCount + 1;
+        parent.removeChild(index + 1);
+        parent.removeKey(index);
+        left.modified = true;
+    }
+
+    // Flags node and the path above it for views; nodes a split creates start out modified, siblings that
+    // lend or absorb keys are flagged where that happens
+    private void markPath(int depth, BTreeNode node) {
+        node.modified = true;
+        for (int i = 0; i < depth; i++) {
+            pathNodes[i].modified = true;
+        }
+    }
+
+    // ==================== Range scan & traversals ====================
+    /**
+     * Calls action for every key in [lo, hi] in ascending order. Only the nodes overlapping the
+     * range are visited: O(log n + k) for k matching keys. Recursion depth is the tree height.
+     */
+    public void forEachInRange(int lo, int hi, IntConsumer action) {
+        if (root != null && lo <= hi) {
+            scan(root, lo, hi, action);
+        }
+    }
+
+    public int[] range(int lo, int hi) {
+        IntStream.Builder keys = IntStream.builder();
+        forEachInRange(lo, hi, keys);
+        return keys.build().toArray();
+    }
+
+    public void forEachInOrder(IntConsumer action) {
+        forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, action);
+    }
+
+    // Like forEachInOrder, but passes the node holding each key and the key's index in it
+    public void forEachEntryInOrder(ObjIntConsumer<BTreeNode> action) {
+        if (root != null) {
+            entries(root, action);
+        }
+    }
+
+    public int[] traverseInOrder() {
+        int[] result = new int[size];
+        int[] count = new int[1];
+        forEachInOrder(key -> result[count[0]++] = key);
+        return result;
+    }
+
+    // Returns false once a key above hi has been reached, which stops the whole scan
+    private boolean scan(BTreeNode node, int lo, int hi, IntConsumer action) {
+        for (int i = node.lowerBound(lo); i < node.keyCount; i++) {
+            if (!node.isLeaf() && !scan(node.children[i], lo, hi, action)) {
+                return false;
+            }
+            if (node.keys[i] > hi) {
+                return false;
+            }
+            action.accept(node.keys[i]);
+        }
+        return node.isLeaf() || scan(node.children[node.keyCount], lo, hi, action);
+    }
+
+    private void entries(BTreeNode node, ObjIntConsumer<BTreeNode> action) {
+        for (int i = 0; i < node.keyCount; i++) {
+            if (!node.isLeaf()) {
+                entries(node.children[i], action);
+            }
+            action.accept(node, i);
+        }
+        if (!node.isLeaf()) {
+            entries(node.children[node.keyCount], action);
+        }
+    }
+
+    // Lazy walk over the nodes (not keys); IN_ORDER is not meaningful for multi-key nodes, use traverseInOrder()
+    public Iterator<BTreeNode> iterator(TraversalOrder order) {
+        return TreeIterators.nary(root, BTreeNode::getChildren, order);
+    }
+
+    public List<BTreeNode> traverseBFS() {
+        return TreeIterators.toList(iterator(TraversalOrder.LEVEL_ORDER));
+    }
+}
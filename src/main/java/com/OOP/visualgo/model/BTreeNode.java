@@ -0,0 +1,112 @@
+package com.oop.visualgo.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// One node of a BTree: up to order - 1 sorted int keys and, for internal nodes, keyCount + 1 children
+public class BTreeNode {
+    private int id; // 0 until getId() hands one out
+    int[] keys;
+    int keyCount;
+    BTreeNode[] children; // null for leaves
+    boolean modified = true; // set by BTree on every node an insert or delete changes, and on its ancestors
+
+    BTreeNode(int order, boolean leaf) {
+        // One spare slot so a node can overflow by a key before it is split
+        keys = new int[order];
+        children = leaf ? null : new BTreeNode[order + 1];
+    }
+
+    // Stable id, handed out on the first call; see NodeIds
+    public int getId() {
+        if (id == 0) id = NodeIds.next();
+        return id;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public int getKey(int index) {
+        if (index < 0 || index >= keyCount) {
+            throw new IndexOutOfBoundsException("index " + index + ", keys " + keyCount);
+        }
+        return keys[index];
+    }
+
+    public int[] getKeys() {
+        return Arrays.copyOf(keys, keyCount);
+    }
+
+    public boolean isLeaf() {
+        return children == null;
+    }
+
+    /**
+     * Whether this node or a node below it has changed (keys or children) since the last
+     * {@link #clearModified}. Nodes have no parent link, so {@link BTree} flags the whole root-to-node
+     * path of each change; see {@link RedBlackTreeNode#isModified}.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void clearModified() {
+        modified = false;
+    }
+
+    public BTreeNode getChild(int index) {
+        if (isLeaf() || index < 0 || index > keyCount) {
+            throw new IndexOutOfBoundsException("child " + index + " of a node with " + keyCount + " keys");
+        }
+        return children[index];
+    }
+
+    public List<BTreeNode> getChildren() {
+        if (isLeaf()) return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(children).subList(0, keyCount + 1));
+    }
+
+    // Index of key in this node, or -1 if it is not here
+    public int indexOf(int key) {
+        return Math.max(find(key), -1);
+    }
+
+    /**
+     * Binary search over the keys of this node: the index of key if present,
+     * otherwise -(insertion point) - 1, as in {@link Arrays#binarySearch(int[], int, int, int)}.
+     */
+    int find(int key) {
+        return Arrays.binarySearch(keys, 0, keyCount, key);
+    }
+
+    // Index of the first key >= key
+    int lowerBound(int key) {
+        int index = find(key);
+        return (index >= 0) ? index : -index - 1;
+    }
+
+    void insertKey(int index, int key) {
+        System.arraycopy(keys, index, keys, index + 1, keyCount - index);
+        keys[index] = key;
+        keyCount++;
+    }
+
+    void removeKey(int index) {
+        System.arraycopy(keys, index + 1, keys, index, keyCount - index - 1);
+        keyCount--;
+    }
+
+    // Call after the matching insertKey: keyCount already counts the new separator
+    void insertChild(int index, BTreeNode child) {
+        System.arraycopy(children, index, children, index + 1, keyCount - index);
+        children[index] = child;
+    }
+
+    // Call before the matching removeKey: keyCount still counts the separator being removed
+    void removeChild(int index) {
+        System.arraycopy(children, index + 1, children, index, keyCount - index);
+        children[keyCount] = null;
+    }
+}
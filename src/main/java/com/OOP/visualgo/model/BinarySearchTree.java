@@ -1,6 +1,43 @@
 package com.oop.visualgo.model;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+
 public class BinarySearchTree<T extends Comparable<T>> extends BinaryTree<T> {
+    private boolean orderStatistics; // duy trì kích thước cây con cho select/rank/countRange
+
+    // Dựng cây cân bằng hoàn hảo từ dữ liệu chưa sắp xếp: sắp xếp (song song khi mảng lớn), bỏ trùng,
+    // rồi lấy phần tử giữa làm gốc của từng đoạn - O(n) sau bước sắp xếp
+    public static <T extends Comparable<T>> BinarySearchTree<T> bulkLoad(Collection<? extends T> values) {
+        T[] sorted = BulkLoad.sortedDistinct(values);
+        BinarySearchTree<T> tree = new BinarySearchTree<>();
+        tree.setRoot(build(sorted, 0, sorted.length - 1, null));
+        return tree;
+    }
+
+    private static <T extends Comparable<T>> BinaryTreeNode<T> build(T[] sorted, int lo, int hi, BinaryTreeNode<T> parent) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        // Với giá trị trùng, lấy bản đầu tiên làm gốc để các bản còn lại nằm bên phải như insert(T)
+        while (mid > lo && sorted[mid - 1].compareTo(sorted[mid]) == 0) {
+            mid--;
+        }
+        BinaryTreeNode<T> node = new BinaryTreeNode<>(sorted[mid]);
+        node.setParent(parent);
+        node.setSize(hi - lo + 1);
+        node.setLeft(build(sorted, lo, mid - 1, node));
+        node.setRight(build(sorted, mid + 1, hi, node));
+        return node;
+    }
+
+    // Hình dạng BST do khóa quyết định, insert/delete của BST không dùng danh sách BFS: không bật, để
+    // isComplete() luôn duyệt lại cây thay vì trả về danh sách cũ sau khi BST gắn/gỡ node
+    @Override
+    public void enableLevelOrderIndex() {
+    }
+
     @Override
     public void insert(T value) {
         BinaryTreeNode<T> newNode = new BinaryTreeNode<>(value);
@@ -8,44 +45,49 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinaryTree<T> {
             setRoot(newNode);
             return;
         }
-        insertRecursive(getRoot(), newNode);
-    }
-    private void insertRecursive(BinaryTreeNode<T> current, BinaryTreeNode<T> newNode) {
-        // Nếu value < current -> đi sang trái
-        if (newNode.getValue().compareTo(current.getValue()) < 0) {
-            if (current.getLeft() == null) {
-                current.setLeft(newNode);
-                newNode.setParent(current);
-            } else {
-                insertRecursive(current.getLeft(), newNode);
+        BinaryTreeNode<T> current = getRoot();
+        while (true) {
+            if (orderStatistics) {
+                current.setSize(current.getSize() + 1);
             }
-        }
-        // Nếu value >= current -> đi sang phải
-        else {
-            if (current.getRight() == null) {
-                current.setRight(newNode);
-                newNode.setParent(current);
-            } else {
-                insertRecursive(current.getRight(), newNode);
+            // Nếu value < current -> đi sang trái
+            if (value.compareTo(current.getValue()) < 0) {
+                if (current.getLeft() == null) {
+                    current.setLeft(newNode);
+                    break;
+                }
+                current = current.getLeft();
+            }
+            // Nếu value >= current -> đi sang phải
+            else {
+                if (current.getRight() == null) {
+                    current.setRight(newNode);
+                    break;
+                }
+                current = current.getRight();
             }
         }
+        newNode.setParent(current);
+        indexAdd(newNode);
     }
 
+    // Chỉ mục (nếu bật) trả lời giá trị chỉ có ở một node và loại giá trị vắng mặt trong O(1);
+    // giá trị trùng vẫn đi theo khóa từ gốc nên trả về đúng node như khi không có chỉ mục
     @Override
     public BinaryTreeNode<T> search(T value) {
-        return searchBST(getRoot(), value);
+        return indexedSearch(value, this::searchByKey);
     }
 
-    private BinaryTreeNode<T> searchBST(BinaryTreeNode<T> node, T value) {
-        if (node == null) return null;
-        int cmp = value.compareTo(node.getValue());
-        if (cmp == 0) {
-            return node;
-        } else if (cmp < 0) {
-            return searchBST(node.getLeft(), value);
-        } else {
-            return searchBST(node.getRight(), value);
+    private BinaryTreeNode<T> searchByKey(T value) {
+        BinaryTreeNode<T> node = getRoot();
+        while (node != null) {
+            int cmp = value.compareTo(node.getValue());
+            if (cmp == 0) {
+                return node;
+            }
+            node = (cmp < 0) ? node.getLeft() : node.getRight();
         }
+        return null;
     }
 
     @Override
@@ -59,10 +101,26 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinaryTree<T> {
     }
 
     private void deleteNode(BinaryTreeNode<T> node) {
+        indexRemove(node.getValue());
+        // TH3: Node có 2 con -> thay bằng node nhỏ nhất của con phải, rồi xóa node đó (node đó có tối đa 1 con)
+        if (node.getLeft() != null && node.getRight() != null) {
+            BinaryTreeNode<T> successor = findMin(node.getRight());
+            // Giá trị của successor chuyển sang node
+            indexRemove(successor.getValue());
+            node.setValue(successor.getValue());
+            indexAdd(node);
+            node = successor;
+        }
+        // Mọi tổ tiên của node bị gỡ mất một node con cháu
+        if (orderStatistics) {
+            for (BinaryTreeNode<T> ancestor = node.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+                ancestor.setSize(ancestor.getSize() - 1);
+            }
+        }
         // TH1: Node là lá
         if (node.isLeaf()) {
             if (node == getRoot()) {
-                setRoot(null);
+                replaceRoot(null);
             } else {
                 BinaryTreeNode<T> parent = node.getParent();
                 if (parent.getLeft() == node) {
@@ -73,10 +131,10 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinaryTree<T> {
             }
         }
         // TH2: Node có 1 con
-        else if (node.getLeft() == null || node.getRight() == null) {
+        else {
             BinaryTreeNode<T> child = (node.getLeft() != null) ? node.getLeft() : node.getRight();
             if (node == getRoot()) {
-                setRoot(child);
+                replaceRoot(child);
                 child.setParent(null);
             } else {
                 BinaryTreeNode<T> parent = node.getParent();
@@ -88,14 +146,134 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinaryTree<T> {
                 child.setParent(parent);
             }
         }
-        // TH3: Node có 2 con -> thay bằng node nhỏ nhất của con phải || node lớn nhất của con trái
-        else {
-            BinaryTreeNode<T> successor = findMin(node.getRight());
-            node.setValue(successor.getValue());
-            deleteNode(successor);
+    }
+
+    // ==================== Batch operations ====================
+    // Chèn cả lô trong một lượt trộn: sắp xếp lô rồi cho cả đoạn khóa đi xuống cây cùng nhau. Tại mỗi node,
+    // đoạn được tách (tìm nhị phân) thành phần < node đi sang trái và phần >= node đi sang phải, nên mỗi node
+    // chỉ bị so sánh một lần cho cả lô thay vì một lần cho mỗi khóa. Đoạn rơi vào một chỗ trống được dựng
+    // thành cây con cân bằng như bulkLoad, nên lô khóa liền nhau không tạo thành chuỗi dài như khi chèn
+    // lần lượt theo thứ tự tăng dần. Giữ giá trị trùng như insert(T)
+    public void insertAll(Collection<? extends T> values) {
+        T[] sorted = BulkLoad.sorted(values);
+        if (sorted.length == 0) return;
+        if (getRoot() == null) {
+            setRoot(build(sorted, 0, sorted.length - 1, null));
+            return;
+        }
+        Deque<Segment<T>> pending = new ArrayDeque<>();
+        pending.push(new Segment<>(getRoot(), 0, sorted.length - 1));
+        while (!pending.isEmpty()) {
+            Segment<T> segment = pending.pop();
+            BinaryTreeNode<T> node = segment.node;
+            if (orderStatistics) {
+                node.setSize(node.getSize() + segment.hi - segment.lo + 1);
+            }
+            int split = lowerBound(sorted, segment.lo, segment.hi + 1, node.getValue());
+            if (split > segment.lo) {
+                if (node.getLeft() == null) {
+                    node.setLeft(build(sorted, segment.lo, split - 1, node));
+                    indexAddSubtree(node.getLeft());
+                } else {
+                    pending.push(new Segment<>(node.getLeft(), segment.lo, split - 1));
+                }
+            }
+            if (split <= segment.hi) {
+                if (node.getRight() == null) {
+                    node.setRight(build(sorted, split, segment.hi, node));
+                    indexAddSubtree(node.getRight());
+                } else {
+                    pending.push(new Segment<>(node.getRight(), split, segment.hi));
+                }
+            }
         }
     }
 
+    // Đoạn [lo, hi] của lô đã sắp xếp còn phải đi xuống cây con gốc node
+    private static final class Segment<T> {
+        final BinaryTreeNode<T> node;
+        final int lo;
+        final int hi;
+
+        Segment(BinaryTreeNode<T> node, int lo, int hi) {
+            this.node = node;
+            this.lo = lo;
+            this.hi = hi;
+        }
+    }
+
+    // Chỉ số đầu tiên trong [from, to) có giá trị >= key
+    private static <T extends Comparable<T>> int lowerBound(T[] sorted, int from, int to, T key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    // Xóa cả lô theo thứ tự tăng dần, mỗi khóa xóa một bản như delete(T). Tìm kiếm bắt đầu từ finger - node
+    // đứng ngay trước node vừa xóa, node này không bị deleteNode đụng tới - thay vì từ gốc: chỉ leo lên tới
+    // tổ tiên đầu tiên có thể chứa khóa rồi đi xuống, nên lô khóa gần nhau chỉ chạm vào một vùng nhỏ của cây.
+    // Trả về số giá trị đã xóa
+    public int deleteAll(Collection<? extends T> values) {
+        int removed = 0;
+        BinaryTreeNode<T> finger = null;
+        for (T value : BulkLoad.sorted(values)) {
+            BinaryTreeNode<T> node = (finger == null) ? search(value) : searchFrom(finger, value);
+            if (node == null) continue;
+            finger = predecessor(node);
+            deleteNode(node);
+            removed++;
+        }
+        return removed;
+    }
+
+    // Tìm value (>= finger.getValue()) bắt đầu từ finger
+    private BinaryTreeNode<T> searchFrom(BinaryTreeNode<T> finger, T value) {
+        BinaryTreeNode<T> node = climb(finger, value);
+        while (node != null) {
+            int cmp = value.compareTo(node.getValue());
+            if (cmp == 0) {
+                return node;
+            }
+            node = (cmp < 0) ? node.getLeft() : node.getRight();
+        }
+        return null;
+    }
+
+    // Leo từ node lên tổ tiên thấp nhất có cây con chứa được value. Vì value >= node.getValue(), cận dưới
+    // luôn thỏa; cận trên của cây con là tổ tiên đầu tiên mà ta đi lên từ nhánh trái của nó
+    private BinaryTreeNode<T> climb(BinaryTreeNode<T> node, T value) {
+        while (true) {
+            BinaryTreeNode<T> child = node;
+            BinaryTreeNode<T> parent = child.getParent();
+            while (parent != null && parent.getRight() == child) {
+                child = parent;
+                parent = parent.getParent();
+            }
+            if (parent == null || value.compareTo(parent.getValue()) < 0) {
+                return node;
+            }
+            node = parent;
+        }
+    }
+
+    private BinaryTreeNode<T> predecessor(BinaryTreeNode<T> node) {
+        if (node.getLeft() != null) {
+            return findMax(node.getLeft());
+        }
+        BinaryTreeNode<T> parent = node.getParent();
+        while (parent != null && node == parent.getLeft()) {
+            node = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+
     // Tìm node nhỏ nhất trong subtree
     public BinaryTreeNode<T> findMin(BinaryTreeNode<T> node) {
         while (node.getLeft() != null) {
@@ -124,17 +302,87 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinaryTree<T> {
         return findMax(getRoot());
     }
 
-    // Duyệt In-order (Left -> Root -> Right)
-    public java.util.List<BinaryTreeNode<T>> traverseInOrder() {
-        java.util.List<BinaryTreeNode<T>> result = new java.util.ArrayList<>();
-        inOrderRecursive(getRoot(), result);
-        return result;
+    // ==================== Order statistics ====================
+    // Bật duy trì kích thước cây con (tính lại một lần theo post-order) để select/rank/countRange chạy O(h).
+    // Chỉ insert(T)/delete của BST cập nhật kích thước; node gắn trực tiếp vào cây cần gọi lại hàm này
+    public void enableOrderStatistics() {
+        Iterator<BinaryTreeNode<T>> nodes = iterator(TraversalOrder.POST_ORDER);
+        while (nodes.hasNext()) {
+            BinaryTreeNode<T> node = nodes.next();
+            node.setSize(sizeOf(node.getLeft()) + sizeOf(node.getRight()) + 1);
+        }
+        orderStatistics = true;
+    }
+
+    public void disableOrderStatistics() {
+        orderStatistics = false;
     }
 
-    private void inOrderRecursive(BinaryTreeNode<T> node, java.util.List<BinaryTreeNode<T>> result) {
-        if (node == null) return;
-        inOrderRecursive(node.getLeft(), result);
-        result.add(node);
-        inOrderRecursive(node.getRight(), result);
+    public boolean isOrderStatisticsEnabled() {
+        return orderStatistics;
+    }
+
+    public int size() {
+        requireOrderStatistics();
+        return sizeOf(getRoot());
+    }
+
+    // Node có giá trị nhỏ thứ k (đếm từ 0)
+    public BinaryTreeNode<T> select(int k) {
+        requireOrderStatistics();
+        if (k < 0 || k >= sizeOf(getRoot())) {
+            throw new IndexOutOfBoundsException("k = " + k + ", size = " + sizeOf(getRoot()));
+        }
+        BinaryTreeNode<T> node = getRoot();
+        while (true) {
+            int leftSize = sizeOf(node.getLeft());
+            if (k < leftSize) {
+                node = node.getLeft();
+            } else if (k == leftSize) {
+                return node;
+            } else {
+                k -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
+    }
+
+    // Số giá trị nhỏ hơn hẳn key
+    public int rank(T key) {
+        requireOrderStatistics();
+        return countBelow(key, false);
+    }
+
+    // Số giá trị nằm trong đoạn [lo, hi]
+    public int countRange(T lo, T hi) {
+        requireOrderStatistics();
+        if (lo.compareTo(hi) > 0) return 0;
+        return countBelow(hi, true) - countBelow(lo, false);
+    }
+
+    private int countBelow(T key, boolean inclusive) {
+        int count = 0;
+        BinaryTreeNode<T> node = getRoot();
+        while (node != null) {
+            int cmp = key.compareTo(node.getValue());
+            if (cmp > 0 || (inclusive && cmp == 0)) {
+                // Node và toàn bộ cây con trái đều nhỏ hơn key
+                count += sizeOf(node.getLeft()) + 1;
+                node = node.getRight();
+            } else {
+                node = node.getLeft();
+            }
+        }
+        return count;
+    }
+
+    private int sizeOf(BinaryTreeNode<T> node) {
+        return (node == null) ? 0 : node.getSize();
+    }
+
+    private void requireOrderStatistics() {
+        if (!orderStatistics) {
+            throw new IllegalStateException("order statistics are not enabled; call enableOrderStatistics() first");
+        }
     }
 }
@@ -1,9 +1,16 @@
 package com.oop.visualgo.model;
 
 import java.util.*;
+import java.util.function.Function;
 
 public class BinaryTree<T> implements Tree<T, BinaryTreeNode<T>> {
        private BinaryTreeNode<T> root;
+       private ValueIndex<T, BinaryTreeNode<T>> index; // null khi chưa bật chỉ mục
+       // Các node theo BFS khi cây đầy đủ: con của phần tử i là 2i + 1 và 2i + 2, nên insert(T) và delete
+       // không phải duyệt cả cây. Chỉ giữ khi đã bật enableLevelOrderIndex(); null khi chưa dựng hoặc cây
+       // không còn đầy đủ, dựng lại khi cần
+       private ArrayList<BinaryTreeNode<T>> levelOrder;
+       private boolean levelOrderIndexed;
        @Override
        public BinaryTreeNode<T> getRoot() {
            return root;
@@ -11,6 +18,64 @@ public class BinaryTree<T> implements Tree<T, BinaryTreeNode<T>> {
        @Override
        public void setRoot(BinaryTreeNode<T> root) {
            this.root = root;
+           levelOrder = null;
+           if (index != null) {
+               index.rebuild(iterator(TraversalOrder.PRE_ORDER));
+           }
+       }
+       // Bật chỉ mục giá trị -> node: search, update và insert theo parentValue thành O(1)
+       public void enableIndex() {
+           index = new ValueIndex<>();
+           index.rebuild(iterator(TraversalOrder.PRE_ORDER));
+       }
+       public void disableIndex() {
+           index = null;
+       }
+       public boolean isIndexed() {
+           return index != null;
+       }
+       // Bật giữ danh sách BFS của cây đầy đủ: insert(T) và delete thành O(1) thay vì duyệt cả cây.
+       // Khi bật, mọi thay đổi phải đi qua các phương thức của cây; sửa node trực tiếp bằng setter thì
+       // gọi setRoot(getRoot()) để bỏ danh sách cũ
+       public void enableLevelOrderIndex() {
+           levelOrderIndexed = true;
+       }
+       public void disableLevelOrderIndex() {
+           levelOrderIndexed = false;
+           levelOrder = null;
+       }
+       public boolean isLevelOrderIndexed() {
+           return levelOrderIndexed;
+       }
+       // Số node đang giữ value theo chỉ mục trong O(1), -1 khi chưa bật chỉ mục
+       public int indexedCount(T value) {
+           return (index == null) ? -1 : index.count(value);
+       }
+       // Ghi node vừa gắn vào cây vào chỉ mục (nếu có)
+       protected void indexAdd(BinaryTreeNode<T> node) {
+           if (index != null) index.add(node);
+       }
+       // Ghi cả cây con gốc node, khi lớp con gắn thẳng một cây con dựng sẵn vào cây
+       protected void indexAddSubtree(BinaryTreeNode<T> node) {
+           if (index != null) {
+               iterator(node, TraversalOrder.PRE_ORDER).forEachRemaining(index::add);
+           }
+       }
+       // Bỏ một node giữ value khỏi chỉ mục; gọi trước khi node bị gỡ hoặc bị ghi đè giá trị
+       protected void indexRemove(T value) {
+           if (index != null) index.remove(value);
+       }
+       // Tra chỉ mục nếu đang bật, nếu không (hoặc value có ở nhiều node) thì dùng cách tìm scan của cây
+       protected BinaryTreeNode<T> indexedSearch(T value, Function<T, BinaryTreeNode<T>> scan) {
+           if (index != null) {
+               return index.lookup(value, scan);
+           }
+           return scan.apply(value);
+       }
+       // Đổi gốc mà không dựng lại chỉ mục, cho lớp con đã tự cập nhật chỉ mục
+       protected void replaceRoot(BinaryTreeNode<T> root) {
+           this.root = root;
+           levelOrder = null;
        }
        @Override
        // check con trái -> con phải -> insert
@@ -18,166 +83,235 @@ public class BinaryTree<T> implements Tree<T, BinaryTreeNode<T>> {
            BinaryTreeNode<T> newNode = new BinaryTreeNode<>(value);
            if (root == null) {
                root = newNode;
+               levelOrder = null;
+               indexAdd(newNode);
                return;
            }
            BinaryTreeNode<T> parent = search(parentValue);
+           levelOrder = null; // gắn vào cha tùy ý có thể làm cây không còn đầy đủ
            if (parent.getLeft() == null) {
                parent.setLeft(newNode);
                newNode.setParent(parent);
+               indexAdd(newNode);
            }
            else if (parent.getRight() == null) {
                parent.setRight(newNode);
                newNode.setParent(parent);
+               indexAdd(newNode);
            }
        }
      //  Tự động tìm node đầu tiên chưa có đủ 2 con để thêm vào
        public void insert(T value) {
            BinaryTreeNode<T> newNode = new BinaryTreeNode<>(value);
+           List<BinaryTreeNode<T>> nodes = levelOrder();
+           if (nodes == levelOrder) {
+               // Cây đầy đủ: vị trí trống đầu tiên theo BFS là chỉ số n, cha ở (n - 1) / 2
+               int n = nodes.size();
+               if (n == 0) {
+                   root = newNode;
+               } else {
+                   BinaryTreeNode<T> parent = nodes.get((n - 1) / 2);
+                   if (n % 2 == 1) {
+                       parent.setLeft(newNode);
+                   } else {
+                       parent.setRight(newNode);
+                   }
+                   newNode.setParent(parent);
+               }
+               nodes.add(newNode);
+               indexAdd(newNode);
+               return;
+           }
+           // Không giữ danh sách BFS hoặc cây không đầy đủ: duyệt để tìm node đầu tiên chưa có đủ 2 con
            if (root == null) {
                root = newNode;
+               indexAdd(newNode);
                return;
            }
-           // Dùng BFS để tìm node đầu tiên chưa có đủ 2 con
-           Queue<BinaryTreeNode<T>> queue = new LinkedList<>();
-           queue.offer(root);
-           while (!queue.isEmpty()) {
-               BinaryTreeNode<T> current = queue.poll();
+           for (BinaryTreeNode<T> current : nodes) {
                // Nếu chưa có con trái -> thêm vào bên trái
                if (current.getLeft() == null) {
                    current.setLeft(newNode);
                    newNode.setParent(current);
+                   indexAdd(newNode);
                    return;
-               } else {
-                   queue.offer(current.getLeft());
                }
                // Nếu chưa có con phải -> thêm vào bên phải
                if (current.getRight() == null) {
                    current.setRight(newNode);
                    newNode.setParent(current);
+                   indexAdd(newNode);
                    return;
-               } else {
-                   queue.offer(current.getRight());
                }
            }
        }
        @Override
        public boolean delete(T value) {
            if (root == null) return false;
+           if (index != null && !index.contains(value)) return false;
 
-           // Tìm node cần xóa và node cuối cùng (rightmost, deepest node)
-           BinaryTreeNode<T> deleteNode = null;
-           BinaryTreeNode<T> lastNode = null;
-           BinaryTreeNode<T> lastParent = null;
-
-           Queue<BinaryTreeNode<T>> queue = new LinkedList<>();
-           queue.offer(root);
-
-           while (!queue.isEmpty()) {
-               BinaryTreeNode<T> current = queue.poll();
-
-               if (current.getValue().equals(value)) {
-                   deleteNode = current;
-               }
-
-               // Track parent of last node
-               if (current.getLeft() != null) {
-                   lastParent = current;
-                   queue.offer(current.getLeft());
-               }
-               if (current.getRight() != null) {
-                   lastParent = current;
-                   queue.offer(current.getRight());
-               }
-
-               lastNode = current;
-           }
+           List<BinaryTreeNode<T>> nodes = levelOrder();
+           boolean complete = (nodes == levelOrder);
 
+           // Node cần xóa là node khớp cuối cùng theo BFS, node cuối cùng (rightmost, deepest) là phần tử cuối
+           BinaryTreeNode<T> deleteNode = findLastMatch(nodes, value);
            if (deleteNode == null) return false;
+           int last = nodes.size() - 1;
+           BinaryTreeNode<T> lastNode = nodes.get(last);
 
            // Nếu cây chỉ có 1 node (root)
            if (lastNode == root && deleteNode == root) {
                root = null;
+               levelOrder = null;
+               if (index != null) index.clear();
                return true;
            }
 
            // Thay thế giá trị của node bị xóa bằng giá trị của node cuối cùng
+           if (index != null) {
+               index.remove(value);
+               if (deleteNode != lastNode) {
+                   index.remove(lastNode.getValue());
+               }
+           }
            deleteNode.setValue(lastNode.getValue());
+           if (deleteNode != lastNode) {
+               indexAdd(deleteNode);
+           }
 
            // Xóa node cuối cùng
-           if (lastParent != null) {
-               if (lastParent.getRight() == lastNode) {
-                   lastParent.setRight(null);
-               } else if (lastParent.getLeft() == lastNode) {
-                   lastParent.setLeft(null);
+           BinaryTreeNode<T> lastParent = complete ? nodes.get((last - 1) / 2) : findParent(nodes, last);
+           if (lastParent.getRight() == lastNode) {
+               lastParent.setRight(null);
+           } else if (lastParent.getLeft() == lastNode) {
+               lastParent.setLeft(null);
+           }
+           if (complete) {
+               nodes.remove(last); // Bỏ phần tử cuối, cây vẫn đầy đủ
+           }
+           return true;
+       }
+       // Danh sách node theo BFS. Khi đã bật chỉ mục BFS và cây đầy đủ (complete), danh sách được giữ lại
+       // trong levelOrder và insert(T)/delete cập nhật nó trực tiếp; nếu không thì trả về bản tạm và
+       // levelOrder vẫn là null
+       private List<BinaryTreeNode<T>> levelOrder() {
+           if (levelOrder != null) return levelOrder;
+           ArrayList<BinaryTreeNode<T>> nodes = new ArrayList<>();
+           iterator(TraversalOrder.LEVEL_ORDER).forEachRemaining(nodes::add);
+           if (levelOrderIndexed && isComplete(nodes)) {
+               levelOrder = nodes;
+           }
+           return nodes;
+       }
+       // Cây có đầy đủ (complete) không; O(1) khi danh sách BFS đang được giữ, nếu không thì duyệt một lần
+       public boolean isComplete() {
+           if (levelOrder != null) return true;
+           List<BinaryTreeNode<T>> nodes = levelOrder();
+           return nodes == levelOrder || isComplete(nodes);
+       }
+       // Cây đầy đủ khi theo BFS, sau chỗ trống đầu tiên không còn node con nào
+       private boolean isComplete(List<BinaryTreeNode<T>> nodes) {
+           boolean gap = false;
+           for (BinaryTreeNode<T> node : nodes) {
+               if (node.getLeft() == null) {
+                   gap = true;
+               } else if (gap) {
+                   return false;
+               }
+               if (node.getRight() == null) {
+                   gap = true;
+               } else if (gap) {
+                   return false;
                }
            }
-
            return true;
        }
+       private BinaryTreeNode<T> findLastMatch(List<BinaryTreeNode<T>> nodes, T value) {
+           // Giá trị chỉ có ở một node: chỉ mục trả về đúng node đó trong O(1)
+           if (index != null && index.count(value) == 1) {
+               return search(value);
+           }
+           for (int i = nodes.size() - 1; i >= 0; i--) {
+               if (nodes.get(i).getValue().equals(value)) {
+                   return nodes.get(i);
+               }
+           }
+           return null;
+       }
+       // Cha của nodes[child]: node cuối cùng đứng trước nó theo BFS có con trỏ tới nó
+       private BinaryTreeNode<T> findParent(List<BinaryTreeNode<T>> nodes, int child) {
+           BinaryTreeNode<T> node = nodes.get(child);
+           for (int i = child - 1; i >= 0; i--) {
+               BinaryTreeNode<T> candidate = nodes.get(i);
+               if (candidate.getLeft() == node || candidate.getRight() == node) {
+                   return candidate;
+               }
+           }
+           return null;
+       }
        @Override
        public boolean update(T oldValue, T newValue) {
            BinaryTreeNode<T> oldNode = search(oldValue);
            if (oldNode != null) {
+               if (index != null) index.remove(oldValue);
                oldNode.setValue(newValue);
+               indexAdd(oldNode);
                return true;
            }
            return false;
        }
        @Override
        public BinaryTreeNode<T> search(T value) {
-           return searchRecursive(root, value);
+           return indexedSearch(value, v -> searchSubtree(root, v));
        }
-       public BinaryTreeNode<T> searchRecursive(BinaryTreeNode<T> node, T value) {
+       // Tìm theo thứ tự pre-order bằng stack tường minh (không đệ quy) trong cây con gốc node
+       public BinaryTreeNode<T> searchSubtree(BinaryTreeNode<T> node, T value) {
            if (node == null) return null;
-           if (node.getValue().equals(value)) {
-               return node;
+           Deque<BinaryTreeNode<T>> stack = new ArrayDeque<>();
+           stack.push(node);
+           while (!stack.isEmpty()) {
+               BinaryTreeNode<T> current = stack.pop();
+               if (current.getValue().equals(value)) {
+                   return current;
+               }
+               if (current.getRight() != null) {
+                   stack.push(current.getRight());
+               }
+               if (current.getLeft() != null) {
+                   stack.push(current.getLeft());
+               }
            }
-           BinaryTreeNode<T> leftFound = searchRecursive(node.getLeft(), value);
-           if (leftFound != null) return leftFound;
-           return searchRecursive(node.getRight(), value);
+           return null;
        }
        @Override
+       public Iterator<BinaryTreeNode<T>> iterator(TraversalOrder order) {
+           return iterator(root, order);
+       }
+       private static <T> Iterator<BinaryTreeNode<T>> iterator(BinaryTreeNode<T> node, TraversalOrder order) {
+           return TreeIterators.binary(node, BinaryTreeNode::getLeft, BinaryTreeNode::getRight, order);
+       }
+       // Duyệt DFS (Pre-order: Root -> Left -> Right)
+       @Override
        public List<BinaryTreeNode<T>> traverseDFS() {
-           List<BinaryTreeNode<T>> res = new ArrayList<>();
-           if (root == null) {
-               return res;
-           }
-           Stack<BinaryTreeNode<T>> st = new Stack<>();
-           st.push(root);
-           while (!st.isEmpty()) {
-               BinaryTreeNode<T> cur = st.pop();
-               res.add(cur);
-               if (cur.getRight() != null) {
-                   st.push(cur.getRight());
-               }
-               if (cur.getLeft() != null) {
-                   st.push(cur.getLeft());
-               }
-           }
-           return res;
+           return TreeIterators.toList(iterator(TraversalOrder.PRE_ORDER));
        }
        @Override
        public List<BinaryTreeNode<T>> traverseBFS() {
-           List<BinaryTreeNode<T>> res = new ArrayList<>();
-           if (root == null) return res;
-
-           Queue<BinaryTreeNode<T>> queue = new LinkedList<>();
-           queue.offer(root);
-           while (!queue.isEmpty()) {
-               BinaryTreeNode<T> node = queue.poll();
-               res.add(node);
-               if (node.getLeft() != null) {
-                   queue.offer(node.getLeft());
-               }
-               if (node.getRight() != null) {
-                   queue.offer(node.getRight());
-               }
-           }
-           return res;
+           return TreeIterators.toList(iterator(TraversalOrder.LEVEL_ORDER));
+       }
+       // Duyệt In-order (Left -> Root -> Right)
+       public List<BinaryTreeNode<T>> traverseInOrder() {
+           return TreeIterators.toList(iterator(TraversalOrder.IN_ORDER));
+       }
+       // Duyệt Post-order (Left -> Right -> Root)
+       public List<BinaryTreeNode<T>> traversePostOrder() {
+           return TreeIterators.toList(iterator(TraversalOrder.POST_ORDER));
        }
        @Override
        public void clear() {
            root = null;
+           levelOrder = null;
+           if (index != null) index.clear();
        }
 
 
@@ -1,20 +1,29 @@
 package com.oop.visualgo.model;
 
 public class BinaryTreeNode<T> implements TreeNode<T> {
+    private int id; // 0 until getId() hands one out
     private T value;
     private BinaryTreeNode<T> parent;
     private BinaryTreeNode<T> left;
     private BinaryTreeNode<T> right;
+    private int size = 1; // số node trong cây con, chỉ được duy trì khi BST bật order statistics
+    private boolean modified = true; // xem isModified()
     public BinaryTreeNode (T value) {
         this.value = value;
     }
     @Override
+    public int getId() {
+        if (id == 0) id = NodeIds.next();
+        return id;
+    }
+    @Override
     public T getValue() {
         return value;
     }
     @Override
     public void setValue(T value) {
         this.value = value;
+        markModified();
     }
     @Override
     public BinaryTreeNode<T> getParent() {
@@ -23,20 +32,45 @@ public class BinaryTreeNode<T> implements TreeNode<T> {
     @Override
     public void setParent(TreeNode<T> parent) {
         this.parent = (BinaryTreeNode<T>) parent;
+        if (parent != null) this.parent.markModified();
     }
     public BinaryTreeNode<T> getLeft() {
         return left;
     }
     public void setLeft(BinaryTreeNode<T> left) {
         this.left = left;
+        markModified();
     }
     public BinaryTreeNode<T> getRight() {
         return right;
     }
     public void setRight(BinaryTreeNode<T> right) {
         this.right = right;
+        markModified();
+    }
+    public int getSize() {
+        return size;
+    }
+    public void setSize(int size) {
+        this.size = size;
     }
     public boolean isLeaf() {
         return (left == null) && (right == null);
     }
+    /**
+     * Node này hoặc một node bên dưới đã đổi (con, giá trị) kể từ lần clearModified() gần nhất.
+     * Node mới luôn được đánh dấu; mỗi thay đổi đánh dấu node và các tổ tiên cho tới tổ tiên đầu tiên
+     * đã được đánh dấu, xem RedBlackTreeNode#isModified.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+    public void clearModified() {
+        modified = false;
+    }
+    private void markModified() {
+        for (BinaryTreeNode<T> node = this; node != null && !node.modified; node = node.parent) {
+            node.modified = true;
+        }
+    }
 }
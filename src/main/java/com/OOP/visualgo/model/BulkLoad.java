@@ -0,0 +1,59 @@
+package com.oop.visualgo.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Input preparation shared by the bulk builders and batch operations of {@link BinarySearchTree},
+ * {@link RedBlackTree} and {@link IntRedBlackTree}.
+ * <p>
+ * The builders put the middle element of every range at the root of its subtree, so sibling
+ * subtree sizes differ by at most one: every level is full except possibly the deepest one.
+ */
+final class BulkLoad {
+    private BulkLoad() {
+    }
+
+    // Sorted copy that keeps duplicates, for batch operations that must apply every value
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T extends Comparable<T>> T[] sorted(Collection<? extends T> values) {
+        T[] sorted = (T[]) values.toArray(new Comparable[0]);
+        Arrays.parallelSort(sorted);
+        return sorted;
+    }
+
+    // Sorted copy without duplicates; Arrays.parallelSort only forks for large arrays
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T extends Comparable<T>> T[] sortedDistinct(Collection<? extends T> values) {
+        T[] sorted = (T[]) values.toArray(new Comparable[0]);
+        Arrays.parallelSort(sorted);
+        int distinct = 0;
+        for (T value : sorted) {
+            if (distinct == 0 || sorted[distinct - 1].compareTo(value) != 0) {
+                sorted[distinct++] = value;
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    static int[] sortedDistinct(int[] keys) {
+        int[] sorted = keys.clone();
+        Arrays.parallelSort(sorted);
+        int distinct = 0;
+        for (int key : sorted) {
+            if (distinct == 0 || sorted[distinct - 1] != key) {
+                sorted[distinct++] = key;
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * Depth of the partially filled bottom level in a midpoint-built tree of n nodes, i.e. the number
+     * of full levels. Colouring exactly the nodes at this depth red gives every path the same number
+     * of black nodes, and those red nodes are leaves, so no red node has a red child.
+     */
+    static int redDepth(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n + 1);
+    }
+}
@@ -0,0 +1,181 @@
+package com.oop.visualgo.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe wrapper around a {@link RedBlackTree}, guarded by a {@link StampedLock}.
+ * <p>
+ * Writers ({@link #insert}, {@link #insertIfAbsent}, {@link #delete}) take the write lock. Readers first run
+ * without any lock under an optimistic stamp and keep the result only if no write happened meanwhile;
+ * otherwise they retry once under the shared read lock. Read-mostly workloads therefore never write to
+ * shared memory on the read path.
+ * <p>
+ * An optimistic reader may observe a rotation half-done: links can briefly form a cycle or lead to null.
+ * Every optimistic walk is therefore bounded by a step budget and any runtime exception it throws is
+ * treated like a failed validation. Values are returned, never nodes, because nodes keep changing
+ * after the lock is released.
+ */
+public class ConcurrentRedBlackTree<T extends Comparable<T>> {
+    // A red-black tree of fewer than 2^31 nodes is at most 62 levels deep
+    private static final int MAX_SEARCH_STEPS = 64;
+
+    private final RedBlackTree<T> tree = new RedBlackTree<>();
+    private final StampedLock lock = new StampedLock();
+    private int size;
+
+    // ==================== Writes ====================
+    // Duplicates are allowed, as in RedBlackTree
+    public void insert(T value) {
+        long stamp = lock.writeLock();
+        try {
+            tree.insert(value);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Set-style insert: the lookup and the insert happen under one write lock
+    public boolean insertIfAbsent(T value) {
+        long stamp = lock.writeLock();
+        try {
+            if (tree.search(value) != null) return false;
+            tree.insert(value);
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean delete(T value) {
+        long stamp = lock.writeLock();
+        try {
+            boolean removed = tree.delete(value);
+            if (removed) size--;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            tree.setRoot(null);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== Reads ====================
+    public boolean contains(T value) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int found = find(value, MAX_SEARCH_STEPS);
+                if (found >= 0 && lock.validate(stamp)) {
+                    return found == 1;
+                }
+            } catch (RuntimeException e) {
+                // Inconsistent links seen mid-write; fall through to the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(value, Integer.MAX_VALUE) == 1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // 1 if found, 0 if not, -1 if the step budget ran out
+    private int find(T value, int budget) {
+        RedBlackTreeNode<T> node = tree.getRoot();
+        for (int steps = 0; node != null; steps++) {
+            if (steps == budget) return -1;
+            int cmp = value.compareTo(node.getValue());
+            if (cmp == 0) return 1;
+            node = (cmp < 0) ? node.getLeft() : node.getRight();
+        }
+        return 0;
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int result = size;
+        if (stamp != 0 && lock.validate(stamp)) {
+            return result;
+        }
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // All values in [lo, hi] in ascending order, as one consistent snapshot
+    public List<T> range(T lo, T hi) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                // A consistent walk visits at most size nodes plus one pruned path per level
+                List<T> result = collectRange(lo, hi, size + 2 * MAX_SEARCH_STEPS);
+                if (result != null && lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Inconsistent links seen mid-write; fall through to the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return collectRange(lo, hi, Integer.MAX_VALUE);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<T> toList() {
+        long stamp = lock.readLock();
+        try {
+            List<T> result = new ArrayList<>(size);
+            tree.iterator(TraversalOrder.IN_ORDER).forEachRemaining(node -> result.add(node.getValue()));
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Pruned in-order walk with an explicit stack; null if the budget ran out
+    private List<T> collectRange(T lo, T hi, int budget) {
+        List<T> result = new ArrayList<>();
+        if (lo.compareTo(hi) > 0) return result;
+        Deque<RedBlackTreeNode<T>> stack = new ArrayDeque<>();
+        RedBlackTreeNode<T> node = tree.getRoot();
+        int steps = 0;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                if (++steps > budget) return null;
+                if (lo.compareTo(node.getValue()) <= 0) {
+                    stack.push(node);
+                    node = node.getLeft();
+                } else {
+                    node = node.getRight(); // node and its left subtree are below lo
+                }
+            }
+            if (stack.isEmpty()) break;
+            node = stack.pop();
+            if (hi.compareTo(node.getValue()) < 0) break;
+            result.add(node.getValue());
+            node = node.getRight();
+        }
+        return result;
+    }
+}
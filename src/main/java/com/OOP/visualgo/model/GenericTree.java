@@ -2,6 +2,7 @@ package com.oop.visualgo.model;
 import java.util.*;
 public class GenericTree<T> implements Tree<T, GenericTreeNode<T>> {
     private GenericTreeNode<T> root;
+    private ValueIndex<T, GenericTreeNode<T>> index; // null khi chưa bật chỉ mục
     @Override
     public GenericTreeNode<T> getRoot() {
         return root;
@@ -9,25 +10,47 @@ public class GenericTree<T> implements Tree<T, GenericTreeNode<T>> {
     @Override
     public void setRoot(GenericTreeNode<T> root) {
         this.root = root;
+        if (index != null) {
+            index.rebuild(iterator(TraversalOrder.PRE_ORDER));
+        }
+    }
+    // Bật chỉ mục giá trị -> node: search, update và insert theo parentValue thành O(1)
+    public void enableIndex() {
+        index = new ValueIndex<>();
+        index.rebuild(iterator(TraversalOrder.PRE_ORDER));
+    }
+    public void disableIndex() {
+        index = null;
+    }
+    public boolean isIndexed() {
+        return index != null;
+    }
+    // Số node đang giữ value theo chỉ mục trong O(1), -1 khi chưa bật chỉ mục
+    public int indexedCount(T value) {
+        return (index == null) ? -1 : index.count(value);
     }
     @Override
     public void insert(T value, T parentValue) {
         GenericTreeNode<T> newNode = new GenericTreeNode<>(value);
         if (root == null) {
             root = newNode;
+            if (index != null) index.add(newNode);
             return;
         }
         GenericTreeNode<T> parent = search(parentValue);
         if (parent != null) {
             parent.addChild(newNode);
+            if (index != null) index.add(newNode);
         }
     }
     @Override
     public boolean delete(T value) {
         if (root == null) return false;
+        if (index != null && !index.contains(value)) return false;
 
         // Nếu xóa root
         if (root.getValue().equals(value)) {
+            if (index != null) index.remove(value);
             // Nếu root có con, chọn con đầu tiên làm root mới
             // và các con còn lại trở thành con của root mới
             if (!root.getChildren().isEmpty()) {
@@ -57,6 +80,7 @@ public class GenericTree<T> implements Tree<T, GenericTreeNode<T>> {
 
             // Xóa node khỏi parent
             parent.removeChild(deleteNode);
+            if (index != null) index.remove(value);
             return true;
         }
         return false;
@@ -65,58 +89,57 @@ public class GenericTree<T> implements Tree<T, GenericTreeNode<T>> {
     public boolean update(T oldValue, T newValue) {
         GenericTreeNode<T> oldNode = search(oldValue);
         if (oldNode != null) {
+            if (index != null) index.remove(oldValue);
             oldNode.setValue(newValue);
+            if (index != null) index.add(oldNode);
             return true;
         }
         return false;
     }
     @Override
     public GenericTreeNode<T> search(T value) {
-        return searchRecursive(root, value);
+        if (index != null) {
+            return index.lookup(value, v -> searchSubtree(root, v));
+        }
+        return searchSubtree(root, value);
     }
-    public GenericTreeNode<T> searchRecursive(GenericTreeNode<T> node, T value) {
+    // Tìm theo thứ tự DFS (pre-order) bằng stack tường minh trong cây con gốc node
+    public GenericTreeNode<T> searchSubtree(GenericTreeNode<T> node, T value) {
         if (node == null) return null;
-        if (node.getValue().equals(value)) {
-            return node;
-        }
-        for (GenericTreeNode<T> child : node.getChildren()) {
-            GenericTreeNode<T> res = searchRecursive(child, value);
-            if (res != null) return res;
+        Deque<GenericTreeNode<T>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            GenericTreeNode<T> current = stack.pop();
+            if (current.getValue().equals(value)) {
+                return current;
+            }
+            pushChildrenReversed(stack, current);
         }
         return null;
     }
+    // Đẩy con theo thứ tự ngược để con đầu tiên được lấy ra trước
+    private void pushChildrenReversed(Deque<GenericTreeNode<T>> stack, GenericTreeNode<T> node) {
+        List<GenericTreeNode<T>> children = node.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            stack.push(children.get(i));
+        }
+    }
+    @Override
+    public Iterator<GenericTreeNode<T>> iterator(TraversalOrder order) {
+        return TreeIterators.nary(root, GenericTreeNode::getChildren, order);
+    }
     @Override
     public List<GenericTreeNode<T>> traverseDFS() {
-        List<GenericTreeNode<T>> res = new ArrayList<>();
-        traverseDFSRecurive(root, res);
-        return res;
-    }
-    private void traverseDFSRecurive(GenericTreeNode<T> node, List<GenericTreeNode<T>> res) {
-        if (node == null) return ;
-        res.add(node);
-        for (GenericTreeNode<T> child : node.getChildren()) {
-            traverseDFSRecurive(child, res);
-        }
+        return TreeIterators.toList(iterator(TraversalOrder.PRE_ORDER));
     }
     @Override
     public List<GenericTreeNode<T>> traverseBFS() {
-        List<GenericTreeNode<T>> res = new ArrayList<>();
-        if (root == null) return res;
-
-        Queue<GenericTreeNode<T>> queue = new LinkedList<>();
-        queue.offer(root);
-        while (!queue.isEmpty()) {
-            GenericTreeNode<T> node = queue.poll();
-            res.add(node);
-            for (GenericTreeNode<T> child : node.getChildren()) {
-                queue.offer(child);
-            }
-        }
-        return res;
+        return TreeIterators.toList(iterator(TraversalOrder.LEVEL_ORDER));
     }
     @Override
     public void clear() {
         root = null;
+        if (index != null) index.clear();
     }
 
 }
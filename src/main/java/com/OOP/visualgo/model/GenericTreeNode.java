@@ -3,20 +3,28 @@ import java.util.ArrayList;
 import java.util.List;
 // Generic type in Java
 public class GenericTreeNode<T> implements TreeNode<T> {
+    private int id; // 0 until getId() hands one out
     private T value;
     private GenericTreeNode<T> parent;
     private List<GenericTreeNode<T>> children;
+    private boolean modified = true; // see isModified()
     public GenericTreeNode(T value) {
         this.value = value;
         this.children = new ArrayList<>();
     }
     @Override
+    public int getId() {
+        if (id == 0) id = NodeIds.next();
+        return id;
+    }
+    @Override
     public T getValue() {
         return value;
     }
     @Override
     public void setValue(T value) {
         this.value = value;
+        markModified();
     }
     @Override
     public GenericTreeNode<T> getParent() {
@@ -25,6 +33,7 @@ public class GenericTreeNode<T> implements TreeNode<T> {
     @Override
     public void setParent(TreeNode<T> parent) {
         this.parent = (GenericTreeNode<T>) parent;
+        if (parent != null) this.parent.markModified();
     }
     public List<GenericTreeNode<T>> getChildren() {
         return children;
@@ -37,10 +46,27 @@ public class GenericTreeNode<T> implements TreeNode<T> {
     public void removeChild(GenericTreeNode<T> child) {
         if (children.remove(child)) {
             child.setParent(null);
+            markModified();
         }
     }
     public boolean isLeaf() {
         return children.isEmpty();
     }
+    /**
+     * Whether this node or a node below it has changed (children or value) since the last
+     * clearModified(). Children must be added and removed through addChild and removeChild for this to
+     * see them; see RedBlackTreeNode#isModified.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+    public void clearModified() {
+        modified = false;
+    }
+    private void markModified() {
+        for (GenericTreeNode<T> node = this; node != null && !node.modified; node = node.parent) {
+            node.modified = true;
+        }
+    }
 
 }
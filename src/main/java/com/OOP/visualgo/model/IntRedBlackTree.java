@@ -0,0 +1,481 @@
+package com.oop.visualgo.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Red-Black tree of primitive int keys stored in parallel arrays instead of node objects.
+ * <p>
+ * Node {@code i} is described by {@code keys[i]}, {@code left[i]}, {@code right[i]}, {@code parent[i]}
+ * and bit {@code i} of {@code redBits}. Index {@link #NIL} (0) is a shared black sentinel that stands
+ * for every missing child, so a node costs 16 bytes plus one colour bit and keys are never boxed.
+ * Slots released by {@link #delete(int)} are chained into a free list (through {@code left[]})
+ * and reused by later inserts.
+ * <p>
+ * Semantics follow {@link RedBlackTree}: duplicates are allowed and go to the right,
+ * and deleting a node with two children copies its successor's key into it.
+ */
+public class IntRedBlackTree {
+    public static final int NIL = 0;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private long[] redBits;
+
+    private int root = NIL;
+    private int size;
+    private int nextUnused = 1; // slot 0 is the sentinel
+    private int freeHead = NIL;
+
+    public IntRedBlackTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntRedBlackTree(int initialCapacity) {
+        int capacity = Math.max(2, initialCapacity + 1);
+        keys = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        redBits = new long[(capacity + 63) >>> 6];
+    }
+
+    // ==================== Bulk load ====================
+    /**
+     * Builds a tree from unsorted keys: parallel sort, duplicate removal, then an O(n) midpoint build
+     * into freshly allocated slots. Nodes on the partially filled bottom level are red, all others black.
+     */
+    public static IntRedBlackTree bulkLoad(int[] keys) {
+        int[] sorted = BulkLoad.sortedDistinct(keys);
+        IntRedBlackTree tree = new IntRedBlackTree(sorted.length);
+        tree.root = tree.build(sorted, 0, sorted.length - 1, NIL, 0, BulkLoad.redDepth(sorted.length));
+        tree.size = sorted.length;
+        return tree;
+    }
+
+    private int build(int[] sorted, int lo, int hi, int p, int depth, int redDepth) {
+        if (lo > hi) return NIL;
+        int mid = (lo + hi) >>> 1;
+        int node = allocate(sorted[mid]);
+        parent[node] = p;
+        setColor(node, depth == redDepth);
+        left[node] = build(sorted, lo, mid - 1, node, depth + 1, redDepth);
+        right[node] = build(sorted, mid + 1, hi, node, depth + 1, redDepth);
+        return node;
+    }
+
+    // ==================== Node access ====================
+    public int getRoot() {
+        return root;
+    }
+
+    public int getKey(int node) {
+        return keys[node];
+    }
+
+    public int getLeft(int node) {
+        return left[node];
+    }
+
+    public int getRight(int node) {
+        return right[node];
+    }
+
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    public boolean isRed(int node) {
+        return (redBits[node >>> 6] & (1L << node)) != 0;
+    }
+
+    public boolean isBlack(int node) {
+        return !isRed(node);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = NIL;
+        size = 0;
+        nextUnused = 1;
+        freeHead = NIL;
+        Arrays.fill(redBits, 0L);
+    }
+
+    private void setRed(int node) {
+        redBits[node >>> 6] |= 1L << node;
+    }
+
+    private void setBlack(int node) {
+        redBits[node >>> 6] &= ~(1L << node);
+    }
+
+    private void setColor(int node, boolean red) {
+        if (red) {
+            setRed(node);
+        } else {
+            setBlack(node);
+        }
+    }
+
+    // ==================== Slot management ====================
+    private int allocate(int key) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = left[node];
+        } else {
+            if (nextUnused == keys.length) {
+                grow();
+            }
+            node = nextUnused++;
+        }
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+        parent[node] = NIL;
+        setRed(node); // New nodes are always RED
+        return node;
+    }
+
+    private void release(int node) {
+        setBlack(node);
+        right[node] = NIL;
+        parent[node] = NIL;
+        left[node] = freeHead;
+        freeHead = node;
+    }
+
+    private void grow() {
+        int capacity = keys.length + (keys.length >> 1);
+        keys = Arrays.copyOf(keys, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        redBits = Arrays.copyOf(redBits, (capacity + 63) >>> 6);
+    }
+
+    // ==================== Insert ====================
+    public void insert(int key) {
+        int current = root;
+        int p = NIL;
+        while (current != NIL) {
+            p = current;
+            current = (key < keys[current]) ? left[current] : right[current];
+        }
+
+        int node = allocate(key);
+        parent[node] = p;
+        if (p == NIL) {
+            root = node;
+        } else if (key < keys[p]) {
+            left[p] = node;
+        } else {
+            right[p] = node;
+        }
+        size++;
+        fixInsert(node);
+    }
+
+    private void fixInsert(int node) {
+        while (isRed(parent[node])) {
+            int p = parent[node];
+            int grandparent = parent[p];
+            if (p == left[grandparent]) {
+                int uncle = right[grandparent];
+                if (isRed(uncle)) {
+                    // Case 1: Uncle is red - recolor
+                    setBlack(p);
+                    setBlack(uncle);
+                    setRed(grandparent);
+                    node = grandparent;
+                } else {
+                    if (node == right[p]) {
+                        // Case 2a: Node is right child - left rotate
+                        node = p;
+                        rotateLeft(node);
+                        p = parent[node];
+                    }
+                    // Case 2b: Node is left child - right rotate
+                    setBlack(p);
+                    setRed(grandparent);
+                    rotateRight(grandparent);
+                }
+            } else {
+                int uncle = left[grandparent];
+                if (isRed(uncle)) {
+                    setBlack(p);
+                    setBlack(uncle);
+                    setRed(grandparent);
+                    node = grandparent;
+                } else {
+                    if (node == left[p]) {
+                        node = p;
+                        rotateRight(node);
+                        p = parent[node];
+                    }
+                    setBlack(p);
+                    setRed(grandparent);
+                    rotateLeft(grandparent);
+                }
+            }
+        }
+        setBlack(root); // Root is always black
+    }
+
+    // ==================== Rotations ====================
+    private void rotateLeft(int node) {
+        int rightChild = right[node];
+        right[node] = left[rightChild];
+        if (left[rightChild] != NIL) {
+            parent[left[rightChild]] = node;
+        }
+        parent[rightChild] = parent[node];
+        if (parent[node] == NIL) {
+            root = rightChild;
+        } else if (node == left[parent[node]]) {
+            left[parent[node]] = rightChild;
+        } else {
+            right[parent[node]] = rightChild;
+        }
+        left[rightChild] = node;
+        parent[node] = rightChild;
+    }
+
+    private void rotateRight(int node) {
+        int leftChild = left[node];
+        left[node] = right[leftChild];
+        if (right[leftChild] != NIL) {
+            parent[right[leftChild]] = node;
+        }
+        parent[leftChild] = parent[node];
+        if (parent[node] == NIL) {
+            root = leftChild;
+        } else if (node == right[parent[node]]) {
+            right[parent[node]] = leftChild;
+        } else {
+            left[parent[node]] = leftChild;
+        }
+        right[leftChild] = node;
+        parent[node] = leftChild;
+    }
+
+    // ==================== Search ====================
+    /**
+     * Returns the index of a node holding {@code key}, or {@link #NIL} if there is none.
+     */
+    public int search(int key) {
+        int node = root;
+        while (node != NIL) {
+            int nodeKey = keys[node];
+            if (key == nodeKey) {
+                return node;
+            }
+            node = (key < nodeKey) ? left[node] : right[node];
+        }
+        return NIL;
+    }
+
+    public boolean contains(int key) {
+        return search(key) != NIL;
+    }
+
+    // ==================== Delete ====================
+    public boolean delete(int key) {
+        int node = search(key);
+        if (node == NIL) return false;
+
+        deleteNode(node);
+        return true;
+    }
+
+    private void deleteNode(int node) {
+        // Node to unlink: the node itself, or its successor when it has two children
+        int replacement = (left[node] == NIL || right[node] == NIL) ? node : findMin(right[node]);
+        int child = (left[replacement] != NIL) ? left[replacement] : right[replacement];
+
+        // The sentinel's parent is set on purpose so fixDelete can walk up from it
+        parent[child] = parent[replacement];
+        if (parent[replacement] == NIL) {
+            root = child;
+        } else if (replacement == left[parent[replacement]]) {
+            left[parent[replacement]] = child;
+        } else {
+            right[parent[replacement]] = child;
+        }
+
+        if (replacement != node) {
+            keys[node] = keys[replacement];
+        }
+
+        if (isBlack(replacement)) {
+            fixDelete(child);
+        }
+        release(replacement);
+        size--;
+        parent[NIL] = NIL;
+    }
+
+    private void fixDelete(int node) {
+        while (node != root && isBlack(node)) {
+            int p = parent[node];
+            if (node == left[p]) {
+                int sibling = right[p];
+                if (isRed(sibling)) {
+                    setBlack(sibling);
+                    setRed(p);
+                    rotateLeft(p);
+                    sibling = right[p];
+                }
+                if (isBlack(left[sibling]) && isBlack(right[sibling])) {
+                    setRed(sibling);
+                    node = p;
+                } else {
+                    if (isBlack(right[sibling])) {
+                        setBlack(left[sibling]);
+                        setRed(sibling);
+                        rotateRight(sibling);
+                        sibling = right[p];
+                    }
+                    setColor(sibling, isRed(p));
+                    setBlack(p);
+                    setBlack(right[sibling]);
+                    rotateLeft(p);
+                    node = root;
+                }
+            } else {
+                // Mirror cases for right child
+                int sibling = left[p];
+                if (isRed(sibling)) {
+                    setBlack(sibling);
+                    setRed(p);
+                    rotateRight(p);
+                    sibling = left[p];
+                }
+                if (isBlack(right[sibling]) && isBlack(left[sibling])) {
+                    setRed(sibling);
+                    node = p;
+                } else {
+                    if (isBlack(left[sibling])) {
+                        setBlack(right[sibling]);
+                        setRed(sibling);
+                        rotateLeft(sibling);
+                        sibling = left[p];
+                    }
+                    setColor(sibling, isRed(p));
+                    setBlack(p);
+                    setBlack(left[sibling]);
+                    rotateRight(p);
+                    node = root;
+                }
+            }
+        }
+        setBlack(node);
+    }
+
+    private int findMin(int node) {
+        while (left[node] != NIL) {
+            node = left[node];
+        }
+        return node;
+    }
+
+    // ==================== Traversals ====================
+    // A red-black tree of n nodes is at most 2*log2(n+1) high, which bounds the explicit stacks below
+    private int[] newStack() {
+        return new int[2 * (32 - Integer.numberOfLeadingZeros(size + 1)) + 2];
+    }
+
+    public void forEachInOrder(IntConsumer action) {
+        int[] stack = newStack();
+        int top = 0;
+        int node = root;
+        while (node != NIL || top > 0) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            }
+            node = stack[--top];
+            action.accept(keys[node]);
+            node = right[node];
+        }
+    }
+
+    public int[] traverseInOrder() {
+        int[] result = new int[size];
+        int[] count = new int[1];
+        forEachInOrder(key -> result[count[0]++] = key);
+        return result;
+    }
+
+    public int[] traversePreOrder() {
+        int[] result = new int[size];
+        int count = 0;
+        if (root == NIL) return result;
+
+        int[] stack = newStack();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            result[count++] = keys[node];
+            if (right[node] != NIL) stack[top++] = right[node];
+            if (left[node] != NIL) stack[top++] = left[node];
+        }
+        return result;
+    }
+
+    public int[] traversePostOrder() {
+        int[] result = new int[size];
+        int count = 0;
+        int[] stack = newStack();
+        int top = 0;
+        int node = root;
+        int lastVisited = NIL;
+        while (node != NIL || top > 0) {
+            if (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            } else {
+                int peek = stack[top - 1];
+                if (right[peek] != NIL && right[peek] != lastVisited) {
+                    node = right[peek];
+                } else {
+                    result[count++] = keys[peek];
+                    lastVisited = peek;
+                    top--;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int[] traverseBFS() {
+        int[] result = new int[size];
+        if (root == NIL) return result;
+
+        // Every node is enqueued exactly once, so the result array doubles as the queue: slot head
+        // holds a node index until that node is dequeued, then its key
+        int head = 0;
+        int tail = 0;
+        result[tail++] = root;
+        while (head < tail) {
+            int node = result[head];
+            if (left[node] != NIL) result[tail++] = left[node];
+            if (right[node] != NIL) result[tail++] = right[node];
+            result[head++] = keys[node];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,353 @@
+package com.oop.visualgo.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking concurrent binary search tree (Ellen, Fatourou, Ruppert, van Breugel, "Non-blocking
+ * binary search trees", PODC 2010).
+ * <p>
+ * The tree is external: values live only in leaves and internal nodes just route. Every change is a
+ * single CAS on one child edge. Before that CAS, the parent (insert) or grandparent and parent (delete) are
+ * flagged by a CAS on their {@code update} field, and the flag points at a descriptor of the pending
+ * operation. A thread that finds a flagged node completes the operation on the owner's behalf instead of
+ * waiting, so a stalled thread never blocks the others. Searches only read, never help, and are
+ * linearizable without any flag checks.
+ * <p>
+ * Duplicates are allowed as in {@link BinarySearchTree}: a leaf carries a count, and inserting or deleting
+ * one copy of a value that is already present swaps the leaf for a new one with the adjusted count. That
+ * swap uses the same flag-and-CAS protocol as an insert. The tree is not balanced.
+ */
+public class LockFreeBinarySearchTree<T extends Comparable<T>> {
+    private static final int CLEAN = 0;
+    private static final int IFLAG = 1;
+    private static final int DFLAG = 2;
+    private static final int MARK = 3;
+
+    // Sentinel keys: every value < INF1 < INF2, so the root and its two leaves are never removed
+    private static final int FINITE = 0;
+    private static final int INF1 = 1;
+    private static final int INF2 = 2;
+
+    private static final VarHandle LEFT;
+    private static final VarHandle RIGHT;
+    private static final VarHandle UPDATE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LEFT = lookup.findVarHandle(Internal.class, "left", Node.class);
+            RIGHT = lookup.findVarHandle(Internal.class, "right", Node.class);
+            UPDATE = lookup.findVarHandle(Internal.class, "update", Update.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Internal<T> root;
+    private final LongAdder size = new LongAdder();
+
+    public LockFreeBinarySearchTree() {
+        root = new Internal<>(null, INF2, new Leaf<>(null, INF1, 1), new Leaf<>(null, INF2, 1));
+    }
+
+    // ==================== Nodes & descriptors ====================
+    private abstract static class Node<T> {
+        final T key;
+        final int infinity;
+
+        Node(T key, int infinity) {
+            this.key = key;
+            this.infinity = infinity;
+        }
+    }
+
+    // Immutable; a changed count means a new leaf, which keeps every child CAS free of ABA
+    private static final class Leaf<T> extends Node<T> {
+        final int count;
+
+        Leaf(T key, int infinity, int count) {
+            super(key, infinity);
+            this.count = count;
+        }
+    }
+
+    private static final class Internal<T> extends Node<T> {
+        volatile Node<T> left;
+        volatile Node<T> right;
+        volatile Update update = new Update(CLEAN, null);
+
+        Internal(T key, int infinity, Node<T> left, Node<T> right) {
+            super(key, infinity);
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    // (state, descriptor) pair of a node's update field, replaced as a whole by one CAS
+    private static final class Update {
+        final int state;
+        final Object info;
+
+        Update(int state, Object info) {
+            this.state = state;
+            this.info = info;
+        }
+    }
+
+    // Pending replacement of leaf l (a child of p) by replacement
+    private static final class InsertInfo<T> {
+        final Internal<T> p;
+        final Leaf<T> l;
+        final Node<T> replacement;
+        final Update flag = new Update(IFLAG, this);
+
+        InsertInfo(Internal<T> p, Leaf<T> l, Node<T> replacement) {
+            this.p = p;
+            this.l = l;
+            this.replacement = replacement;
+        }
+    }
+
+    // Pending removal of leaf l together with its parent p, whose other child takes p's place under gp
+    private static final class DeleteInfo<T> {
+        final Internal<T> gp;
+        final Internal<T> p;
+        final Leaf<T> l;
+        final Update pUpdate;
+        final Update flag = new Update(DFLAG, this);
+        final Update mark = new Update(MARK, this);
+
+        DeleteInfo(Internal<T> gp, Internal<T> p, Leaf<T> l, Update pUpdate) {
+            this.gp = gp;
+            this.p = p;
+            this.l = l;
+            this.pUpdate = pUpdate;
+        }
+    }
+
+    // Result of a search: the leaf where value belongs, its parent and grandparent and their update fields
+    private static final class Position<T> {
+        Internal<T> gp;
+        Internal<T> p;
+        Leaf<T> l;
+        Update gpUpdate;
+        Update pUpdate;
+    }
+
+    // ==================== Search ====================
+    public boolean contains(T value) {
+        return count(value) > 0;
+    }
+
+    // Number of copies of value
+    public int count(T value) {
+        Node<T> node = root;
+        while (node instanceof Internal) {
+            Internal<T> internal = (Internal<T>) node;
+            node = (compare(value, internal) < 0) ? internal.left : internal.right;
+        }
+        return matches(value, node) ? ((Leaf<T>) node).count : 0;
+    }
+
+    private Position<T> locate(T value) {
+        Position<T> position = new Position<>();
+        Node<T> node = root;
+        while (node instanceof Internal) {
+            position.gp = position.p;
+            position.p = (Internal<T>) node;
+            position.gpUpdate = position.pUpdate;
+            position.pUpdate = position.p.update;
+            node = (compare(value, position.p) < 0) ? position.p.left : position.p.right;
+        }
+        position.l = (Leaf<T>) node;
+        return position;
+    }
+
+    // value < node ? Sentinels compare above every value
+    private static <T extends Comparable<T>> int compare(T value, Node<T> node) {
+        return (node.infinity != FINITE) ? -1 : value.compareTo(node.key);
+    }
+
+    private static <T extends Comparable<T>> int compareNodes(Node<T> a, Node<T> b) {
+        if (a.infinity != FINITE || b.infinity != FINITE) {
+            return Integer.compare(a.infinity, b.infinity);
+        }
+        return a.key.compareTo(b.key);
+    }
+
+    private static <T extends Comparable<T>> boolean matches(T value, Node<T> leaf) {
+        return leaf.infinity == FINITE && value.compareTo(leaf.key) == 0;
+    }
+
+    // ==================== Insert ====================
+    // Adds one copy of value; duplicates are kept, as in BinarySearchTree
+    public void insert(T value) {
+        insert(value, true);
+    }
+
+    // Adds value only if no copy is present
+    public boolean insertIfAbsent(T value) {
+        return insert(value, false);
+    }
+
+    private boolean insert(T value, boolean allowDuplicate) {
+        if (value == null) throw new NullPointerException("value");
+        while (true) {
+            Position<T> position = locate(value);
+            Leaf<T> leaf = position.l;
+            Node<T> replacement;
+            if (matches(value, leaf)) {
+                if (!allowDuplicate) return false;
+                replacement = new Leaf<>(leaf.key, FINITE, leaf.count + 1);
+            } else {
+                // The new internal node routes between the new leaf and a copy of the old one
+                Leaf<T> newLeaf = new Leaf<>(value, FINITE, 1);
+                Leaf<T> sibling = new Leaf<>(leaf.key, leaf.infinity, leaf.count);
+                replacement = (compareNodes(newLeaf, sibling) < 0)
+                        ? new Internal<>(sibling.key, sibling.infinity, newLeaf, sibling)
+                        : new Internal<>(value, FINITE, sibling, newLeaf);
+            }
+            if (replaceLeaf(position, replacement)) {
+                size.increment();
+                return true;
+            }
+        }
+    }
+
+    // Swaps position.l for replacement under the IFLAG protocol; false if the caller must search again
+    private boolean replaceLeaf(Position<T> position, Node<T> replacement) {
+        if (position.pUpdate.state != CLEAN) {
+            help(position.pUpdate);
+            return false;
+        }
+        InsertInfo<T> op = new InsertInfo<>(position.p, position.l, replacement);
+        if (UPDATE.compareAndSet(position.p, position.pUpdate, op.flag)) {
+            helpInsert(op);
+            return true;
+        }
+        help(position.p.update);
+        return false;
+    }
+
+    private void helpInsert(InsertInfo<T> op) {
+        casChild(op.p, op.l, op.replacement);
+        UPDATE.compareAndSet(op.p, op.flag, new Update(CLEAN, op));
+    }
+
+    // ==================== Delete ====================
+    // Removes one copy of value
+    public boolean delete(T value) {
+        if (value == null) throw new NullPointerException("value");
+        while (true) {
+            Position<T> position = locate(value);
+            Leaf<T> leaf = position.l;
+            if (!matches(value, leaf)) return false;
+            if (leaf.count > 1) {
+                if (replaceLeaf(position, new Leaf<>(leaf.key, FINITE, leaf.count - 1))) {
+                    size.decrement();
+                    return true;
+                }
+                continue;
+            }
+            if (position.gpUpdate.state != CLEAN) {
+                help(position.gpUpdate);
+                continue;
+            }
+            if (position.pUpdate.state != CLEAN) {
+                help(position.pUpdate);
+                continue;
+            }
+            DeleteInfo<T> op = new DeleteInfo<>(position.gp, position.p, leaf, position.pUpdate);
+            if (UPDATE.compareAndSet(position.gp, position.gpUpdate, op.flag)) {
+                if (helpDelete(op)) {
+                    size.decrement();
+                    return true;
+                }
+            } else {
+                help(position.gp.update);
+            }
+        }
+    }
+
+    // Marks the parent so nothing else can change it, then unlinks it; backs off if the parent changed first
+    private boolean helpDelete(DeleteInfo<T> op) {
+        if (UPDATE.compareAndSet(op.p, op.pUpdate, op.mark) || op.p.update == op.mark) {
+            helpMarked(op);
+            return true;
+        }
+        help(op.p.update);
+        UPDATE.compareAndSet(op.gp, op.flag, new Update(CLEAN, op));
+        return false;
+    }
+
+    private void helpMarked(DeleteInfo<T> op) {
+        Node<T> other = (op.p.right == op.l) ? op.p.left : op.p.right;
+        casChild(op.gp, op.p, other);
+        UPDATE.compareAndSet(op.gp, op.flag, new Update(CLEAN, op));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void help(Update update) {
+        switch (update.state) {
+            case IFLAG:
+                helpInsert((InsertInfo<T>) update.info);
+                break;
+            case MARK:
+                helpMarked((DeleteInfo<T>) update.info);
+                break;
+            case DFLAG:
+                helpDelete((DeleteInfo<T>) update.info);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // The side is decided by key, so a helper that arrives late cannot write into the wrong edge
+    private static <T extends Comparable<T>> void casChild(Internal<T> parent, Node<T> expected, Node<T> replacement) {
+        if (compareNodes(replacement, parent) < 0) {
+            LEFT.compareAndSet(parent, expected, replacement);
+        } else {
+            RIGHT.compareAndSet(parent, expected, replacement);
+        }
+    }
+
+    // ==================== Snapshots ====================
+    // Number of values including duplicates; exact when no operation is in flight
+    public long size() {
+        return size.sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * All values in ascending order, with duplicates repeated. Weakly consistent: a value inserted or
+     * deleted during the walk may or may not appear, but the result is exact when no update runs.
+     */
+    public List<T> toList() {
+        List<T> result = new ArrayList<>();
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            if (node instanceof Internal) {
+                Internal<T> internal = (Internal<T>) node;
+                stack.push(internal.right);
+                stack.push(internal.left);
+            } else if (node.infinity == FINITE) {
+                for (int i = ((Leaf<T>) node).count; i > 0; i--) {
+                    result.add(node.key);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.oop.visualgo.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Source of node ids. A node asks for one the first time its getId() is called, in practice when it is
+// first laid out or highlighted, so creating nodes never touches this counter. Ids run from 1 to
+// Integer.MAX_VALUE and then start over at 1: they are distinct among the last 2^31 - 1 ids handed out,
+// not forever. A node that asks from two threads at once may end up with either id, so ask from one
+// thread, as the visualizer's worker does
+final class NodeIds {
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    private NodeIds() {
+    }
+
+    static int next() {
+        return NEXT.updateAndGet(id -> (id == Integer.MAX_VALUE) ? 1 : id + 1);
+    }
+}
@@ -0,0 +1,270 @@
+package com.oop.visualgo.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Step-by-step record of {@link RedBlackTree} operations, for playback.
+ * <p>
+ * While a trace is attached with {@link RedBlackTree#setTrace}, insert and delete append one event per
+ * step: every comparison and descent on the search path, every recolouring, rotation and splice, and the
+ * value copy of a two-child delete. Events are packed four ints each into one growing int array: the
+ * kind (with a small flag in the upper bits) and up to three operands. Nodes are numbered by the trace
+ * the first time they appear, and replaced values go to a side list, so recording allocates almost
+ * nothing per step.
+ * <p>
+ * Each structural event stores both sides of its change. The trace keeps a cursor, which is at the end
+ * after recording, i.e. the tree is in its final state. {@link #stepBackward} reverts the event before
+ * the cursor directly on the live nodes, {@link #stepForward} applies the one after it, so moving one
+ * step costs O(1) whatever the length of the operation. Subtree sizes are not part of the trace: with
+ * order statistics on they are only right again once the cursor is back at the end. Nothing else may
+ * change the tree until then.
+ */
+public final class OperationTrace {
+    public static final int COMPARE = 0;      // node, compare flag 0 = less, 1 = equal, 2 = greater
+    public static final int DESCEND = 1;      // from node to child (-1 if empty), flag = side
+    public static final int RECOLOR = 2;      // node, flag = new colour (1 = red)
+    public static final int ROTATE_LEFT = 3;  // pivot, the child that rises
+    public static final int ROTATE_RIGHT = 4; // pivot, the child that rises
+    public static final int SPLICE = 5;       // parent (-1 = root), old child, new child, flag = side
+    public static final int SET_VALUE = 6;    // node, old value, new value (indexes into the value list)
+
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+
+    private static final int STRIDE = 4;
+    private static final int NONE = -1;
+
+    private int[] events = new int[64 * STRIDE];
+    private int count;
+    private int cursor;
+    private final Map<Object, Integer> ids = new IdentityHashMap<>();
+    private final List<RedBlackTreeNode<?>> nodes = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    // ==================== Recording ====================
+    void compare(RedBlackTreeNode<?> node, int cmp) {
+        append(COMPARE, Integer.signum(cmp) + 1, id(node), NONE, NONE);
+    }
+
+    void descend(RedBlackTreeNode<?> from, int side, RedBlackTreeNode<?> to) {
+        append(DESCEND, side, id(from), id(to), NONE);
+    }
+
+    void recolor(RedBlackTreeNode<?> node, boolean red) {
+        append(RECOLOR, red ? 1 : 0, id(node), NONE, NONE);
+    }
+
+    void rotate(int kind, RedBlackTreeNode<?> pivot, RedBlackTreeNode<?> riser) {
+        append(kind, 0, id(pivot), id(riser), NONE);
+    }
+
+    // oldChild under parent (the root if parent is null) is replaced by newChild, which is null, a new
+    // node or a child of oldChild
+    void splice(RedBlackTreeNode<?> parent, int side, RedBlackTreeNode<?> oldChild, RedBlackTreeNode<?> newChild) {
+        append(SPLICE, side, id(parent), id(oldChild), id(newChild));
+    }
+
+    void setValue(RedBlackTreeNode<?> node, Object oldValue, Object newValue) {
+        values.add(oldValue);
+        values.add(newValue);
+        append(SET_VALUE, 0, id(node), values.size() - 2, values.size() - 1);
+    }
+
+    private int id(RedBlackTreeNode<?> node) {
+        if (node == null) return NONE;
+        Integer id = ids.get(node);
+        if (id == null) {
+            id = nodes.size();
+            ids.put(node, id);
+            nodes.add(node);
+        }
+        return id;
+    }
+
+    private void append(int kind, int flag, int a, int b, int c) {
+        if (count * STRIDE == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        int at = count * STRIDE;
+        events[at] = kind | flag << 8;
+        events[at + 1] = a;
+        events[at + 2] = b;
+        events[at + 3] = c;
+        count++;
+        cursor = count;
+    }
+
+    // ==================== Reading ====================
+    public int size() {
+        return count;
+    }
+
+    // Number of events applied; size() after recording, 0 for the tree as it was before
+    public int position() {
+        return cursor;
+    }
+
+    public int kind(int event) {
+        return events[event * STRIDE] & 0xFF;
+    }
+
+    public int flag(int event) {
+        return events[event * STRIDE] >>> 8;
+    }
+
+    // Node event is mainly about: the compared, recoloured, rotated or updated node, the child reached
+    // by a descent or the node a splice links in
+    public RedBlackTreeNode<?> focus(int event) {
+        int at = event * STRIDE;
+        int id;
+        switch (kind(event)) {
+            case DESCEND:
+                id = (events[at + 2] != NONE) ? events[at + 2] : events[at + 1];
+                break;
+            case SPLICE:
+                id = (events[at + 3] != NONE) ? events[at + 3] : events[at + 1];
+                break;
+            default:
+                id = events[at + 1];
+        }
+        return (id == NONE) ? null : nodes.get(id);
+    }
+
+    public String describe(int event) {
+        int at = event * STRIDE;
+        switch (kind(event)) {
+            case COMPARE:
+                return "compare with " + valueOf(events[at + 1]) + ": " + new String[]{"less", "equal", "greater"}[flag(event)];
+            case DESCEND:
+                return "go " + (flag(event) == LEFT ? "left" : "right") + " from " + valueOf(events[at + 1])
+                        + (events[at + 2] == NONE ? " to an empty slot" : "");
+            case RECOLOR:
+                return "recolor " + valueOf(events[at + 1]) + (flag(event) == 1 ? " red" : " black");
+            case ROTATE_LEFT:
+                return "rotate left at " + valueOf(events[at + 1]);
+            case ROTATE_RIGHT:
+                return "rotate right at " + valueOf(events[at + 1]);
+            case SPLICE:
+                if (events[at + 2] == NONE) return "link " + valueOf(events[at + 3]);
+                return "unlink " + valueOf(events[at + 2]);
+            default:
+                return "copy " + values.get(events[at + 3]) + " over " + values.get(events[at + 2]);
+        }
+    }
+
+    private Object valueOf(int id) {
+        return nodes.get(id).getValue();
+    }
+
+    // ==================== Playback ====================
+    /**
+     * Reverts the event before the cursor on tree, which must be the tree this trace was recorded on.
+     * Returns false at the start.
+     */
+    public <T extends Comparable<T>> boolean stepBackward(RedBlackTree<T> tree) {
+        if (cursor == 0) return false;
+        cursor--;
+        play(tree, cursor, false);
+        return true;
+    }
+
+    // Applies the event at the cursor; returns false at the end
+    public <T extends Comparable<T>> boolean stepForward(RedBlackTree<T> tree) {
+        if (cursor == count) return false;
+        play(tree, cursor, true);
+        cursor++;
+        return true;
+    }
+
+    // Moves the cursor to position, one event at a time
+    public <T extends Comparable<T>> void seek(RedBlackTree<T> tree, int position) {
+        while (cursor > position && stepBackward(tree)) {
+        }
+        while (cursor < position && stepForward(tree)) {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Comparable<T>> void play(RedBlackTree<T> tree, int event, boolean forward) {
+        int at = event * STRIDE;
+        RedBlackTreeNode<T> a = node(events[at + 1]);
+        switch (kind(event)) {
+            case RECOLOR:
+                // A recorded recolouring always flips the colour
+                a.setColor(forward == (flag(event) == 1));
+                break;
+            case ROTATE_LEFT:
+                if (forward) rotateLeft(tree, a);
+                else rotateRight(tree, node(events[at + 2]));
+                break;
+            case ROTATE_RIGHT:
+                if (forward) rotateRight(tree, a);
+                else rotateLeft(tree, node(events[at + 2]));
+                break;
+            case SPLICE:
+                RedBlackTreeNode<T> oldChild = node(events[at + 2]);
+                RedBlackTreeNode<T> newChild = node(events[at + 3]);
+                if (forward) {
+                    link(tree, a, flag(event), newChild);
+                } else {
+                    link(tree, a, flag(event), oldChild);
+                    // A child that moved up to replace oldChild goes back under it
+                    if (newChild != null && oldChild != null) newChild.setParent(oldChild);
+                }
+                break;
+            case SET_VALUE:
+                a.setValue((T) values.get(events[at + (forward ? 3 : 2)]));
+                break;
+            default:
+                // Comparisons and descents change nothing
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Comparable<T>> RedBlackTreeNode<T> node(int id) {
+        return (id == NONE) ? null : (RedBlackTreeNode<T>) nodes.get(id);
+    }
+
+    private static <T extends Comparable<T>> void link(RedBlackTree<T> tree, RedBlackTreeNode<T> parent, int side,
+                                                       RedBlackTreeNode<T> child) {
+        if (parent == null) {
+            tree.setRoot(child);
+        } else if (side == LEFT) {
+            parent.setLeft(child);
+        } else {
+            parent.setRight(child);
+        }
+        if (child != null) {
+            child.setParent(parent);
+        }
+    }
+
+    // Same pointer changes as RedBlackTree's rotations, without sizes or recording
+    private static <T extends Comparable<T>> void rotateLeft(RedBlackTree<T> tree, RedBlackTreeNode<T> node) {
+        RedBlackTreeNode<T> rightChild = node.getRight();
+        RedBlackTreeNode<T> parent = node.getParent();
+        node.setRight(rightChild.getLeft());
+        if (rightChild.getLeft() != null) {
+            rightChild.getLeft().setParent(node);
+        }
+        link(tree, parent, (parent != null && parent.getRight() == node) ? RIGHT : LEFT, rightChild);
+        rightChild.setLeft(node);
+        node.setParent(rightChild);
+    }
+
+    private static <T extends Comparable<T>> void rotateRight(RedBlackTree<T> tree, RedBlackTreeNode<T> node) {
+        RedBlackTreeNode<T> leftChild = node.getLeft();
+        RedBlackTreeNode<T> parent = node.getParent();
+        node.setLeft(leftChild.getRight());
+        if (leftChild.getRight() != null) {
+            leftChild.getRight().setParent(node);
+        }
+        link(tree, parent, (parent != null && parent.getRight() == node) ? RIGHT : LEFT, leftChild);
+        leftChild.setRight(node);
+        node.setParent(leftChild);
+    }
+}
@@ -0,0 +1,335 @@
+package com.oop.visualgo.model;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Parallel aggregates over a tree, computed with fork/join by splitting the work per subtree.
+ * <p>
+ * Each task walks its subtrees in pre-order with an explicit stack. Only after visiting
+ * {@code sequentialThreshold} nodes, and only while the pool is short of queued work, does it fork
+ * the bottom half of that stack (the subtrees nearest the root) into a new task. A tree smaller
+ * than the threshold is therefore never forked, the number of tasks does not depend on the fan-out
+ * of a wide {@link GenericTree}, and uneven subtrees are split where the work actually is.
+ * Degenerate trees such as a sorted {@link BinarySearchTree} offer little to split and run close
+ * to sequential speed.
+ * <p>
+ * Results are identical to a sequential traversal: partial results are combined in child order
+ * and every supported operation is associative. The tree must not be modified while a query runs.
+ *
+ * @param <T> value type
+ * @param <N> node type
+ */
+public final class ParallelTreeQuery<T, N extends TreeNode<T>> {
+    // Below this many nodes a fork costs more than it saves
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8_192;
+    // A task stops splitting while its worker holds more queued tasks than this beyond what idle
+    // workers can steal
+    private static final int SURPLUS_TASKS = 3;
+
+    private interface Children<N> {
+        int count(N node);
+
+        N get(N node, int index); // may return null for a missing binary child
+    }
+
+    private final N root;
+    private final Children<N> children;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private long sizeHint = -1;
+    private int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+
+    private ParallelTreeQuery(N root, Children<N> children) {
+        this.root = root;
+        this.children = children;
+    }
+
+    public static <T> ParallelTreeQuery<T, BinaryTreeNode<T>> of(BinaryTree<T> tree) {
+        return new ParallelTreeQuery<>(tree.getRoot(), new Children<>() {
+            public int count(BinaryTreeNode<T> node) {
+                return 2;
+            }
+
+            public BinaryTreeNode<T> get(BinaryTreeNode<T> node, int index) {
+                return (index == 0) ? node.getLeft() : node.getRight();
+            }
+        });
+    }
+
+    public static <T extends Comparable<T>> ParallelTreeQuery<T, RedBlackTreeNode<T>> of(RedBlackTree<T> tree) {
+        return new ParallelTreeQuery<>(tree.getRoot(), new Children<>() {
+            public int count(RedBlackTreeNode<T> node) {
+                return 2;
+            }
+
+            public RedBlackTreeNode<T> get(RedBlackTreeNode<T> node, int index) {
+                return (index == 0) ? node.getLeft() : node.getRight();
+            }
+        });
+    }
+
+    public static <T> ParallelTreeQuery<T, GenericTreeNode<T>> of(GenericTree<T> tree) {
+        return new ParallelTreeQuery<>(tree.getRoot(), new Children<>() {
+            public int count(GenericTreeNode<T> node) {
+                return node.getChildren().size();
+            }
+
+            public GenericTreeNode<T> get(GenericTreeNode<T> node, int index) {
+                return node.getChildren().get(index);
+            }
+        });
+    }
+
+    // ==================== Configuration ====================
+    public ParallelTreeQuery<T, N> withPool(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool);
+        return this;
+    }
+
+    /**
+     * Expected number of nodes. Trees at or below the sequential threshold are then walked on the
+     * calling thread without entering the pool. Not needed for correct splitting: tasks only fork
+     * once they have seen more than the threshold.
+     */
+    public ParallelTreeQuery<T, N> withSizeHint(long expectedNodes) {
+        this.sizeHint = expectedNodes;
+        return this;
+    }
+
+    public ParallelTreeQuery<T, N> withSequentialThreshold(int nodes) {
+        if (nodes < 1) throw new IllegalArgumentException("threshold must be positive: " + nodes);
+        this.sequentialThreshold = nodes;
+        return this;
+    }
+
+    // Whether a query may fork at all
+    private boolean parallel() {
+        return pool.getParallelism() > 1 && (sizeHint < 0 || sizeHint > sequentialThreshold);
+    }
+
+    // ==================== Aggregates ====================
+    public long count() {
+        return sumOfNodes(node -> 1L);
+    }
+
+    public long sum(ToLongFunction<? super T> mapper) {
+        return sumOfNodes(node -> mapper.applyAsLong(node.getValue()));
+    }
+
+    public long countMatching(Predicate<? super T> predicate) {
+        return sumOfNodes(node -> predicate.test(node.getValue()) ? 1L : 0L);
+    }
+
+    public Optional<T> min(Comparator<? super T> comparator) {
+        return reduce((a, b) -> comparator.compare(a, b) <= 0 ? a : b);
+    }
+
+    public Optional<T> max(Comparator<? super T> comparator) {
+        return reduce((a, b) -> comparator.compare(a, b) >= 0 ? a : b);
+    }
+
+    /**
+     * Combines all values with an associative operator. Partial results are combined in
+     * pre-order, so the result equals a sequential reduction over traverseDFS().
+     */
+    public Optional<T> reduce(BinaryOperator<T> operator) {
+        if (root == null) return Optional.empty();
+        Reduction result = run(() -> new Reduction(operator));
+        return Optional.ofNullable(result.value);
+    }
+
+    // Number of levels, 0 for an empty tree (same convention as the visualizer)
+    public int height() {
+        if (root == null) return 0;
+        return run(Height::new).height;
+    }
+
+    /**
+     * Visits every node in parallel, in no particular order. The action must be thread-safe.
+     */
+    public void forEach(Consumer<? super N> action) {
+        if (root == null) return;
+        run(() -> new Visit(action));
+    }
+
+    private long sumOfNodes(ToLongFunction<N> perNode) {
+        if (root == null) return 0;
+        return run(() -> new Sum(perNode)).total;
+    }
+
+    private <A extends Accumulator<A>> A run(Supplier<A> accumulators) {
+        QueryTask<A> task = new QueryTask<>(accumulators, parallel());
+        task.push(root, 0);
+        // A task that never forks needs no worker: invoke() outside the pool runs it right here
+        return task.splittable ? pool.invoke(task) : task.invoke();
+    }
+
+    // ==================== Accumulators ====================
+    // Result of one task, folded over its nodes in pre-order; later is the result of the nodes that
+    // follow them in pre-order
+    private interface Accumulator<A> {
+        void add(TreeNode<?> node, int depth);
+
+        void addAll(A later);
+    }
+
+    private final class Sum implements Accumulator<Sum> {
+        private final ToLongFunction<N> perNode;
+        private long total;
+
+        Sum(ToLongFunction<N> perNode) {
+            this.perNode = perNode;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(TreeNode<?> node, int depth) {
+            total += perNode.applyAsLong((N) node);
+        }
+
+        @Override
+        public void addAll(Sum later) {
+            total += later.total;
+        }
+    }
+
+    private final class Reduction implements Accumulator<Reduction> {
+        private final BinaryOperator<T> operator;
+        private T value;
+        private boolean present;
+
+        Reduction(BinaryOperator<T> operator) {
+            this.operator = operator;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(TreeNode<?> node, int depth) {
+            combine(((N) node).getValue());
+        }
+
+        @Override
+        public void addAll(Reduction later) {
+            if (later.present) combine(later.value);
+        }
+
+        private void combine(T next) {
+            value = present ? operator.apply(value, next) : next;
+            present = true;
+        }
+    }
+
+    private static final class Height implements Accumulator<Height> {
+        private int height;
+
+        @Override
+        public void add(TreeNode<?> node, int depth) {
+            height = Math.max(height, depth + 1);
+        }
+
+        @Override
+        public void addAll(Height later) {
+            height = Math.max(height, later.height);
+        }
+    }
+
+    private final class Visit implements Accumulator<Visit> {
+        private final Consumer<? super N> action;
+
+        Visit(Consumer<? super N> action) {
+            this.action = action;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(TreeNode<?> node, int depth) {
+            action.accept((N) node);
+        }
+
+        @Override
+        public void addAll(Visit later) {
+        }
+    }
+
+    // ==================== Tasks ====================
+    /**
+     * Pre-order walk over a stack of pending subtrees. Once it has visited sequentialThreshold nodes
+     * and the pool is short of work, the task forks the bottom half of its stack, which holds the
+     * subtrees nearest the root and comes last in pre-order, and carries on with the top half.
+     */
+    @SuppressWarnings("serial") // tasks are never serialized
+    private final class QueryTask<A extends Accumulator<A>> extends RecursiveTask<A> {
+        private final Supplier<A> accumulators;
+        private final boolean splittable;
+        private Object[] nodes = new Object[16]; // pending subtree roots, next one on top
+        private int[] depths = new int[16];
+        private int size;
+
+        QueryTask(Supplier<A> accumulators, boolean splittable) {
+            this.accumulators = accumulators;
+            this.splittable = splittable;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected A compute() {
+            A result = accumulators.get();
+            List<QueryTask<A>> forked = new ArrayList<>();
+            int visited = 0;
+            while (size > 0) {
+                if (splittable && visited >= sequentialThreshold && size > 1
+                        && ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_TASKS) {
+                    forked.add(splitOff());
+                    visited = 0;
+                }
+                size--;
+                N node = (N) nodes[size];
+                int depth = depths[size];
+                nodes[size] = null;
+                result.add(node, depth);
+                visited++;
+                for (int i = children.count(node) - 1; i >= 0; i--) {
+                    N child = children.get(node, i);
+                    if (child != null) push(child, depth + 1);
+                }
+            }
+            // A later fork took subtrees that come before those of an earlier one
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                result.addAll(forked.get(i).join());
+            }
+            return result;
+        }
+
+        void push(N node, int depth) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+            }
+            nodes[size] = node;
+            depths[size] = depth;
+            size++;
+        }
+
+        private QueryTask<A> splitOff() {
+            int count = size / 2;
+            QueryTask<A> task = new QueryTask<>(accumulators, true);
+            task.nodes = Arrays.copyOf(nodes, Math.max(16, count));
+            task.depths = Arrays.copyOf(depths, task.nodes.length);
+            Arrays.fill(task.nodes, count, task.nodes.length, null);
+            task.size = count;
+            System.arraycopy(nodes, count, nodes, 0, size - count);
+            System.arraycopy(depths, count, depths, 0, size - count);
+            Arrays.fill(nodes, size - count, size, null);
+            size -= count;
+            task.fork();
+            return task;
+        }
+    }
+}
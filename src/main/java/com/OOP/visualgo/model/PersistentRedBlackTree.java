@@ -0,0 +1,258 @@
+package com.oop.visualgo.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Immutable (persistent) Red-Black tree.
+ * <p>
+ * {@link #insert} and {@link #delete} leave this tree untouched and return a new version that copies
+ * only the nodes on the root-to-leaf path (O(log n) new nodes) and shares every other subtree with this
+ * version. Any number of threads can therefore read a version while others derive new ones from it.
+ * <p>
+ * Insert follows Okasaki's functional balancing; delete follows Kahrs ("Red-black trees with types",
+ * JFP 2001), which rebalances with the same {@code balance} plus {@code balLeft}/{@code balRight} on the
+ * way back up. Semantics follow {@link RedBlackTree}: duplicates are allowed and go to the right.
+ * Recursion depth is bounded by the tree height, at most 2 log2(n + 1).
+ */
+public final class PersistentRedBlackTree<T extends Comparable<T>> {
+    private static final boolean RED = RedBlackTreeNode.RED;
+    private static final boolean BLACK = RedBlackTreeNode.BLACK;
+
+    private final PersistentRedBlackTreeNode<T> root;
+    private final int size;
+
+    // The empty tree
+    public PersistentRedBlackTree() {
+        this(null, 0);
+    }
+
+    private PersistentRedBlackTree(PersistentRedBlackTreeNode<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public PersistentRedBlackTreeNode<T> getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    private static int height(PersistentRedBlackTreeNode<?> node) {
+        return (node == null) ? 0 : 1 + Math.max(height(node.getLeft()), height(node.getRight()));
+    }
+
+    // ==================== Search ====================
+    public PersistentRedBlackTreeNode<T> search(T value) {
+        PersistentRedBlackTreeNode<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.getValue());
+            if (cmp == 0) return current;
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+        return null;
+    }
+
+    public boolean contains(T value) {
+        return search(value) != null;
+    }
+
+    // ==================== Insert ====================
+    public PersistentRedBlackTree<T> insert(T value) {
+        return new PersistentRedBlackTree<>(blacken(insert(root, value)), size + 1);
+    }
+
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> insert(PersistentRedBlackTreeNode<T> node, T value) {
+        if (node == null) return red(null, value, null);
+        boolean goLeft = value.compareTo(node.getValue()) < 0;
+        if (node.isRed()) {
+            // A red node's parent is black and rebalances both of them on the way up
+            return goLeft ? red(insert(node.getLeft(), value), node.getValue(), node.getRight())
+                    : red(node.getLeft(), node.getValue(), insert(node.getRight(), value));
+        }
+        return goLeft ? balance(insert(node.getLeft(), value), node.getValue(), node.getRight())
+                : balance(node.getLeft(), node.getValue(), insert(node.getRight(), value));
+    }
+
+    // ==================== Delete ====================
+    // Returns this tree itself when value is absent, so no path is copied for a miss
+    public PersistentRedBlackTree<T> delete(T value) {
+        if (!contains(value)) return this;
+        return new PersistentRedBlackTree<>(blacken(delete(root, value)), size - 1);
+    }
+
+    /*
+     * Invariant (Kahrs): deleting from a black subtree returns a tree whose black height is one lower,
+     * which balLeft/balRight repair; deleting from a red subtree (or null) keeps the black height.
+     */
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> delete(PersistentRedBlackTreeNode<T> node, T value) {
+        if (node == null) return null;
+        int cmp = value.compareTo(node.getValue());
+        if (cmp < 0) {
+            PersistentRedBlackTreeNode<T> left = delete(node.getLeft(), value);
+            return isBlack(node.getLeft()) ? balLeft(left, node.getValue(), node.getRight())
+                    : red(left, node.getValue(), node.getRight());
+        }
+        if (cmp > 0) {
+            PersistentRedBlackTreeNode<T> right = delete(node.getRight(), value);
+            return isBlack(node.getRight()) ? balRight(node.getLeft(), node.getValue(), right)
+                    : red(node.getLeft(), node.getValue(), right);
+        }
+        return append(node.getLeft(), node.getRight());
+    }
+
+    // Left subtree is one black level short
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> balLeft(PersistentRedBlackTreeNode<T> left, T value,
+                                                                                  PersistentRedBlackTreeNode<T> right) {
+        if (isRed(left)) {
+            return red(blacken(left), value, right);
+        }
+        if (isBlack(right)) {
+            return balance(left, value, redden(right));
+        }
+        if (isRed(right) && isBlack(right.getLeft())) {
+            PersistentRedBlackTreeNode<T> rl = right.getLeft();
+            return red(black(left, value, rl.getLeft()), rl.getValue(),
+                    balance(rl.getRight(), right.getValue(), redden(right.getRight())));
+        }
+        throw new IllegalStateException("red-black invariant violated");
+    }
+
+    // Right subtree is one black level short
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> balRight(PersistentRedBlackTreeNode<T> left, T value,
+                                                                                   PersistentRedBlackTreeNode<T> right) {
+        if (isRed(right)) {
+            return red(left, value, blacken(right));
+        }
+        if (isBlack(left)) {
+            return balance(redden(left), value, right);
+        }
+        if (isRed(left) && isBlack(left.getRight())) {
+            PersistentRedBlackTreeNode<T> lr = left.getRight();
+            return red(balance(redden(left.getLeft()), left.getValue(), lr.getLeft()), lr.getValue(),
+                    black(lr.getRight(), value, right));
+        }
+        throw new IllegalStateException("red-black invariant violated");
+    }
+
+    // Joins the two subtrees of a deleted node; every value of left is <= every value of right
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> append(PersistentRedBlackTreeNode<T> left,
+                                                                                 PersistentRedBlackTreeNode<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.isRed() && right.isRed()) {
+            PersistentRedBlackTreeNode<T> middle = append(left.getRight(), right.getLeft());
+            if (isRed(middle)) {
+                return red(red(left.getLeft(), left.getValue(), middle.getLeft()), middle.getValue(),
+                        red(middle.getRight(), right.getValue(), right.getRight()));
+            }
+            return red(left.getLeft(), left.getValue(), red(middle, right.getValue(), right.getRight()));
+        }
+        if (left.isBlack() && right.isBlack()) {
+            PersistentRedBlackTreeNode<T> middle = append(left.getRight(), right.getLeft());
+            if (isRed(middle)) {
+                return red(black(left.getLeft(), left.getValue(), middle.getLeft()), middle.getValue(),
+                        black(middle.getRight(), right.getValue(), right.getRight()));
+            }
+            return balLeft(left.getLeft(), left.getValue(), black(middle, right.getValue(), right.getRight()));
+        }
+        if (right.isRed()) {
+            return red(append(left, right.getLeft()), right.getValue(), right.getRight());
+        }
+        return red(left.getLeft(), left.getValue(), append(left.getRight(), right));
+    }
+
+    // ==================== Balancing ====================
+    // Okasaki's balance: rewrites a black node with a red-red violation below it into a red node with two black children
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> balance(PersistentRedBlackTreeNode<T> left, T value,
+                                                                                  PersistentRedBlackTreeNode<T> right) {
+        if (isRed(left) && isRed(right)) {
+            return red(blacken(left), value, blacken(right));
+        }
+        if (isRed(left)) {
+            if (isRed(left.getLeft())) {
+                return red(blacken(left.getLeft()), left.getValue(), black(left.getRight(), value, right));
+            }
+            if (isRed(left.getRight())) {
+                PersistentRedBlackTreeNode<T> lr = left.getRight();
+                return red(black(left.getLeft(), left.getValue(), lr.getLeft()), lr.getValue(),
+                        black(lr.getRight(), value, right));
+            }
+        }
+        if (isRed(right)) {
+            if (isRed(right.getRight())) {
+                return red(black(left, value, right.getLeft()), right.getValue(), blacken(right.getRight()));
+            }
+            if (isRed(right.getLeft())) {
+                PersistentRedBlackTreeNode<T> rl = right.getLeft();
+                return red(black(left, value, rl.getLeft()), rl.getValue(),
+                        black(rl.getRight(), right.getValue(), right.getRight()));
+            }
+        }
+        return black(left, value, right);
+    }
+
+    private static boolean isRed(PersistentRedBlackTreeNode<?> node) {
+        return node != null && node.isRed();
+    }
+
+    // Null children count as black for balancing, but Kahrs' cases only match real black nodes
+    private static boolean isBlack(PersistentRedBlackTreeNode<?> node) {
+        return node != null && node.isBlack();
+    }
+
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> red(PersistentRedBlackTreeNode<T> left, T value,
+                                                                              PersistentRedBlackTreeNode<T> right) {
+        return new PersistentRedBlackTreeNode<>(RED, left, value, right);
+    }
+
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> black(PersistentRedBlackTreeNode<T> left, T value,
+                                                                                PersistentRedBlackTreeNode<T> right) {
+        return new PersistentRedBlackTreeNode<>(BLACK, left, value, right);
+    }
+
+    // Copies are made only when the colour actually changes
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> blacken(PersistentRedBlackTreeNode<T> node) {
+        return (node == null || node.isBlack()) ? node : black(node.getLeft(), node.getValue(), node.getRight());
+    }
+
+    private static <T extends Comparable<T>> PersistentRedBlackTreeNode<T> redden(PersistentRedBlackTreeNode<T> node) {
+        if (!isBlack(node)) {
+            throw new IllegalStateException("red-black invariant violated");
+        }
+        return red(node.getLeft(), node.getValue(), node.getRight());
+    }
+
+    // ==================== Traversals ====================
+    // Lazy traversal: nodes are visited only as the caller advances the iterator
+    public Iterator<PersistentRedBlackTreeNode<T>> iterator(TraversalOrder order) {
+        return TreeIterators.binary(root, PersistentRedBlackTreeNode::getLeft, PersistentRedBlackTreeNode::getRight, order);
+    }
+
+    public Stream<PersistentRedBlackTreeNode<T>> stream(TraversalOrder order) {
+        return TreeIterators.stream(iterator(order));
+    }
+
+    public List<PersistentRedBlackTreeNode<T>> traverseInOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.IN_ORDER));
+    }
+
+    public List<PersistentRedBlackTreeNode<T>> traversePreOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.PRE_ORDER));
+    }
+
+    public List<PersistentRedBlackTreeNode<T>> traverseBFS() {
+        return TreeIterators.toList(iterator(TraversalOrder.LEVEL_ORDER));
+    }
+}
@@ -0,0 +1,44 @@
+package com.oop.visualgo.model;
+
+// Immutable node of a PersistentRedBlackTree: shared by every version that contains it, so it has no parent link
+public final class PersistentRedBlackTreeNode<T extends Comparable<T>> {
+    private final T value;
+    private final PersistentRedBlackTreeNode<T> left;
+    private final PersistentRedBlackTreeNode<T> right;
+    private final boolean color; // true = RED, false = BLACK
+
+    PersistentRedBlackTreeNode(boolean color, PersistentRedBlackTreeNode<T> left, T value, PersistentRedBlackTreeNode<T> right) {
+        this.color = color;
+        this.left = left;
+        this.value = value;
+        this.right = right;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public PersistentRedBlackTreeNode<T> getLeft() {
+        return left;
+    }
+
+    public PersistentRedBlackTreeNode<T> getRight() {
+        return right;
+    }
+
+    public boolean isRed() {
+        return color == RedBlackTreeNode.RED;
+    }
+
+    public boolean isBlack() {
+        return color == RedBlackTreeNode.BLACK;
+    }
+
+    public boolean getColor() {
+        return color;
+    }
+
+    public boolean isLeaf() {
+        return left == null && right == null;
+    }
+}
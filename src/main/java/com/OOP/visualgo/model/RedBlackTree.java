@@ -1,12 +1,15 @@
 package com.oop.visualgo.model;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 public class RedBlackTree<T extends Comparable<T>> {
     private RedBlackTreeNode<T> root;
+    private boolean orderStatistics; // keep subtree sizes for select/rank/countRange
+    private OperationTrace trace;    // records insert/delete steps while set
 
     public RedBlackTreeNode<T> getRoot() {
         return root;
@@ -16,13 +19,52 @@ public class RedBlackTree<T extends Comparable<T>> {
         this.root = root;
     }
 
+    /**
+     * Records the steps of every following insert and delete into trace, or stops recording if null.
+     * Without a trace the operations only pay a null check per step.
+     */
+    public void setTrace(OperationTrace trace) {
+        this.trace = trace;
+    }
+
+    public OperationTrace getTrace() {
+        return trace;
+    }
+
+    // ==================== Bulk load ====================
+    /**
+     * Builds a tree from unsorted values in O(n) after an O(n log n) (parallel for large inputs) sort.
+     * Duplicates are dropped. The tree is perfectly balanced and coloured without any fixInsert:
+     * nodes on the partially filled bottom level are red, all others black.
+     */
+    public static <T extends Comparable<T>> RedBlackTree<T> bulkLoad(Collection<? extends T> values) {
+        T[] sorted = BulkLoad.sortedDistinct(values);
+        RedBlackTree<T> tree = new RedBlackTree<>();
+        tree.root = build(sorted, 0, sorted.length - 1, null, 0, BulkLoad.redDepth(sorted.length));
+        return tree;
+    }
+
+    private static <T extends Comparable<T>> RedBlackTreeNode<T> build(T[] sorted, int lo, int hi,
+                                                                      RedBlackTreeNode<T> parent, int depth, int redDepth) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        RedBlackTreeNode<T> node = new RedBlackTreeNode<>(sorted[mid]);
+        node.setParent(parent);
+        node.setColor(depth == redDepth ? RedBlackTreeNode.RED : RedBlackTreeNode.BLACK);
+        node.setSize(hi - lo + 1);
+        node.setLeft(build(sorted, lo, mid - 1, node, depth + 1, redDepth));
+        node.setRight(build(sorted, mid + 1, hi, node, depth + 1, redDepth));
+        return node;
+    }
+
     // ==================== Insert ====================
     public void insert(T value) {
         RedBlackTreeNode<T> newNode = new RedBlackTreeNode<>(value);
         
         if (root == null) {
+            if (trace != null) trace.splice(null, OperationTrace.LEFT, null, newNode);
             root = newNode;
-            root.setBlack(); // Root is always black
+            blacken(root); // Root is always black
             return;
         }
 
@@ -32,23 +74,153 @@ public class RedBlackTree<T extends Comparable<T>> {
 
         while (current != null) {
             parent = current;
+            if (orderStatistics) {
+                current.setSize(current.getSize() + 1);
+            }
             int cmp = value.compareTo(current.getValue());
             if (cmp < 0) {
                 current = current.getLeft();
             } else {
                 current = current.getRight();
             }
+            if (trace != null) {
+                trace.compare(parent, cmp);
+                trace.descend(parent, cmp < 0 ? OperationTrace.LEFT : OperationTrace.RIGHT, current);
+            }
+        }
+
+        link(parent, newNode);
+
+        // Fix Red-Black tree properties
+        fixInsert(newNode);
+    }
+
+    // ==================== Batch operations ====================
+    /**
+     * Inserts every value of the batch, duplicates included, with the same result as calling
+     * {@link #insert} for each value in ascending order. The batch is sorted first and each descent
+     * starts from the node inserted just before (the finger) instead of the root: it climbs only to the
+     * lowest ancestor whose subtree can hold the next value, so a clustered batch touches a few paths near
+     * the bottom of the tree instead of walking from the root for every key. With order statistics on,
+     * the sizes above the finger are still updated by a walk to the root.
+     */
+    public void insertAll(Collection<? extends T> values) {
+        RedBlackTreeNode<T> finger = null;
+        for (T value : BulkLoad.sorted(values)) {
+            if (root == null) {
+                insert(value);
+                finger = root;
+            } else {
+                finger = insertFrom((finger == null) ? root : climb(finger, value), value);
+            }
+        }
+    }
+
+    // Plain BST insert below start, then the usual fixup; returns the new node
+    private RedBlackTreeNode<T> insertFrom(RedBlackTreeNode<T> start, T value) {
+        RedBlackTreeNode<T> newNode = new RedBlackTreeNode<>(value);
+        RedBlackTreeNode<T> parent = start;
+        RedBlackTreeNode<T> current = start;
+        while (current != null) {
+            parent = current;
+            int cmp = value.compareTo(current.getValue());
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+            if (trace != null) {
+                trace.compare(parent, cmp);
+                trace.descend(parent, cmp < 0 ? OperationTrace.LEFT : OperationTrace.RIGHT, current);
+            }
+        }
+        link(parent, newNode);
+        if (orderStatistics) {
+            for (RedBlackTreeNode<T> ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+                ancestor.setSize(ancestor.getSize() + 1);
+            }
         }
+        fixInsert(newNode);
+        return newNode;
+    }
 
+    /**
+     * Removes one copy of every value of the batch, in ascending order. Each search starts from the
+     * in-order predecessor of the node removed just before, which deleteNode neither unlinks nor
+     * changes. Returns how many values were removed; values that are not present are skipped.
+     */
+    public int deleteAll(Collection<? extends T> values) {
+        int removed = 0;
+        RedBlackTreeNode<T> finger = null;
+        for (T value : BulkLoad.sorted(values)) {
+            RedBlackTreeNode<T> node = (finger == null) ? search(value) : searchFrom(climb(finger, value), value);
+            if (node == null) continue;
+            finger = predecessor(node);
+            deleteNode(node);
+            removed++;
+        }
+        return removed;
+    }
+
+    // Like search, but below node and recorded in the trace
+    private RedBlackTreeNode<T> searchFrom(RedBlackTreeNode<T> node, T value) {
+        while (node != null) {
+            int cmp = value.compareTo(node.getValue());
+            if (trace != null) trace.compare(node, cmp);
+            if (cmp == 0) {
+                return node;
+            }
+            RedBlackTreeNode<T> next = (cmp < 0) ? node.getLeft() : node.getRight();
+            if (trace != null) trace.descend(node, cmp < 0 ? OperationTrace.LEFT : OperationTrace.RIGHT, next);
+            node = next;
+        }
+        return null;
+    }
+
+    // Hangs a new leaf under parent on the side its value belongs
+    private void link(RedBlackTreeNode<T> parent, RedBlackTreeNode<T> newNode) {
+        boolean left = newNode.getValue().compareTo(parent.getValue()) < 0;
+        if (trace != null) {
+            trace.splice(parent, left ? OperationTrace.LEFT : OperationTrace.RIGHT, null, newNode);
+        }
         newNode.setParent(parent);
-        if (value.compareTo(parent.getValue()) < 0) {
+        if (left) {
             parent.setLeft(newNode);
         } else {
             parent.setRight(newNode);
         }
+    }
 
-        // Fix Red-Black tree properties
-        fixInsert(newNode);
+    // ==================== Recolouring ====================
+    // Colour changes go through here so a trace sees each one; unchanged colours are not recorded
+    private void paint(RedBlackTreeNode<T> node, boolean color) {
+        if (node.getColor() == color) return;
+        if (trace != null) trace.recolor(node, color == RedBlackTreeNode.RED);
+        node.setColor(color);
+    }
+
+    private void redden(RedBlackTreeNode<T> node) {
+        paint(node, RedBlackTreeNode.RED);
+    }
+
+    private void blacken(RedBlackTreeNode<T> node) {
+        paint(node, RedBlackTreeNode.BLACK);
+    }
+
+    /**
+     * Lowest ancestor of node (node included) whose subtree spans value, for value >= node's value.
+     * The lower bound always holds, so only the upper bound is checked: it is the first ancestor
+     * reached from its left child.
+     */
+    private RedBlackTreeNode<T> climb(RedBlackTreeNode<T> node, T value) {
+        while (true) {
+            RedBlackTreeNode<T> child = node;
+            RedBlackTreeNode<T> parent = child.getParent();
+            while (parent != null && parent.getRight() == child) {
+                child = parent;
+                parent = parent.getParent();
+            }
+            if (parent == null || value.compareTo(parent.getValue()) < 0) {
+                return node;
+            }
+            node = parent;
+        }
     }
 
     private void fixInsert(RedBlackTreeNode<T> node) {
@@ -63,9 +235,9 @@ public class RedBlackTree<T extends Comparable<T>> {
                 // Parent is left child
                 if (uncle != null && uncle.isRed()) {
                     // Case 1: Uncle is red - recolor
-                    parent.setBlack();
-                    uncle.setBlack();
-                    grandparent.setRed();
+                    blacken(parent);
+                    blacken(uncle);
+                    redden(grandparent);
                     node = grandparent;
                 } else {
                     // Case 2: Uncle is black
@@ -76,17 +248,17 @@ public class RedBlackTree<T extends Comparable<T>> {
                         parent = node.getParent();
                     }
                     // Case 2b: Node is left child - right rotate
-                    parent.setBlack();
-                    grandparent.setRed();
+                    blacken(parent);
+                    redden(grandparent);
                     rotateRight(grandparent);
                 }
             } else {
                 // Parent is right child (mirror cases)
                 if (uncle != null && uncle.isRed()) {
                     // Case 1: Uncle is red - recolor
-                    parent.setBlack();
-                    uncle.setBlack();
-                    grandparent.setRed();
+                    blacken(parent);
+                    blacken(uncle);
+                    redden(grandparent);
                     node = grandparent;
                 } else {
                     // Case 2: Uncle is black
@@ -97,18 +269,19 @@ public class RedBlackTree<T extends Comparable<T>> {
                         parent = node.getParent();
                     }
                     // Case 2b: Node is right child - left rotate
-                    parent.setBlack();
-                    grandparent.setRed();
+                    blacken(parent);
+                    redden(grandparent);
                     rotateLeft(grandparent);
                 }
             }
         }
-        root.setBlack(); // Root is always black
+        blacken(root); // Root is always black
     }
 
     // ==================== Rotations ====================
     private void rotateLeft(RedBlackTreeNode<T> node) {
         RedBlackTreeNode<T> rightChild = node.getRight();
+        if (trace != null) trace.rotate(OperationTrace.ROTATE_LEFT, node, rightChild);
         node.setRight(rightChild.getLeft());
 
         if (rightChild.getLeft() != null) {
@@ -127,10 +300,16 @@ public class RedBlackTree<T extends Comparable<T>> {
 
         rightChild.setLeft(node);
         node.setParent(rightChild);
+
+        if (orderStatistics) {
+            rightChild.setSize(node.getSize());
+            node.setSize(sizeOf(node.getLeft()) + sizeOf(node.getRight()) + 1);
+        }
     }
 
     private void rotateRight(RedBlackTreeNode<T> node) {
         RedBlackTreeNode<T> leftChild = node.getLeft();
+        if (trace != null) trace.rotate(OperationTrace.ROTATE_RIGHT, node, leftChild);
         node.setLeft(leftChild.getRight());
 
         if (leftChild.getRight() != null) {
@@ -149,29 +328,154 @@ public class RedBlackTree<T extends Comparable<T>> {
 
         leftChild.setRight(node);
         node.setParent(leftChild);
+
+        if (orderStatistics) {
+            leftChild.setSize(node.getSize());
+            node.setSize(sizeOf(node.getLeft()) + sizeOf(node.getRight()) + 1);
+        }
     }
 
     // ==================== Search ====================
     public RedBlackTreeNode<T> search(T value) {
-        return searchRecursive(root, value);
+        RedBlackTreeNode<T> node = root;
+        while (node != null) {
+            int cmp = value.compareTo(node.getValue());
+            if (cmp == 0) {
+                return node;
+            }
+            node = (cmp < 0) ? node.getLeft() : node.getRight();
+        }
+        return null;
     }
 
-    private RedBlackTreeNode<T> searchRecursive(RedBlackTreeNode<T> node, T value) {
-        if (node == null) return null;
-        
-        int cmp = value.compareTo(node.getValue());
-        if (cmp == 0) {
-            return node;
-        } else if (cmp < 0) {
-            return searchRecursive(node.getLeft(), value);
-        } else {
-            return searchRecursive(node.getRight(), value);
+    // ==================== Navigation ====================
+    // All of these return null when no such value exists. With duplicates, floor/lower return the
+    // last equal node in order and ceiling/higher the first, so range() covers every copy.
+
+    public RedBlackTreeNode<T> first() {
+        return (root == null) ? null : findMin(root);
+    }
+
+    public RedBlackTreeNode<T> last() {
+        return (root == null) ? null : findMax(root);
+    }
+
+    // Greatest value <= key
+    public RedBlackTreeNode<T> floor(T key) {
+        RedBlackTreeNode<T> node = root;
+        RedBlackTreeNode<T> candidate = null;
+        while (node != null) {
+            if (key.compareTo(node.getValue()) >= 0) {
+                candidate = node;
+                node = node.getRight();
+            } else {
+                node = node.getLeft();
+            }
         }
+        return candidate;
+    }
+
+    // Smallest value >= key
+    public RedBlackTreeNode<T> ceiling(T key) {
+        RedBlackTreeNode<T> node = root;
+        RedBlackTreeNode<T> candidate = null;
+        while (node != null) {
+            if (key.compareTo(node.getValue()) <= 0) {
+                candidate = node;
+                node = node.getLeft();
+            } else {
+                node = node.getRight();
+            }
+        }
+        return candidate;
+    }
+
+    // Smallest value > key
+    public RedBlackTreeNode<T> higher(T key) {
+        RedBlackTreeNode<T> node = root;
+        RedBlackTreeNode<T> candidate = null;
+        while (node != null) {
+            if (key.compareTo(node.getValue()) < 0) {
+                candidate = node;
+                node = node.getLeft();
+            } else {
+                node = node.getRight();
+            }
+        }
+        return candidate;
+    }
+
+    // Greatest value < key
+    public RedBlackTreeNode<T> lower(T key) {
+        RedBlackTreeNode<T> node = root;
+        RedBlackTreeNode<T> candidate = null;
+        while (node != null) {
+            if (key.compareTo(node.getValue()) > 0) {
+                candidate = node;
+                node = node.getRight();
+            } else {
+                node = node.getLeft();
+            }
+        }
+        return candidate;
+    }
+
+    // Next node in order, found through the parent links (amortized O(1) over a full walk)
+    public RedBlackTreeNode<T> successor(RedBlackTreeNode<T> node) {
+        if (node.getRight() != null) {
+            return findMin(node.getRight());
+        }
+        RedBlackTreeNode<T> parent = node.getParent();
+        while (parent != null && node == parent.getRight()) {
+            node = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+
+    public RedBlackTreeNode<T> predecessor(RedBlackTreeNode<T> node) {
+        if (node.getLeft() != null) {
+            return findMax(node.getLeft());
+        }
+        RedBlackTreeNode<T> parent = node.getParent();
+        while (parent != null && node == parent.getLeft()) {
+            node = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+
+    /**
+     * Lazily walks the nodes with lo <= value <= hi in order: one descent to ceiling(lo),
+     * then successor links, so a window of k values costs O(log n + k).
+     * The tree must not be modified while the iterator is in use.
+     */
+    public Iterator<RedBlackTreeNode<T>> range(T lo, T hi) {
+        return new Iterator<>() {
+            private RedBlackTreeNode<T> next = (lo.compareTo(hi) <= 0) ? ceiling(lo) : null;
+
+            @Override
+            public boolean hasNext() {
+                return next != null && next.getValue().compareTo(hi) <= 0;
+            }
+
+            @Override
+            public RedBlackTreeNode<T> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                RedBlackTreeNode<T> current = next;
+                next = successor(current);
+                return current;
+            }
+        };
+    }
+
+    public Stream<RedBlackTreeNode<T>> rangeStream(T lo, T hi) {
+        return TreeIterators.stream(range(lo, hi));
     }
 
     // ==================== Delete ====================
     public boolean delete(T value) {
-        RedBlackTreeNode<T> node = search(value);
+        RedBlackTreeNode<T> node = searchFrom(root, value);
         if (node == null) return false;
 
         deleteNode(node);
@@ -196,7 +500,18 @@ public class RedBlackTree<T extends Comparable<T>> {
             child = replacement.getRight();
         }
 
+        // A black leaf leaves its path one black node short and has no child to carry the extra black,
+        // so rebalance around it while it is still linked in; rotations keep it a leaf
+        if (child == null && replacement.isBlack()) {
+            fixDelete(replacement);
+        }
+
         // Remove replacement from tree
+        if (trace != null) {
+            RedBlackTreeNode<T> parent = replacement.getParent();
+            int side = (parent != null && parent.getRight() == replacement) ? OperationTrace.RIGHT : OperationTrace.LEFT;
+            trace.splice(parent, side, replacement, child);
+        }
         if (child != null) {
             child.setParent(replacement.getParent());
         }
@@ -209,8 +524,16 @@ public class RedBlackTree<T extends Comparable<T>> {
             replacement.getParent().setRight(child);
         }
 
+        // Every ancestor of the unlinked node loses one descendant (before fixDelete rotates)
+        if (orderStatistics) {
+            for (RedBlackTreeNode<T> ancestor = replacement.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+                ancestor.setSize(ancestor.getSize() - 1);
+            }
+        }
+
         // Copy replacement value to node
         if (replacement != node) {
+            if (trace != null) trace.setValue(node, node.getValue(), replacement.getValue());
             node.setValue(replacement.getValue());
         }
 
@@ -220,7 +543,7 @@ public class RedBlackTree<T extends Comparable<T>> {
         }
 
         if (root != null) {
-            root.setBlack();
+            blacken(root);
         }
     }
 
@@ -235,8 +558,8 @@ public class RedBlackTree<T extends Comparable<T>> {
 
             if (node == parent.getLeft()) {
                 if (sibling != null && sibling.isRed()) {
-                    sibling.setBlack();
-                    parent.setRed();
+                    blacken(sibling);
+                    redden(parent);
                     rotateLeft(parent);
                     sibling = parent.getRight();
                 }
@@ -244,28 +567,28 @@ public class RedBlackTree<T extends Comparable<T>> {
                 if (sibling == null || 
                     ((sibling.getLeft() == null || sibling.getLeft().isBlack()) &&
                      (sibling.getRight() == null || sibling.getRight().isBlack()))) {
-                    if (sibling != null) sibling.setRed();
+                    if (sibling != null) redden(sibling);
                     node = parent;
                 } else {
                     if (sibling.getRight() == null || sibling.getRight().isBlack()) {
-                        if (sibling.getLeft() != null) sibling.getLeft().setBlack();
-                        sibling.setRed();
+                        if (sibling.getLeft() != null) blacken(sibling.getLeft());
+                        redden(sibling);
                         rotateRight(sibling);
                         sibling = parent.getRight();
                     }
                     if (sibling != null) {
-                        sibling.setColor(parent.getColor());
-                        sibling.getRight().setBlack();
+                        paint(sibling, parent.getColor());
+                        blacken(sibling.getRight());
                     }
-                    parent.setBlack();
+                    blacken(parent);
                     rotateLeft(parent);
                     node = root;
                 }
             } else {
                 // Mirror cases for right child
                 if (sibling != null && sibling.isRed()) {
-                    sibling.setBlack();
-                    parent.setRed();
+                    blacken(sibling);
+                    redden(parent);
                     rotateRight(parent);
                     sibling = parent.getLeft();
                 }
@@ -273,26 +596,26 @@ public class RedBlackTree<T extends Comparable<T>> {
                 if (sibling == null ||
                     ((sibling.getRight() == null || sibling.getRight().isBlack()) &&
                      (sibling.getLeft() == null || sibling.getLeft().isBlack()))) {
-                    if (sibling != null) sibling.setRed();
+                    if (sibling != null) redden(sibling);
                     node = parent;
                 } else {
                     if (sibling.getLeft() == null || sibling.getLeft().isBlack()) {
-                        if (sibling.getRight() != null) sibling.getRight().setBlack();
-                        sibling.setRed();
+                        if (sibling.getRight() != null) blacken(sibling.getRight());
+                        redden(sibling);
                         rotateLeft(sibling);
                         sibling = parent.getLeft();
                     }
                     if (sibling != null) {
-                        sibling.setColor(parent.getColor());
-                        sibling.getLeft().setBlack();
+                        paint(sibling, parent.getColor());
+                        blacken(sibling.getLeft());
                     }
-                    parent.setBlack();
+                    blacken(parent);
                     rotateRight(parent);
                     node = root;
                 }
             }
         }
-        if (node != null) node.setBlack();
+        if (node != null) blacken(node);
     }
 
     private RedBlackTreeNode<T> findMin(RedBlackTreeNode<T> node) {
@@ -302,60 +625,124 @@ public class RedBlackTree<T extends Comparable<T>> {
         return node;
     }
 
-    // ==================== Traversals ====================
-    public List<RedBlackTreeNode<T>> traverseInOrder() {
-        List<RedBlackTreeNode<T>> result = new ArrayList<>();
-        inOrderRecursive(root, result);
-        return result;
+    private RedBlackTreeNode<T> findMax(RedBlackTreeNode<T> node) {
+        while (node.getRight() != null) {
+            node = node.getRight();
+        }
+        return node;
     }
 
-    private void inOrderRecursive(RedBlackTreeNode<T> node, List<RedBlackTreeNode<T>> result) {
-        if (node == null) return;
-        inOrderRecursive(node.getLeft(), result);
-        result.add(node);
-        inOrderRecursive(node.getRight(), result);
+    // ==================== Order statistics ====================
+    /**
+     * Starts maintaining subtree sizes, computed here in one post-order pass, so that
+     * {@link #select(int)}, {@link #rank(Comparable)} and {@link #countRange(Comparable, Comparable)}
+     * run in O(log n). Nodes linked in directly (e.g. through {@link #setRoot}) need another call.
+     */
+    public void enableOrderStatistics() {
+        Iterator<RedBlackTreeNode<T>> nodes = iterator(TraversalOrder.POST_ORDER);
+        while (nodes.hasNext()) {
+            RedBlackTreeNode<T> node = nodes.next();
+            node.setSize(sizeOf(node.getLeft()) + sizeOf(node.getRight()) + 1);
+        }
+        orderStatistics = true;
     }
 
-    public List<RedBlackTreeNode<T>> traversePreOrder() {
-        List<RedBlackTreeNode<T>> result = new ArrayList<>();
-        preOrderRecursive(root, result);
-        return result;
+    public void disableOrderStatistics() {
+        orderStatistics = false;
     }
 
-    private void preOrderRecursive(RedBlackTreeNode<T> node, List<RedBlackTreeNode<T>> result) {
-        if (node == null) return;
-        result.add(node);
-        preOrderRecursive(node.getLeft(), result);
-        preOrderRecursive(node.getRight(), result);
+    public boolean isOrderStatisticsEnabled() {
+        return orderStatistics;
     }
 
-    public List<RedBlackTreeNode<T>> traversePostOrder() {
-        List<RedBlackTreeNode<T>> result = new ArrayList<>();
-        postOrderRecursive(root, result);
-        return result;
+    public int size() {
+        requireOrderStatistics();
+        return sizeOf(root);
     }
 
-    private void postOrderRecursive(RedBlackTreeNode<T> node, List<RedBlackTreeNode<T>> result) {
-        if (node == null) return;
-        postOrderRecursive(node.getLeft(), result);
-        postOrderRecursive(node.getRight(), result);
-        result.add(node);
+    // k-th smallest value, 0-based
+    public RedBlackTreeNode<T> select(int k) {
+        requireOrderStatistics();
+        if (k < 0 || k >= sizeOf(root)) {
+            throw new IndexOutOfBoundsException("k = " + k + ", size = " + sizeOf(root));
+        }
+        RedBlackTreeNode<T> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.getLeft());
+            if (k < leftSize) {
+                node = node.getLeft();
+            } else if (k == leftSize) {
+                return node;
+            } else {
+                k -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
     }
 
-    public List<RedBlackTreeNode<T>> traverseBFS() {
-        List<RedBlackTreeNode<T>> result = new ArrayList<>();
-        if (root == null) return result;
+    // Number of values strictly smaller than key
+    public int rank(T key) {
+        requireOrderStatistics();
+        return countBelow(key, false);
+    }
+
+    // Number of values in [lo, hi]
+    public int countRange(T lo, T hi) {
+        requireOrderStatistics();
+        if (lo.compareTo(hi) > 0) return 0;
+        return countBelow(hi, true) - countBelow(lo, false);
+    }
 
-        Queue<RedBlackTreeNode<T>> queue = new LinkedList<>();
-        queue.offer(root);
+    private int countBelow(T key, boolean inclusive) {
+        int count = 0;
+        RedBlackTreeNode<T> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getValue());
+            if (cmp > 0 || (inclusive && cmp == 0)) {
+                // Node and its whole left subtree are below key
+                count += sizeOf(node.getLeft()) + 1;
+                node = node.getRight();
+            } else {
+                node = node.getLeft();
+            }
+        }
+        return count;
+    }
+
+    private int sizeOf(RedBlackTreeNode<T> node) {
+        return (node == null) ? 0 : node.getSize();
+    }
 
-        while (!queue.isEmpty()) {
-            RedBlackTreeNode<T> node = queue.poll();
-            result.add(node);
-            if (node.getLeft() != null) queue.offer(node.getLeft());
-            if (node.getRight() != null) queue.offer(node.getRight());
+    private void requireOrderStatistics() {
+        if (!orderStatistics) {
+            throw new IllegalStateException("order statistics are not enabled; call enableOrderStatistics() first");
         }
-        return result;
+    }
+
+    // ==================== Traversals ====================
+    // Lazy traversal: nodes are visited only as the caller advances the iterator
+    public Iterator<RedBlackTreeNode<T>> iterator(TraversalOrder order) {
+        return TreeIterators.binary(root, RedBlackTreeNode::getLeft, RedBlackTreeNode::getRight, order);
+    }
+
+    public Stream<RedBlackTreeNode<T>> stream(TraversalOrder order) {
+        return TreeIterators.stream(iterator(order));
+    }
+
+    public List<RedBlackTreeNode<T>> traverseInOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.IN_ORDER));
+    }
+
+    public List<RedBlackTreeNode<T>> traversePreOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.PRE_ORDER));
+    }
+
+    public List<RedBlackTreeNode<T>> traversePostOrder() {
+        return TreeIterators.toList(iterator(TraversalOrder.POST_ORDER));
+    }
+
+    public List<RedBlackTreeNode<T>> traverseBFS() {
+        return TreeIterators.toList(iterator(TraversalOrder.LEVEL_ORDER));
     }
 }
 
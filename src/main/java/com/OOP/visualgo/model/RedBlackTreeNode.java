@@ -4,17 +4,26 @@ public class RedBlackTreeNode<T extends Comparable<T>> implements TreeNode<T> {
     public static final boolean RED = true;
     public static final boolean BLACK = false;
 
+    private int id; // 0 until getId() hands one out
     private T value;
     private RedBlackTreeNode<T> parent;
     private RedBlackTreeNode<T> left;
     private RedBlackTreeNode<T> right;
     private boolean color; // true = RED, false = BLACK
+    private int size = 1; // nodes in this subtree, maintained only while order statistics are enabled
+    private boolean modified = true; // see isModified()
 
     public RedBlackTreeNode(T value) {
         this.value = value;
         this.color = RED; // New nodes are always RED
     }
 
+    @Override
+    public int getId() {
+        if (id == 0) id = NodeIds.next();
+        return id;
+    }
+
     @Override
     public T getValue() {
         return value;
@@ -23,6 +32,7 @@ public class RedBlackTreeNode<T extends Comparable<T>> implements TreeNode<T> {
     @Override
     public void setValue(T value) {
         this.value = value;
+        markModified();
     }
 
     @Override
@@ -33,6 +43,7 @@ public class RedBlackTreeNode<T extends Comparable<T>> implements TreeNode<T> {
     @Override
     public void setParent(TreeNode<T> parent) {
         this.parent = (RedBlackTreeNode<T>) parent;
+        if (parent != null) this.parent.markModified();
     }
 
     public RedBlackTreeNode<T> getLeft() {
@@ -41,6 +52,7 @@ public class RedBlackTreeNode<T extends Comparable<T>> implements TreeNode<T> {
 
     public void setLeft(RedBlackTreeNode<T> left) {
         this.left = left;
+        markModified();
     }
 
     public RedBlackTreeNode<T> getRight() {
@@ -49,6 +61,7 @@ public class RedBlackTreeNode<T extends Comparable<T>> implements TreeNode<T> {
 
     public void setRight(RedBlackTreeNode<T> right) {
         this.right = right;
+        markModified();
     }
 
     public boolean isRed() {
@@ -64,15 +77,46 @@ public class RedBlackTreeNode<T extends Comparable<T>> implements TreeNode<T> {
     }
 
     public void setColor(boolean color) {
+        if (this.color == color) return;
         this.color = color;
+        markModified();
     }
 
     public void setRed() {
-        this.color = RED;
+        setColor(RED);
     }
 
     public void setBlack() {
-        this.color = BLACK;
+        setColor(BLACK);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Whether this node or a node below it has changed (children, value or colour) since the last
+     * {@link #clearModified}. New nodes start out modified, and a change flags the node and every
+     * ancestor up to the first one already flagged, so a view that clears the flags as it redraws, such
+     * as the visualizer's layout, finds every change by descending from the root through flagged nodes
+     * only. The flags have one reader: two views clearing them for the same tree would miss changes.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void clearModified() {
+        modified = false;
+    }
+
+    private void markModified() {
+        for (RedBlackTreeNode<T> node = this; node != null && !node.modified; node = node.parent) {
+            node.modified = true;
+        }
     }
 
     public boolean isLeaf() {
@@ -0,0 +1,8 @@
+package com.oop.visualgo.model;
+
+public enum TraversalOrder {
+    PRE_ORDER,   // Root -> Left -> Right (DFS)
+    IN_ORDER,    // Left -> Root -> Right; for generic trees: first child -> Root -> other children
+    POST_ORDER,  // Left -> Right -> Root
+    LEVEL_ORDER  // BFS, level by level
+}
@@ -1,5 +1,7 @@
 package com.oop.visualgo.model;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 public interface Tree<T, N extends TreeNode<T>> {
     N getRoot();
     void setRoot(N root);
@@ -10,5 +12,9 @@ public interface Tree<T, N extends TreeNode<T>> {
     List<N> traverseDFS();
     List<N> traverseBFS();
     void clear();
+    // Lazy traversal: nodes are visited only as the caller advances the iterator
+    Iterator<N> iterator(TraversalOrder order);
+    default Stream<N> stream(TraversalOrder order) {
+        return TreeIterators.stream(iterator(order));
+    }
 }
-
@@ -0,0 +1,285 @@
+package com.oop.visualgo.model;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy traversal iterators shared by all tree types.
+ * Each call to next() does only the work needed to reach the next node, so a caller that stops early
+ * touches only the nodes it consumed. Depth-first orders keep O(height) state; level order keeps
+ * one queue of pending nodes (at most the widest level).
+ */
+final class TreeIterators {
+    private TreeIterators() {
+    }
+
+    static <N> Stream<N> stream(Iterator<N> iterator) {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+    }
+
+    static <N> List<N> toList(Iterator<N> iterator) {
+        List<N> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    // ==================== Binary trees ====================
+    static <N> Iterator<N> binary(N root, UnaryOperator<N> left, UnaryOperator<N> right, TraversalOrder order) {
+        switch (order) {
+            case PRE_ORDER:
+                return new LazyIterator<>() {
+                    private final Deque<N> stack = startWith(root);
+
+                    @Override
+                    N computeNext() {
+                        if (stack.isEmpty()) return null;
+                        N node = stack.pop();
+                        N r = right.apply(node);
+                        N l = left.apply(node);
+                        if (r != null) stack.push(r);
+                        if (l != null) stack.push(l);
+                        return node;
+                    }
+                };
+            case IN_ORDER:
+                return new LazyIterator<>() {
+                    private final Deque<N> stack = new ArrayDeque<>();
+                    private N current = root;
+
+                    @Override
+                    N computeNext() {
+                        while (current != null) {
+                            stack.push(current);
+                            current = left.apply(current);
+                        }
+                        if (stack.isEmpty()) return null;
+                        N node = stack.pop();
+                        current = right.apply(node);
+                        return node;
+                    }
+                };
+            case POST_ORDER:
+                return new LazyIterator<>() {
+                    private final Deque<N> stack = new ArrayDeque<>();
+                    private N current = root;
+                    private N lastVisited;
+
+                    @Override
+                    N computeNext() {
+                        while (current != null || !stack.isEmpty()) {
+                            if (current != null) {
+                                stack.push(current);
+                                current = left.apply(current);
+                            } else {
+                                N r = right.apply(stack.peek());
+                                // Go right only if the right subtree has not been emitted yet
+                                if (r != null && r != lastVisited) {
+                                    current = r;
+                                } else {
+                                    lastVisited = stack.pop();
+                                    return lastVisited;
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                };
+            case LEVEL_ORDER:
+                return new LazyIterator<>() {
+                    private final Deque<N> queue = startWith(root);
+
+                    @Override
+                    N computeNext() {
+                        N node = queue.poll();
+                        if (node == null) return null;
+                        N l = left.apply(node);
+                        N r = right.apply(node);
+                        if (l != null) queue.offer(l);
+                        if (r != null) queue.offer(r);
+                        return node;
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown traversal order: " + order);
+        }
+    }
+
+    // ==================== Generic (n-ary) trees ====================
+    static <N> Iterator<N> nary(N root, Function<N, List<N>> children, TraversalOrder order) {
+        switch (order) {
+            case PRE_ORDER:
+                return new LazyIterator<>() {
+                    private final FrameStack<N> stack = new FrameStack<>();
+                    private N pending = root;
+
+                    @Override
+                    N computeNext() {
+                        N node = pending;
+                        pending = null;
+                        while (node == null && !stack.isEmpty()) {
+                            List<N> siblings = children.apply(stack.topNode());
+                            int index = stack.topCursor();
+                            if (index < siblings.size()) {
+                                stack.setTopCursor(index + 1);
+                                node = siblings.get(index);
+                            } else {
+                                stack.pop();
+                            }
+                        }
+                        if (node != null && !children.apply(node).isEmpty()) {
+                            stack.push(node);
+                        }
+                        return node;
+                    }
+                };
+            case IN_ORDER:
+                // Cursor 0: first child not entered yet, 1: node not emitted yet, k >= 2: child k-1 is next
+                return new LazyIterator<>() {
+                    private final FrameStack<N> stack = startFrames(root);
+
+                    @Override
+                    N computeNext() {
+                        while (!stack.isEmpty()) {
+                            N node = stack.topNode();
+                            List<N> kids = children.apply(node);
+                            int cursor = stack.topCursor();
+                            if (cursor == 0) {
+                                stack.setTopCursor(1);
+                                if (!kids.isEmpty()) {
+                                    stack.push(kids.get(0));
+                                }
+                            } else if (cursor == 1) {
+                                stack.setTopCursor(2);
+                                return node;
+                            } else if (cursor - 1 < kids.size()) {
+                                stack.setTopCursor(cursor + 1);
+                                stack.push(kids.get(cursor - 1));
+                            } else {
+                                stack.pop();
+                            }
+                        }
+                        return null;
+                    }
+                };
+            case POST_ORDER:
+                return new LazyIterator<>() {
+                    private final FrameStack<N> stack = startFrames(root);
+
+                    @Override
+                    N computeNext() {
+                        while (!stack.isEmpty()) {
+                            N node = stack.topNode();
+                            List<N> kids = children.apply(node);
+                            int index = stack.topCursor();
+                            if (index < kids.size()) {
+                                stack.setTopCursor(index + 1);
+                                stack.push(kids.get(index));
+                            } else {
+                                stack.pop();
+                                return node;
+                            }
+                        }
+                        return null;
+                    }
+                };
+            case LEVEL_ORDER:
+                return new LazyIterator<>() {
+                    private final Deque<N> queue = startWith(root);
+
+                    @Override
+                    N computeNext() {
+                        N node = queue.poll();
+                        if (node == null) return null;
+                        queue.addAll(children.apply(node));
+                        return node;
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown traversal order: " + order);
+        }
+    }
+
+    private static <N> Deque<N> startWith(N root) {
+        Deque<N> deque = new ArrayDeque<>();
+        if (root != null) deque.push(root);
+        return deque;
+    }
+
+    private static <N> FrameStack<N> startFrames(N root) {
+        FrameStack<N> stack = new FrameStack<>();
+        if (root != null) stack.push(root);
+        return stack;
+    }
+
+    /**
+     * Iterator over non-null elements; computeNext() returns null once the traversal is exhausted.
+     */
+    private abstract static class LazyIterator<N> implements Iterator<N> {
+        private N next;
+        private boolean done;
+
+        abstract N computeNext();
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = computeNext();
+                done = (next == null);
+            }
+            return next != null;
+        }
+
+        @Override
+        public N next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            N result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    /**
+     * Stack of (node, child cursor) pairs kept in two parallel arrays, so walking an n-ary tree
+     * allocates nothing per visited node.
+     */
+    private static final class FrameStack<N> {
+        private Object[] nodes = new Object[16];
+        private int[] cursors = new int[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(N node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                cursors = Arrays.copyOf(cursors, size * 2);
+            }
+            nodes[size] = node;
+            cursors[size] = 0;
+            size++;
+        }
+
+        void pop() {
+            nodes[--size] = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        N topNode() {
+            return (N) nodes[size - 1];
+        }
+
+        int topCursor() {
+            return cursors[size - 1];
+        }
+
+        void setTopCursor(int cursor) {
+            cursors[size - 1] = cursor;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.oop.visualgo.model;
 public interface TreeNode<T> {
+    // Stable id, handed out on the first call and kept for the life of the node; see NodeIds
+    int getId();
     T getValue();
     void setValue(T value);
     TreeNode<T> getParent();
@@ -0,0 +1,363 @@
+package com.oop.visualgo.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Compact binary save/load for Integer trees.
+ * <p>
+ * A snapshot is a 16-byte header ({@code magic, version, kind, node count}) followed by one varint record
+ * per node in pre-order. A record packs the node's shape bits into the low bits of its key delta:
+ * <ul>
+ *   <li>binary trees: {@code zigzag(key - previousKey) << 2 | hasLeft << 1 | hasRight}</li>
+ *   <li>red-black trees: as binary trees with a third, lowest bit for red</li>
+ *   <li>generic trees: {@code childCount}, then {@code zigzag(key - previousKey)}</li>
+ * </ul>
+ * Pre-order keys of a search tree are close to each other, so most records take one or two bytes.
+ * <p>
+ * Saving walks the tree with the lazy pre-order iterator and writes through a fixed buffer into a
+ * temporary file next to the target; the node count is patched into the header at the end and the file
+ * then replaces the target in one atomic move, so a save that fails halfway leaves the old snapshot intact. Loading reads through a fixed buffer and links each node
+ * as soon as it is decoded, so neither direction builds an intermediate list of the tree's nodes.
+ */
+public final class TreeSnapshot {
+    private static final int MAGIC = 0x56475453; // "VGTS"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private static final byte KIND_BINARY = 1;
+    private static final byte KIND_BST = 2;
+    private static final byte KIND_RED_BLACK = 3;
+    private static final byte KIND_GENERIC = 4;
+
+    private TreeSnapshot() {
+    }
+
+    // ==================== Save ====================
+    // Saves a BinaryTree or BinarySearchTree; the kind is recorded so a BST file reloads as a BST
+    public static void save(BinaryTree<Integer> tree, Path path) throws IOException {
+        byte kind = (tree instanceof BinarySearchTree) ? KIND_BST : KIND_BINARY;
+        try (Writer out = new Writer(path, kind)) {
+            Iterator<BinaryTreeNode<Integer>> nodes = tree.iterator(TraversalOrder.PRE_ORDER);
+            while (nodes.hasNext()) {
+                BinaryTreeNode<Integer> node = nodes.next();
+                long shape = (node.getLeft() != null ? 2 : 0) | (node.getRight() != null ? 1 : 0);
+                out.writeVarLong(out.delta(node.getValue()) << 2 | shape);
+            }
+            out.commit();
+        }
+    }
+
+    public static void save(RedBlackTree<Integer> tree, Path path) throws IOException {
+        try (Writer out = new Writer(path, KIND_RED_BLACK)) {
+            Iterator<RedBlackTreeNode<Integer>> nodes = tree.iterator(TraversalOrder.PRE_ORDER);
+            while (nodes.hasNext()) {
+                RedBlackTreeNode<Integer> node = nodes.next();
+                long shape = (node.getLeft() != null ? 4 : 0) | (node.getRight() != null ? 2 : 0) | (node.isRed() ? 1 : 0);
+                out.writeVarLong(out.delta(node.getValue()) << 3 | shape);
+            }
+            out.commit();
+        }
+    }
+
+    public static void save(GenericTree<Integer> tree, Path path) throws IOException {
+        try (Writer out = new Writer(path, KIND_GENERIC)) {
+            Iterator<GenericTreeNode<Integer>> nodes = tree.iterator(TraversalOrder.PRE_ORDER);
+            while (nodes.hasNext()) {
+                GenericTreeNode<Integer> node = nodes.next();
+                out.writeVarLong(node.getChildren().size());
+                out.writeVarLong(out.delta(node.getValue()));
+            }
+            out.commit();
+        }
+    }
+
+    // ==================== Load ====================
+    // Accepts snapshots of both BinaryTree and BinarySearchTree
+    public static BinaryTree<Integer> loadBinaryTree(Path path) throws IOException {
+        try (Reader in = new Reader(path)) {
+            in.requireKind(KIND_BINARY, KIND_BST);
+            BinaryTree<Integer> tree = new BinaryTree<>();
+            tree.setRoot(readBinary(in));
+            return tree;
+        }
+    }
+
+    public static BinarySearchTree<Integer> loadBinarySearchTree(Path path) throws IOException {
+        try (Reader in = new Reader(path)) {
+            in.requireKind(KIND_BST, KIND_BST);
+            BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+            tree.setRoot(readBinary(in));
+            return tree;
+        }
+    }
+
+    public static RedBlackTree<Integer> loadRedBlackTree(Path path) throws IOException {
+        try (Reader in = new Reader(path)) {
+            in.requireKind(KIND_RED_BLACK, KIND_RED_BLACK);
+            RedBlackTree<Integer> tree = new RedBlackTree<>();
+            RedBlackTreeNode<Integer> root = null;
+            // Nodes still waiting for their right child; the next record is the left child of the last node
+            // read if it has one, otherwise the right child of the most recent node on this stack
+            Deque<RedBlackTreeNode<Integer>> pendingRight = new ArrayDeque<>();
+            RedBlackTreeNode<Integer> parent = null;
+            boolean asLeft = false;
+            for (long i = 0; i < in.count; i++) {
+                long record = in.readVarLong();
+                RedBlackTreeNode<Integer> node = new RedBlackTreeNode<>(in.key(record >>> 3));
+                node.setColor((record & 1) != 0 ? RedBlackTreeNode.RED : RedBlackTreeNode.BLACK);
+                if (parent == null) {
+                    if (root != null) throw corrupt();
+                    root = node;
+                } else if (asLeft) {
+                    parent.setLeft(node);
+                } else {
+                    parent.setRight(node);
+                }
+                node.setParent(parent);
+                if ((record & 2) != 0) pendingRight.push(node);
+                if ((record & 4) != 0) {
+                    parent = node;
+                    asLeft = true;
+                } else {
+                    parent = pendingRight.poll();
+                    asLeft = false;
+                }
+            }
+            if (parent != null) throw corrupt();
+            tree.setRoot(root);
+            return tree;
+        }
+    }
+
+    // Same decoding as loadRedBlackTree, for records without a colour bit
+    private static BinaryTreeNode<Integer> readBinary(Reader in) throws IOException {
+        BinaryTreeNode<Integer> root = null;
+        Deque<BinaryTreeNode<Integer>> pendingRight = new ArrayDeque<>();
+        BinaryTreeNode<Integer> parent = null;
+        boolean asLeft = false;
+        for (long i = 0; i < in.count; i++) {
+            long record = in.readVarLong();
+            BinaryTreeNode<Integer> node = new BinaryTreeNode<>(in.key(record >>> 2));
+            if (parent == null) {
+                if (root != null) throw corrupt();
+                root = node;
+            } else if (asLeft) {
+                parent.setLeft(node);
+            } else {
+                parent.setRight(node);
+            }
+            node.setParent(parent);
+            if ((record & 1) != 0) pendingRight.push(node);
+            if ((record & 2) != 0) {
+                parent = node;
+                asLeft = true;
+            } else {
+                parent = pendingRight.poll();
+                asLeft = false;
+            }
+        }
+        if (parent != null) throw corrupt();
+        return root;
+    }
+
+    public static GenericTree<Integer> loadGenericTree(Path path) throws IOException {
+        try (Reader in = new Reader(path)) {
+            in.requireKind(KIND_GENERIC, KIND_GENERIC);
+            GenericTree<Integer> tree = new GenericTree<>();
+            GenericTreeNode<Integer> root = null;
+            // Ancestors that still expect children, with how many each is still missing
+            Deque<GenericTreeNode<Integer>> open = new ArrayDeque<>();
+            int[] missing = new int[16];
+            for (long i = 0; i < in.count; i++) {
+                long children = in.readVarLong();
+                GenericTreeNode<Integer> node = new GenericTreeNode<>(in.key(in.readVarLong()));
+                if (open.isEmpty()) {
+                    if (root != null) throw corrupt();
+                    root = node;
+                } else {
+                    open.peek().addChild(node);
+                    if (--missing[open.size() - 1] == 0) {
+                        open.pop();
+                    }
+                }
+                if (children > 0) {
+                    if (children > Integer.MAX_VALUE) throw corrupt();
+                    if (open.size() == missing.length) {
+                        missing = Arrays.copyOf(missing, missing.length * 2);
+                    }
+                    missing[open.size()] = (int) children;
+                    open.push(node);
+                }
+            }
+            if (!open.isEmpty()) throw corrupt();
+            tree.setRoot(root);
+            return tree;
+        }
+    }
+
+    private static IOException corrupt() {
+        return new IOException("corrupt tree snapshot: shape does not match the node count");
+    }
+
+    // ==================== Buffered channel I/O ====================
+    // Writes to a temporary file that replaces the target only on commit(); closing without a commit
+    // deletes it
+    private static final class Writer implements AutoCloseable {
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long count;
+        private int previousKey;
+        private boolean committed;
+
+        Writer(Path path, byte kind) throws IOException {
+            target = path.toAbsolutePath();
+            // Same directory as the target, so the final move is a rename on one file system
+            temporary = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+            try {
+                channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            buffer.putInt(MAGIC).put(VERSION).put(kind).putShort((short) 0).putLong(0);
+        }
+
+        // Zigzag-encoded difference to the previous key, so small negative steps stay small
+        long delta(Integer key) {
+            int value = Objects.requireNonNull(key, "snapshots cannot store null values");
+            long delta = (long) value - previousKey;
+            previousKey = value;
+            count++;
+            return (delta << 1) ^ (delta >> 63);
+        }
+
+        void writeVarLong(long value) throws IOException {
+            if (buffer.remaining() < 10) {
+                drain();
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        // Completes the header, then swaps the file in for the target
+        void commit() throws IOException {
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, count);
+            channel.write(header, COUNT_OFFSET);
+            channel.force(false);
+            channel.close();
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    private static final class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final byte kind;
+        final long count;
+        private int previousKey;
+
+        Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                buffer.limit(0);
+                fill(HEADER_BYTES);
+                if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                    throw new IOException(path + " is not a tree snapshot");
+                }
+                kind = buffer.get();
+                buffer.getShort();
+                count = buffer.getLong();
+                if (count < 0) throw corrupt();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void requireKind(byte kind, byte alternative) throws IOException {
+            if (this.kind != kind && this.kind != alternative) {
+                throw new IOException("snapshot holds a different kind of tree (" + this.kind + ")");
+            }
+        }
+
+        int key(long zigzag) {
+            long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+            previousKey = (int) (previousKey + delta);
+            return previousKey;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (!buffer.hasRemaining()) {
+                    fill(1);
+                }
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IOException("malformed varint in tree snapshot");
+        }
+
+        // Tops the buffer up until at least min bytes are readable
+        private void fill(int min) throws IOException {
+            buffer.compact();
+            while (buffer.position() < min) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("tree snapshot is truncated");
+                }
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
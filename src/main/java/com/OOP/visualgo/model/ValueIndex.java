@@ -0,0 +1,71 @@
+package com.oop.visualgo.model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Value-to-node index used by {@link GenericTree} and {@link BinaryTree} for O(1) lookups.
+ * <p>
+ * Every value is counted, and a value held by exactly one node maps straight to that node.
+ * Duplicated values fall back to the tree's own scan, so lookups return exactly the node the
+ * unindexed search would return; absent values are rejected in O(1) either way. When a value
+ * drops back from two nodes to one, the surviving node is found by one scan on its next lookup
+ * and cached again.
+ * <p>
+ * The index only sees changes made through the owning tree's methods.
+ */
+final class ValueIndex<T, N extends TreeNode<T>> {
+    private final Map<T, Integer> counts = new HashMap<>();
+    private final Map<T, N> uniqueNodes = new HashMap<>();
+
+    // The node must already hold its value
+    void add(N node) {
+        T value = node.getValue();
+        if (counts.merge(value, 1, Integer::sum) == 1) {
+            uniqueNodes.put(value, node);
+        } else {
+            uniqueNodes.remove(value);
+        }
+    }
+
+    // Forgets one node holding value; call before the node's value is overwritten
+    void remove(T value) {
+        Integer count = counts.get(value);
+        if (count == null) return;
+        if (count == 1) {
+            counts.remove(value);
+        } else {
+            counts.put(value, count - 1);
+        }
+        uniqueNodes.remove(value);
+    }
+
+    boolean contains(T value) {
+        return counts.containsKey(value);
+    }
+
+    int count(T value) {
+        return counts.getOrDefault(value, 0);
+    }
+
+    N lookup(T value, Function<T, N> scan) {
+        Integer count = counts.get(value);
+        if (count == null) return null;
+        if (count > 1) return scan.apply(value);
+        return uniqueNodes.computeIfAbsent(value, scan);
+    }
+
+    void rebuild(Iterator<N> nodes) {
+        clear();
+        while (nodes.hasNext()) {
+            add(nodes.next());
+        }
+    }
+
+    void clear() {
+        counts.clear();
+        uniqueNodes.clear();
+    }
+}
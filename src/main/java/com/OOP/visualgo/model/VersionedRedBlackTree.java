@@ -0,0 +1,104 @@
+package com.oop.visualgo.model;
+
+import java.util.Arrays;
+
+/**
+ * Linear version history over {@link PersistentRedBlackTree}.
+ * <p>
+ * Every successful insert/delete records a new numbered version (the empty tree is version 0). Because
+ * versions share all untouched subtrees, keeping one costs only the O(log n) nodes its operation copied.
+ * At most {@code maxVersions} versions are retained: recording one more evicts the oldest, and nodes that
+ * only evicted versions referenced become garbage, so memory stays bounded by the retained versions.
+ * <p>
+ * Writers are serialized; {@link #current()} is a volatile read, so readers never block and always get
+ * a complete, immutable version that later writes cannot change.
+ */
+public class VersionedRedBlackTree<T extends Comparable<T>> {
+    public static final int DEFAULT_MAX_VERSIONS = 1024;
+
+    private final PersistentRedBlackTree<T>[] ring; // version v lives at ring[v % ring.length]
+    private long oldestVersion;
+    private volatile long latestVersion;
+    private volatile PersistentRedBlackTree<T> current;
+
+    public VersionedRedBlackTree() {
+        this(DEFAULT_MAX_VERSIONS);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public VersionedRedBlackTree(int maxVersions) {
+        if (maxVersions < 1) {
+            throw new IllegalArgumentException("must retain at least one version: " + maxVersions);
+        }
+        ring = (PersistentRedBlackTree<T>[]) new PersistentRedBlackTree[maxVersions];
+        current = new PersistentRedBlackTree<>();
+        ring[0] = current;
+    }
+
+    // ==================== Reads (lock-free) ====================
+    public PersistentRedBlackTree<T> current() {
+        return current;
+    }
+
+    public long currentVersion() {
+        return latestVersion;
+    }
+
+    public synchronized long oldestVersion() {
+        return oldestVersion;
+    }
+
+    public int maxVersions() {
+        return ring.length;
+    }
+
+    // The tree as of the given version; fails if it was never recorded or has been evicted
+    public synchronized PersistentRedBlackTree<T> version(long version) {
+        if (version < oldestVersion || version > latestVersion) {
+            throw new IllegalArgumentException("version " + version + " is not retained (retained: "
+                    + oldestVersion + ".." + latestVersion + ")");
+        }
+        return ring[(int) (version % ring.length)];
+    }
+
+    public synchronized boolean isRetained(long version) {
+        return version >= oldestVersion && version <= latestVersion;
+    }
+
+    // ==================== Writes ====================
+    // Returns the new version number
+    public synchronized long insert(T value) {
+        return record(current.insert(value));
+    }
+
+    // Records a new version only if value was present
+    public synchronized boolean delete(T value) {
+        PersistentRedBlackTree<T> next = current.delete(value);
+        if (next == current) return false;
+        record(next);
+        return true;
+    }
+
+    // Makes a retained version current again by recording it as the newest version; history stays linear
+    public synchronized long revertTo(long version) {
+        return record(version(version));
+    }
+
+    // Drops all versions but the current one, which keeps its number
+    public synchronized void trimHistory() {
+        Arrays.fill(ring, null);
+        ring[(int) (latestVersion % ring.length)] = current;
+        oldestVersion = latestVersion;
+    }
+
+    private long record(PersistentRedBlackTree<T> tree) {
+        long version = latestVersion + 1;
+        if (version - oldestVersion >= ring.length) {
+            oldestVersion++; // the slot written below held the evicted version
+        }
+        ring[(int) (version % ring.length)] = tree;
+        current = tree;
+        latestVersion = version;
+        return version;
+    }
+}
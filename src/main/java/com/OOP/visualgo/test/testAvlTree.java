@@ -0,0 +1,84 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.AvlTree;
+import com.oop.visualgo.model.AvlTreeNode;
+import com.oop.visualgo.model.RedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class testAvlTree {
+    public static void main(String[] args) {
+        AvlTree<Integer> tree = new AvlTree<>();
+        for (int value = 1; value <= 7; value++) {
+            tree.insert(value); // Sorted input still yields a perfect tree
+        }
+        System.out.println(values(tree.traversePreOrder()));
+        System.out.println(values(tree.traverseInOrder()));
+        System.out.println("height " + tree.height() + ", rotations " + tree.getRotationCount());
+        tree.delete(4);
+        tree.delete(1);
+        System.out.println(values(tree.traverseBFS()));
+        System.out.println("================");
+
+        // Random insert/delete with duplicates against a sorted list as the oracle
+        Random random = new Random(17);
+        List<Integer> oracle = new ArrayList<>();
+        tree = new AvlTree<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                if (tree.delete(key) != oracle.remove(Integer.valueOf(key))) {
+                    throw new AssertionError("delete(" + key + ") disagrees");
+                }
+            } else {
+                tree.insert(key);
+                oracle.add(key);
+            }
+        }
+        Collections.sort(oracle);
+        System.out.println("contents match: " + oracle.equals(values(tree.traverseInOrder())));
+        System.out.println("balanced: " + (checkBalance(tree.getRoot()) == tree.height()));
+        System.out.println("size: " + (tree.size() == oracle.size()));
+
+        // Lookup-heavy comparison with RedBlackTree on the same sorted keys
+        AvlTree<Integer> avl = new AvlTree<>();
+        RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+        for (int i = 0; i < 100_000; i++) {
+            avl.insert(i);
+            rbTree.insert(i);
+        }
+        System.out.println("avl height " + avl.height() + " <= 1.44 log2 n: " + (avl.height() <= 1.44 * Math.log(100_001) / Math.log(2)));
+        avl.resetCounters();
+        for (int i = 0; i < 100_000; i++) {
+            avl.search(i);
+        }
+        System.out.println("comparisons per lookup: " + avl.getComparisonCount() / 100_000);
+    }
+
+    private static List<Integer> values(List<AvlTreeNode<Integer>> nodes) {
+        List<Integer> result = new ArrayList<>();
+        for (AvlTreeNode<Integer> node : nodes) result.add(node.getValue());
+        return result;
+    }
+
+    // Returns the subtree height, or throws if a cached height or balance factor is wrong
+    private static int checkBalance(AvlTreeNode<Integer> node) {
+        if (node == null) return 0;
+        int left = checkBalance(node.getLeft());
+        int right = checkBalance(node.getRight());
+        if (Math.abs(left - right) > 1) {
+            throw new AssertionError("unbalanced at " + node.getValue());
+        }
+        if (node.getHeight() != 1 + Math.max(left, right)) {
+            throw new AssertionError("stale height at " + node.getValue());
+        }
+        if (node.getLeft() != null && node.getLeft().getParent() != node
+                || node.getRight() != null && node.getRight().getParent() != node) {
+            throw new AssertionError("broken parent link at " + node.getValue());
+        }
+        return node.getHeight();
+    }
+}
@@ -0,0 +1,96 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.BPlusTreeFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class testBPlusTreeFile {
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("visualgo-bplus", ".db");
+        try {
+            // 64-byte pages hold 11 keys per leaf and 4 per internal page, so splits and merges happen early
+            TreeSet<Integer> oracle = new TreeSet<>();
+            Random random = new Random(13);
+            try (BPlusTreeFile tree = BPlusTreeFile.create(file, BPlusTreeFile.MIN_PAGE_SIZE, 8)) {
+                for (int i = 0; i < 200_000; i++) {
+                    int key = random.nextInt(20_000);
+                    if (random.nextInt(3) == 0) {
+                        if (tree.delete(key) != oracle.remove(key)) {
+                            throw new AssertionError("delete(" + key + ") disagrees");
+                        }
+                    } else if (tree.insert(key) != oracle.add(key)) {
+                        throw new AssertionError("insert(" + key + ") disagrees");
+                    }
+                }
+                System.out.println("contents match: " + Arrays.equals(toArray(oracle), tree.traverseInOrder()));
+                System.out.println("size " + tree.size() + ", height " + tree.height() + ", pages " + tree.getPageCount());
+            }
+
+            // Reopening maps the same pages back without rebuilding anything
+            try (BPlusTreeFile tree = BPlusTreeFile.open(file)) {
+                System.out.println("page size after reopen: " + tree.getPageSize());
+                System.out.println("reopened contents match: " + Arrays.equals(toArray(oracle), tree.traverseInOrder()));
+                boolean containsOk = true;
+                for (int key = 0; key < 20_000; key++) {
+                    containsOk &= tree.contains(key) == oracle.contains(key);
+                }
+                System.out.println("contains ok: " + containsOk);
+                int[] expected = toArray(oracle.subSet(5_000, true, 5_500, true));
+                System.out.println("range ok: " + Arrays.equals(expected, tree.range(5_000, 5_500)));
+
+                // Draining frees every page back onto the free list, and they are reused by later inserts
+                for (int key : oracle) {
+                    tree.delete(key);
+                }
+                int pages = tree.getPageCount();
+                System.out.println("drained: " + (tree.isEmpty() && tree.height() == 0));
+                for (int key = 0; key < 1_000; key++) {
+                    tree.insert(key);
+                }
+                System.out.println("pages reused: " + (tree.getPageCount() == pages));
+            }
+
+            // Default 4 KiB pages: one million sorted keys fit in three levels
+            try (BPlusTreeFile tree = BPlusTreeFile.create(file, BPlusTreeFile.DEFAULT_PAGE_SIZE)) {
+                for (int key = 0; key < 1_000_000; key++) {
+                    tree.insert(key);
+                }
+                System.out.println("1M keys: height " + tree.height() + ", file " + Files.size(file) / 1024 + " KiB");
+            }
+
+            // A corrupt page size in the header is rejected instead of producing garbage pages
+            for (int pageSize : new int[]{0, -4096, 100, 32, 1 << 20}) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, pageSize), 8);
+                }
+                expectCorrupt(file, "page size " + pageSize);
+            }
+            Files.write(file, new byte[]{0x54, 0x50, 0x42});
+            expectCorrupt(file, "a 3-byte file");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void expectCorrupt(Path file, String what) {
+        try (BPlusTreeFile tree = BPlusTreeFile.open(file)) {
+            throw new AssertionError("opened a file with " + what + ", page size " + tree.getPageSize());
+        } catch (IOException e) {
+            System.out.println("rejected " + what + ": " + e.getMessage().replace(file.toString(), "file"));
+        }
+    }
+
+    private static int[] toArray(Collection<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,108 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.BTree;
+import com.oop.visualgo.model.BTreeNode;
+import com.oop.visualgo.model.TraversalOrder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class testBTree {
+    public static void main(String[] args) {
+        BTree tree = new BTree(4);
+        for (int key = 1; key <= 10; key++) {
+            tree.insert(key);
+        }
+        printLevels(tree);
+        System.out.println(Arrays.toString(tree.traverseInOrder()));
+        System.out.println("range [3, 7]: " + Arrays.toString(tree.range(3, 7)));
+        tree.delete(4);
+        tree.delete(1);
+        tree.delete(10);
+        printLevels(tree);
+        System.out.println("================");
+
+        // Random insert/delete against a TreeSet for several orders, including the minimum order 3
+        for (int order : new int[]{3, 4, 5, 64}) {
+            Random random = new Random(order);
+            TreeSet<Integer> oracle = new TreeSet<>();
+            tree = new BTree(order);
+            for (int i = 0; i < 200_000; i++) {
+                int key = random.nextInt(20_000);
+                if (random.nextInt(3) == 0) {
+                    if (tree.delete(key) != oracle.remove(key)) {
+                        throw new AssertionError("delete(" + key + ") disagrees, order " + order);
+                    }
+                } else if (tree.insert(key) != oracle.add(key)) {
+                    throw new AssertionError("insert(" + key + ") disagrees, order " + order);
+                }
+                if (i % 1000 == 0) {
+                    check(tree, oracle);
+                }
+            }
+            check(tree, oracle);
+            int lo = 5_000;
+            int hi = 5_500;
+            int[] expected = oracle.subSet(lo, true, hi, true).stream().mapToInt(Integer::intValue).toArray();
+            boolean rangeOk = Arrays.equals(expected, tree.range(lo, hi));
+            System.out.println("order " + order + ": size " + tree.size() + ", height " + tree.height() + ", range ok " + rangeOk);
+
+            // Draining the tree must shrink it back to empty
+            for (int key : oracle) {
+                tree.delete(key);
+            }
+            System.out.println("drained: " + (tree.isEmpty() && tree.getRoot() == null && tree.height() == 0));
+        }
+    }
+
+    private static void printLevels(BTree tree) {
+        Iterator<BTreeNode> nodes = tree.iterator(TraversalOrder.LEVEL_ORDER);
+        StringBuilder line = new StringBuilder();
+        while (nodes.hasNext()) {
+            line.append(Arrays.toString(nodes.next().getKeys())).append(' ');
+        }
+        System.out.println(line.toString().trim());
+    }
+
+    private static void check(BTree tree, TreeSet<Integer> oracle) {
+        int[] expected = oracle.stream().mapToInt(Integer::intValue).toArray();
+        if (!Arrays.equals(expected, tree.traverseInOrder()) || tree.size() != oracle.size()) {
+            throw new AssertionError("contents differ");
+        }
+        // The entry walk reaches the same keys in the same order, each through the node holding it
+        int[] position = new int[1];
+        tree.forEachEntryInOrder((node, index) -> {
+            int key = node.getKey(index);
+            if (key != expected[position[0]++] || tree.search(key) != node || node.indexOf(key) != index) {
+                throw new AssertionError("entry walk is wrong at " + key);
+            }
+        });
+        if (tree.getRoot() != null) {
+            checkNode(tree, tree.getRoot(), true, 1);
+        }
+        for (int key = 0; key < 20_000; key += 97) {
+            if (tree.contains(key) != oracle.contains(key)) {
+                throw new AssertionError("contains(" + key + ") disagrees");
+            }
+        }
+    }
+
+    // Key counts stay within bounds and every leaf sits at depth == height
+    private static void checkNode(BTree tree, BTreeNode node, boolean isRoot, int depth) {
+        int minKeys = (tree.getOrder() + 1) / 2 - 1;
+        if (node.getKeyCount() >= tree.getOrder() || (!isRoot && node.getKeyCount() < minKeys) || node.getKeyCount() == 0) {
+            throw new AssertionError("node with " + node.getKeyCount() + " keys, order " + tree.getOrder());
+        }
+        if (node.isLeaf()) {
+            if (depth != tree.height()) {
+                throw new AssertionError("leaf at depth " + depth + ", height " + tree.height());
+            }
+            return;
+        }
+        for (BTreeNode child : node.getChildren()) {
+            checkNode(tree, child, false, depth + 1);
+        }
+    }
+}
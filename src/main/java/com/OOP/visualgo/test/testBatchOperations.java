@@ -0,0 +1,143 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class testBatchOperations {
+    public static void main(String[] args) {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+        bst.insertAll(List.of(50, 30, 70, 20, 40, 60, 80));
+        rbTree.insertAll(List.of(50, 30, 70, 20, 40, 60, 80));
+        bst.insertAll(List.of(45, 41, 43, 42, 44, 40));
+        System.out.println(values(bst.traverseDFS()));
+        System.out.println(values(rbTree.traversePreOrder()));
+        System.out.println(bst.deleteAll(List.of(40, 40, 40, 99, 43)) + " " + rbTree.deleteAll(List.of(20, 80, 99)));
+        System.out.println(values(bst.traverseInOrder()));
+        System.out.println(values(rbTree.traverseInOrder()));
+        System.out.println("================");
+
+        // Clustered batches with duplicates against a sorted list; a second red-black tree receives the
+        // same values one by one in ascending order and must end up with exactly the same shape
+        Random random = new Random(11);
+        bst = new BinarySearchTree<>();
+        rbTree = new RedBlackTree<>();
+        RedBlackTree<Integer> sequential = new RedBlackTree<>();
+        bst.enableOrderStatistics();
+        rbTree.enableOrderStatistics();
+        List<Integer> oracle = new ArrayList<>();
+        for (int round = 0; round < 400; round++) {
+            List<Integer> batch = clusteredBatch(random);
+            bst.insertAll(batch);
+            rbTree.insertAll(batch);
+            List<Integer> ascending = new ArrayList<>(batch);
+            Collections.sort(ascending);
+            for (int value : ascending) sequential.insert(value);
+            oracle.addAll(batch);
+            Collections.sort(oracle);
+
+            List<Integer> removals = clusteredBatch(random);
+            int expectedRemoved = 0;
+            for (Integer value : removals) {
+                if (oracle.remove(value)) expectedRemoved++;
+            }
+            Collections.sort(removals);
+            for (int value : removals) sequential.delete(value);
+            int bstRemoved = bst.deleteAll(removals);
+            int rbRemoved = rbTree.deleteAll(removals);
+            if (bstRemoved != expectedRemoved || rbRemoved != expectedRemoved) {
+                throw new AssertionError("round " + round + ": removed " + bstRemoved + "/" + rbRemoved
+                        + ", expected " + expectedRemoved);
+            }
+
+            check(round, "bst", oracle, values(bst.traverseInOrder()));
+            check(round, "red-black", oracle, values(rbTree.traverseInOrder()));
+            if (!shape(rbTree.getRoot()).equals(shape(sequential.getRoot()))) {
+                throw new AssertionError("round " + round + ": batch and sequential red-black trees differ");
+            }
+            blackHeight(rbTree.getRoot());
+            checkSizes(bst.getRoot());
+            checkSizes(rbTree.getRoot());
+        }
+        System.out.println("batches match: " + oracle.size() + " " + bst.size() + " " + rbTree.size());
+
+        // A sorted batch into an empty BST is split at the midpoints instead of forming a chain
+        bst = new BinarySearchTree<>();
+        List<Integer> run = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) run.add(i);
+        bst.insertAll(run);
+        System.out.println("100000 sorted keys, height " + height(bst.getRoot()));
+    }
+
+    // A few hundred keys around a random centre, so many of them land in the same part of the tree
+    private static List<Integer> clusteredBatch(Random random) {
+        List<Integer> batch = new ArrayList<>();
+        int centre = random.nextInt(100_000);
+        int size = random.nextInt(300);
+        for (int i = 0; i < size; i++) {
+            batch.add(centre + random.nextInt(500));
+        }
+        return batch;
+    }
+
+    private static List<Integer> values(List<? extends TreeNode<Integer>> nodes) {
+        List<Integer> result = new ArrayList<>();
+        for (TreeNode<Integer> node : nodes) result.add(node.getValue());
+        return result;
+    }
+
+    private static void check(int round, String name, List<Integer> expected, List<Integer> actual) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError("round " + round + ": " + name + " tree has the wrong contents");
+        }
+    }
+
+    // Pre-order values and colours, enough to tell two trees apart
+    private static String shape(RedBlackTreeNode<Integer> node) {
+        if (node == null) return ".";
+        return "(" + node.getValue() + (node.isRed() ? "r" : "b") + shape(node.getLeft()) + shape(node.getRight()) + ")";
+    }
+
+    private static int height(BinaryTreeNode<Integer> node) {
+        if (node == null) return 0;
+        return 1 + Math.max(height(node.getLeft()), height(node.getRight()));
+    }
+
+    private static int checkSizes(BinaryTreeNode<Integer> node) {
+        if (node == null) return 0;
+        int size = checkSizes(node.getLeft()) + checkSizes(node.getRight()) + 1;
+        if (node.getSize() != size || (node.getLeft() != null && node.getLeft().getParent() != node)
+                || (node.getRight() != null && node.getRight().getParent() != node)) {
+            throw new AssertionError("bad size or parent link at " + node.getValue());
+        }
+        return size;
+    }
+
+    private static int checkSizes(RedBlackTreeNode<Integer> node) {
+        if (node == null) return 0;
+        int size = checkSizes(node.getLeft()) + checkSizes(node.getRight()) + 1;
+        if (node.getSize() != size || (node.getLeft() != null && node.getLeft().getParent() != node)
+                || (node.getRight() != null && node.getRight().getParent() != node)) {
+            throw new AssertionError("bad size or parent link at " + node.getValue());
+        }
+        return size;
+    }
+
+    // Returns the black height of the subtree, or throws if a red-black property is broken
+    private static int blackHeight(RedBlackTreeNode<Integer> node) {
+        if (node == null) return 1;
+        if (node.isRed() && ((node.getLeft() != null && node.getLeft().isRed())
+                || (node.getRight() != null && node.getRight().isRed()))) {
+            throw new AssertionError("red node " + node.getValue() + " has a red child");
+        }
+        int left = blackHeight(node.getLeft());
+        if (left != blackHeight(node.getRight())) {
+            throw new AssertionError("black height mismatch at " + node.getValue());
+        }
+        return left + (node.isBlack() ? 1 : 0);
+    }
+}
@@ -65,6 +65,17 @@ public class testBinarySearchTree {
         System.out.println("================");
 
         System.out.println(bst.getRoot().getValue());
+        System.out.println("================");
+        // cây suy biến (key tăng dần) - trước đây gây StackOverflowError khi đệ quy
+        BinarySearchTree<Integer> chain = new BinarySearchTree<>();
+        for (int i = 0; i < 30_000; i++) {
+            chain.insert(i);
+        }
+        System.out.println(chain.search(29_999) != null);
+        System.out.println(chain.traverseInOrder().size());
+        System.out.println(chain.traversePostOrder().get(0).getValue());
+        chain.delete(0);
+        System.out.println(chain.getRoot().getValue());
 
 
     }
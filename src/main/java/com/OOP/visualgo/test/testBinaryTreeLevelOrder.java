@@ -0,0 +1,297 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.BinarySearchTree;
+import com.oop.visualgo.model.BinaryTree;
+import com.oop.visualgo.model.BinaryTreeNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+public class testBinaryTreeLevelOrder {
+    private static final int VALUES = 20;
+
+    public static void main(String[] args) {
+        // Swap-with-last delete on a complete tree: an inner node, the root, then the last node itself
+        BinaryTree<Integer> tree = new BinaryTree<>();
+        tree.enableLevelOrderIndex();
+        Reference reference = new Reference();
+        for (int value = 1; value <= 7; value++) {
+            tree.insert(value);
+            reference.insert(value);
+        }
+        for (int value : new int[]{2, 1, 7, 6}) { // after deleting 1 the root holds 6, the last node is 7
+            same(tree.delete(value), reference.delete(value), "delete(" + value + ")", -1);
+            check(tree, reference, -1);
+        }
+        System.out.println("after deleting 2, 1, 7, 6: " + values(tree.traverseBFS()));
+        same(tree.delete(42), reference.delete(42), "delete of a missing value", -1);
+        while (tree.getRoot() != null) {
+            int value = tree.getRoot().getValue(); // down to the single root
+            same(tree.delete(value), reference.delete(value), "delete(root)", -1);
+            check(tree, reference, -1);
+        }
+
+        // Random level-order inserts and deletes, with the tree made incomplete now and then; the tree
+        // without the level-order index must behave the same
+        Random random = new Random(7);
+        tree = new BinaryTree<>();
+        tree.enableLevelOrderIndex();
+        BinaryTree<Integer> plain = new BinaryTree<>();
+        reference = new Reference();
+        int incompleteSteps = 0;
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(VALUES);
+            int op = random.nextInt(20);
+            if (op < 9) {
+                tree.insert(value);
+                plain.insert(value);
+                reference.insert(value);
+            } else if (op < 16) {
+                // Half of the deletes aim at the root or the last node, the edge cases of the swap
+                List<BinaryTreeNode<Integer>> order = reference.bfs();
+                if (!order.isEmpty() && random.nextBoolean()) {
+                    value = (random.nextBoolean() ? order.get(0) : order.get(order.size() - 1)).getValue();
+                }
+                boolean removed = reference.delete(value);
+                same(tree.delete(value), removed, "delete(" + value + ")", i);
+                same(plain.delete(value), removed, "unindexed delete(" + value + ")", i);
+            } else if (op < 19) {
+                // Attaching under a chosen parent may break completeness; the cache must be dropped
+                int parent = random.nextInt(VALUES);
+                if (reference.search(parent) != null) {
+                    tree.insert(value, parent);
+                    plain.insert(value, parent);
+                    reference.insert(value, parent);
+                }
+            } else if (random.nextBoolean()) {
+                // A hand-built tree that is usually not complete
+                BinaryTreeNode<Integer> root = chain(random.nextInt(4) + 1, random);
+                tree.setRoot(root);
+                plain.setRoot(copy(root, null));
+                reference.root = copy(root, null);
+            } else {
+                tree.clear();
+                plain.clear();
+                reference.root = null;
+            }
+            if (!reference.isComplete()) incompleteSteps++;
+            check(tree, reference, i);
+            check(plain, reference, i);
+        }
+        System.out.println("50000 random operations match the BFS implementation, with and without the index, "
+                + incompleteSteps + " of them on an incomplete tree");
+
+        // Complete trees stay on the array path: a large tree builds and drains in linear time
+        tree = new BinaryTree<>();
+        tree.enableLevelOrderIndex();
+        int n = 200_000;
+        for (int value = 0; value < n; value++) tree.insert(value);
+        if (!tree.isComplete() || tree.traverseBFS().get(n - 1).getValue() != n - 1) {
+            throw new AssertionError("level-order inserts did not fill the tree in BFS order");
+        }
+        for (int value = n - 1; value >= n / 2; value--) {
+            if (!tree.delete(value)) throw new AssertionError("delete(" + value + ") failed");
+        }
+        if (!tree.isComplete() || tree.traverseBFS().size() != n / 2) throw new AssertionError("draining broke the tree");
+        System.out.println("built " + n + " nodes and drained half on the array path");
+
+        // Nodes edited through their setters: the unindexed tree sees the edit at once, the indexed one
+        // after setRoot(getRoot())
+        for (boolean indexed : new boolean[]{false, true}) {
+            tree = new BinaryTree<>();
+            if (indexed) tree.enableLevelOrderIndex();
+            for (int value = 1; value <= 7; value++) tree.insert(value);
+            if (!tree.isComplete()) throw new AssertionError("1..7 is a complete tree");
+            tree.getRoot().getLeft().setLeft(null);
+            if (indexed) tree.setRoot(tree.getRoot());
+            tree.insert(99);
+            if (!tree.isComplete() || !values(tree.traverseBFS()).equals(List.of(1, 2, 3, 99, 5, 6, 7))) {
+                throw new AssertionError("insert after a direct edit went wrong: " + values(tree.traverseBFS()));
+            }
+        }
+
+        // A BST links nodes itself; isComplete() must follow its inserts, deletes and batches
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        bst.enableLevelOrderIndex();
+        if (bst.isLevelOrderIndexed()) throw new AssertionError("a BST keeps no level-order index");
+        for (int value : new int[]{2, 1, 3}) bst.insert(value);
+        if (!bst.isComplete()) throw new AssertionError("2, 1, 3 is a complete BST");
+        bst.insert(4);
+        bst.insert(5);
+        if (bst.isComplete()) throw new AssertionError("a right chain under 3 is not complete");
+        bst.clear();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(64);
+            int op = random.nextInt(4);
+            if (op == 0) bst.delete(value);
+            else if (op == 1) bst.insertAll(List.of(value, random.nextInt(64)));
+            else if (op == 2) bst.deleteAll(List.of(value, random.nextInt(64)));
+            else bst.insert(value);
+            Reference shape = new Reference();
+            shape.root = bst.getRoot();
+            if (bst.isComplete() != shape.isComplete()) throw new AssertionError("BST isComplete() stale at " + i);
+        }
+        System.out.println("direct edits and BST changes are seen by isComplete()");
+    }
+
+    private static void same(boolean actual, boolean expected, String what, int i) {
+        if (actual != expected) throw new AssertionError(what + " returned " + actual + " at operation " + i);
+    }
+
+    // Same shape and values, same traversal output, and completeness reported right
+    private static void check(BinaryTree<Integer> tree, Reference reference, int i) {
+        String shape = shape(tree.getRoot(), null);
+        if (!shape.equals(shape(reference.root, null))) {
+            throw new AssertionError("shape differs at operation " + i + ":\n" + shape + "\n" + shape(reference.root, null));
+        }
+        if (!values(tree.traverseBFS()).equals(values(reference.bfs()))
+                || !values(tree.traverseDFS()).equals(values(reference.dfs()))) {
+            throw new AssertionError("traversal differs at operation " + i);
+        }
+        if (tree.isComplete() != reference.isComplete()) {
+            throw new AssertionError("isComplete() is wrong at operation " + i);
+        }
+    }
+
+    // Pre-order with '.' for empty slots; parent links are checked on the way
+    private static String shape(BinaryTreeNode<Integer> node, BinaryTreeNode<Integer> parent) {
+        if (node == null) return ".";
+        if (node.getParent() != parent && parent != null) throw new AssertionError("bad parent link at " + node.getValue());
+        return "(" + node.getValue() + shape(node.getLeft(), node) + shape(node.getRight(), node) + ")";
+    }
+
+    private static List<Integer> values(List<BinaryTreeNode<Integer>> nodes) {
+        List<Integer> values = new ArrayList<>(nodes.size());
+        for (BinaryTreeNode<Integer> node : nodes) values.add(node.getValue());
+        return values;
+    }
+
+    // Random small tree that leans on one side, so it is rarely complete
+    private static BinaryTreeNode<Integer> chain(int length, Random random) {
+        BinaryTreeNode<Integer> root = new BinaryTreeNode<>(random.nextInt(VALUES));
+        BinaryTreeNode<Integer> node = root;
+        for (int i = 1; i < length; i++) {
+            BinaryTreeNode<Integer> child = new BinaryTreeNode<>(random.nextInt(VALUES));
+            child.setParent(node);
+            if (random.nextBoolean()) node.setLeft(child);
+            else node.setRight(child);
+            node = child;
+        }
+        return root;
+    }
+
+    private static BinaryTreeNode<Integer> copy(BinaryTreeNode<Integer> node, BinaryTreeNode<Integer> parent) {
+        if (node == null) return null;
+        BinaryTreeNode<Integer> copy = new BinaryTreeNode<>(node.getValue());
+        copy.setParent(parent);
+        copy.setLeft(copy(node.getLeft(), copy));
+        copy.setRight(copy(node.getRight(), copy));
+        return copy;
+    }
+
+    // The BFS-scanning insert and delete BinaryTree had before the level-order array
+    private static final class Reference {
+        BinaryTreeNode<Integer> root;
+
+        void insert(int value) {
+            BinaryTreeNode<Integer> newNode = new BinaryTreeNode<>(value);
+            if (root == null) {
+                root = newNode;
+                return;
+            }
+            for (BinaryTreeNode<Integer> current : bfs()) {
+                if (current.getLeft() == null) {
+                    current.setLeft(newNode);
+                    newNode.setParent(current);
+                    return;
+                }
+                if (current.getRight() == null) {
+                    current.setRight(newNode);
+                    newNode.setParent(current);
+                    return;
+                }
+            }
+        }
+
+        void insert(int value, int parentValue) {
+            BinaryTreeNode<Integer> newNode = new BinaryTreeNode<>(value);
+            BinaryTreeNode<Integer> parent = search(parentValue);
+            if (parent.getLeft() == null) {
+                parent.setLeft(newNode);
+                newNode.setParent(parent);
+            } else if (parent.getRight() == null) {
+                parent.setRight(newNode);
+                newNode.setParent(parent);
+            }
+        }
+
+        boolean delete(int value) {
+            if (root == null) return false;
+            BinaryTreeNode<Integer> deleteNode = null;
+            BinaryTreeNode<Integer> lastNode = null;
+            BinaryTreeNode<Integer> lastParent = null;
+            for (BinaryTreeNode<Integer> current : bfs()) {
+                if (current.getValue() == value) deleteNode = current;
+                if (current.getLeft() != null || current.getRight() != null) lastParent = current;
+                lastNode = current;
+            }
+            if (deleteNode == null) return false;
+            if (lastNode == root && deleteNode == root) {
+                root = null;
+                return true;
+            }
+            deleteNode.setValue(lastNode.getValue());
+            if (lastParent.getRight() == lastNode) {
+                lastParent.setRight(null);
+            } else if (lastParent.getLeft() == lastNode) {
+                lastParent.setLeft(null);
+            }
+            return true;
+        }
+
+        BinaryTreeNode<Integer> search(int value) {
+            for (BinaryTreeNode<Integer> node : dfs()) {
+                if (node.getValue() == value) return node;
+            }
+            return null;
+        }
+
+        boolean isComplete() {
+            boolean gap = false;
+            for (BinaryTreeNode<Integer> node : bfs()) {
+                if (node.getLeft() == null) gap = true;
+                else if (gap) return false;
+                if (node.getRight() == null) gap = true;
+                else if (gap) return false;
+            }
+            return true;
+        }
+
+        List<BinaryTreeNode<Integer>> bfs() {
+            List<BinaryTreeNode<Integer>> order = new ArrayList<>();
+            if (root != null) order.add(root);
+            for (int i = 0; i < order.size(); i++) {
+                BinaryTreeNode<Integer> node = order.get(i);
+                if (node.getLeft() != null) order.add(node.getLeft());
+                if (node.getRight() != null) order.add(node.getRight());
+            }
+            return order;
+        }
+
+        List<BinaryTreeNode<Integer>> dfs() {
+            List<BinaryTreeNode<Integer>> order = new ArrayList<>();
+            Deque<BinaryTreeNode<Integer>> stack = new ArrayDeque<>();
+            if (root != null) stack.push(root);
+            while (!stack.isEmpty()) {
+                BinaryTreeNode<Integer> node = stack.pop();
+                order.add(node);
+                if (node.getRight() != null) stack.push(node.getRight());
+                if (node.getLeft() != null) stack.push(node.getLeft());
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class testBulkLoad {
+    public static void main(String[] args) {
+        List<Integer> sample = List.of(80, 20, 50, 70, 30, 60, 40, 50, 20);
+        BinarySearchTree<Integer> bst = BinarySearchTree.bulkLoad(sample);
+        RedBlackTree<Integer> rbTree = RedBlackTree.bulkLoad(sample);
+        System.out.println(values(bst.traverseDFS()));
+        System.out.println(values(rbTree.traversePreOrder()));
+        System.out.println("================");
+
+        Random random = new Random(5);
+        for (int n : new int[]{0, 1, 2, 3, 7, 8, 100, 1_000, 65_535, 65_536}) {
+            List<Integer> input = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                input.add(random.nextInt(Math.max(1, 2 * n)));
+            }
+            int[] expected = input.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            int[] keys = input.stream().mapToInt(Integer::intValue).toArray();
+
+            bst = BinarySearchTree.bulkLoad(input);
+            rbTree = RedBlackTree.bulkLoad(input);
+            IntRedBlackTree intTree = IntRedBlackTree.bulkLoad(keys);
+            check(n, "bst", expected, values(bst.traverseInOrder()));
+            check(n, "red-black", expected, values(rbTree.traverseInOrder()));
+            check(n, "int red-black", expected, intTree.traverseInOrder());
+            blackHeight(rbTree.getRoot());
+            int minHeight = 32 - Integer.numberOfLeadingZeros(expected.length);
+            if (height(bst.getRoot()) != minHeight) {
+                throw new AssertionError(n + " bst height " + height(bst.getRoot()) + ", expected " + minHeight);
+            }
+
+            // The loaded trees stay valid under ordinary inserts and deletes
+            for (int i = 0; i < 200; i++) {
+                int key = random.nextInt(Math.max(1, 2 * n));
+                rbTree.insert(key);
+                rbTree.delete(random.nextInt(Math.max(1, 2 * n)));
+                intTree.insert(key);
+            }
+            blackHeight(rbTree.getRoot());
+        }
+        System.out.println("bulk loads valid");
+
+        int[] keys = random.ints(1_000_000).toArray();
+        long start = System.nanoTime();
+        IntRedBlackTree.bulkLoad(keys);
+        System.out.println("1M int keys loaded: " + ((System.nanoTime() - start) / 1_000_000 < 5_000));
+    }
+
+    private static List<Integer> values(List<? extends TreeNode<Integer>> nodes) {
+        List<Integer> result = new ArrayList<>();
+        for (TreeNode<Integer> node : nodes) result.add(node.getValue());
+        return result;
+    }
+
+    private static void check(int n, String name, int[] expected, List<Integer> actual) {
+        check(n, name, expected, actual.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static void check(int n, String name, int[] expected, int[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new AssertionError(name + " tree of " + n + " keys has the wrong contents");
+        }
+    }
+
+    private static int height(BinaryTreeNode<Integer> node) {
+        if (node == null) return 0;
+        return 1 + Math.max(height(node.getLeft()), height(node.getRight()));
+    }
+
+    // Returns the black height of the subtree, or throws if a red-black property is broken
+    private static int blackHeight(RedBlackTreeNode<Integer> node) {
+        if (node == null) return 1;
+        if (node.isRed() && ((node.getLeft() != null && node.getLeft().isRed())
+                || (node.getRight() != null && node.getRight().isRed()))) {
+            throw new AssertionError("red node " + node.getValue() + " has a red child");
+        }
+        int left = blackHeight(node.getLeft());
+        if (left != blackHeight(node.getRight())) {
+            throw new AssertionError("black height mismatch at " + node.getValue());
+        }
+        return left + (node.isBlack() ? 1 : 0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.ConcurrentRedBlackTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testConcurrentRedBlackTree {
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentRedBlackTree<Integer> tree = new ConcurrentRedBlackTree<>();
+        int writers = 4;
+        int keysPerWriter = 20_000;
+
+        // Even keys are inserted up front and never touched again; readers must always find them
+        for (int key = 0; key < writers * keysPerWriter; key += 2) {
+            tree.insert(key);
+        }
+
+        // Each writer owns a disjoint slice of odd keys and keeps its own sequential oracle
+        List<TreeSet<Integer>> oracles = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            TreeSet<Integer> oracle = new TreeSet<>();
+            oracles.add(oracle);
+            int base = w * keysPerWriter;
+            Random random = new Random(w);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    int key = base + 2 * random.nextInt(keysPerWriter / 2) + 1;
+                    if (random.nextBoolean()) {
+                        if (tree.insertIfAbsent(key) != oracle.add(key)) throw new AssertionError("insert " + key);
+                    } else if (tree.delete(key) != oracle.remove(key)) {
+                        throw new AssertionError("delete " + key);
+                    }
+                }
+            }));
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong misses = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        for (int r = 0; r < 4; r++) {
+            Random random = new Random(100 + r);
+            threads.add(new Thread(() -> {
+                while (!done.get()) {
+                    int key = 2 * random.nextInt(writers * keysPerWriter / 2);
+                    if (!tree.contains(key)) misses.incrementAndGet();
+                    // Range of 10 even keys: the stable keys in it must all be present, in order
+                    List<Integer> range = tree.range(key, key + 19);
+                    int expected = key;
+                    for (int value : range) {
+                        if (value % 2 == 0) {
+                            if (value != expected) misses.incrementAndGet();
+                            expected += 2;
+                        }
+                    }
+                    if (expected != Math.min(key + 20, writers * keysPerWriter)) misses.incrementAndGet();
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) thread.start();
+        for (int w = 0; w < writers; w++) threads.get(w).join();
+        done.set(true);
+        for (Thread thread : threads) thread.join();
+
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int key = 0; key < writers * keysPerWriter; key += 2) expected.add(key);
+        for (TreeSet<Integer> oracle : oracles) expected.addAll(oracle);
+        System.out.println("contents match: " + new ArrayList<>(expected).equals(tree.toList()));
+        System.out.println("size match: " + (tree.size() == expected.size()));
+        System.out.println("reader misses: " + misses.get() + " (reads done: " + (reads.get() > 0) + ")");
+    }
+}
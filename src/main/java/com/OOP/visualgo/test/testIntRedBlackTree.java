@@ -0,0 +1,82 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.IntRedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class testIntRedBlackTree {
+    public static void main(String[] args) {
+        IntRedBlackTree tree = new IntRedBlackTree();
+        int[] values = {50, 30, 70, 20, 40, 60, 80};
+        for (int value : values) {
+            tree.insert(value);
+        }
+        System.out.println(Arrays.toString(tree.traverseInOrder()));
+        System.out.println(Arrays.toString(tree.traversePreOrder()));
+        System.out.println(Arrays.toString(tree.traversePostOrder()));
+        System.out.println(Arrays.toString(tree.traverseBFS()));
+        System.out.println(tree.contains(40) + " " + tree.contains(45));
+        System.out.println("================");
+
+        // Random insert/delete against TreeMap (key -> count) as the oracle
+        Random random = new Random(7);
+        TreeMap<Integer, Integer> oracle = new TreeMap<>();
+        tree.clear();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                boolean removed = tree.delete(key);
+                Integer count = oracle.get(key);
+                if (removed != (count != null)) {
+                    throw new AssertionError("delete(" + key + ") returned " + removed);
+                }
+                if (count != null) {
+                    if (count == 1) oracle.remove(key);
+                    else oracle.put(key, count - 1);
+                }
+            } else {
+                tree.insert(key);
+                oracle.merge(key, 1, Integer::sum);
+            }
+        }
+        int[] expected = oracle.entrySet().stream()
+                .flatMapToInt(e -> java.util.stream.IntStream.generate(e::getKey).limit(e.getValue()))
+                .toArray();
+        System.out.println("contents match: " + Arrays.equals(expected, tree.traverseInOrder()));
+        System.out.println("size: " + tree.size());
+        System.out.println("BFS match: " + Arrays.equals(levelOrder(tree), tree.traverseBFS()));
+        System.out.println("black height: " + blackHeight(tree, tree.getRoot()));
+    }
+
+    // Level order through the node accessors, independent of traverseBFS
+    private static int[] levelOrder(IntRedBlackTree tree) {
+        List<Integer> nodes = new ArrayList<>();
+        if (tree.getRoot() != IntRedBlackTree.NIL) nodes.add(tree.getRoot());
+        for (int i = 0; i < nodes.size(); i++) {
+            int node = nodes.get(i);
+            if (tree.getLeft(node) != IntRedBlackTree.NIL) nodes.add(tree.getLeft(node));
+            if (tree.getRight(node) != IntRedBlackTree.NIL) nodes.add(tree.getRight(node));
+        }
+        return nodes.stream().mapToInt(tree::getKey).toArray();
+    }
+
+    // Returns the black height of the subtree, or throws if a red-black property is broken
+    private static int blackHeight(IntRedBlackTree tree, int node) {
+        if (node == IntRedBlackTree.NIL) return 1;
+        int left = tree.getLeft(node);
+        int right = tree.getRight(node);
+        if (tree.isRed(node) && (tree.isRed(left) || tree.isRed(right))) {
+            throw new AssertionError("red node " + tree.getKey(node) + " has a red child");
+        }
+        int leftHeight = blackHeight(tree, left);
+        int rightHeight = blackHeight(tree, right);
+        if (leftHeight != rightHeight) {
+            throw new AssertionError("black height mismatch at " + tree.getKey(node));
+        }
+        return leftHeight + (tree.isBlack(node) ? 1 : 0);
+    }
+}
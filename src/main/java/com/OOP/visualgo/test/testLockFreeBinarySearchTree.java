@@ -0,0 +1,77 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.BinarySearchTree;
+import com.oop.visualgo.model.BinaryTreeNode;
+import com.oop.visualgo.model.LockFreeBinarySearchTree;
+import com.oop.visualgo.model.TraversalOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+public class testLockFreeBinarySearchTree {
+    public static void main(String[] args) throws InterruptedException {
+        // Single thread: same contents as BinarySearchTree for the same operations, duplicates included
+        LockFreeBinarySearchTree<Integer> tree = new LockFreeBinarySearchTree<>();
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                if (tree.delete(key) != bst.delete(key)) throw new AssertionError("delete(" + key + ") disagrees");
+            } else {
+                tree.insert(key);
+                bst.insert(key);
+            }
+        }
+        List<Integer> expected = bst.stream(TraversalOrder.IN_ORDER).map(BinaryTreeNode::getValue).collect(Collectors.toList());
+        System.out.println("sequential contents match: " + expected.equals(tree.toList()) + ", size " + tree.size());
+        System.out.println("insertIfAbsent on present key: " + tree.insertIfAbsent(expected.get(0)));
+
+        // Stress: threads insert and delete overlapping keys. Whatever the interleaving, the final count of a
+        // key must equal its inserts minus the deletes that reported success
+        int threads = 8;
+        int keys = 256; // few keys, so threads constantly collide on the same leaves and parents
+        int operations = 200_000;
+        LockFreeBinarySearchTree<Integer> shared = new LockFreeBinarySearchTree<>();
+        long[][] inserted = new long[threads][keys];
+        long[][] deleted = new long[threads][keys];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(new Thread(() -> {
+                Random r = new Random(id);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    int key = r.nextInt(keys);
+                    if (r.nextBoolean()) {
+                        shared.insert(key);
+                        inserted[id][key]++;
+                    } else if (shared.delete(key)) {
+                        deleted[id][key]++;
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) worker.start();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        List<Integer> oracle = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            long count = 0;
+            for (int t = 0; t < threads; t++) count += inserted[t][key] - deleted[t][key];
+            if (count < 0) throw new AssertionError("more deletes than inserts of " + key);
+            for (long c = 0; c < count; c++) oracle.add(key);
+        }
+        System.out.println("stress contents match oracle: " + oracle.equals(shared.toList()));
+        System.out.println("stress size match: " + (shared.size() == oracle.size()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.OperationTrace;
+import com.oop.visualgo.model.RedBlackTree;
+import com.oop.visualgo.model.RedBlackTreeNode;
+
+import java.util.Random;
+
+public class testOperationTrace {
+    public static void main(String[] args) {
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int value : new int[]{50, 30, 70, 20, 40}) {
+            tree.insert(value);
+        }
+        OperationTrace trace = new OperationTrace();
+        tree.setTrace(trace);
+        tree.insert(10);
+        tree.setTrace(null);
+        for (int e = 0; e < trace.size(); e++) {
+            System.out.println(e + ": " + trace.describe(e));
+        }
+        System.out.println("================");
+
+        // Rewinding restores the tree as it was before the operation, replaying gives the result again
+        Random random = new Random(24);
+        tree = new RedBlackTree<>();
+        int steps = 0;
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(500);
+            String before = shape(tree.getRoot());
+            trace = new OperationTrace();
+            tree.setTrace(trace);
+            if (random.nextInt(3) == 0) {
+                tree.delete(key);
+            } else {
+                tree.insert(key);
+            }
+            tree.setTrace(null);
+            String after = shape(tree.getRoot());
+            steps += trace.size();
+
+            // One step at a time back to the start, then forward to the end
+            while (trace.stepBackward(tree)) {
+            }
+            check(shape(tree.getRoot()), before, "rewind", i);
+            if (i % 7 == 0) {
+                trace.seek(tree, trace.size() / 2);
+                trace.seek(tree, 0);
+                check(shape(tree.getRoot()), before, "seek back", i);
+            }
+            while (trace.stepForward(tree)) {
+            }
+            check(shape(tree.getRoot()), after, "replay", i);
+        }
+        checkRedBlack(tree.getRoot());
+        System.out.println("5000 traced operations rewind and replay exactly, " + steps + " events");
+    }
+
+    private static void check(String actual, String expected, String what, int i) {
+        if (!actual.equals(expected)) {
+            throw new AssertionError(what + " differs at operation " + i + ":\n" + actual + "\n" + expected);
+        }
+    }
+
+    // Pre-order of value, colour and parent link, so any pointer left wrong shows up
+    private static String shape(RedBlackTreeNode<Integer> node) {
+        StringBuilder out = new StringBuilder();
+        shape(node, null, out);
+        return out.toString();
+    }
+
+    private static void shape(RedBlackTreeNode<Integer> node, RedBlackTreeNode<Integer> parent, StringBuilder out) {
+        if (node == null) {
+            out.append('.');
+            return;
+        }
+        if (node.getParent() != parent) throw new AssertionError("bad parent link at " + node.getValue());
+        out.append('(').append(node.getValue()).append(node.isRed() ? 'r' : 'b');
+        shape(node.getLeft(), node, out);
+        shape(node.getRight(), node, out);
+        out.append(')');
+    }
+
+    // Returns the black height; fails on a red node with a red child or unequal black heights
+    private static int checkRedBlack(RedBlackTreeNode<Integer> node) {
+        if (node == null) return 1;
+        if (node.isRed() && ((node.getLeft() != null && node.getLeft().isRed())
+                || (node.getRight() != null && node.getRight().isRed()))) {
+            throw new AssertionError("red node " + node.getValue() + " has a red child");
+        }
+        int left = checkRedBlack(node.getLeft());
+        if (left != checkRedBlack(node.getRight())) throw new AssertionError("black heights differ at " + node.getValue());
+        return left + (node.isBlack() ? 1 : 0);
+    }
+}
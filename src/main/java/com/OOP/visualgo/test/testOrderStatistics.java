@@ -0,0 +1,74 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.BinarySearchTree;
+import com.oop.visualgo.model.RedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class testOrderStatistics {
+    public static void main(String[] args) {
+        RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        int[] values = {50, 30, 70, 20, 40, 60, 80, 40};
+        for (int value : values) {
+            rbTree.insert(value);
+            bst.insert(value);
+        }
+        rbTree.enableOrderStatistics();
+        bst.enableOrderStatistics();
+        System.out.println(rbTree.select(0).getValue() + " " + rbTree.select(3).getValue() + " " + rbTree.select(7).getValue());
+        System.out.println(rbTree.rank(40) + " " + rbTree.rank(45) + " " + rbTree.countRange(30, 60));
+        System.out.println(bst.select(0).getValue() + " " + bst.select(3).getValue() + " " + bst.select(7).getValue());
+        System.out.println(bst.rank(40) + " " + bst.rank(45) + " " + bst.countRange(30, 60));
+        System.out.println("================");
+
+        // Random insert/delete (with duplicates) against a sorted list as the oracle
+        Random random = new Random(3);
+        List<Integer> oracle = new ArrayList<>();
+        for (int v : values) oracle.add(v);
+        Collections.sort(oracle);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                boolean removed = rbTree.delete(key);
+                if (removed != bst.delete(key) || removed != oracle.remove(Integer.valueOf(key))) {
+                    throw new AssertionError("delete(" + key + ") disagrees");
+                }
+            } else {
+                rbTree.insert(key);
+                bst.insert(key);
+                int at = Collections.binarySearch(oracle, key);
+                oracle.add(at < 0 ? -at - 1 : at, key);
+            }
+            int k = random.nextInt(oracle.size());
+            int lo = random.nextInt(2_000);
+            int hi = lo + random.nextInt(200);
+            int expectedRank = lowerBound(oracle, key);
+            int expectedRange = lowerBound(oracle, hi + 1) - lowerBound(oracle, lo);
+            check("select", oracle.get(k), rbTree.select(k).getValue(), bst.select(k).getValue());
+            check("rank", expectedRank, rbTree.rank(key), bst.rank(key));
+            check("countRange", expectedRange, rbTree.countRange(lo, hi), bst.countRange(lo, hi));
+        }
+        System.out.println("order statistics match: " + oracle.size() + " " + rbTree.size() + " " + bst.size());
+    }
+
+    private static int lowerBound(List<Integer> sorted, int key) {
+        int lo = 0;
+        int hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted.get(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void check(String what, int expected, int rbValue, int bstValue) {
+        if (expected != rbValue || expected != bstValue) {
+            throw new AssertionError(what + ": expected " + expected + ", red-black " + rbValue + ", bst " + bstValue);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testParallelTreeQuery {
+    public static void main(String[] args) {
+        Random random = new Random(11);
+
+        RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+        for (int i = 0; i < 500_000; i++) {
+            rbTree.insert(random.nextInt(1_000_000) - 500_000);
+        }
+        check("Red-Black Tree", ParallelTreeQuery.of(rbTree).withSizeHint(500_000),
+                rbTree.stream(TraversalOrder.PRE_ORDER).map(TreeNode::getValue).toList(), heightOf(rbTree.getRoot()));
+
+        // Sorted keys turn the BST into a chain: nothing to split, but results must still match
+        BinarySearchTree<Integer> chain = new BinarySearchTree<>();
+        for (int i = 0; i < 30_000; i++) {
+            chain.insert(i);
+        }
+        check("BST (sorted chain)", ParallelTreeQuery.of(chain),
+                chain.stream(TraversalOrder.PRE_ORDER).map(TreeNode::getValue).toList(), 30_000);
+
+        GenericTree<Integer> genericTree = new GenericTree<>();
+        genericTree.setRoot(new GenericTreeNode<>(0));
+        List<GenericTreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(genericTree.getRoot());
+        for (int i = 1; i < 100_000; i++) {
+            GenericTreeNode<Integer> child = new GenericTreeNode<>(random.nextInt(1000));
+            nodes.get(random.nextInt(nodes.size())).addChild(child);
+            nodes.add(child);
+        }
+        check("Generic Tree", ParallelTreeQuery.of(genericTree).withSequentialThreshold(64),
+                genericTree.stream(TraversalOrder.PRE_ORDER).map(TreeNode::getValue).toList(),
+                heightOf(genericTree.getRoot()));
+
+        // One node with many leaf children: the number of tasks must not follow the fan-out
+        GenericTree<Integer> wide = new GenericTree<>();
+        wide.setRoot(new GenericTreeNode<>(-1));
+        for (int i = 0; i < 200_000; i++) {
+            wide.getRoot().addChild(new GenericTreeNode<>(random.nextInt(1000)));
+        }
+        check("Generic Tree (wide)", ParallelTreeQuery.of(wide),
+                wide.stream(TraversalOrder.PRE_ORDER).map(TreeNode::getValue).toList(), 2);
+
+        // No size hint: a tree below the threshold is still walked by a single task
+        BinaryTree<Integer> small = new BinaryTree<>();
+        for (int i = 0; i < 3; i++) {
+            small.insert(i);
+        }
+        check("Small tree", ParallelTreeQuery.of(small), List.of(0, 1, 2), 2);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        ParallelTreeQuery.of(rbTree).withSequentialThreshold(1_000_000).forEach(node -> threads.add(Thread.currentThread()));
+        expect("threads below the threshold", 1, threads.size());
+        threads.clear();
+        ParallelTreeQuery.of(rbTree).withSequentialThreshold(1_000).forEach(node -> threads.add(Thread.currentThread()));
+        System.out.println("500000 nodes with threshold 1000 ran on " + threads.size() + " threads");
+
+        check("Empty tree", ParallelTreeQuery.of(new RedBlackTree<Integer>()), List.of(), 0);
+
+        // Single worker pool must give the same answers
+        ForkJoinPool single = new ForkJoinPool(1);
+        System.out.println("single worker count: " + ParallelTreeQuery.of(rbTree).withPool(single).count());
+        single.shutdown();
+    }
+
+    private static void check(String name, ParallelTreeQuery<Integer, ?> query, List<Integer> values, int height) {
+        expect(name + " count", values.size(), query.count());
+        expect(name + " sum", values.stream().mapToLong(Integer::longValue).sum(), query.sum(Integer::longValue));
+        expect(name + " even", values.stream().filter(v -> v % 2 == 0).count(), query.countMatching(v -> v % 2 == 0));
+        expect(name + " min", values.stream().min(Comparator.naturalOrder()), query.min(Comparator.naturalOrder()));
+        expect(name + " max", values.stream().max(Comparator.naturalOrder()), query.max(Comparator.naturalOrder()));
+        // first and last are associative but not commutative: partial results must join in pre-order
+        expect(name + " first", values.stream().findFirst(), query.reduce((a, b) -> a));
+        expect(name + " last", values.stream().reduce((a, b) -> b), query.reduce((a, b) -> b));
+        expect(name + " height", height, query.height());
+        AtomicLong visited = new AtomicLong();
+        query.forEach(node -> visited.incrementAndGet());
+        expect(name + " forEach", (long) values.size(), visited.get());
+        System.out.println(name + ": OK (" + values.size() + " nodes, height " + height + ")");
+    }
+
+    private static void expect(String what, Object expected, Object actual) {
+        if (!String.valueOf(expected).equals(String.valueOf(actual))) {
+            throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static int heightOf(GenericTreeNode<Integer> node) {
+        int height = 0;
+        List<GenericTreeNode<Integer>> level = List.of(node);
+        while (!level.isEmpty()) {
+            height++;
+            level = level.stream().flatMap(n -> n.getChildren().stream()).toList();
+        }
+        return height;
+    }
+
+    private static int heightOf(RedBlackTreeNode<Integer> node) {
+        if (node == null) return 0;
+        return 1 + Math.max(heightOf(node.getLeft()), heightOf(node.getRight()));
+    }
+}
@@ -0,0 +1,117 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.PersistentRedBlackTree;
+import com.oop.visualgo.model.PersistentRedBlackTreeNode;
+import com.oop.visualgo.model.TraversalOrder;
+import com.oop.visualgo.model.VersionedRedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class testPersistentRedBlackTree {
+    public static void main(String[] args) {
+        PersistentRedBlackTree<Integer> empty = new PersistentRedBlackTree<>();
+        PersistentRedBlackTree<Integer> tree = empty;
+        for (int value = 1; value <= 7; value++) {
+            tree = tree.insert(value);
+        }
+        PersistentRedBlackTree<Integer> seven = tree;
+        tree = tree.delete(4);
+        System.out.println("v7: " + values(seven) + ", after delete 4: " + values(tree) + ", empty: " + values(empty));
+        System.out.println("missing delete returns same tree: " + (tree.delete(42) == tree));
+        System.out.println("================");
+
+        // Random insert/delete with duplicates against a sorted list; every 1000th version is kept and rechecked at the end
+        Random random = new Random(23);
+        List<Integer> oracle = new ArrayList<>();
+        List<PersistentRedBlackTree<Integer>> kept = new ArrayList<>();
+        List<List<Integer>> keptContents = new ArrayList<>();
+        tree = new PersistentRedBlackTree<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                boolean expected = oracle.remove(Integer.valueOf(key));
+                PersistentRedBlackTree<Integer> next = tree.delete(key);
+                if ((next != tree) != expected) {
+                    throw new AssertionError("delete(" + key + ") disagrees");
+                }
+                tree = next;
+            } else {
+                tree = tree.insert(key);
+                oracle.add(key);
+            }
+            if (i % 1000 == 0) {
+                checkInvariants(tree.getRoot());
+                List<Integer> sorted = new ArrayList<>(oracle);
+                Collections.sort(sorted);
+                kept.add(tree);
+                keptContents.add(sorted);
+            }
+        }
+        Collections.sort(oracle);
+        checkInvariants(tree.getRoot());
+        System.out.println("contents match: " + oracle.equals(values(tree)) + ", size ok: " + (tree.size() == oracle.size()));
+        boolean oldVersionsIntact = true;
+        for (int i = 0; i < kept.size(); i++) {
+            oldVersionsIntact &= keptContents.get(i).equals(values(kept.get(i)));
+        }
+        System.out.println("old versions intact: " + oldVersionsIntact);
+
+        // Path copying: one insert into 100k nodes creates about log2(n) new nodes and shares the rest
+        PersistentRedBlackTree<Integer> big = new PersistentRedBlackTree<>();
+        for (int i = 0; i < 100_000; i++) {
+            big = big.insert(i);
+        }
+        PersistentRedBlackTree<Integer> bigger = big.insert(50_000);
+        Map<PersistentRedBlackTreeNode<Integer>, Boolean> oldNodes = new IdentityHashMap<>();
+        big.iterator(TraversalOrder.PRE_ORDER).forEachRemaining(node -> oldNodes.put(node, true));
+        long copied = bigger.stream(TraversalOrder.PRE_ORDER).filter(node -> !oldNodes.containsKey(node)).count();
+        System.out.println("nodes copied by one insert: " + copied + " (height " + big.height() + ")");
+
+        // Version history with eviction
+        VersionedRedBlackTree<Integer> history = new VersionedRedBlackTree<>(10);
+        for (int i = 1; i <= 25; i++) {
+            history.insert(i);
+        }
+        System.out.println("current " + history.currentVersion() + ", oldest " + history.oldestVersion()
+                + ", version 16 = " + values(history.version(16)));
+        System.out.println("version 15 retained: " + history.isRetained(15));
+        history.delete(25);
+        long reverted = history.revertTo(20);
+        System.out.println("reverted to 20 as version " + reverted + ": " + values(history.current()));
+        System.out.println("delete of missing value records nothing: " + (!history.delete(99) && history.currentVersion() == reverted));
+        try {
+            history.version(3);
+            System.out.println("evicted version returned");
+        } catch (IllegalArgumentException e) {
+            System.out.println("evicted version rejected");
+        }
+    }
+
+    private static List<Integer> values(PersistentRedBlackTree<Integer> tree) {
+        return tree.stream(TraversalOrder.IN_ORDER).map(PersistentRedBlackTreeNode::getValue).collect(Collectors.toList());
+    }
+
+    // Root is black, no red node has a red child, every path has the same number of black nodes; returns the black height
+    private static int checkInvariants(PersistentRedBlackTreeNode<Integer> root) {
+        if (root != null && root.isRed()) throw new AssertionError("red root");
+        return blackHeight(root);
+    }
+
+    private static int blackHeight(PersistentRedBlackTreeNode<Integer> node) {
+        if (node == null) return 1;
+        if (node.isRed() && ((node.getLeft() != null && node.getLeft().isRed()) || (node.getRight() != null && node.getRight().isRed()))) {
+            throw new AssertionError("red node " + node.getValue() + " has a red child");
+        }
+        int left = blackHeight(node.getLeft());
+        if (left != blackHeight(node.getRight())) {
+            throw new AssertionError("unequal black heights below " + node.getValue());
+        }
+        return left + (node.isBlack() ? 1 : 0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.RedBlackTree;
+import com.oop.visualgo.model.RedBlackTreeNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class testRedBlackTreeNavigation {
+    public static void main(String[] args) {
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        int[] values = {50, 30, 70, 20, 40, 60, 80};
+        for (int value : values) {
+            tree.insert(value);
+        }
+        System.out.println(tree.first().getValue() + " " + tree.last().getValue());
+        System.out.println(tree.floor(45).getValue() + " " + tree.ceiling(45).getValue());
+        System.out.println(tree.higher(50).getValue() + " " + tree.lower(50).getValue());
+        System.out.println(tree.floor(10) + " " + tree.ceiling(90));
+        System.out.println(values(tree.range(25, 65)));
+        System.out.println("================");
+
+        // Random contents with duplicates, TreeMap (key -> count) as the oracle
+        Random random = new Random(9);
+        TreeMap<Integer, Integer> oracle = new TreeMap<>();
+        tree = new RedBlackTree<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(10_000);
+            if (random.nextInt(4) == 0) {
+                if (tree.delete(key)) {
+                    oracle.merge(key, -1, Integer::sum);
+                    oracle.remove(key, 0);
+                }
+            } else {
+                tree.insert(key);
+                oracle.merge(key, 1, Integer::sum);
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(10_200) - 100;
+            expect("floor", oracle.floorKey(key), tree.floor(key));
+            expect("ceiling", oracle.ceilingKey(key), tree.ceiling(key));
+            expect("higher", oracle.higherKey(key), tree.higher(key));
+            expect("lower", oracle.lowerKey(key), tree.lower(key));
+            int hi = key + random.nextInt(300);
+            List<Integer> expected = new ArrayList<>();
+            oracle.subMap(key, true, hi, true).forEach((k, count) -> {
+                for (int c = 0; c < count; c++) expected.add(k);
+            });
+            if (!expected.equals(values(tree.range(key, hi)))) {
+                throw new AssertionError("range(" + key + ", " + hi + ")");
+            }
+        }
+        expect("first", oracle.firstKey(), tree.first());
+        expect("last", oracle.lastKey(), tree.last());
+        System.out.println("navigation matches TreeMap: " + oracle.size() + " distinct keys");
+    }
+
+    private static List<Integer> values(Iterator<RedBlackTreeNode<Integer>> nodes) {
+        List<Integer> result = new ArrayList<>();
+        nodes.forEachRemaining(node -> result.add(node.getValue()));
+        return result;
+    }
+
+    private static void expect(String what, Integer expected, RedBlackTreeNode<Integer> actual) {
+        Integer value = (actual == null) ? null : actual.getValue();
+        if (!Objects.equals(expected, value)) {
+            throw new AssertionError(what + ": expected " + expected + " but was " + value);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class testTreeIterators {
+    private static int touched; // nodes whose children were read, across the counting nodes below
+
+    public static void main(String[] args) {
+        // Every order against a recursive walk, for empty, single-node and random trees
+        Random random = new Random(4);
+        for (int size : new int[]{0, 1, 2, 3, 2_000}) {
+            BinaryTree<Integer> binary = new BinaryTree<>();
+            BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+            GenericTree<Integer> generic = new GenericTree<>();
+            RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+            for (int i = 0; i < size; i++) {
+                // Some nodes under a random parent, so the tree is not always complete
+                int parent = (i > 0) ? random.nextInt(i) : -1;
+                if (random.nextInt(4) == 0 && binary.search(parent) != null) binary.insert(i, parent);
+                else binary.insert(i);
+                bst.insert(random.nextInt(10_000));
+                generic.insert(i, (i == 0) ? null : random.nextInt(i));
+                rbTree.insert(random.nextInt(10_000));
+            }
+            for (TraversalOrder order : TraversalOrder.values()) {
+                String what = order + " of " + size + " nodes";
+                List<BinaryTreeNode<Integer>> expected = new ArrayList<>();
+                walkBinary(binary.getRoot(), BinaryTreeNode::getLeft, BinaryTreeNode::getRight, order, expected);
+                check(order, expected, binary::iterator, binary::stream, "BinaryTree " + what);
+                expected.clear();
+                walkBinary(bst.getRoot(), BinaryTreeNode::getLeft, BinaryTreeNode::getRight, order, expected);
+                check(order, expected, bst::iterator, bst::stream, "BST " + what);
+
+                List<GenericTreeNode<Integer>> genericExpected = new ArrayList<>();
+                walkGeneric(generic.getRoot(), order, genericExpected);
+                check(order, genericExpected, generic::iterator, generic::stream, "GenericTree " + what);
+
+                List<RedBlackTreeNode<Integer>> rbExpected = new ArrayList<>();
+                walkBinary(rbTree.getRoot(), RedBlackTreeNode::getLeft, RedBlackTreeNode::getRight, order, rbExpected);
+                check(order, rbExpected, rbTree::iterator, rbTree::stream, "RedBlackTree " + what);
+            }
+            // The eager list methods are the same walks
+            sameNodes(binary.traverseDFS(), binary.stream(TraversalOrder.PRE_ORDER).toList(), "traverseDFS");
+            sameNodes(binary.traverseBFS(), binary.stream(TraversalOrder.LEVEL_ORDER).toList(), "traverseBFS");
+            sameNodes(binary.traverseInOrder(), binary.stream(TraversalOrder.IN_ORDER).toList(), "traverseInOrder");
+            sameNodes(binary.traversePostOrder(), binary.stream(TraversalOrder.POST_ORDER).toList(), "traversePostOrder");
+            sameNodes(generic.traverseDFS(), generic.stream(TraversalOrder.PRE_ORDER).toList(), "generic traverseDFS");
+            sameNodes(generic.traverseBFS(), generic.stream(TraversalOrder.LEVEL_ORDER).toList(), "generic traverseBFS");
+            sameNodes(rbTree.traversePreOrder(), rbTree.stream(TraversalOrder.PRE_ORDER).toList(), "traversePreOrder");
+            sameNodes(rbTree.traverseInOrder(), rbTree.stream(TraversalOrder.IN_ORDER).toList(), "rb traverseInOrder");
+            sameNodes(rbTree.traversePostOrder(), rbTree.stream(TraversalOrder.POST_ORDER).toList(), "rb traversePostOrder");
+            sameNodes(rbTree.traverseBFS(), rbTree.stream(TraversalOrder.LEVEL_ORDER).toList(), "rb traverseBFS");
+        }
+        System.out.println("all orders match a recursive walk, eager lists and parallel streams agree");
+
+        // Stopping early reads the children of only the nodes consumed, plus at most one root-to-leaf path
+        BinaryTree<Integer> big = new BinaryTree<>();
+        GenericTree<Integer> bigGeneric = new GenericTree<>();
+        int height = 17;
+        for (TraversalOrder order : TraversalOrder.values()) {
+            touched = 0;
+            big.setRoot(countingBinary(0, height, null));
+            long count = big.stream(order).limit(100).count();
+            if (count != 100 || touched > 101 + 2 * height) {
+                throw new AssertionError("limit(100) in " + order + " read " + touched + " binary nodes");
+            }
+            int afterLimit = touched;
+            touched = 0;
+            big.setRoot(countingBinary(0, height, null));
+            big.stream(order).findFirst();
+            if (touched > 2 * height) throw new AssertionError("findFirst in " + order + " read " + touched + " nodes");
+            int afterFirst = touched;
+
+            touched = 0;
+            bigGeneric.setRoot(countingGeneric(0, 8, 4));
+            bigGeneric.stream(order).limit(100).count();
+            if (touched > 101 + 8) throw new AssertionError("generic limit(100) in " + order + " read " + touched + " nodes");
+            System.out.println(order + ": limit(100) read " + afterLimit + " of " + ((1 << height) - 1)
+                    + " nodes, findFirst read " + afterFirst + ", generic limit(100) read " + touched);
+        }
+        touched = 0;
+        big.setRoot(countingBinary(0, height, null));
+        if (big.stream(TraversalOrder.PRE_ORDER).count() != (1 << height) - 1 || touched != (1 << height) - 1) {
+            throw new AssertionError("a full walk must read every node once, read " + touched);
+        }
+        System.out.println("early termination touches only the nodes it needs");
+    }
+
+    private static <N> void check(TraversalOrder order, List<N> expected, Function<TraversalOrder, Iterator<N>> iterator,
+                                  Function<TraversalOrder, Stream<N>> stream, String what) {
+        Iterator<N> nodes = iterator.apply(order);
+        List<N> actual = new ArrayList<>();
+        while (nodes.hasNext()) {
+            if (!nodes.hasNext()) throw new AssertionError("hasNext() is not idempotent in " + what);
+            actual.add(nodes.next());
+        }
+        sameNodes(expected, actual, what);
+        // Past the end: hasNext stays false and next throws
+        if (nodes.hasNext() || nodes.hasNext()) throw new AssertionError("hasNext() true past the end in " + what);
+        try {
+            nodes.next();
+            throw new AssertionError("next() past the end did not throw in " + what);
+        } catch (NoSuchElementException expectedException) {
+            // expected
+        }
+        // next() without hasNext() walks the same nodes
+        nodes = iterator.apply(order);
+        for (N node : expected) {
+            if (nodes.next() != node) throw new AssertionError("next() alone differs in " + what);
+        }
+        sameNodes(expected, stream.apply(order).toList(), what + " (stream)");
+        sameNodes(expected, stream.apply(order).parallel().toList(), what + " (parallel stream)");
+    }
+
+    private static <N> void sameNodes(List<N> expected, List<N> actual, String what) {
+        if (expected.size() != actual.size()) {
+            throw new AssertionError(what + ": " + actual.size() + " nodes, expected " + expected.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i) != actual.get(i)) throw new AssertionError(what + " differs at position " + i);
+        }
+    }
+
+    // ==================== Reference walks ====================
+    private static <N> void walkBinary(N node, Function<N, N> left, Function<N, N> right, TraversalOrder order,
+                                       List<N> out) {
+        if (node == null) return;
+        if (order == TraversalOrder.LEVEL_ORDER) {
+            out.add(node);
+            for (int i = 0; i < out.size(); i++) {
+                N next = out.get(i);
+                if (left.apply(next) != null) out.add(left.apply(next));
+                if (right.apply(next) != null) out.add(right.apply(next));
+            }
+            return;
+        }
+        if (order == TraversalOrder.PRE_ORDER) out.add(node);
+        walkBinary(left.apply(node), left, right, order, out);
+        if (order == TraversalOrder.IN_ORDER) out.add(node);
+        walkBinary(right.apply(node), left, right, order, out);
+        if (order == TraversalOrder.POST_ORDER) out.add(node);
+    }
+
+    // In-order of a generic tree: first child, then the node, then the other children
+    private static void walkGeneric(GenericTreeNode<Integer> node, TraversalOrder order, List<GenericTreeNode<Integer>> out) {
+        if (node == null) return;
+        if (order == TraversalOrder.LEVEL_ORDER) {
+            out.add(node);
+            for (int i = 0; i < out.size(); i++) {
+                out.addAll(out.get(i).getChildren());
+            }
+            return;
+        }
+        List<GenericTreeNode<Integer>> children = node.getChildren();
+        if (order == TraversalOrder.PRE_ORDER) out.add(node);
+        for (int i = 0; i < children.size(); i++) {
+            if (i == 1 && order == TraversalOrder.IN_ORDER) out.add(node);
+            walkGeneric(children.get(i), order, out);
+        }
+        if (order == TraversalOrder.IN_ORDER && children.size() <= 1) out.add(node);
+        if (order == TraversalOrder.POST_ORDER) out.add(node);
+    }
+
+    // ==================== Counting nodes ====================
+    // Perfect binary tree of the given height whose nodes record the first read of their children
+    private static BinaryTreeNode<Integer> countingBinary(int value, int height, BinaryTreeNode<Integer> parent) {
+        if (height == 0) return null;
+        CountingBinaryNode node = new CountingBinaryNode(value);
+        node.setParent(parent);
+        node.setLeft(countingBinary(2 * value + 1, height - 1, node));
+        node.setRight(countingBinary(2 * value + 2, height - 1, node));
+        return node;
+    }
+
+    private static GenericTreeNode<Integer> countingGeneric(int value, int height, int fanOut) {
+        CountingGenericNode node = new CountingGenericNode(value);
+        if (height > 1) {
+            for (int i = 0; i < fanOut; i++) {
+                node.addChild(countingGeneric(value * fanOut + i + 1, height - 1, fanOut));
+            }
+        }
+        return node;
+    }
+
+    private static final class CountingBinaryNode extends BinaryTreeNode<Integer> {
+        private boolean seen;
+
+        CountingBinaryNode(int value) {
+            super(value);
+        }
+
+        @Override
+        public BinaryTreeNode<Integer> getLeft() {
+            touch();
+            return super.getLeft();
+        }
+
+        @Override
+        public BinaryTreeNode<Integer> getRight() {
+            touch();
+            return super.getRight();
+        }
+
+        private void touch() {
+            if (!seen) {
+                seen = true;
+                touched++;
+            }
+        }
+    }
+
+    private static final class CountingGenericNode extends GenericTreeNode<Integer> {
+        private boolean seen;
+
+        CountingGenericNode(int value) {
+            super(value);
+        }
+
+        @Override
+        public List<GenericTreeNode<Integer>> getChildren() {
+            if (!seen) {
+                seen = true;
+                touched++;
+            }
+            return super.getChildren();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+import com.oop.visualgo.view.LayoutSnapshot;
+import com.oop.visualgo.view.TreeLayout;
+import com.oop.visualgo.view.TreeShapes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+public class testTreeLayout {
+    private static final double GAP = 10;
+    private static final double LEVEL = 80;
+
+    public static void main(String[] args) {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        for (int value : new int[]{50, 30, 70, 20, 40, 60, 80, 10}) {
+            bst.insert(value);
+        }
+        TreeLayout<BinaryTreeNode<Integer>> layout = new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL);
+        LayoutSnapshot snapshot = layout.update(bst.getRoot());
+        for (int i = 0; i < snapshot.size(); i++) {
+            System.out.print(snapshot.key(i, 0) + "@" + snapshot.x(i) + "," + snapshot.y(i) + " ");
+        }
+        System.out.println();
+        layout.update(bst.getRoot());
+        System.out.println("unchanged tree, subtrees laid out again: " + layout.lastComputedCount());
+        bst.insert(45);
+        layout.update(bst.getRoot());
+        System.out.println("after insert(45), subtrees laid out again: " + layout.lastComputedCount());
+        System.out.println("================");
+
+        // Random inserts and deletes: the incremental layout must equal a fresh one and never overlap
+        Random random = new Random(19);
+        bst = new BinarySearchTree<>();
+        RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+        layout = new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL);
+        TreeLayout<RedBlackTreeNode<Integer>> rbLayout = new TreeLayout<>(TreeShapes.redBlack(50), GAP, LEVEL);
+        int maxComputed = 0;
+        for (int i = 0; i < 3_000; i++) {
+            int key = random.nextInt(1_000);
+            if (random.nextInt(3) == 0) {
+                bst.delete(key);
+                rbTree.delete(key);
+            } else {
+                bst.insert(key);
+                rbTree.insert(key);
+            }
+            compare(layout.update(bst.getRoot()),
+                    new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL).update(bst.getRoot()));
+            LayoutSnapshot rb = rbLayout.update(rbTree.getRoot());
+            maxComputed = Math.max(maxComputed, rbLayout.lastComputedCount());
+            compare(rb, new TreeLayout<>(TreeShapes.redBlack(50), GAP, LEVEL).update(rbTree.getRoot()));
+            if (i % 100 == 0) {
+                checkTidy(layout.snapshot(), 2);
+                checkTidy(rb, 2);
+            }
+        }
+        System.out.println("binary layouts match, red-black size " + rbLayout.snapshot().size()
+                + ", most subtrees laid out by one change: " + maxComputed);
+
+        // AVL balance factors, red-black colours and edits through the node setters are picked up too
+        AvlTree<Integer> avlTree = new AvlTree<>();
+        TreeLayout<AvlTreeNode<Integer>> avlLayout = new TreeLayout<>(TreeShapes.avl(50), GAP, LEVEL);
+        for (int i = 0; i < 2_000; i++) {
+            int key = random.nextInt(1_000);
+            if (random.nextInt(3) == 0) avlTree.delete(key);
+            else avlTree.insert(key);
+            compare(avlLayout.update(avlTree.getRoot()),
+                    new TreeLayout<>(TreeShapes.avl(50), GAP, LEVEL).update(avlTree.getRoot()));
+        }
+        BinaryTreeNode<Integer> leaf = bst.getRoot();
+        while (leaf.getLeft() != null) leaf = leaf.getLeft();
+        leaf.setValue(-1);
+        leaf.setLeft(new BinaryTreeNode<>(-2));
+        compare(layout.update(bst.getRoot()), new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL).update(bst.getRoot()));
+        if (layout.snapshot().key(layout.snapshot().indexesOf(-2)[0] - 1, 0) != -1) {
+            throw new AssertionError("setter edits were not laid out");
+        }
+
+        // Playing a red-black trace back and forth rewires nodes that had left the tree
+        OperationTrace trace = new OperationTrace();
+        rbTree.setTrace(trace);
+        for (int i = 0; i < 200; i++) {
+            int key = random.nextInt(1_000);
+            if (i % 2 == 0) rbTree.delete(key);
+            else rbTree.insert(key);
+        }
+        rbLayout.update(rbTree.getRoot());
+        while (trace.stepBackward(rbTree)) {
+            compare(rbLayout.update(rbTree.getRoot()),
+                    new TreeLayout<>(TreeShapes.redBlack(50), GAP, LEVEL).update(rbTree.getRoot()));
+        }
+        while (trace.stepForward(rbTree)) {
+            compare(rbLayout.update(rbTree.getRoot()),
+                    new TreeLayout<>(TreeShapes.redBlack(50), GAP, LEVEL).update(rbTree.getRoot()));
+        }
+        rbTree.setTrace(null);
+        System.out.println("AVL, setter edits and trace playback match");
+
+        // One change looks at the path down to it, not at the tree: a few nodes per level of 200000 nodes
+        RedBlackTree<Integer> large = new RedBlackTree<>();
+        for (int i = 0; i < 200_000; i++) large.insert(random.nextInt());
+        TreeLayout<RedBlackTreeNode<Integer>> largeLayout = new TreeLayout<>(TreeShapes.redBlack(50), GAP, LEVEL);
+        LayoutSnapshot before = largeLayout.update(large.getRoot());
+        int mostVisited = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 2 == 0) large.insert(random.nextInt());
+            else large.delete(large.getRoot().getLeft().getValue());
+            largeLayout.update(large.getRoot());
+            mostVisited = Math.max(mostVisited, largeLayout.lastVisitedCount());
+        }
+        if (mostVisited > 4 * largeLayout.snapshot().levels()) {
+            throw new AssertionError("one change visited " + mostVisited + " nodes");
+        }
+        largeLayout.update(large.getRoot());
+        if (largeLayout.lastVisitedCount() != 0 || largeLayout.snapshot() != largeLayout.update(large.getRoot())) {
+            throw new AssertionError("an unchanged tree was laid out again");
+        }
+        compare(largeLayout.snapshot(), new TreeLayout<>(TreeShapes.redBlack(50), GAP, LEVEL).update(large.getRoot()));
+        System.out.println("one change in 200000 nodes visits at most " + mostVisited + " nodes; earlier snapshot still "
+                + before.size() + " nodes");
+
+        // Generic trees and B-Trees use the same engine with more children and variable widths
+        GenericTree<Integer> genericTree = new GenericTree<>();
+        genericTree.insert(0, null);
+        TreeLayout<GenericTreeNode<Integer>> genericLayout = new TreeLayout<>(TreeShapes.generic(50), GAP, LEVEL);
+        for (int i = 1; i < 500; i++) {
+            genericTree.insert(i, random.nextInt(i));
+            if (i % 7 == 0) genericTree.delete(random.nextInt(i));
+            compare(genericLayout.update(genericTree.getRoot()),
+                    new TreeLayout<>(TreeShapes.generic(50), GAP, LEVEL).update(genericTree.getRoot()));
+        }
+        checkTidy(genericLayout.snapshot(), Integer.MAX_VALUE);
+        BTree bTree = new BTree(4);
+        TreeLayout<BTreeNode> bLayout = new TreeLayout<>(TreeShapes.bTree(36), GAP, LEVEL);
+        for (int i = 0; i < 2_000; i++) {
+            bTree.insert(random.nextInt(5_000));
+            if (i % 3 == 0) bTree.delete(random.nextInt(5_000));
+            compare(bLayout.update(bTree.getRoot()),
+                    new TreeLayout<>(TreeShapes.bTree(36), GAP, LEVEL).update(bTree.getRoot()));
+        }
+        checkTidy(bLayout.snapshot(), Integer.MAX_VALUE);
+        System.out.println("generic and B-Tree layouts are tidy");
+
+        // Highlight lookups find every node holding a key, duplicates and B-Tree keys included
+        LayoutSnapshot bstSnapshot = layout.snapshot();
+        for (int key = -1; key <= 1_000; key++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < bstSnapshot.size(); i++) {
+                if (bstSnapshot.key(i, 0) == key) expected.add(i);
+            }
+            if (!expected.equals(Arrays.stream(bstSnapshot.indexesOf(key)).boxed().toList())) {
+                throw new AssertionError("indexesOf(" + key + ") is wrong");
+            }
+        }
+        LayoutSnapshot bSnapshot = bLayout.snapshot();
+        for (int i = 0; i < bSnapshot.size(); i++) {
+            for (int k = 0; k < bSnapshot.keyCount(i); k++) {
+                int[] found = bSnapshot.indexesOf(bSnapshot.key(i, k));
+                if (found.length != 1 || found[0] != i) throw new AssertionError("B-Tree key lookup is wrong");
+            }
+        }
+        System.out.println("key lookups match");
+
+        // Duplicates share a value but not an id: each id finds exactly its own node and key position
+        BinarySearchTree<Integer> duplicates = new BinarySearchTree<>();
+        for (int value : new int[]{5, 3, 5, 8, 5, 3}) {
+            duplicates.insert(value);
+        }
+        LayoutSnapshot dup = new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL).update(duplicates.getRoot());
+        if (dup.indexesOf(5).length != 3) throw new AssertionError("expected three nodes holding 5");
+        Set<Integer> positions = new HashSet<>();
+        for (int i = 0; i < dup.size(); i++) {
+            if (dup.id(i) != ((BinaryTreeNode<?>) dup.node(i)).getId() || dup.indexOfId(dup.id(i)) != i) {
+                throw new AssertionError("id lookup of node " + i + " is wrong");
+            }
+            positions.add(dup.keyPosition(i, 0));
+        }
+        if (positions.size() != dup.keyTotal() || dup.indexOfId(-5) != -1) {
+            throw new AssertionError("key positions are not distinct");
+        }
+        for (int i = 0; i < bSnapshot.size(); i++) {
+            BTreeNode node = (BTreeNode) bSnapshot.node(i);
+            if (bSnapshot.indexOfId(node.getId()) != i || node.indexOf(bSnapshot.key(i, 0)) != 0) {
+                throw new AssertionError("B-Tree id lookup is wrong");
+            }
+        }
+        System.out.println("id lookups match, duplicates stay apart");
+
+        // A sorted insert sequence gives a 20000-level chain; the layout must not recurse
+        bst = new BinarySearchTree<>();
+        for (int i = 0; i < 20_000; i++) bst.insert(i);
+        LayoutSnapshot chain = new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL).update(bst.getRoot());
+        System.out.println("chain levels: " + chain.levels());
+
+        // An interrupted layout stops and keeps its previous snapshot
+        TreeLayout<BinaryTreeNode<Integer>> chainLayout = new TreeLayout<>(TreeShapes.binary(50), GAP, LEVEL);
+        chainLayout.update(null);
+        Thread.currentThread().interrupt();
+        try {
+            chainLayout.update(bst.getRoot());
+            throw new AssertionError("interrupted layout was not cancelled");
+        } catch (CancellationException e) {
+            Thread.interrupted();
+        }
+        System.out.println("cancelled layout kept " + chainLayout.snapshot().size() + " nodes, now "
+                + chainLayout.update(bst.getRoot()).size());
+    }
+
+    // Same nodes in the same order at the same positions, drawn the same way; read in pre-order and in reverse
+    private static void compare(LayoutSnapshot incremental, LayoutSnapshot fresh) {
+        if (incremental.size() != fresh.size() || incremental.levels() != fresh.levels()
+                || incremental.minX() != fresh.minX() || incremental.maxX() != fresh.maxX()) {
+            throw new AssertionError("sizes differ: " + incremental.size() + " vs " + fresh.size());
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            same(incremental, fresh, i);
+        }
+        for (int i = fresh.size() - 1; i >= 0; i -= 3) {
+            same(incremental, fresh, i);
+        }
+    }
+
+    private static void same(LayoutSnapshot incremental, LayoutSnapshot fresh, int i) {
+        boolean same = incremental.node(i) == fresh.node(i) && incremental.x(i) == fresh.x(i)
+                && incremental.y(i) == fresh.y(i) && incremental.parent(i) == fresh.parent(i)
+                && incremental.subtreeEnd(i) == fresh.subtreeEnd(i) && incremental.keyCount(i) == fresh.keyCount(i)
+                && incremental.style(i) == fresh.style(i) && incremental.annotation(i) == fresh.annotation(i)
+                && incremental.subtreeMinX(i) == fresh.subtreeMinX(i) && incremental.subtreeMaxY(i) == fresh.subtreeMaxY(i);
+        for (int k = 0; same && k < fresh.keyCount(i); k++) {
+            same = incremental.key(i, k) == fresh.key(i, k) && incremental.keyPosition(i, k) == fresh.keyPosition(i, k);
+        }
+        if (!same) {
+            throw new AssertionError("incremental layout differs from a fresh one at index " + i);
+        }
+    }
+
+    /**
+     * Nodes on a level keep at least GAP between them, children are ordered left to right under their
+     * parent, and a parent lies within the span of its children.
+     */
+    private static void checkTidy(LayoutSnapshot snapshot, int maxSlots) {
+        List<List<Integer>> levels = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            while (levels.size() <= snapshot.depth(i)) levels.add(new ArrayList<>());
+            levels.get(snapshot.depth(i)).add(i);
+            if (snapshot.slot(i) >= maxSlots) throw new AssertionError("bad slot " + snapshot.slot(i));
+        }
+        for (List<Integer> level : levels) {
+            level.sort(Comparator.comparingDouble(snapshot::x));
+            for (int j = 1; j < level.size(); j++) {
+                int a = level.get(j - 1);
+                int b = level.get(j);
+                double space = (snapshot.x(b) - snapshot.width(b) / 2) - (snapshot.x(a) + snapshot.width(a) / 2);
+                if (space < GAP - 1e-6) {
+                    throw new AssertionError("nodes " + a + " and " + b + " overlap (space " + space + ")");
+                }
+            }
+        }
+        double[] firstChildX = new double[snapshot.size()];
+        double[] lastChildX = new double[snapshot.size()];
+        Arrays.fill(firstChildX, Double.NaN);
+        for (int i = 1; i < snapshot.size(); i++) {
+            int p = snapshot.parent(i);
+            if (Double.isNaN(firstChildX[p])) firstChildX[p] = snapshot.x(i);
+            else if (snapshot.x(i) <= lastChildX[p]) throw new AssertionError("children out of order at " + p);
+            lastChildX[p] = snapshot.x(i);
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (Double.isNaN(firstChildX[i]) || firstChildX[i] == lastChildX[i]) continue;
+            if (snapshot.x(i) < firstChildX[i] || snapshot.x(i) > lastChildX[i]) {
+                throw new AssertionError("parent " + i + " is outside its children");
+            }
+        }
+    }
+}
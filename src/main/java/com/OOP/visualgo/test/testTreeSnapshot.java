@@ -0,0 +1,163 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class testTreeSnapshot {
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("visualgo-snapshot", ".vgt");
+        try {
+            Random random = new Random(5);
+
+            // BST: shape and keys survive the round trip, and the file reloads as a BST
+            BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+            for (int i = 0; i < 100_000; i++) {
+                bst.insert(random.nextInt() / 2);
+            }
+            TreeSnapshot.save(bst, file);
+            BinarySearchTree<Integer> bstCopy = TreeSnapshot.loadBinarySearchTree(file);
+            System.out.println("bst same shape: " + binaryShape(bst.getRoot()).equals(binaryShape(bstCopy.getRoot())));
+            System.out.println("bst bytes per node: " + Files.size(file) / 100_000.0);
+            System.out.println("bst search after load: " + (bstCopy.search(bst.getRoot().getValue()) != null));
+
+            // Binary tree with duplicates and negative values
+            BinaryTree<Integer> binaryTree = new BinaryTree<>();
+            for (int i = 0; i < 1_000; i++) {
+                binaryTree.insert(random.nextInt(21) - 10);
+            }
+            TreeSnapshot.save(binaryTree, file);
+            BinaryTree<Integer> binaryCopy = TreeSnapshot.loadBinaryTree(file);
+            System.out.println("binary same shape: " + binaryShape(binaryTree.getRoot()).equals(binaryShape(binaryCopy.getRoot())));
+
+            // Red-black tree: colours are restored, and the copy keeps working as a red-black tree
+            RedBlackTree<Integer> rbTree = new RedBlackTree<>();
+            for (int i = 0; i < 100_000; i++) {
+                rbTree.insert(i);
+            }
+            TreeSnapshot.save(rbTree, file);
+            RedBlackTree<Integer> rbCopy = TreeSnapshot.loadRedBlackTree(file);
+            System.out.println("rb same shape and colours: " + rbShape(rbTree.getRoot()).equals(rbShape(rbCopy.getRoot())));
+            System.out.println("rb bytes per node (sorted keys): " + Files.size(file) / 100_000.0);
+            rbCopy.delete(50_000);
+            rbCopy.insert(-1);
+            System.out.println("rb first after edits: " + rbCopy.first().getValue());
+
+            // Generic tree
+            GenericTree<Integer> genericTree = new GenericTree<>();
+            genericTree.insert(0, null);
+            for (int i = 1; i < 10_000; i++) {
+                genericTree.insert(i, random.nextInt(i));
+            }
+            TreeSnapshot.save(genericTree, file);
+            GenericTree<Integer> genericCopy = TreeSnapshot.loadGenericTree(file);
+            System.out.println("generic same shape: " + genericShape(genericTree).equals(genericShape(genericCopy)));
+
+            // Empty trees
+            TreeSnapshot.save(new GenericTree<Integer>(), file);
+            System.out.println("empty generic: " + (TreeSnapshot.loadGenericTree(file).getRoot() == null));
+            TreeSnapshot.save(new RedBlackTree<Integer>(), file);
+            System.out.println("empty rb: " + (TreeSnapshot.loadRedBlackTree(file).getRoot() == null));
+
+            // Wrong kind and truncated files are rejected with an IOException
+            TreeSnapshot.save(bst, file);
+            expectFailure("load bst as rb", () -> TreeSnapshot.loadRedBlackTree(file));
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+            expectFailure("truncated", () -> TreeSnapshot.loadBinarySearchTree(file));
+
+            // A save that fails partway, after several buffers were written, leaves the old file untouched
+            TreeSnapshot.save(bst, file);
+            byte[] saved = Files.readAllBytes(file);
+            BinaryTree<Integer> withNull = new BinaryTree<>();
+            withNull.enableLevelOrderIndex();
+            for (int i = 0; i < 100_000; i++) {
+                withNull.insert(i * 1_000);
+            }
+            withNull.insert(null);
+            try {
+                TreeSnapshot.save(withNull, file);
+                throw new AssertionError("a null value was saved");
+            } catch (NullPointerException expected) {
+                // expected
+            }
+            boolean leftovers;
+            try (Stream<Path> siblings = Files.list(file.getParent())) {
+                leftovers = siblings.anyMatch(p -> p.getFileName().toString().startsWith(file.getFileName() + "."));
+            }
+            System.out.println("failed save kept the old snapshot: " + Arrays.equals(saved, Files.readAllBytes(file))
+                    + ", temporary file left: " + leftovers);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    interface Load {
+        void run() throws IOException;
+    }
+
+    private static void expectFailure(String name, Load load) {
+        try {
+            load.run();
+            System.out.println(name + ": not rejected");
+        } catch (IOException e) {
+            System.out.println(name + ": rejected (" + e.getMessage() + ")");
+        }
+    }
+
+    // Pre-order values with a marker per missing child, which identifies the shape uniquely
+    private static List<String> binaryShape(BinaryTreeNode<Integer> root) {
+        List<String> shape = new ArrayList<>();
+        List<BinaryTreeNode<Integer>> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            BinaryTreeNode<Integer> node = stack.remove(stack.size() - 1);
+            if (node == null) {
+                shape.add("-");
+                continue;
+            }
+            shape.add(String.valueOf(node.getValue()));
+            if (node.getParent() != null && node.getParent().getLeft() != node && node.getParent().getRight() != node) {
+                shape.add("bad parent");
+            }
+            stack.add(node.getRight());
+            stack.add(node.getLeft());
+        }
+        return shape;
+    }
+
+    private static List<String> rbShape(RedBlackTreeNode<Integer> root) {
+        List<String> shape = new ArrayList<>();
+        List<RedBlackTreeNode<Integer>> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            RedBlackTreeNode<Integer> node = stack.remove(stack.size() - 1);
+            if (node == null) {
+                shape.add("-");
+                continue;
+            }
+            shape.add(node.getValue() + (node.isRed() ? "r" : "b"));
+            stack.add(node.getRight());
+            stack.add(node.getLeft());
+        }
+        return shape;
+    }
+
+    private static List<String> genericShape(GenericTree<Integer> tree) {
+        List<String> shape = new ArrayList<>();
+        Iterator<GenericTreeNode<Integer>> nodes = tree.iterator(TraversalOrder.PRE_ORDER);
+        while (nodes.hasNext()) {
+            GenericTreeNode<Integer> node = nodes.next();
+            shape.add(node.getValue() + "/" + node.getChildren().size());
+        }
+        return shape;
+    }
+}
@@ -0,0 +1,154 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+public class testValueIndex {
+    private static final int VALUES = 30;
+
+    public static void main(String[] args) {
+        // Duplicated values fall back to the scan and find the node the unindexed search finds
+        BinaryTree<Integer> tree = new BinaryTree<>();
+        tree.enableIndex();
+        for (int value : new int[]{7, 3, 7, 5}) {
+            tree.insert(value);
+        }
+        if (tree.search(7) != tree.getRoot()) throw new AssertionError("duplicate lookup must return the first match");
+        tree.delete(7); // the last 7 in level order takes the last node's value
+        if (tree.search(7) != tree.getRoot() || tree.search(5) != tree.getRoot().getRight()) {
+            throw new AssertionError("lookup after a duplicate was deleted is wrong");
+        }
+        tree.update(7, 9);
+        if (tree.search(7) != null || tree.search(9) != tree.getRoot()) throw new AssertionError("update left the index stale");
+        System.out.println("duplicate fallback ok");
+
+        // Random operations on an indexed tree and an unindexed twin must stay identical
+        Random random = new Random(6);
+        BinaryTree<Integer> binary = new BinaryTree<>();
+        BinaryTree<Integer> binaryPlain = new BinaryTree<>();
+        binary.enableIndex();
+        GenericTree<Integer> generic = new GenericTree<>();
+        GenericTree<Integer> genericPlain = new GenericTree<>();
+        generic.enableIndex();
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        BinarySearchTree<Integer> bstPlain = new BinarySearchTree<>();
+        bst.enableIndex();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(VALUES);
+            int other = random.nextInt(VALUES);
+            int op = random.nextInt(20);
+            if (op < 8) {
+                binary.insert(value);
+                binaryPlain.insert(value);
+                generic.insert(value, other);
+                genericPlain.insert(value, other);
+                bst.insert(value);
+                bstPlain.insert(value);
+            } else if (op < 13) {
+                same(binary.delete(value), binaryPlain.delete(value), "BinaryTree delete", i);
+                same(generic.delete(value), genericPlain.delete(value), "GenericTree delete", i);
+                same(bst.delete(value), bstPlain.delete(value), "BST delete", i);
+            } else if (op < 16) {
+                same(binary.update(value, other), binaryPlain.update(value, other), "BinaryTree update", i);
+                same(generic.update(value, other), genericPlain.update(value, other), "GenericTree update", i);
+                // update would break the key order of a BST; batches change it instead
+                List<Integer> batch = List.of(value, other, (value + other) % VALUES);
+                bst.insertAll(batch);
+                bstPlain.insertAll(batch);
+            } else if (op < 18) {
+                // Attaching under an explicit parent, when the parent exists
+                if (binaryPlain.search(other) != null) {
+                    binary.insert(value, other);
+                    binaryPlain.insert(value, other);
+                }
+                List<Integer> batch = List.of(value, other);
+                same(bst.deleteAll(batch), bstPlain.deleteAll(batch), "BST deleteAll", i);
+            } else if (op == 18 || random.nextInt(4) > 0) {
+                binary.setRoot(copy(binaryPlain.getRoot(), null));
+                binaryPlain.setRoot(copy(binaryPlain.getRoot(), null));
+                generic.setRoot(copy(genericPlain.getRoot()));
+                genericPlain.setRoot(copy(genericPlain.getRoot()));
+                bst.setRoot(copy(bstPlain.getRoot(), null));
+                bstPlain.setRoot(copy(bstPlain.getRoot(), null));
+            } else {
+                binary.clear();
+                binaryPlain.clear();
+                generic.clear();
+                genericPlain.clear();
+                bst.clear();
+                bstPlain.clear();
+            }
+            check(binary, binaryPlain, binary::indexedCount, "BinaryTree", i);
+            check(generic, genericPlain, generic::indexedCount, "GenericTree", i);
+            check(bst, bstPlain, bst::indexedCount, "BST", i);
+        }
+        if (!binary.isIndexed() || !generic.isIndexed() || !bst.isIndexed() || bstPlain.isIndexed()) {
+            throw new AssertionError("index flags changed");
+        }
+        System.out.println("20000 random operations: indexed and unindexed trees agree");
+    }
+
+    private static void same(Object indexed, Object plain, String what, int i) {
+        if (!indexed.equals(plain)) throw new AssertionError(what + " differs at operation " + i);
+    }
+
+    // Same values in the same places, the index counts every value right, and every search lands on the
+    // same position
+    private static <N extends TreeNode<Integer>> void check(Tree<Integer, N> indexed, Tree<Integer, N> plain,
+                                                           IntUnaryOperator indexedCount, String name, int i) {
+        List<N> indexedNodes = indexed.traverseDFS();
+        List<N> plainNodes = plain.traverseDFS();
+        if (!values(indexedNodes).equals(values(plainNodes))
+                || !values(indexed.traverseBFS()).equals(values(plain.traverseBFS()))) {
+            throw new AssertionError(name + " shape differs at operation " + i);
+        }
+        for (int value = -1; value <= VALUES; value++) {
+            int count = 0;
+            for (N node : plainNodes) {
+                if (node.getValue() == value) count++;
+            }
+            if (indexedCount.applyAsInt(value) != count) {
+                throw new AssertionError(name + " index counts " + value + " wrong at operation " + i);
+            }
+            if (position(indexedNodes, indexed.search(value)) != position(plainNodes, plain.search(value))) {
+                throw new AssertionError(name + " search(" + value + ") differs at operation " + i);
+            }
+        }
+    }
+
+    private static List<Integer> values(List<? extends TreeNode<Integer>> nodes) {
+        List<Integer> values = new ArrayList<>(nodes.size());
+        for (TreeNode<Integer> node : nodes) values.add(node.getValue());
+        return values;
+    }
+
+    private static int position(List<? extends TreeNode<Integer>> nodes, TreeNode<Integer> node) {
+        if (node == null) return -1;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i) == node) return i;
+        }
+        throw new AssertionError("search returned a node outside the tree");
+    }
+
+    private static BinaryTreeNode<Integer> copy(BinaryTreeNode<Integer> node, BinaryTreeNode<Integer> parent) {
+        if (node == null) return null;
+        BinaryTreeNode<Integer> copy = new BinaryTreeNode<>(node.getValue());
+        copy.setParent(parent);
+        copy.setLeft(copy(node.getLeft(), copy));
+        copy.setRight(copy(node.getRight(), copy));
+        return copy;
+    }
+
+    private static GenericTreeNode<Integer> copy(GenericTreeNode<Integer> node) {
+        if (node == null) return null;
+        GenericTreeNode<Integer> copy = new GenericTreeNode<>(node.getValue());
+        for (GenericTreeNode<Integer> child : node.getChildren()) {
+            copy.addChild(copy(child));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,112 @@
+package com.oop.visualgo.test;
+
+import com.oop.visualgo.model.*;
+import com.oop.visualgo.view.LayoutSnapshot;
+import com.oop.visualgo.view.TreeLayout;
+import com.oop.visualgo.view.TreeShapes;
+import com.oop.visualgo.view.Viewport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class testViewport {
+    private static final double WIDTH = 1200;
+    private static final double HEIGHT = 800;
+    private static final double MARGIN = 45;
+
+    public static void main(String[] args) {
+        // Subtree bounds must match a scan of each subtree
+        Random random = new Random(21);
+        GenericTree<Integer> genericTree = new GenericTree<>();
+        genericTree.insert(0, null);
+        for (int i = 1; i < 2_000; i++) {
+            genericTree.insert(i, random.nextInt(i));
+        }
+        LayoutSnapshot generic = new TreeLayout<>(TreeShapes.generic(50), 20, 80).update(genericTree.getRoot());
+        for (int i = 0; i < generic.size(); i++) {
+            double minX = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            int maxDepth = 0;
+            for (int j = i; j < generic.subtreeEnd(i); j++) {
+                minX = Math.min(minX, generic.x(j) - generic.width(j) / 2);
+                maxX = Math.max(maxX, generic.x(j) + generic.width(j) / 2);
+                maxDepth = Math.max(maxDepth, generic.depth(j));
+            }
+            if (minX != generic.subtreeMinX(i) || maxX != generic.subtreeMaxX(i)
+                    || maxDepth * 80.0 != generic.subtreeMaxY(i)) {
+                throw new AssertionError("subtree bounds of " + i + " are wrong");
+            }
+        }
+        System.out.println("subtree bounds match");
+
+        // Zooming keeps the point under the cursor in place
+        Viewport viewport = new Viewport();
+        viewport.follow(generic, WIDTH, 60);
+        double worldX = viewport.toWorldX(300);
+        double worldY = viewport.toWorldY(200);
+        viewport.zoomAt(1.7, 300, 200);
+        viewport.zoomAt(0.3, 300, 200);
+        if (Math.abs(viewport.toScreenX(worldX) - 300) > 1e-6 || Math.abs(viewport.toScreenY(worldY) - 200) > 1e-6) {
+            throw new AssertionError("zoom moved the point under the cursor");
+        }
+
+        // At full detail every node inside the view is reported, and nothing outside it
+        viewport = new Viewport();
+        viewport.follow(generic, WIDTH, 60);
+        List<Integer> reported = new ArrayList<>();
+        viewport.visit(generic, WIDTH, HEIGHT, MARGIN, visitor(reported, new ArrayList<>()));
+        for (int i = 0; i < generic.size(); i++) {
+            double sx = viewport.toScreenX(generic.x(i));
+            double sy = viewport.toScreenY(generic.y(i));
+            boolean inside = sx >= -25 && sx <= WIDTH + 25 && sy >= 0 && sy <= HEIGHT;
+            if (inside && !reported.contains(i)) throw new AssertionError("visible node " + i + " was culled");
+        }
+        System.out.println("visible nodes at scale 1: " + reported.size() + " of " + generic.size());
+
+        // A balanced tree of about a million nodes: what is reported depends on the screen, not the tree
+        int n = (1 << 20) - 1;
+        List<Integer> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) keys.add(i);
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        bst.insertAll(keys);
+        long start = System.nanoTime();
+        LayoutSnapshot huge = new TreeLayout<>(TreeShapes.binary(50), 20, 80).update(bst.getRoot());
+        System.out.println("laid out " + huge.size() + " nodes in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        viewport = new Viewport();
+        viewport.fit(huge, WIDTH, HEIGHT, 60);
+        List<Integer> aggregates = new ArrayList<>();
+        reported.clear();
+        int fitCount = viewport.visit(huge, WIDTH, HEIGHT, MARGIN, visitor(reported, aggregates));
+        int covered = reported.size();
+        for (int a : aggregates) covered += huge.subtreeEnd(a) - a;
+        if (covered != huge.size()) throw new AssertionError("fitted view must cover every node, got " + covered);
+        System.out.println("whole tree fitted: " + fitCount + " nodes and aggregates, scale " + viewport.getScale());
+
+        viewport = new Viewport();
+        viewport.follow(huge, WIDTH, 60);
+        viewport.panBy(0, -18 * 80); // down to the leaves
+        int deepCount = viewport.visit(huge, WIDTH, HEIGHT, MARGIN, visitor(new ArrayList<>(), new ArrayList<>()));
+        System.out.println("scale 1 near the leaves: " + deepCount + " reported");
+        if (fitCount > 5_000 || deepCount > 5_000) throw new AssertionError("culling reported too much");
+    }
+
+    private static Viewport.Visitor visitor(List<Integer> nodes, List<Integer> aggregates) {
+        return new Viewport.Visitor() {
+            @Override
+            public void edge(int parent, int child) {
+            }
+
+            @Override
+            public void node(int i) {
+                nodes.add(i);
+            }
+
+            @Override
+            public void aggregate(int i) {
+                aggregates.add(i);
+            }
+        };
+    }
+}
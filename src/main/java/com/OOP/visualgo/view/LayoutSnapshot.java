@@ -0,0 +1,300 @@
+package com.oop.visualgo.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable result of one {@link TreeLayout#update}: every node's position plus what is needed to draw
+ * it, addressed by pre-order position.
+ * <p>
+ * The root is at index 0 and sits at (0, 0); y grows downwards by one level gap per depth. The subtree
+ * of node i occupies the indexes {@code [i, subtreeEnd(i))}, and its bounds are kept per node so a
+ * viewport can skip whole subtrees without looking at their nodes. Keys, style and annotation are copied out
+ * of the tree when the snapshot is taken, so drawing a snapshot never reads the live nodes.
+ * <p>
+ * Nothing is copied into per-snapshot arrays: a snapshot is the root of the layout's tree of immutable
+ * subtree entries and shares every unchanged subtree with the snapshot before it. Each entry knows its
+ * size, so index i is found by a descent from the root, O(depth). The last node looked up is remembered
+ * with its path, and the next lookup starts from the nearest ancestor on that path that contains the
+ * index. Reading several fields of one node, or walking in pre-order and skipping subtrees as a viewport
+ * does, therefore costs O(1) per step.
+ * <p>
+ * Keys are also numbered in one sequence across the tree, {@link #keyPosition}, so per-key state such
+ * as highlights fits in one flat array or bit set per snapshot. Node ids find the index of a node that
+ * holds a duplicate value, which a key lookup cannot tell apart.
+ */
+public final class LayoutSnapshot {
+    public static final int STYLE_PLAIN = 0;
+    public static final int STYLE_RED = 1;
+    public static final int STYLE_BLACK = 2;
+
+    public static final int NO_ANNOTATION = Integer.MIN_VALUE;
+
+    public static final LayoutSnapshot EMPTY = new LayoutSnapshot(null, 0);
+
+    final TreeLayout.Entry root; // null for an empty tree
+    private final double levelGap;
+    private final Location rootLocation;
+    private Location last; // last node looked up; a race only loses the hint, every Location is immutable
+    private volatile long[] keyIndex; // key << 32 | node index, sorted; built on the first lookup
+    private volatile long[] idIndex; // id << 32 | node index, sorted; built on the first lookup
+
+    LayoutSnapshot(TreeLayout.Entry root, double levelGap) {
+        this.root = root;
+        this.levelGap = levelGap;
+        rootLocation = (root == null) ? null : new Location(root, 0, 0, 0, 0, 0, null);
+    }
+
+    // A node found by a descent: its entry, index, first key position and place, and the way back up
+    private static final class Location {
+        final TreeLayout.Entry entry;
+        final int index;
+        final int keyStart;
+        final double x;
+        final int depth;
+        final int slot;
+        final Location parent;
+
+        Location(TreeLayout.Entry entry, int index, int keyStart, double x, int depth, int slot, Location parent) {
+            this.entry = entry;
+            this.index = index;
+            this.keyStart = keyStart;
+            this.x = x;
+            this.depth = depth;
+            this.slot = slot;
+            this.parent = parent;
+        }
+    }
+
+    private Location at(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("index " + i + ", size " + size());
+        }
+        Location location = last;
+        if (location == null) location = rootLocation;
+        if (location.index == i) return location;
+        while (i < location.index || i >= location.index + location.entry.size) {
+            location = location.parent;
+        }
+        while (location.index != i) {
+            location = childContaining(location, i);
+        }
+        last = location;
+        return location;
+    }
+
+    // Child of location whose subtree holds index i, which lies below location
+    private static Location childContaining(Location location, int i) {
+        TreeLayout.Entry entry = location.entry;
+        int target = i - location.index - 1;
+        int slot;
+        int nodesBefore;
+        int keysBefore;
+        if (entry.sizeBefore != null) {
+            // Last slot starting at or before target; an empty slot starts where the next one does
+            int lo = 0;
+            int hi = entry.children.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (entry.sizeBefore[mid] <= target) lo = mid;
+                else hi = mid - 1;
+            }
+            slot = lo;
+            nodesBefore = entry.sizeBefore[slot];
+            keysBefore = entry.keysBefore[slot];
+        } else {
+            slot = 0;
+            nodesBefore = 0;
+            keysBefore = 0;
+            while (entry.children[slot] == null || target >= nodesBefore + entry.children[slot].size) {
+                if (entry.children[slot] != null) {
+                    nodesBefore += entry.children[slot].size;
+                    keysBefore += entry.children[slot].keyTotal;
+                }
+                slot++;
+            }
+        }
+        return new Location(entry.children[slot], location.index + 1 + nodesBefore,
+                location.keyStart + entry.keys.length + keysBefore, location.x + entry.offsets[slot],
+                location.depth + 1, slot, location);
+    }
+
+    public int size() {
+        return (root == null) ? 0 : root.size;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // The tree node drawn at index i; only for identity checks, its fields may have changed since
+    public Object node(int i) {
+        return at(i).entry.node;
+    }
+
+    // Stable id of the node at index i
+    public int id(int i) {
+        return at(i).entry.id;
+    }
+
+    public double x(int i) {
+        return at(i).x;
+    }
+
+    public double y(int i) {
+        return at(i).depth * levelGap;
+    }
+
+    public double width(int i) {
+        return at(i).entry.width;
+    }
+
+    // Index of the parent, -1 for the root
+    public int parent(int i) {
+        Location parent = at(i).parent;
+        return (parent == null) ? -1 : parent.index;
+    }
+
+    // Child slot of node i in its parent (0 = left in a binary tree)
+    public int slot(int i) {
+        return at(i).slot;
+    }
+
+    public int depth(int i) {
+        return at(i).depth;
+    }
+
+    public int subtreeEnd(int i) {
+        return i + at(i).entry.size;
+    }
+
+    public double subtreeMinX(int i) {
+        Location location = at(i);
+        return location.x + location.entry.minX;
+    }
+
+    public double subtreeMaxX(int i) {
+        Location location = at(i);
+        return location.x + location.entry.maxX;
+    }
+
+    // y of the deepest level in the subtree of node i
+    public double subtreeMaxY(int i) {
+        Location location = at(i);
+        return (location.depth + location.entry.levels - 1) * levelGap;
+    }
+
+    // Number of levels in the subtree of node i
+    public int subtreeLevels(int i) {
+        return at(i).entry.levels;
+    }
+
+    public int keyCount(int i) {
+        return at(i).entry.keys.length;
+    }
+
+    public int key(int i, int k) {
+        return at(i).entry.keys[k];
+    }
+
+    // Position of key k of node i among all keys of the snapshot, from 0 to keyTotal() - 1
+    public int keyPosition(int i, int k) {
+        return at(i).keyStart + k;
+    }
+
+    public int keyTotal() {
+        return (root == null) ? 0 : root.keyTotal;
+    }
+
+    public int style(int i) {
+        return at(i).entry.style;
+    }
+
+    public int annotation(int i) {
+        return at(i).entry.annotation;
+    }
+
+    /**
+     * Indexes of the nodes holding key, ascending. The first call sorts all keys once, O(n log n);
+     * every lookup after that is a binary search, so finding the nodes a highlight touches does not
+     * scan the tree.
+     */
+    public int[] indexesOf(int key) {
+        long[] index = keyIndex;
+        if (index == null) {
+            index = sortedIndex(true);
+            keyIndex = index;
+        }
+        long low = (long) key << 32;
+        int from = lowerBound(index, low);
+        int to = lowerBound(index, low | 0x7FFFFFFFL);
+        int[] result = new int[to - from];
+        for (int k = from; k < to; k++) {
+            result[k - from] = (int) index[k];
+        }
+        return result;
+    }
+
+    // Index of the node with the given id, or -1 if it is not in this snapshot; O(log n) after the first call
+    public int indexOfId(int id) {
+        long[] index = idIndex;
+        if (index == null) {
+            index = sortedIndex(false);
+            idIndex = index;
+        }
+        int at = lowerBound(index, (long) id << 32);
+        return (at < index.length && (int) (index[at] >> 32) == id) ? (int) index[at] : -1;
+    }
+
+    // First position whose entry is >= target; node indexes are below 2^31 - 1, so no entry equals an upper probe
+    private static int lowerBound(long[] sorted, long target) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < target) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // key << 32 | node index for every key, or id << 32 | node index for every node, sorted; one pre-order
+    // walk over the entries, without a Location per node
+    private long[] sortedIndex(boolean byKey) {
+        long[] index = new long[byKey ? keyTotal() : size()];
+        if (root == null) return index;
+        List<TreeLayout.Entry> pending = new ArrayList<>();
+        pending.add(root);
+        int count = 0;
+        for (int i = 0; !pending.isEmpty(); i++) {
+            TreeLayout.Entry entry = pending.remove(pending.size() - 1);
+            if (byKey) {
+                for (int key : entry.keys) {
+                    index[count++] = (long) key << 32 | i;
+                }
+            } else {
+                index[count++] = (long) entry.id << 32 | i;
+            }
+            for (int slot = entry.children.length - 1; slot >= 0; slot--) {
+                if (entry.children[slot] != null) pending.add(entry.children[slot]);
+            }
+        }
+        Arrays.sort(index);
+        return index;
+    }
+
+    // Horizontal extent of the drawn nodes, relative to the root
+    public double minX() {
+        return (root == null) ? 0 : root.minX;
+    }
+
+    public double maxX() {
+        return (root == null) ? 0 : root.maxX;
+    }
+
+    // Number of levels, 0 for an empty tree
+    public int levels() {
+        return (root == null) ? 0 : root.levels;
+    }
+}
@@ -0,0 +1,302 @@
+package com.oop.visualgo.view;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered node images for {@link TreeRenderer}, so drawing a node is two {@code drawImage} calls: its
+ * body, then its label.
+ * <p>
+ * A body is a circle node (shadow, fill and outline) or a B-Tree key cell (fill and outline) in one state.
+ * All of them share one image, rendered in one snapshot. A label is the white value text on a transparent
+ * background, the same for every state and both kinds, and is kept per value in a least-recently-used map,
+ * so a large tree does not keep an image per key. Images are rendered at a power-of-two resolution at or
+ * above the view scale, so they stay sharp when zoomed in. Colours and fonts are parsed once here, not per
+ * node.
+ * <p>
+ * Each snapshot costs a render pass whatever it holds, so labels are never rendered one by one. A frame
+ * draws a label it does not have yet from the previous resolution, or as plain text when there is none,
+ * and notes its value. {@link #finishFrame} then renders up to {@link #ATLAS_LABELS} of those values into
+ * one shared image and asks for another frame. The images of the old resolution are kept until a frame no
+ * longer needs them, so a fresh cache or a zoom step costs about one snapshot per frame instead of one per
+ * visible value.
+ * <p>
+ * Snapshots need the FX thread, like the rest of the renderer.
+ */
+final class SpriteCache {
+    static final int CIRCLE = 0;
+    static final int CELL = 1;
+
+    // Node states, lowest to highest priority
+    static final int PLAIN = 0;
+    static final int RED = 1;
+    static final int BLACK = 2;
+    static final int MARKED = 3;
+    static final int SEARCH = 4;
+    static final int TRAVERSE = 5;
+    private static final int STATES = 6;
+
+    static final Color SHADOW = Color.rgb(0, 0, 0, 0.2);
+    static final Font LABEL_FONT = Font.font("Arial", FontWeight.BOLD, 14);
+
+    // Label cell around the node centre; a multiple of 4 wide and high, so whole pixels at every resolution
+    private static final double LABEL_WIDTH = 52;
+    private static final double LABEL_HEIGHT = 20;
+    private static final double LABEL_BASELINE = 15; // from the top of the cell
+    private static final double TEXT_DROP = 5; // baseline below the node centre
+    // Distance between bodies in their shared image; at least circleSize(), and whole pixels at every resolution
+    private static final double BODY_PITCH = 64;
+    // Labels rendered together after a frame, in rows of ATLAS_COLUMNS
+    static final int ATLAS_LABELS = 128;
+    private static final int ATLAS_COLUMNS = 8;
+
+    private static final int LABEL_CAPACITY = 4096;
+    private static final double MIN_RESOLUTION = 0.25;
+    private static final double MAX_RESOLUTION = 4;
+
+    // Fill and outline per state; PLAIN follows the tree type
+    private final Color[] fills = {
+            Color.web("#4caf50"),
+            Color.web("#e53935"), // Red
+            Color.web("#424242"), // Dark gray (easier to see than pure black)
+            Color.web("#2196f3"), // Blue for highlighted path
+            Color.web("#ff9800"), // Orange for found
+            Color.web("#ffeb3b"), // Bright yellow for current traverse
+    };
+    private final Color[] strokes = {
+            Color.web("#2e7d32"),
+            Color.web("#b71c1c"),
+            Color.web("#212121"),
+            Color.web("#1565c0"),
+            Color.web("#e65100"),
+            Color.web("#f57f17"),
+    };
+
+    private final SnapshotParameters parameters = new SnapshotParameters();
+    private Sprites current = new Sprites(1);
+    private Sprites previous; // the last resolution, until a frame finds every label it needs in current
+    // Values this frame drew without a current label, rendered by finishFrame
+    private final int[] missing = new int[ATLAS_LABELS];
+    private int missingCount;
+    private boolean standIns; // whether this frame drew a label from previous or as plain text
+    private int created;
+
+    // Bodies and labels at one resolution
+    private static final class Sprites {
+        final double resolution;
+        WritableImage bodies; // circles on the first row, cells on the second, one column per state
+        final Map<Integer, Label> labels = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Label> eldest) {
+                return size() > LABEL_CAPACITY;
+            }
+        };
+
+        Sprites(double resolution) {
+            this.resolution = resolution;
+        }
+    }
+
+    // A label's cell in the image it was rendered into, in pixels of that image
+    private static final class Label {
+        final WritableImage atlas;
+        final double left;
+        final double top;
+        final double resolution;
+
+        Label(WritableImage atlas, double left, double top, double resolution) {
+            this.atlas = atlas;
+            this.left = left;
+            this.top = top;
+            this.resolution = resolution;
+        }
+    }
+
+    SpriteCache() {
+        parameters.setFill(Color.TRANSPARENT);
+    }
+
+    Color fill(int state) {
+        return fills[state];
+    }
+
+    Color stroke(int state) {
+        return strokes[state];
+    }
+
+    // Labels do not depend on the colours, so only the bodies go
+    void setPlainColors(Color fill, Color stroke) {
+        if (fill.equals(fills[PLAIN]) && stroke.equals(strokes[PLAIN])) return;
+        fills[PLAIN] = fill;
+        strokes[PLAIN] = stroke;
+        current.bodies = null;
+    }
+
+    // Starts a frame or a repaint at a view scale: picks the resolution
+    void beginFrame(double scale) {
+        double next = MIN_RESOLUTION;
+        while (next < scale && next < MAX_RESOLUTION) next *= 2;
+        if (next != current.resolution) {
+            if (previous != null && previous.resolution == next) {
+                // Zoomed back before the new resolution caught up: the old images are current again
+                Sprites partial = current;
+                current = previous;
+                previous = partial;
+            } else {
+                // Without a previous resolution, current was complete: it stands in until the new one is.
+                // Otherwise previous is still the last complete one and current's partial work goes.
+                if (previous == null) previous = current;
+                current = new Sprites(next);
+            }
+        }
+        missingCount = 0;
+        standIns = false;
+    }
+
+    /**
+     * Ends a frame: renders the labels it was missing in one snapshot. Returns true if the frame drew
+     * stand-ins for them, in which case the caller should draw another frame soon. Once a frame needs none,
+     * the previous resolution is dropped.
+     */
+    boolean finishFrame() {
+        if (missingCount > 0) {
+            renderLabels(missing, missingCount);
+            missingCount = 0;
+        }
+        if (!standIns) previous = null;
+        return standIns;
+    }
+
+    // Images rendered since the cache was created; stays flat once the visible values are cached
+    int createdCount() {
+        return created;
+    }
+
+    // ==================== Drawing ====================
+    // Circle node centred on (x, y)
+    void drawCircle(GraphicsContext gc, int state, int value, double x, double y) {
+        double r = TreeRenderer.NODE_RADIUS;
+        drawBody(gc, CIRCLE, state, x - r - 2, y - r - 2);
+        drawLabel(gc, value, x, y, LABEL_WIDTH);
+    }
+
+    // Key cell with its top-left corner at (left, top); the label is cut to the cell
+    void drawCell(GraphicsContext gc, int state, int value, double left, double top) {
+        double width = TreeRenderer.BTREE_KEY_WIDTH;
+        drawBody(gc, CELL, state, left - 1, top - 1);
+        drawLabel(gc, value, left + width / 2, top + TreeRenderer.BTREE_NODE_HEIGHT / 2, width);
+    }
+
+    private static double circleSize() {
+        // Outline reaches 1.5 past the radius, the shadow SHADOW_OFFSET further on the bottom right
+        return 2 * TreeRenderer.NODE_RADIUS + TreeRenderer.SHADOW_OFFSET + 4;
+    }
+
+    private void drawBody(GraphicsContext gc, int kind, int state, double left, double top) {
+        if (current.bodies == null) {
+            current.bodies = renderBodies();
+        }
+        double width = (kind == CIRCLE) ? circleSize() : TreeRenderer.BTREE_KEY_WIDTH + 2;
+        double height = (kind == CIRCLE) ? circleSize() : TreeRenderer.BTREE_NODE_HEIGHT + 2;
+        double pixels = current.resolution;
+        gc.drawImage(current.bodies, state * BODY_PITCH * pixels, kind * BODY_PITCH * pixels,
+                width * pixels, height * pixels, left, top, width, height);
+    }
+
+    // The middle `width` of the label for value, centred on (x, y)
+    private void drawLabel(GraphicsContext gc, int value, double x, double y, double width) {
+        Label label = current.labels.get(value);
+        if (label == null) {
+            standIns = true;
+            if (missingCount < ATLAS_LABELS) missing[missingCount++] = value;
+            label = (previous != null) ? previous.labels.get(value) : null;
+        }
+        if (label == null) {
+            gc.setFill(Color.WHITE);
+            gc.setFont(LABEL_FONT);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.fillText(String.valueOf(value), x, y + TEXT_DROP);
+            return;
+        }
+        double pixels = label.resolution;
+        gc.drawImage(label.atlas, label.left + (LABEL_WIDTH - width) / 2 * pixels, label.top,
+                width * pixels, LABEL_HEIGHT * pixels,
+                x - width / 2, y + TEXT_DROP - LABEL_BASELINE, width, LABEL_HEIGHT);
+    }
+
+    // ==================== Rendering ====================
+    // Every body in one image: a row per kind, a column per state
+    private WritableImage renderBodies() {
+        double r = TreeRenderer.NODE_RADIUS;
+        double resolution = current.resolution;
+        Canvas scratch = new Canvas(STATES * BODY_PITCH * resolution, 2 * BODY_PITCH * resolution);
+        GraphicsContext gc = scratch.getGraphicsContext2D();
+        gc.scale(resolution, resolution);
+        for (int state = 0; state < STATES; state++) {
+            gc.save();
+            gc.translate(state * BODY_PITCH + r + 2, r + 2);
+            gc.setFill(SHADOW);
+            gc.fillOval(-r + TreeRenderer.SHADOW_OFFSET, -r + TreeRenderer.SHADOW_OFFSET, r * 2, r * 2);
+            gc.setFill(fills[state]);
+            gc.fillOval(-r, -r, r * 2, r * 2);
+            gc.setStroke(strokes[state]);
+            gc.setLineWidth(3);
+            gc.strokeOval(-r, -r, r * 2, r * 2);
+            gc.restore();
+
+            // B-Tree cells keep the tree's outline in every state
+            gc.save();
+            gc.translate(state * BODY_PITCH + 1, BODY_PITCH + 1);
+            gc.setFill(fills[state]);
+            gc.fillRect(0, 0, TreeRenderer.BTREE_KEY_WIDTH, TreeRenderer.BTREE_NODE_HEIGHT);
+            gc.setStroke(strokes[PLAIN]);
+            gc.setLineWidth(2);
+            gc.strokeRect(0, 0, TreeRenderer.BTREE_KEY_WIDTH, TreeRenderer.BTREE_NODE_HEIGHT);
+            gc.restore();
+        }
+        created++;
+        return scratch.snapshot(parameters, null);
+    }
+
+    // The given labels in one image, ATLAS_COLUMNS to a row
+    private void renderLabels(int[] values, int count) {
+        Arrays.sort(values, 0, count);
+        double resolution = current.resolution;
+        int rows = (count + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        int columns = Math.min(count, ATLAS_COLUMNS);
+        Canvas scratch = new Canvas(columns * LABEL_WIDTH * resolution, rows * LABEL_HEIGHT * resolution);
+        GraphicsContext gc = scratch.getGraphicsContext2D();
+        gc.scale(resolution, resolution);
+        gc.setFill(Color.WHITE);
+        gc.setFont(LABEL_FONT);
+        gc.setTextAlign(TextAlignment.CENTER);
+        int cells = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && values[i] == values[i - 1]) continue; // a value drawn twice in the frame
+            double left = (cells % ATLAS_COLUMNS) * LABEL_WIDTH;
+            double top = (cells / ATLAS_COLUMNS) * LABEL_HEIGHT;
+            gc.fillText(String.valueOf(values[i]), left + LABEL_WIDTH / 2, top + LABEL_BASELINE);
+            cells++;
+        }
+        WritableImage atlas = scratch.snapshot(parameters, null);
+        cells = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && values[i] == values[i - 1]) continue;
+            double left = (cells % ATLAS_COLUMNS) * LABEL_WIDTH * resolution;
+            double top = (cells / ATLAS_COLUMNS) * LABEL_HEIGHT * resolution;
+            current.labels.put(values[i], new Label(atlas, left, top, resolution));
+            cells++;
+        }
+        created++;
+    }
+}
@@ -0,0 +1,372 @@
+package com.oop.visualgo.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Tidy tree layout in the style of Reingold and Tilford that keeps its work between structural changes.
+ * <p>
+ * Each subtree is laid out relative to its own root. Children are packed left to right as close as their
+ * contours allow, with at least {@code siblingGap} between two nodes on the same level, and the parent is
+ * centred over its first and last child. Subtrees never overlap, however unbalanced the tree is.
+ * <p>
+ * The layout of a subtree is an immutable {@link Entry}: the child offsets, the left and right contour, the
+ * bounds of the subtree and what a snapshot draws for its root. Entries are cached by node identity for the
+ * life of the layout. {@link #update} only descends into nodes that {@link TreeShape#isModified} reports,
+ * and the model flags exactly the path from each change up to the root, so one insert or delete costs the
+ * depth of the tree plus whatever it restructured, not the size of the tree. A node on that path whose
+ * children, width and drawn values come out the same keeps its entry. A contour is an immutable list of
+ * per-level deltas, so a parent shares the deeper levels of its children's contours instead of copying them.
+ * <p>
+ * A snapshot is the root entry: unchanged subtrees are shared with the previous snapshot rather than copied
+ * into it, so taking one costs nothing beyond the entries laid out again. Redrawing a snapshot, e.g. for a
+ * highlight or a resize, needs no layout work at all.
+ * <p>
+ * A layout is not thread-safe; it belongs to whichever thread mutates the tree. It clears the modified
+ * flags it reads, so each tree needs its own layout. The snapshots it returns are immutable and can be
+ * handed to any other thread.
+ */
+public final class TreeLayout<N> {
+    // A cache holding this many more entries than the tree has nodes is swept of nodes that left the tree
+    private static final int PRUNE_SLACK = 1_024;
+
+    private final TreeShape<N> shape;
+    private final double siblingGap;
+    private final double levelGap;
+    private Map<N, Entry> cache = new IdentityHashMap<>();
+    private LayoutSnapshot snapshot = LayoutSnapshot.EMPTY;
+    private int computed;
+    private int visited;
+    // Contours of a leaf of leafWidth, shared by all such leaves
+    private double leafWidth = Double.NaN;
+    private Contour leafLeft;
+    private Contour leafRight;
+
+    public TreeLayout(TreeShape<N> shape, double siblingGap, double levelGap) {
+        this.shape = shape;
+        this.siblingGap = siblingGap;
+        this.levelGap = levelGap;
+    }
+
+    // ==================== Cached subtree layouts ====================
+    // Positions on one level, stored as the offset from the level above; the head is relative to the subtree root
+    private static final class Contour {
+        final double dx;
+        final Contour next;
+        final int length;
+
+        Contour(double dx, Contour next) {
+            this.dx = dx;
+            this.next = next;
+            this.length = (next == null) ? 1 : next.length + 1;
+        }
+    }
+
+    // Layout of one subtree, relative to its root; also the unit a LayoutSnapshot is built from
+    static final class Entry {
+        // Nodes with more slots than this keep running totals so a snapshot finds a child by binary search
+        static final int WIDE = 8;
+
+        final Object node;
+        final int id;
+        final double width;
+        final int[] keys;
+        final byte style;
+        final int annotation;
+        final Entry[] children;  // per slot, null for an empty slot
+        final double[] offsets;  // child x minus this node's x, per slot
+        private final Contour left;  // left edges per level
+        private final Contour right; // right edges per level
+        final double minX;       // bounds of the subtree relative to this node's x
+        final double maxX;
+        final int levels;
+        final int size;
+        final int keyTotal;
+        final int[] sizeBefore;  // nodes in the subtrees of the slots before each slot, for wide nodes only
+        final int[] keysBefore;  // keys in those subtrees, likewise
+
+        Entry(Object node, int id, double width, int[] keys, int style, int annotation, Entry[] children,
+              double[] offsets, Contour left, Contour right) {
+            this.node = node;
+            this.id = id;
+            this.width = width;
+            this.keys = keys;
+            this.style = (byte) style;
+            this.annotation = annotation;
+            this.children = children;
+            this.offsets = offsets;
+            this.left = left;
+            this.right = right;
+            double min = -width / 2;
+            double max = width / 2;
+            int deepest = 0;
+            int nodes = 1;
+            int keyCount = keys.length;
+            boolean wide = children.length > WIDE;
+            sizeBefore = wide ? new int[children.length] : null;
+            keysBefore = wide ? new int[children.length] : null;
+            for (int i = 0; i < children.length; i++) {
+                if (wide) {
+                    sizeBefore[i] = nodes - 1;
+                    keysBefore[i] = keyCount - keys.length;
+                }
+                Entry child = children[i];
+                if (child == null) continue;
+                min = Math.min(min, offsets[i] + child.minX);
+                max = Math.max(max, offsets[i] + child.maxX);
+                deepest = Math.max(deepest, child.levels);
+                nodes += child.size;
+                keyCount += child.keyTotal;
+            }
+            this.minX = min;
+            this.maxX = max;
+            this.levels = deepest + 1;
+            this.size = nodes;
+            this.keyTotal = keyCount;
+        }
+    }
+
+    // ==================== Update ====================
+    /**
+     * Lays out what changed in the tree under root since the last call and returns the new snapshot. Must be
+     * called after each structural change (insert, delete, rotation, reload). Subtrees whose root is not
+     * {@link TreeShape#isModified modified} are taken from the cache without looking inside them.
+     * Throws {@link CancellationException} if the calling thread is interrupted; the previous snapshot is
+     * then kept, and subtrees already laid out stay cached for the next call.
+     */
+    public LayoutSnapshot update(N root) {
+        computed = 0;
+        visited = 0;
+        if (root == null) {
+            cache.clear();
+            snapshot = LayoutSnapshot.EMPTY;
+            return snapshot;
+        }
+        if (needsLayout(root)) {
+            layOut(root);
+        }
+        Entry rootEntry = cache.get(root);
+        if (snapshot.root != rootEntry) {
+            snapshot = new LayoutSnapshot(rootEntry, levelGap);
+        }
+        if (cache.size() > 2 * rootEntry.size + PRUNE_SLACK) {
+            prune(rootEntry);
+        }
+        return snapshot;
+    }
+
+    // The snapshot returned by the last update
+    public LayoutSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // Number of subtrees laid out again by the last update; the rest came from the cache
+    public int lastComputedCount() {
+        return computed;
+    }
+
+    // Number of nodes the last update looked at, from the root down to each change
+    public int lastVisitedCount() {
+        return visited;
+    }
+
+    public void clear() {
+        cache = new IdentityHashMap<>();
+        snapshot = LayoutSnapshot.EMPTY;
+    }
+
+    private boolean needsLayout(N node) {
+        return shape.isModified(node) || !cache.containsKey(node);
+    }
+
+    // Post-order over the nodes that changed or were never laid out; every other subtree is left unvisited
+    private void layOut(N root) {
+        // Iterative, so degenerate trees cannot overflow the stack
+        List<N> path = new ArrayList<>();
+        int[] nextSlot = new int[16];
+        path.add(root);
+        visited++;
+        int steps = 0;
+        while (!path.isEmpty()) {
+            if (++steps % 4_096 == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("layout interrupted");
+            }
+            int top = path.size() - 1;
+            N node = path.get(top);
+            int slot = nextSlot[top];
+            if (slot < shape.slotCount(node)) {
+                nextSlot[top] = slot + 1;
+                N child = shape.child(node, slot);
+                if (child != null && needsLayout(child)) {
+                    if (path.size() == nextSlot.length) {
+                        nextSlot = Arrays.copyOf(nextSlot, nextSlot.length * 2);
+                    }
+                    nextSlot[path.size()] = 0;
+                    path.add(child);
+                    visited++;
+                }
+            } else {
+                path.remove(top);
+                // Children are cached before their parent, so an interrupt never leaves a stale entry behind
+                cache.put(node, layout(node));
+                shape.clearModified(node);
+            }
+        }
+    }
+
+    // Entry for node, whose children are all cached; the old one if nothing it records has changed
+    private Entry layout(N node) {
+        Entry old = cache.get(node);
+        int slotCount = shape.slotCount(node);
+        double width = shape.width(node);
+        if (old != null && old.width == width && old.children.length == slotCount && sameValues(old, node)) {
+            boolean unchanged = true;
+            for (int i = 0; i < slotCount && unchanged; i++) {
+                N child = shape.child(node, i);
+                unchanged = old.children[i] == ((child == null) ? null : cache.get(child));
+            }
+            if (unchanged) return old;
+        }
+        computed++;
+        return compute(node, slotCount, width);
+    }
+
+    private boolean sameValues(Entry old, N node) {
+        if (old.style != shape.style(node) || old.annotation != shape.annotation(node)
+                || old.keys.length != shape.keyCount(node)) {
+            return false;
+        }
+        for (int k = 0; k < old.keys.length; k++) {
+            if (old.keys[k] != shape.key(node, k)) return false;
+        }
+        return true;
+    }
+
+    private Entry compute(N node, int slotCount, double width) {
+        Entry[] children = new Entry[slotCount];
+        double[] offsets = new double[slotCount];
+        int[] keys = new int[shape.keyCount(node)];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = shape.key(node, k);
+        }
+        // Contours of the children placed so far, with the first child at x = 0
+        Contour left = null;
+        Contour right = null;
+        double first = 0;
+        double last = 0;
+        int childCount = 0;
+        int loneSlot = -1;
+        for (int i = 0; i < slotCount; i++) {
+            N child = shape.child(node, i);
+            if (child == null) continue;
+            Entry entry = cache.get(child);
+            children[i] = entry;
+            double offset = 0;
+            if (childCount == 0) {
+                left = entry.left;
+                right = entry.right;
+                first = offset;
+            } else {
+                offset = separation(right, entry.left);
+                left = extend(left, shift(entry.left, offset));
+                right = extend(shift(entry.right, offset), right);
+            }
+            offsets[i] = offset;
+            last = offset;
+            childCount++;
+            loneSlot = i;
+        }
+
+        double half = width / 2;
+        if (childCount == 0) {
+            if (width != leafWidth) {
+                leafWidth = width;
+                leafLeft = new Contour(-half, null);
+                leafRight = new Contour(half, null);
+            }
+            return new Entry(node, shape.id(node), width, keys, shape.style(node), shape.annotation(node),
+                    children, offsets, leafLeft, leafRight);
+        }
+        double centre;
+        if (childCount == 1 && slotCount == 2) {
+            // A lone binary child still hangs to its own side of the parent
+            double side = (width + siblingGap) / 2;
+            centre = (loneSlot == 0) ? first + side : first - side;
+        } else {
+            centre = (first + last) / 2;
+        }
+        for (int i = 0; i < slotCount; i++) {
+            offsets[i] -= centre;
+        }
+        Contour nodeLeft = new Contour(-half, new Contour(left.dx - centre + half, left.next));
+        Contour nodeRight = new Contour(half, new Contour(right.dx - centre - half, right.next));
+        return new Entry(node, shape.id(node), width, keys, shape.style(node), shape.annotation(node),
+                children, offsets, nodeLeft, nodeRight);
+    }
+
+    // Smallest offset for a subtree with left contour next so it clears the right contour placed
+    // so far by siblingGap on every level they share
+    private double separation(Contour placed, Contour next) {
+        double placedX = 0;
+        double nextX = 0;
+        double offset = Double.NEGATIVE_INFINITY;
+        while (placed != null && next != null) {
+            placedX += placed.dx;
+            nextX += next.dx;
+            offset = Math.max(offset, placedX - nextX + siblingGap);
+            placed = placed.next;
+            next = next.next;
+        }
+        return offset;
+    }
+
+    private static Contour shift(Contour contour, double offset) {
+        return new Contour(contour.dx + offset, contour.next);
+    }
+
+    /**
+     * Contour that follows primary for as many levels as it has, then continues with the deeper levels of
+     * secondary. Both are in the same frame. Copies only primary's levels, which are the fewer of the two.
+     */
+    private static Contour extend(Contour primary, Contour secondary) {
+        if (secondary.length <= primary.length) return primary;
+        double[] deltas = new double[primary.length];
+        double primaryX = 0;
+        double secondaryX = 0;
+        Contour p = primary;
+        Contour s = secondary;
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = p.dx;
+            primaryX += p.dx;
+            secondaryX += s.dx;
+            p = p.next;
+            s = s.next;
+        }
+        // s is secondary's first level below primary; re-base it on primary's last level
+        Contour tail = new Contour(secondaryX + s.dx - primaryX, s.next);
+        for (int i = deltas.length - 1; i >= 0; i--) {
+            tail = new Contour(deltas[i], tail);
+        }
+        return tail;
+    }
+
+    // Keeps only the entries reachable from root; runs once the cache has doubled, so O(1) per removed node
+    @SuppressWarnings("unchecked")
+    private void prune(Entry root) {
+        Map<N, Entry> live = new IdentityHashMap<>(root.size);
+        List<Entry> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Entry entry = pending.remove(pending.size() - 1);
+            live.put((N) entry.node, entry);
+            for (Entry child : entry.children) {
+                if (child != null) pending.add(child);
+            }
+        }
+        cache = live;
+    }
+}
@@ -0,0 +1,416 @@
+package com.oop.visualgo.view;
+
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+/**
+ * Draws a {@link LayoutSnapshot} on a canvas and keeps it up to date as highlights change.
+ * <p>
+ * Highlights point at nodes, not values: a target is a node id and a key slot, see {@link #target}, so a
+ * duplicate value lights up only where it was found. Drawing a key compares its target with the traverse
+ * and search targets and looks it up among the marked ones, which are kept sorted. Nothing is resolved
+ * against the whole snapshot, so a new snapshot costs only what is on screen.
+ * <p>
+ * A full redraw happens only for a new snapshot or a resize. A highlight change looks the nodes it
+ * touches up among those the last redraw drew, by id, and repaints just those. Each one is clipped to its
+ * own bounds, cleared, and redrawn together with the edges from its parent and to its children. Nodes on
+ * one level are at least a sibling gap apart, and edges run between levels, so nothing else can reach
+ * into those bounds. A traversal tick therefore costs the same on any tree size.
+ * <p>
+ * Everything is drawn through a {@link Viewport}. A redraw only touches what {@link Viewport#visit}
+ * reports as visible, so zooming into or panning across a very large tree costs as much as the screen
+ * holds. Zoomed out, small subtrees become a triangle with their node count and height, and below
+ * {@link #DOT_PIXELS} nodes are plain dots without labels.
+ * <p>
+ * Nodes and B-Tree cells come from a {@link SpriteCache}, a body and a label image each, and every colour
+ * and font is parsed once. When the cache drew stand-ins for labels it had not built yet, another redraw is
+ * queued on the FX thread. {@link #getLastFrameNanos} reports how long the last full redraw took.
+ */
+public final class TreeRenderer {
+    public static final double NODE_RADIUS = 25;
+    public static final double BTREE_KEY_WIDTH = 36;
+    public static final double BTREE_NODE_HEIGHT = 30;
+
+    public static final long NO_TARGET = -1;
+
+    static final double SHADOW_OFFSET = 3;
+    private static final double TOP_PADDING = 60;
+    private static final double ANNOTATION_HEIGHT = 18; // the AVL balance factor above the node
+    // Node radius on screen below which nodes are drawn as dots
+    private static final double DOT_PIXELS = 4;
+    private static final double LABEL_PIXELS = 10;
+
+    private static final Color EDGE_COLOR = Color.web("#888888");
+    private static final Color ANNOTATION_COLOR = Color.web("#555555");
+    private static final Color AGGREGATE_LABEL_COLOR = Color.web("#333333");
+    private static final Font ANNOTATION_FONT = Font.font("Arial", 11);
+
+    private final Canvas canvas;
+    private LayoutSnapshot layout = LayoutSnapshot.EMPTY;
+    private boolean boxNodes; // B-Tree rows of key cells instead of circles
+    private final SpriteCache sprites = new SpriteCache();
+    private Color aggregateFill = sprites.fill(SpriteCache.PLAIN).deriveColor(0, 1, 1, 0.45);
+    private Font aggregateFont;
+    private final Viewport viewport = new Viewport();
+    private boolean detailed = true; // false while nodes are drawn as dots
+    // Nodes drawn one by one by the last redraw, in pre-order; only these take highlight repaints
+    private int[] drawnNodes = new int[0];
+    private int drawnCount;
+    private int[] drawnEdges = new int[0]; // child index of each edge drawn
+    private int edgeCount;
+    private int[] drawnAggregates = new int[0];
+    private int aggregateCount;
+    private long[] drawnIds = new long[0]; // id << 32 | position in drawnNodes, sorted
+
+    // Highlight state: targets as set, the marked ones sorted
+    private long traverseTarget = NO_TARGET;
+    private long searchTarget = NO_TARGET;
+    private long[] markedTargets = new long[0];
+    private int lastRepaintCount;
+    private long lastFrameNanos;
+    private boolean redrawQueued;
+
+    public TreeRenderer(Canvas canvas) {
+        this.canvas = canvas;
+    }
+
+    // Colours of plain nodes; red-black styles and highlights override them
+    public void setNodeColors(Color fill, Color stroke) {
+        sprites.setPlainColors(fill, stroke);
+        aggregateFill = fill.deriveColor(0, 1, 1, 0.45);
+    }
+
+    public void setBoxNodes(boolean boxNodes) {
+        this.boxNodes = boxNodes;
+    }
+
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    // Zooms so the whole tree fits the canvas
+    public void fitView() {
+        viewport.fit(layout, canvas.getWidth(), canvas.getHeight(), TOP_PADDING);
+        redraw();
+    }
+
+    public LayoutSnapshot getLayout() {
+        return layout;
+    }
+
+    public void setLayout(LayoutSnapshot layout) {
+        this.layout = layout;
+        redraw();
+    }
+
+    // Number of nodes repainted by the last highlight change, or nodes and aggregates drawn by the last redraw
+    public int getLastRepaintCount() {
+        return lastRepaintCount;
+    }
+
+    // Duration of the last full redraw
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    // ==================== Highlights ====================
+    // Highlight target for key slot of the node with the given id; slot is 0 except in B-Tree nodes
+    public static long target(int nodeId, int slot) {
+        return (long) nodeId << 32 | slot;
+    }
+
+    public long getTraverseHighlight() {
+        return traverseTarget;
+    }
+
+    public void setTraverseHighlight(long target) {
+        long old = traverseTarget;
+        traverseTarget = target;
+        repaintTargets(old, target);
+    }
+
+    public long getSearchHighlight() {
+        return searchTarget;
+    }
+
+    public void setSearchHighlight(long target) {
+        long old = searchTarget;
+        searchTarget = target;
+        repaintTargets(old, target);
+    }
+
+    // Nodes drawn as a highlighted path, range or visited set
+    public void setMarkedNodes(long[] targets) {
+        long[] old = markedTargets;
+        markedTargets = targets.clone();
+        Arrays.sort(markedTargets);
+        lastRepaintCount = 0;
+        sprites.beginFrame(viewport.getScale());
+        for (long target : old) repaintTarget(target);
+        for (long target : markedTargets) repaintTarget(target);
+        finishFrame();
+    }
+
+    public void clearHighlights() {
+        traverseTarget = NO_TARGET;
+        searchTarget = NO_TARGET;
+        markedTargets = new long[0];
+        redraw();
+    }
+
+    private void repaintTargets(long old, long current) {
+        lastRepaintCount = 0;
+        sprites.beginFrame(viewport.getScale());
+        repaintTarget(old);
+        if (current >>> 32 != old >>> 32) repaintTarget(current);
+        finishFrame();
+    }
+
+    private void repaintTarget(long target) {
+        if (target == NO_TARGET || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) return;
+        // Culled and aggregated nodes are not on screen
+        long id = target >>> 32;
+        int at = Arrays.binarySearch(drawnIds, 0, drawnCount, id << 32);
+        at = (at >= 0) ? at : -at - 1;
+        if (at < drawnCount && drawnIds[at] >>> 32 == id) {
+            repaintNode(drawnNodes[(int) drawnIds[at]]);
+        }
+    }
+
+    // ==================== Drawing ====================
+    public void redraw() {
+        lastRepaintCount = layout.size();
+        if (canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+            return; // Canvas not ready yet
+        }
+        long start = System.nanoTime();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawnCount = 0;
+        edgeCount = 0;
+        aggregateCount = 0;
+        if (layout.isEmpty()) {
+            lastFrameNanos = System.nanoTime() - start;
+            return;
+        }
+
+        viewport.follow(layout, canvas.getWidth(), TOP_PADDING);
+        detailed = NODE_RADIUS * viewport.getScale() >= DOT_PIXELS;
+        sprites.beginFrame(viewport.getScale());
+        // The aggregate label keeps its size on screen whatever the zoom
+        aggregateFont = Font.font("Arial", LABEL_PIXELS / viewport.getScale());
+        double margin = halfHeight() + SHADOW_OFFSET + ANNOTATION_HEIGHT;
+        lastRepaintCount = viewport.visit(layout, canvas.getWidth(), canvas.getHeight(), margin, new Viewport.Visitor() {
+            @Override
+            public void edge(int parent, int child) {
+                drawnEdges = push(drawnEdges, edgeCount++, child);
+            }
+
+            @Override
+            public void node(int i) {
+                drawnNodes = push(drawnNodes, drawnCount++, i);
+            }
+
+            @Override
+            public void aggregate(int i) {
+                drawnAggregates = push(drawnAggregates, aggregateCount++, i);
+            }
+        });
+
+        // Edges first so nodes and glyphs are drawn over them
+        gc.save();
+        applyViewport(gc);
+        for (int e = 0; e < edgeCount; e++) {
+            drawEdge(gc, layout.parent(drawnEdges[e]), drawnEdges[e]);
+        }
+        for (int a = 0; a < aggregateCount; a++) {
+            drawAggregate(gc, drawnAggregates[a]);
+        }
+        if (drawnIds.length < drawnCount) {
+            drawnIds = new long[drawnNodes.length];
+        }
+        for (int n = 0; n < drawnCount; n++) {
+            drawNode(gc, drawnNodes[n]);
+            drawnIds[n] = (long) layout.id(drawnNodes[n]) << 32 | n;
+        }
+        Arrays.sort(drawnIds, 0, drawnCount);
+        gc.restore();
+        lastFrameNanos = System.nanoTime() - start;
+        finishFrame();
+    }
+
+    // Queues another redraw while the sprite cache is still catching up with the zoom
+    private void finishFrame() {
+        if (sprites.finishFrame() && !redrawQueued) {
+            redrawQueued = true;
+            Platform.runLater(() -> {
+                redrawQueued = false;
+                redraw();
+            });
+        }
+    }
+
+    private static int[] push(int[] array, int at, int value) {
+        if (at == array.length) {
+            array = Arrays.copyOf(array, Math.max(64, at * 2));
+        }
+        array[at] = value;
+        return array;
+    }
+
+    private void applyViewport(GraphicsContext gc) {
+        gc.translate(viewport.getPanX(), viewport.getPanY());
+        gc.scale(viewport.getScale(), viewport.getScale());
+    }
+
+    // Clears node i's bounds and redraws what can reach into them: its edges and the node itself
+    private void repaintNode(int i) {
+        lastRepaintCount++;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double halfWidth = layout.width(i) / 2;
+        double halfHeight = halfHeight();
+        double left = layout.x(i) - halfWidth - 2;
+        double top = layout.y(i) - halfHeight - 2;
+        if (detailed && layout.annotation(i) != LayoutSnapshot.NO_ANNOTATION) {
+            top -= ANNOTATION_HEIGHT;
+        }
+        double right = layout.x(i) + halfWidth + SHADOW_OFFSET + 2;
+        double bottom = layout.y(i) + halfHeight + SHADOW_OFFSET + 2;
+
+        gc.save();
+        applyViewport(gc);
+        gc.beginPath();
+        gc.rect(left, top, right - left, bottom - top);
+        gc.clip();
+        gc.clearRect(left, top, right - left, bottom - top);
+        // The edges to all siblings, since a long one can pass just above node i on its way down
+        int parent = layout.parent(i);
+        if (parent >= 0) {
+            drawChildEdges(gc, parent);
+        }
+        drawChildEdges(gc, i);
+        drawNode(gc, i);
+        gc.restore();
+    }
+
+    private void drawChildEdges(GraphicsContext gc, int parent) {
+        for (int child = parent + 1; child < layout.subtreeEnd(parent); child = layout.subtreeEnd(child)) {
+            drawEdge(gc, parent, child);
+        }
+    }
+
+    private double halfHeight() {
+        return boxNodes ? BTREE_NODE_HEIGHT / 2 : NODE_RADIUS;
+    }
+
+    private void drawEdge(GraphicsContext gc, int parent, int child) {
+        gc.setStroke(EDGE_COLOR);
+        // At least one pixel wide however far out the view is zoomed
+        gc.setLineWidth(Math.max(2.5, 1 / viewport.getScale()));
+        // Everything about the parent first, then the child: each switch between them is a lookup
+        double parentX = layout.x(parent);
+        double parentLeft = parentX - layout.width(parent) / 2;
+        double parentY = layout.y(parent);
+        // A B-Tree child hangs from the gap between key slot - 1 and key slot
+        double startX = boxNodes ? parentLeft + layout.slot(child) * BTREE_KEY_WIDTH : parentX;
+        gc.strokeLine(startX, parentY + halfHeight(), layout.x(child), layout.y(child) - halfHeight());
+    }
+
+    private void drawNode(GraphicsContext gc, int i) {
+        double x = layout.x(i);
+        double y = layout.y(i);
+        if (!detailed) {
+            drawDot(gc, i, x, y);
+        } else if (boxNodes) {
+            drawBoxNode(gc, i, x, y);
+        } else {
+            drawCircleNode(gc, i, x, y);
+        }
+    }
+
+    // A zoomed-out node: its fill colour only, no outline, shadow or label
+    private void drawDot(GraphicsContext gc, int i, double x, double y) {
+        gc.setFill(sprites.fill(stateOf(i, 0)));
+        double halfWidth = layout.width(i) / 2;
+        gc.fillRect(x - halfWidth, y - halfHeight(), 2 * halfWidth, 2 * halfHeight());
+    }
+
+    /**
+     * A subtree too small to draw node by node: a triangle from its root down to its deepest level and out
+     * to its widest nodes, labelled with its node count and height when there is room.
+     */
+    private void drawAggregate(GraphicsContext gc, int i) {
+        double apexY = layout.y(i) - halfHeight();
+        double baseY = layout.subtreeMaxY(i) + halfHeight();
+        double[] xs = {layout.x(i), layout.subtreeMaxX(i), layout.subtreeMinX(i)};
+        double[] ys = {apexY, baseY, baseY};
+        gc.setFill(aggregateFill);
+        gc.fillPolygon(xs, ys, 3);
+        gc.setStroke(sprites.stroke(SpriteCache.PLAIN));
+        gc.setLineWidth(1 / viewport.getScale());
+        gc.strokePolygon(xs, ys, 3);
+
+        double scale = viewport.getScale();
+        if ((baseY - apexY) * scale < 3 * LABEL_PIXELS) return;
+        gc.setFill(AGGREGATE_LABEL_COLOR);
+        gc.setFont(aggregateFont);
+        gc.setTextAlign(TextAlignment.CENTER);
+        double labelY = apexY + (baseY - apexY) * 2 / 3;
+        gc.fillText(compactCount(layout.subtreeEnd(i) - i), layout.x(i), labelY);
+        gc.fillText("h" + layout.subtreeLevels(i), layout.x(i), labelY + LABEL_PIXELS / scale * 1.2);
+    }
+
+    private static String compactCount(int count) {
+        if (count < 1_000) return String.valueOf(count);
+        if (count < 1_000_000) return (count / 1_000) + "k";
+        return (count / 1_000_000) + "M";
+    }
+
+    // Highest-priority state of key slot k in node i: traverse, search result, highlighted path, then the
+    // node's own style
+    private int stateOf(int i, int k) {
+        long target = target(layout.id(i), k);
+        if (target == traverseTarget) return SpriteCache.TRAVERSE;
+        if (target == searchTarget) return SpriteCache.SEARCH;
+        if (!boxNodes && markedTargets.length > 0 && Arrays.binarySearch(markedTargets, target) >= 0) {
+            return SpriteCache.MARKED;
+        }
+        if (layout.style(i) == LayoutSnapshot.STYLE_RED) return SpriteCache.RED;
+        if (layout.style(i) == LayoutSnapshot.STYLE_BLACK) return SpriteCache.BLACK;
+        return SpriteCache.PLAIN;
+    }
+
+    private void drawCircleNode(GraphicsContext gc, int i, double x, double y) {
+        int value = layout.key(i, 0);
+        sprites.drawCircle(gc, stateOf(i, 0), value, x, y);
+
+        // AVL balance factor above the node
+        if (layout.annotation(i) != LayoutSnapshot.NO_ANNOTATION) {
+            gc.setFill(ANNOTATION_COLOR);
+            gc.setFont(ANNOTATION_FONT);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.fillText("bf " + layout.annotation(i), x, y - NODE_RADIUS - 6);
+        }
+    }
+
+    private void drawBoxNode(GraphicsContext gc, int i, double x, double y) {
+        double width = layout.width(i);
+        double left = x - width / 2;
+        double top = y - BTREE_NODE_HEIGHT / 2;
+
+        // Draw node box with shadow effect
+        gc.setFill(SpriteCache.SHADOW);
+        gc.fillRect(left + SHADOW_OFFSET, top + SHADOW_OFFSET, width, BTREE_NODE_HEIGHT);
+
+        for (int k = 0; k < layout.keyCount(i); k++) {
+            int key = layout.key(i, k);
+            sprites.drawCell(gc, stateOf(i, k), key, left + k * BTREE_KEY_WIDTH, top);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.oop.visualgo.view;
+
+/**
+ * How {@link TreeLayout} reads one kind of tree node: its ordered child slots, its drawn width, and the
+ * id, keys, style and annotation recorded in a {@link LayoutSnapshot} for drawing.
+ * <p>
+ * A binary node always has two slots. A lone child in an empty-sibling slot still hangs to its own side,
+ * so left and right children stay distinguishable.
+ */
+public interface TreeShape<N> {
+    // The node's stable id, which highlights refer to
+    int id(N node);
+
+    int slotCount(N node);
+
+    // Child in the given slot, or null if the slot is empty
+    N child(N node, int slot);
+
+    double width(N node);
+
+    int keyCount(N node);
+
+    int key(N node, int index);
+
+    default int style(N node) {
+        return LayoutSnapshot.STYLE_PLAIN;
+    }
+
+    default int annotation(N node) {
+        return LayoutSnapshot.NO_ANNOTATION;
+    }
+
+    /**
+     * Whether node or anything below it may have changed since {@link #clearModified} was last called on
+     * it. A shape whose nodes cannot tell keeps this default, and the layout then looks at every node.
+     */
+    default boolean isModified(N node) {
+        return true;
+    }
+
+    default void clearModified(N node) {
+    }
+}
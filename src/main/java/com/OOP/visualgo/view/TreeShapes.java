@@ -0,0 +1,248 @@
+package com.oop.visualgo.view;
+
+import com.oop.visualgo.model.AvlTreeNode;
+import com.oop.visualgo.model.BTreeNode;
+import com.oop.visualgo.model.BinaryTreeNode;
+import com.oop.visualgo.model.GenericTreeNode;
+import com.oop.visualgo.model.RedBlackTreeNode;
+
+/**
+ * {@link TreeShape}s of the Integer trees shown by the visualizer.
+ */
+public final class TreeShapes {
+    private TreeShapes() {
+    }
+
+    // BinaryTree and BinarySearchTree
+    public static TreeShape<BinaryTreeNode<Integer>> binary(double nodeWidth) {
+        return new TreeShape<>() {
+            @Override
+            public int id(BinaryTreeNode<Integer> node) {
+                return node.getId();
+            }
+
+            @Override
+            public int slotCount(BinaryTreeNode<Integer> node) {
+                return 2;
+            }
+
+            @Override
+            public BinaryTreeNode<Integer> child(BinaryTreeNode<Integer> node, int slot) {
+                return (slot == 0) ? node.getLeft() : node.getRight();
+            }
+
+            @Override
+            public double width(BinaryTreeNode<Integer> node) {
+                return nodeWidth;
+            }
+
+            @Override
+            public int keyCount(BinaryTreeNode<Integer> node) {
+                return 1;
+            }
+
+            @Override
+            public int key(BinaryTreeNode<Integer> node, int index) {
+                return node.getValue();
+            }
+
+            @Override
+            public boolean isModified(BinaryTreeNode<Integer> node) {
+                return node.isModified();
+            }
+
+            @Override
+            public void clearModified(BinaryTreeNode<Integer> node) {
+                node.clearModified();
+            }
+        };
+    }
+
+    public static TreeShape<RedBlackTreeNode<Integer>> redBlack(double nodeWidth) {
+        return new TreeShape<>() {
+            @Override
+            public int id(RedBlackTreeNode<Integer> node) {
+                return node.getId();
+            }
+
+            @Override
+            public int slotCount(RedBlackTreeNode<Integer> node) {
+                return 2;
+            }
+
+            @Override
+            public RedBlackTreeNode<Integer> child(RedBlackTreeNode<Integer> node, int slot) {
+                return (slot == 0) ? node.getLeft() : node.getRight();
+            }
+
+            @Override
+            public double width(RedBlackTreeNode<Integer> node) {
+                return nodeWidth;
+            }
+
+            @Override
+            public int keyCount(RedBlackTreeNode<Integer> node) {
+                return 1;
+            }
+
+            @Override
+            public int key(RedBlackTreeNode<Integer> node, int index) {
+                return node.getValue();
+            }
+
+            @Override
+            public int style(RedBlackTreeNode<Integer> node) {
+                return node.isRed() ? LayoutSnapshot.STYLE_RED : LayoutSnapshot.STYLE_BLACK;
+            }
+
+            @Override
+            public boolean isModified(RedBlackTreeNode<Integer> node) {
+                return node.isModified();
+            }
+
+            @Override
+            public void clearModified(RedBlackTreeNode<Integer> node) {
+                node.clearModified();
+            }
+        };
+    }
+
+    // The annotation is the balance factor
+    public static TreeShape<AvlTreeNode<Integer>> avl(double nodeWidth) {
+        return new TreeShape<>() {
+            @Override
+            public int id(AvlTreeNode<Integer> node) {
+                return node.getId();
+            }
+
+            @Override
+            public int slotCount(AvlTreeNode<Integer> node) {
+                return 2;
+            }
+
+            @Override
+            public AvlTreeNode<Integer> child(AvlTreeNode<Integer> node, int slot) {
+                return (slot == 0) ? node.getLeft() : node.getRight();
+            }
+
+            @Override
+            public double width(AvlTreeNode<Integer> node) {
+                return nodeWidth;
+            }
+
+            @Override
+            public int keyCount(AvlTreeNode<Integer> node) {
+                return 1;
+            }
+
+            @Override
+            public int key(AvlTreeNode<Integer> node, int index) {
+                return node.getValue();
+            }
+
+            @Override
+            public int annotation(AvlTreeNode<Integer> node) {
+                return node.getBalanceFactor();
+            }
+
+            @Override
+            public boolean isModified(AvlTreeNode<Integer> node) {
+                return node.isModified();
+            }
+
+            @Override
+            public void clearModified(AvlTreeNode<Integer> node) {
+                node.clearModified();
+            }
+        };
+    }
+
+    public static TreeShape<GenericTreeNode<Integer>> generic(double nodeWidth) {
+        return new TreeShape<>() {
+            @Override
+            public int id(GenericTreeNode<Integer> node) {
+                return node.getId();
+            }
+
+            @Override
+            public int slotCount(GenericTreeNode<Integer> node) {
+                return node.getChildren().size();
+            }
+
+            @Override
+            public GenericTreeNode<Integer> child(GenericTreeNode<Integer> node, int slot) {
+                return node.getChildren().get(slot);
+            }
+
+            @Override
+            public double width(GenericTreeNode<Integer> node) {
+                return nodeWidth;
+            }
+
+            @Override
+            public int keyCount(GenericTreeNode<Integer> node) {
+                return 1;
+            }
+
+            @Override
+            public int key(GenericTreeNode<Integer> node, int index) {
+                return node.getValue();
+            }
+
+            @Override
+            public boolean isModified(GenericTreeNode<Integer> node) {
+                return node.isModified();
+            }
+
+            @Override
+            public void clearModified(GenericTreeNode<Integer> node) {
+                node.clearModified();
+            }
+        };
+    }
+
+    // A B-Tree node is a row of key cells, so its width grows with its key count
+    public static TreeShape<BTreeNode> bTree(double keyWidth) {
+        return new TreeShape<>() {
+            @Override
+            public int id(BTreeNode node) {
+                return node.getId();
+            }
+
+            @Override
+            public int slotCount(BTreeNode node) {
+                return node.isLeaf() ? 0 : node.getKeyCount() + 1;
+            }
+
+            @Override
+            public BTreeNode child(BTreeNode node, int slot) {
+                return node.getChild(slot);
+            }
+
+            @Override
+            public double width(BTreeNode node) {
+                return node.getKeyCount() * keyWidth;
+            }
+
+            @Override
+            public int keyCount(BTreeNode node) {
+                return node.getKeyCount();
+            }
+
+            @Override
+            public int key(BTreeNode node, int index) {
+                return node.getKey(index);
+            }
+
+            @Override
+            public boolean isModified(BTreeNode node) {
+                return node.isModified();
+            }
+
+            @Override
+            public void clearModified(BTreeNode node) {
+                node.clearModified();
+            }
+        };
+    }
+}
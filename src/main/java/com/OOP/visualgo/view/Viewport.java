@@ -0,0 +1,165 @@
+package com.oop.visualgo.view;
+
+/**
+ * Zoom and pan over a {@link LayoutSnapshot}, and the walk that decides what of it is drawn.
+ * <p>
+ * A world point (x, y) of the snapshot is drawn at {@code (x * scale + panX, y * scale + panY)}. Until the
+ * user zooms or pans, the view follows the tree: scale 1, centred horizontally when it fits. After that it
+ * stays where the user put it until {@link #reset}.
+ * <p>
+ * {@link #visit} walks the snapshot in pre-order and uses the per-subtree bounds to skip every subtree
+ * outside the visible rectangle in one step. A subtree that is narrower than {@link #AGGREGATE_PIXELS}
+ * on screen is reported once as an aggregate instead of node by node. Either way, the number of calls
+ * depends on what fits on the screen, not on the size of the tree.
+ */
+public final class Viewport {
+    public static final double MIN_SCALE = 1e-6;
+    public static final double MAX_SCALE = 4;
+    // Subtrees narrower than this on screen are drawn as one glyph
+    public static final double AGGREGATE_PIXELS = 24;
+
+    private static final double MARGIN = 20;
+
+    private double scale = 1;
+    private double panX;
+    private double panY;
+    private boolean userPositioned;
+
+    // What visit reports, in pre-order
+    public interface Visitor {
+        // Edge from parent to child; reported whenever the child's subtree is skipped, aggregated or drawn
+        void edge(int parent, int child);
+
+        void node(int i);
+
+        // The whole subtree of node i, too small on screen to draw node by node
+        void aggregate(int i);
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getPanX() {
+        return panX;
+    }
+
+    public double getPanY() {
+        return panY;
+    }
+
+    public boolean isUserPositioned() {
+        return userPositioned;
+    }
+
+    // Back to following the tree at scale 1
+    public void reset() {
+        scale = 1;
+        userPositioned = false;
+    }
+
+    /**
+     * Places the tree unless the user has moved the view: scale 1, centred if it fits the width,
+     * otherwise starting at the left margin, with topPadding above the root.
+     */
+    public void follow(LayoutSnapshot layout, double viewWidth, double topPadding) {
+        if (userPositioned) return;
+        scale = 1;
+        double treeWidth = layout.maxX() - layout.minX();
+        panX = Math.max(MARGIN, (viewWidth - treeWidth) / 2) - layout.minX();
+        panY = topPadding;
+    }
+
+    // Scale and pan so the whole tree fits the view
+    public void fit(LayoutSnapshot layout, double viewWidth, double viewHeight, double topPadding) {
+        if (layout.isEmpty()) {
+            reset();
+            return;
+        }
+        double treeWidth = layout.maxX() - layout.minX();
+        double treeHeight = layout.subtreeMaxY(0);
+        double scaleX = (viewWidth - 2 * MARGIN) / Math.max(1, treeWidth);
+        double scaleY = (viewHeight - 2 * topPadding) / Math.max(1, treeHeight);
+        scale = clamp(Math.min(1, Math.min(scaleX, scaleY)));
+        panX = (viewWidth - treeWidth * scale) / 2 - layout.minX() * scale;
+        panY = topPadding;
+        userPositioned = true;
+    }
+
+    // Multiplies the scale by factor, keeping the world point under (screenX, screenY) in place
+    public void zoomAt(double factor, double screenX, double screenY) {
+        double worldX = toWorldX(screenX);
+        double worldY = toWorldY(screenY);
+        scale = clamp(scale * factor);
+        panX = screenX - worldX * scale;
+        panY = screenY - worldY * scale;
+        userPositioned = true;
+    }
+
+    public void panBy(double dx, double dy) {
+        panX += dx;
+        panY += dy;
+        userPositioned = true;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(MIN_SCALE, Math.min(MAX_SCALE, value));
+    }
+
+    // ==================== Coordinates ====================
+    public double toScreenX(double worldX) {
+        return worldX * scale + panX;
+    }
+
+    public double toScreenY(double worldY) {
+        return worldY * scale + panY;
+    }
+
+    public double toWorldX(double screenX) {
+        return (screenX - panX) / scale;
+    }
+
+    public double toWorldY(double screenY) {
+        return (screenY - panY) / scale;
+    }
+
+    // ==================== Culling ====================
+    /**
+     * Reports the part of layout that is visible in a view of the given size. nodeMargin is how far a
+     * drawn node reaches beyond its centre line and its width (radius, shadow, labels), in world units.
+     * Returns the number of nodes and aggregates reported.
+     */
+    public int visit(LayoutSnapshot layout, double viewWidth, double viewHeight, double nodeMargin, Visitor visitor) {
+        double left = toWorldX(0) - nodeMargin;
+        double right = toWorldX(viewWidth) + nodeMargin;
+        double top = toWorldY(0) - nodeMargin;
+        double bottom = toWorldY(viewHeight) + nodeMargin;
+        int reported = 0;
+        int i = 0;
+        while (i < layout.size()) {
+            int parent = layout.parent(i);
+            int end = layout.subtreeEnd(i);
+            if (layout.subtreeMaxX(i) < left || layout.subtreeMinX(i) > right
+                    || layout.subtreeMaxY(i) < top || layout.y(i) > bottom) {
+                // Nothing below i is visible, only the edge into it can cross the view
+                if (parent >= 0) visitor.edge(parent, i);
+                i = end;
+                continue;
+            }
+            if (parent >= 0) visitor.edge(parent, i);
+            if (end - i > 1 && (layout.subtreeMaxX(i) - layout.subtreeMinX(i)) * scale < AGGREGATE_PIXELS) {
+                visitor.aggregate(i);
+                reported++;
+                i = end;
+                continue;
+            }
+            double halfWidth = layout.width(i) / 2;
+            if (layout.y(i) >= top && layout.x(i) + halfWidth >= left && layout.x(i) - halfWidth <= right) {
+                visitor.node(i);
+                reported++;
+            }
+            i++;
+        }
+        return reported;
+    }
+}